@@ -12,6 +12,12 @@ import java.util.function.Function;
 /**
  * Abstract implementation of {@link Vec3I2ObjectMap} that provides some basic overrides delegating methods from
  * {@link Map} to {@link Vec3I2ObjectMap} methods.
+ * <p>
+ * Compound operations such as {@link Vec3I2ObjectMap#compute(int, int, int, Vec3IObjectBiFunction)} are given skeletal
+ * implementations in terms of {@link Vec3I2ObjectMap#get(int, int, int)},
+ * {@link Vec3I2ObjectMap#put(int, int, int, Object)} and {@link Vec3I2ObjectMap#remove(int, int, int)}. These assume
+ * that null values are not supported, and implementations should override them if they can be performed with fewer
+ * lookups.
  *
  * @param <T> the type of object stored in the map
  */
@@ -116,4 +122,135 @@ public abstract class AbstractVec3I2ObjectMap<T> extends AbstractMap<Vec3I, T> i
     public final T merge(@NotNull Vec3I key, @NotNull T value, @NotNull BiFunction<? super T, ? super T, ? extends T> remappingFunction) {
         return merge(key.x(), key.y(), key.z(), value, remappingFunction);
     }
-}
\ No newline at end of file
+
+    @Override
+    public boolean containsKey(int x, int y, int z) {
+        return get(x, y, z) != null;
+    }
+
+    @Override
+    public boolean remove(int x, int y, int z, Object value) {
+        T current = get(x, y, z);
+        if (current != null && current.equals(value)) {
+            remove(x, y, z);
+            return true;
+        }
+
+        return false;
+    }
+
+    @Override
+    public T computeIfAbsent(int x, int y, int z, @NotNull Vec3IFunction<? extends T> mappingFunction) {
+        Objects.requireNonNull(mappingFunction);
+
+        T v = get(x, y, z);
+        if (v != null) {
+            return v;
+        }
+
+        T functionResult = mappingFunction.apply(x, y, z);
+        if (functionResult == null) {
+            return null;
+        }
+
+        put(x, y, z, functionResult);
+        return functionResult;
+    }
+
+    @Override
+    public T computeIfPresent(int x, int y, int z,
+            @NotNull Vec3IObjectBiFunction<? super T, ? extends T> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+
+        T oldValue = get(x, y, z);
+        if (oldValue == null) {
+            return null;
+        }
+
+        T newValue = remappingFunction.apply(x, y, z, oldValue);
+        if (newValue == null) {
+            remove(x, y, z);
+            return null;
+        }
+
+        put(x, y, z, newValue);
+        return newValue;
+    }
+
+    @Override
+    public T compute(int x, int y, int z, @NotNull Vec3IObjectBiFunction<? super T, ? extends T> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+
+        T oldValue = get(x, y, z);
+        T newValue = remappingFunction.apply(x, y, z, oldValue);
+        if (newValue == null) {
+            if (oldValue != null) {
+                remove(x, y, z);
+            }
+
+            return null;
+        }
+
+        put(x, y, z, newValue);
+        return newValue;
+    }
+
+    @Override
+    public T putIfAbsent(int x, int y, int z, T value) {
+        T current = get(x, y, z);
+        if (current == null) {
+            put(x, y, z, value);
+        }
+
+        return current;
+    }
+
+    @Override
+    public void putAll(@NotNull Vec3I2ObjectMap<? extends T> map) {
+        map.forEach((x, y, z, t) -> put(x, y, z, t));
+    }
+
+    @Override
+    public T replace(int x, int y, int z, T value) {
+        T current = get(x, y, z);
+        if (current != null) {
+            put(x, y, z, value);
+        }
+
+        return current;
+    }
+
+    @Override
+    public boolean replace(int x, int y, int z, T oldValue, T newValue) {
+        T current = get(x, y, z);
+        if (current != null && current.equals(oldValue)) {
+            put(x, y, z, newValue);
+            return true;
+        }
+
+        return false;
+    }
+
+    @Override
+    public T getOrDefault(int x, int y, int z, T def) {
+        T value = get(x, y, z);
+        return value == null ? def : value;
+    }
+
+    @Override
+    public T merge(int x, int y, int z, @NotNull T value,
+            @NotNull BiFunction<? super T, ? super T, ? extends T> mergeFunction) {
+        Objects.requireNonNull(value);
+        Objects.requireNonNull(mergeFunction);
+
+        T oldValue = get(x, y, z);
+        T newValue = oldValue == null ? value : mergeFunction.apply(oldValue, value);
+        if (newValue == null) {
+            remove(x, y, z);
+            return null;
+        }
+
+        put(x, y, z, newValue);
+        return newValue;
+    }
+}
@@ -0,0 +1,669 @@
+package com.github.steanky.vector;
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * Implementation of {@link Vec3I2ObjectMap} which switches the representation of each region according to how densely
+ * it is populated. The addressable space is divided into 16x16x16 sections. Sparse sections store their entries in a
+ * hash map over packed keys, like {@link HashVec3I2ObjectMap}; once the number of entries in a section reaches the
+ * promotion threshold, the section is promoted to a dense array with one slot per cell, like
+ * {@link ArrayVec3I2ObjectMap}. A dense section is demoted back to the hash map when its number of entries falls below
+ * the demotion threshold. The gap between the thresholds prevents sections near either of them from switching back
+ * and forth.
+ * <p>
+ * A few scattered entries therefore cost the same as in a hash map, while a fully populated region costs one reference
+ * per cell, and is accessed without probing. Promoting or demoting a section visits each of its cells once, which is
+ * amortized over the entries added or removed since it last switched.
+ * <p>
+ * Removing entries through a cursor or iterator never demotes a section, though sections which become empty are still
+ * discarded; the next removal from the section through the map demotes it, if it is still below the threshold.
+ * <p>
+ * Coordinates are wrapped in the same way as {@link BitPackingVec3I2ObjectMap}, except that the actual width of every
+ * axis is at least 16. This class is not thread-safe, and null values are not supported.
+ *
+ * @param <T> the type of object held in the map
+ */
+public class AdaptiveVec3I2ObjectMap<T> extends AbstractVec3I2ObjectMap<T> {
+    /**
+     * The fraction of the cells of a section which must be occupied for it to be promoted, unless otherwise specified.
+     */
+    public static final float DEFAULT_PROMOTION_RATIO = 0.25F;
+
+    /**
+     * The fraction of the cells of a dense section below which it is demoted, unless otherwise specified.
+     */
+    public static final float DEFAULT_DEMOTION_RATIO = 0.0625F;
+
+    private static final int SECTION_SHIFT = 4;
+    private static final int SECTION_WIDTH = 1 << SECTION_SHIFT;
+    private static final int SECTION_MASK = SECTION_WIDTH - 1;
+    private static final int SECTION_SIZE = SECTION_WIDTH * SECTION_WIDTH * SECTION_WIDTH;
+
+    private final BitPacker packer;
+    private final BitPacker sectionPacker;
+
+    private final int promotionCount;
+    private final int demotionCount;
+
+    //entries of sparse sections, by packed coordinate, and the number of entries in each sparse section
+    private final Long2ObjectOpenHashMap<T> sparse;
+    private final Long2IntOpenHashMap sparseCounts;
+
+    private final Long2ObjectOpenHashMap<DenseSection> dense;
+
+    private int size;
+
+    private static final class DenseSection {
+        private final Object[] values = new Object[SECTION_SIZE];
+        private int count;
+
+        private int nextOccupied(int from) {
+            for (int i = from; i < SECTION_SIZE; i++) {
+                if (values[i] != null) {
+                    return i;
+                }
+            }
+
+            return -1;
+        }
+    }
+
+    /**
+     * Creates a new {@link AdaptiveVec3I2ObjectMap} with the given origin, bounds and thresholds. See
+     * {@link BitPackingVec3I2ObjectMap} for details on how the actual widths are computed.
+     *
+     * @param x              the x-origin
+     * @param y              the y-origin
+     * @param z              the z-origin
+     * @param width          the x-width
+     * @param height         the y-width
+     * @param depth          the z-width
+     * @param promotionRatio the fraction of the cells of a section which must be occupied for it to become dense
+     * @param demotionRatio  the fraction of the cells of a dense section below which it becomes sparse again
+     * @throws IllegalArgumentException if the demotion ratio is not positive, or not less than the promotion ratio, or
+     *                                  if the promotion ratio is greater than 1
+     */
+    public AdaptiveVec3I2ObjectMap(int x, int y, int z, int width, int height, int depth, float promotionRatio,
+            float demotionRatio) {
+        if (width <= 0 || height <= 0 || depth <= 0) {
+            throw new IllegalArgumentException("Side lengths cannot be negative or 0");
+        }
+
+        if (!(demotionRatio > 0 && demotionRatio < promotionRatio && promotionRatio <= 1)) {
+            throw new IllegalArgumentException("Ratios must satisfy 0 < demotionRatio < promotionRatio <= 1");
+        }
+
+        this.packer = new BitPacker(x, y, z, Math.max(width, SECTION_WIDTH), Math.max(height, SECTION_WIDTH),
+                Math.max(depth, SECTION_WIDTH));
+        this.sectionPacker = new BitPacker(0, 0, 0, (int) (packer.width() >>> SECTION_SHIFT),
+                (int) (packer.height() >>> SECTION_SHIFT), (int) (packer.depth() >>> SECTION_SHIFT));
+
+        this.promotionCount = Math.max((int) Math.ceil(promotionRatio * SECTION_SIZE), 2);
+        this.demotionCount = Math.min(Math.max((int) Math.ceil(demotionRatio * SECTION_SIZE), 1),
+                promotionCount - 1);
+
+        this.sparse = new Long2ObjectOpenHashMap<>();
+        this.sparseCounts = new Long2IntOpenHashMap();
+        this.dense = new Long2ObjectOpenHashMap<>();
+    }
+
+    /**
+     * Convenience overload that uses {@link AdaptiveVec3I2ObjectMap#DEFAULT_PROMOTION_RATIO} and
+     * {@link AdaptiveVec3I2ObjectMap#DEFAULT_DEMOTION_RATIO}.
+     *
+     * @param x      the x-origin
+     * @param y      the y-origin
+     * @param z      the z-origin
+     * @param width  the x-width
+     * @param height the y-width
+     * @param depth  the z-width
+     */
+    public AdaptiveVec3I2ObjectMap(int x, int y, int z, int width, int height, int depth) {
+        this(x, y, z, width, height, depth, DEFAULT_PROMOTION_RATIO, DEFAULT_DEMOTION_RATIO);
+    }
+
+    /**
+     * Convenience overload for
+     * {@link AdaptiveVec3I2ObjectMap#AdaptiveVec3I2ObjectMap(int, int, int, int, int, int, float, float)} that uses the
+     * origin and lengths from the provided bounds.
+     *
+     * @param bounds         the bounds which provides the origin and lengths
+     * @param promotionRatio the fraction of the cells of a section which must be occupied for it to become dense
+     * @param demotionRatio  the fraction of the cells of a dense section below which it becomes sparse again
+     */
+    public AdaptiveVec3I2ObjectMap(@NotNull Bounds3I bounds, float promotionRatio, float demotionRatio) {
+        this(bounds.originX(), bounds.originY(), bounds.originZ(), bounds.lengthX(), bounds.lengthY(), bounds.lengthZ(),
+                promotionRatio, demotionRatio);
+    }
+
+    /**
+     * Convenience overload for {@link AdaptiveVec3I2ObjectMap#AdaptiveVec3I2ObjectMap(int, int, int, int, int, int)}
+     * that uses the origin and lengths from the provided bounds.
+     *
+     * @param bounds the bounds which provides the origin and lengths
+     */
+    public AdaptiveVec3I2ObjectMap(@NotNull Bounds3I bounds) {
+        this(bounds.originX(), bounds.originY(), bounds.originZ(), bounds.lengthX(), bounds.lengthY(), bounds.lengthZ());
+    }
+
+    private long sectionKey(int rx, int ry, int rz) {
+        return sectionPacker.pack(rx >>> SECTION_SHIFT, ry >>> SECTION_SHIFT, rz >>> SECTION_SHIFT);
+    }
+
+    private long sectionKey(long key) {
+        return sectionKey(packer.relativeX(packer.x(key)), packer.relativeY(packer.y(key)),
+                packer.relativeZ(packer.z(key)));
+    }
+
+    private static int localIndex(int rx, int ry, int rz) {
+        return ((rx & SECTION_MASK) << (SECTION_SHIFT << 1)) | ((ry & SECTION_MASK) << SECTION_SHIFT) |
+                (rz & SECTION_MASK);
+    }
+
+    private static int localX(int index) {
+        return index >>> (SECTION_SHIFT << 1);
+    }
+
+    private static int localY(int index) {
+        return (index >>> SECTION_SHIFT) & SECTION_MASK;
+    }
+
+    private static int localZ(int index) {
+        return index & SECTION_MASK;
+    }
+
+    private int baseX(long sectionKey) {
+        return packer.originX() + (sectionPacker.x(sectionKey) << SECTION_SHIFT);
+    }
+
+    private int baseY(long sectionKey) {
+        return packer.originY() + (sectionPacker.y(sectionKey) << SECTION_SHIFT);
+    }
+
+    private int baseZ(long sectionKey) {
+        return packer.originZ() + (sectionPacker.z(sectionKey) << SECTION_SHIFT);
+    }
+
+    /**
+     * The origin x-coordinate of this map, and therefore the origin of its uniquely addressable space.
+     * @return the x-coordinate of the map origin
+     */
+    public int originX() {
+        return packer.originX();
+    }
+
+    /**
+     * The origin y-coordinate of this map, and therefore the origin of its uniquely addressable space.
+     * @return the y-coordinate of the map origin
+     */
+    public int originY() {
+        return packer.originY();
+    }
+
+    /**
+     * The origin z-coordinate of this map, and therefore the origin of its uniquely addressable space.
+     * @return the z-coordinate of the map origin
+     */
+    public int originZ() {
+        return packer.originZ();
+    }
+
+    /**
+     * Gets the actual length of this map's addressable space along the x-axis.
+     * @return the actual width along the x-axis
+     */
+    public long width() {
+        return packer.width();
+    }
+
+    /**
+     * Gets the actual length of this map's addressable space along the y-axis.
+     * @return the actual width along the y-axis
+     */
+    public long height() {
+        return packer.height();
+    }
+
+    /**
+     * Gets the actual length of this map's addressable space along the z-axis.
+     * @return the actual width along the z-axis
+     */
+    public long depth() {
+        return packer.depth();
+    }
+
+    /**
+     * Computes the maximum possible capacity of this map; i.e. the number of unique elements it may store.
+     * @return the addressable size of this map
+     */
+    public long addressableSize() {
+        return packer.addressableSize();
+    }
+
+    /**
+     * Gets the number of 16x16x16 sections currently stored as dense arrays.
+     * @return the number of dense sections
+     */
+    public int denseSectionCount() {
+        return dense.size();
+    }
+
+    /*
+    Moves every entry of a sparse section into a new dense section.
+     */
+    private void promote(long sectionKey) {
+        DenseSection section = new DenseSection();
+        int bx = baseX(sectionKey);
+        int by = baseY(sectionKey);
+        int bz = baseZ(sectionKey);
+        for (int i = 0; i < SECTION_SIZE; i++) {
+            Object value = sparse.remove(packer.pack(bx + localX(i), by + localY(i), bz + localZ(i)));
+            if (value != null) {
+                section.values[i] = value;
+            }
+        }
+
+        section.count = sparseCounts.remove(sectionKey);
+        dense.put(sectionKey, section);
+    }
+
+    /*
+    Moves every entry of a dense section into the sparse map.
+     */
+    @SuppressWarnings("unchecked")
+    private void demote(long sectionKey, DenseSection section) {
+        dense.remove(sectionKey);
+        if (section.count == 0) {
+            return;
+        }
+
+        int bx = baseX(sectionKey);
+        int by = baseY(sectionKey);
+        int bz = baseZ(sectionKey);
+        for (int i = section.nextOccupied(0); i != -1; i = section.nextOccupied(i + 1)) {
+            sparse.put(packer.pack(bx + localX(i), by + localY(i), bz + localZ(i)), (T) section.values[i]);
+        }
+
+        sparseCounts.put(sectionKey, section.count);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T get(int x, int y, int z) {
+        if (!dense.isEmpty()) {
+            int rx = packer.relativeX(x);
+            int ry = packer.relativeY(y);
+            int rz = packer.relativeZ(z);
+
+            DenseSection section = dense.get(sectionKey(rx, ry, rz));
+            if (section != null) {
+                return (T) section.values[localIndex(rx, ry, rz)];
+            }
+        }
+
+        return sparse.get(packer.pack(x, y, z));
+    }
+
+    @Override
+    public boolean containsKey(int x, int y, int z) {
+        return get(x, y, z) != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T put(int x, int y, int z, @NotNull T value) {
+        Objects.requireNonNull(value);
+
+        int rx = packer.relativeX(x);
+        int ry = packer.relativeY(y);
+        int rz = packer.relativeZ(z);
+        long sectionKey = sectionKey(rx, ry, rz);
+
+        DenseSection section = dense.get(sectionKey);
+        if (section != null) {
+            int index = localIndex(rx, ry, rz);
+            T old = (T) section.values[index];
+            section.values[index] = value;
+            if (old == null) {
+                section.count++;
+                size++;
+            }
+
+            return old;
+        }
+
+        T old = sparse.put(packer.pack(x, y, z), value);
+        if (old == null) {
+            size++;
+            if (sparseCounts.addTo(sectionKey, 1) + 1 >= promotionCount) {
+                promote(sectionKey);
+            }
+        }
+
+        return old;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T remove(int x, int y, int z) {
+        int rx = packer.relativeX(x);
+        int ry = packer.relativeY(y);
+        int rz = packer.relativeZ(z);
+        long sectionKey = sectionKey(rx, ry, rz);
+
+        DenseSection section = dense.get(sectionKey);
+        if (section != null) {
+            int index = localIndex(rx, ry, rz);
+            T old = (T) section.values[index];
+            if (old != null) {
+                section.values[index] = null;
+                size--;
+                if (--section.count < demotionCount) {
+                    demote(sectionKey, section);
+                }
+            }
+
+            return old;
+        }
+
+        T old = sparse.remove(packer.pack(x, y, z));
+        if (old != null) {
+            size--;
+            decrementSparse(sectionKey);
+        }
+
+        return old;
+    }
+
+    private void decrementSparse(long sectionKey) {
+        if (sparseCounts.addTo(sectionKey, -1) == 1) {
+            sparseCounts.remove(sectionKey);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void replaceAll(@NotNull Vec3IObjectBiFunction<? super T, ? extends T> function) {
+        Objects.requireNonNull(function);
+        for (Long2ObjectMap.Entry<DenseSection> entry : Long2ObjectMaps.fastIterable(dense)) {
+            long key = entry.getLongKey();
+            int bx = baseX(key);
+            int by = baseY(key);
+            int bz = baseZ(key);
+
+            DenseSection section = entry.getValue();
+            for (int i = section.nextOccupied(0); i != -1; i = section.nextOccupied(i + 1)) {
+                section.values[i] = Objects.requireNonNull(function.apply(bx + localX(i), by + localY(i),
+                        bz + localZ(i), (T) section.values[i]));
+            }
+        }
+
+        for (Long2ObjectMap.Entry<T> entry : Long2ObjectMaps.fastIterable(sparse)) {
+            long key = entry.getLongKey();
+            entry.setValue(Objects.requireNonNull(function.apply(packer.x(key), packer.y(key), packer.z(key),
+                    entry.getValue())));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void forEach(@NotNull Vec3IObjectBiConsumer<? super T> consumer) {
+        Objects.requireNonNull(consumer);
+        for (Long2ObjectMap.Entry<DenseSection> entry : Long2ObjectMaps.fastIterable(dense)) {
+            long key = entry.getLongKey();
+            int bx = baseX(key);
+            int by = baseY(key);
+            int bz = baseZ(key);
+
+            DenseSection section = entry.getValue();
+            for (int i = section.nextOccupied(0); i != -1; i = section.nextOccupied(i + 1)) {
+                consumer.accept(bx + localX(i), by + localY(i), bz + localZ(i), (T) section.values[i]);
+            }
+        }
+
+        for (Long2ObjectMap.Entry<T> entry : Long2ObjectMaps.fastIterable(sparse)) {
+            long key = entry.getLongKey();
+            consumer.accept(packer.x(key), packer.y(key), packer.z(key), entry.getValue());
+        }
+    }
+
+    @Override
+    public void forEachIn(@NotNull Bounds3I bounds, @NotNull Vec3IObjectBiConsumer<? super T> consumer) {
+        RegionQueries.forEachIn(this, bounds, packer, consumer);
+    }
+
+    @Override
+    public boolean removeIf(@NotNull Bounds3I bounds, @NotNull Vec3IObjectBiPredicate<? super T> predicate) {
+        return RegionQueries.removeIf(this, bounds, packer, predicate);
+    }
+
+    @Override
+    public int countIn(@NotNull Bounds3I bounds) {
+        return RegionQueries.countIn(this, bounds, packer);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear() {
+        sparse.clear();
+        sparseCounts.clear();
+        dense.clear();
+        size = 0;
+    }
+
+    /*
+    Visits the dense sections first, iterating a snapshot of their keys so that emptied sections can be discarded
+    during iteration, and then the sparse entries.
+     */
+    private final class MapCursor implements Vec3IObjectCursor<T> {
+        private final long[] keys = dense.keySet().toLongArray();
+        private int keyIndex = -1;
+
+        private DenseSection section;
+        private long sectionKey;
+        private int next = -1;
+
+        private final ObjectIterator<Long2ObjectMap.Entry<T>> sparseIterator;
+
+        private DenseSection lastSection;
+        private long lastSectionKey;
+        private int bx;
+        private int by;
+        private int bz;
+        private int last = -1;
+
+        private Long2ObjectMap.Entry<T> lastEntry;
+
+        private MapCursor() {
+            this.sparseIterator = Long2ObjectMaps.fastIterator(sparse);
+            advance(0);
+        }
+
+        private void advance(int from) {
+            if (section != null) {
+                next = section.nextOccupied(from);
+                if (next != -1) {
+                    return;
+                }
+            }
+
+            while (++keyIndex < keys.length) {
+                DenseSection candidate = dense.get(keys[keyIndex]);
+                if (candidate == null) {
+                    continue;
+                }
+
+                next = candidate.nextOccupied(0);
+                if (next != -1) {
+                    section = candidate;
+                    sectionKey = keys[keyIndex];
+                    return;
+                }
+            }
+
+            section = null;
+        }
+
+        private boolean hasNext() {
+            return section != null || sparseIterator.hasNext();
+        }
+
+        @Override
+        public boolean next() {
+            if (section != null) {
+                if (lastSection != section) {
+                    lastSection = section;
+                    lastSectionKey = sectionKey;
+                    bx = baseX(sectionKey);
+                    by = baseY(sectionKey);
+                    bz = baseZ(sectionKey);
+                }
+
+                last = next;
+                advance(next + 1);
+                return true;
+            }
+
+            lastSection = null;
+            last = -1;
+            if (sparseIterator.hasNext()) {
+                lastEntry = sparseIterator.next();
+                return true;
+            }
+
+            lastEntry = null;
+            return false;
+        }
+
+        @Override
+        public int x() {
+            return lastSection != null ? bx + localX(last) : packer.x(lastEntry.getLongKey());
+        }
+
+        @Override
+        public int y() {
+            return lastSection != null ? by + localY(last) : packer.y(lastEntry.getLongKey());
+        }
+
+        @Override
+        public int z() {
+            return lastSection != null ? bz + localZ(last) : packer.z(lastEntry.getLongKey());
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T value() {
+            return lastSection != null ? (T) lastSection.values[last] : lastEntry.getValue();
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T setValue(T value) {
+            Objects.requireNonNull(value);
+            if (lastSection != null) {
+                T old = (T) lastSection.values[last];
+                lastSection.values[last] = value;
+                return old;
+            }
+
+            return lastEntry.setValue(value);
+        }
+
+        @Override
+        public void remove() {
+            if (lastSection != null) {
+                if (last == -1) {
+                    throw new IllegalStateException();
+                }
+
+                lastSection.values[last] = null;
+                last = -1;
+                size--;
+                if (--lastSection.count == 0) {
+                    dense.remove(lastSectionKey);
+                }
+
+                return;
+            }
+
+            if (lastEntry == null) {
+                throw new IllegalStateException();
+            }
+
+            long key = lastEntry.getLongKey();
+            sparseIterator.remove();
+            lastEntry = null;
+            size--;
+            decrementSparse(sectionKey(key));
+        }
+    }
+
+    @Override
+    public @NotNull Vec3IObjectCursor<T> cursor() {
+        return new MapCursor();
+    }
+
+    @NotNull
+    @Override
+    public Set<Entry<Vec3I, T>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<Vec3I, T>> iterator() {
+                MapCursor cursor = new MapCursor();
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return cursor.hasNext();
+                    }
+
+                    @Override
+                    public Entry<Vec3I, T> next() {
+                        if (!cursor.next()) {
+                            throw new NoSuchElementException();
+                        }
+
+                        Vec3I key = Vec3I.immutable(cursor.x(), cursor.y(), cursor.z());
+                        return new AbstractMap.SimpleEntry<>(key, cursor.value()) {
+                            @Override
+                            public T setValue(T value) {
+                                super.setValue(value);
+                                return put(key.x(), key.y(), key.z(), value);
+                            }
+                        };
+                    }
+
+                    @Override
+                    public void remove() {
+                        cursor.remove();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public void clear() {
+                AdaptiveVec3I2ObjectMap.this.clear();
+            }
+        };
+    }
+}
@@ -0,0 +1,228 @@
+package com.github.steanky.vector;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Implementation of {@link Vec3I2DoubleMap} that stores its values in a flat {@code double} array, indexed directly by
+ * the packed coordinate. This is the primitive counterpart of {@link ArrayVec3I2ObjectMap}, and has the same
+ * performance characteristics and size limitations.
+ */
+public class ArrayVec3I2DoubleMap implements Vec3I2DoubleMap {
+    private final BitPacker packer;
+    private final double[] values;
+    private final long[] occupied;
+
+    private int size;
+    private double defaultReturnValue;
+
+    /**
+     * Creates a new {@link ArrayVec3I2DoubleMap} with the given origin and bounds. See
+     * {@link BitPackingVec3I2ObjectMap} for details on how the actual widths are computed. If the resulting addressable
+     * size exceeds {@link ArrayVec3I2ObjectMap#MAX_ADDRESSABLE_SIZE}, an {@link IllegalArgumentException} will be
+     * thrown.
+     *
+     * @param x      the x-origin
+     * @param y      the y-origin
+     * @param z      the z-origin
+     * @param width  the x-width
+     * @param height the y-width
+     * @param depth  the z-width
+     */
+    public ArrayVec3I2DoubleMap(int x, int y, int z, int width, int height, int depth) {
+        this.packer = new BitPacker(x, y, z, width, height, depth);
+
+        long addressableSize = packer.addressableSize();
+        if (addressableSize <= 0 || addressableSize > ArrayVec3I2ObjectMap.MAX_ADDRESSABLE_SIZE) {
+            throw new IllegalArgumentException("Cannot create an ArrayVec3I2DoubleMap with more than 2^30 possible " +
+                    "values");
+        }
+
+        this.values = new double[(int) addressableSize];
+        this.occupied = new long[(int) ((addressableSize + Long.SIZE - 1) >>> 6)];
+    }
+
+    /**
+     * Convenience overload for {@link ArrayVec3I2DoubleMap#ArrayVec3I2DoubleMap(int, int, int, int, int, int)} that
+     * uses the origin and lengths from the provided bounds.
+     *
+     * @param bounds the bounds which provides the origin and lengths
+     */
+    public ArrayVec3I2DoubleMap(@NotNull Bounds3I bounds) {
+        this(bounds.originX(), bounds.originY(), bounds.originZ(), bounds.lengthX(), bounds.lengthY(), bounds.lengthZ());
+    }
+
+    private int index(int x, int y, int z) {
+        return (int) packer.pack(x, y, z);
+    }
+
+    private boolean isOccupied(int index) {
+        return (occupied[index >>> 6] & (1L << index)) != 0;
+    }
+
+    private double setAt(int index, double value) {
+        long bit = 1L << index;
+        long word = occupied[index >>> 6];
+        double old = values[index];
+        values[index] = value;
+
+        if ((word & bit) == 0) {
+            occupied[index >>> 6] = word | bit;
+            size++;
+            return defaultReturnValue;
+        }
+
+        return old;
+    }
+
+    /**
+     * The origin x-coordinate of this map, and therefore the origin of its uniquely addressable space.
+     * @return the x-coordinate of the map origin
+     */
+    public int originX() {
+        return packer.originX();
+    }
+
+    /**
+     * The origin y-coordinate of this map, and therefore the origin of its uniquely addressable space.
+     * @return the y-coordinate of the map origin
+     */
+    public int originY() {
+        return packer.originY();
+    }
+
+    /**
+     * The origin z-coordinate of this map, and therefore the origin of its uniquely addressable space.
+     * @return the z-coordinate of the map origin
+     */
+    public int originZ() {
+        return packer.originZ();
+    }
+
+    /**
+     * Gets the actual length of this map's addressable space along the x-axis.
+     * @return the actual width along the x-axis
+     */
+    public long width() {
+        return packer.width();
+    }
+
+    /**
+     * Gets the actual length of this map's addressable space along the y-axis.
+     * @return the actual width along the y-axis
+     */
+    public long height() {
+        return packer.height();
+    }
+
+    /**
+     * Gets the actual length of this map's addressable space along the z-axis.
+     * @return the actual width along the z-axis
+     */
+    public long depth() {
+        return packer.depth();
+    }
+
+    /**
+     * Computes the maximum possible capacity of this map; i.e. the number of unique elements it may store. This is
+     * also the length of the backing array.
+     * @return the addressable size of this map
+     */
+    public long addressableSize() {
+        return values.length;
+    }
+
+    @Override
+    public double get(int x, int y, int z) {
+        int index = index(x, y, z);
+        return isOccupied(index) ? values[index] : defaultReturnValue;
+    }
+
+    @Override
+    public double getOrDefault(int x, int y, int z, double def) {
+        int index = index(x, y, z);
+        return isOccupied(index) ? values[index] : def;
+    }
+
+    @Override
+    public double put(int x, int y, int z, double value) {
+        return setAt(index(x, y, z), value);
+    }
+
+    @Override
+    public double remove(int x, int y, int z) {
+        int index = index(x, y, z);
+        if (!isOccupied(index)) {
+            return defaultReturnValue;
+        }
+
+        occupied[index >>> 6] &= ~(1L << index);
+        size--;
+        return values[index];
+    }
+
+    @Override
+    public boolean containsKey(int x, int y, int z) {
+        return isOccupied(index(x, y, z));
+    }
+
+    @Override
+    public double addTo(int x, int y, int z, double increment) {
+        int index = index(x, y, z);
+        double old = isOccupied(index) ? values[index] : defaultReturnValue;
+        setAt(index, old + increment);
+        return old;
+    }
+
+    @Override
+    public double computeIfAbsent(int x, int y, int z, @NotNull Vec3IToDoubleFunction mappingFunction) {
+        Objects.requireNonNull(mappingFunction);
+
+        int index = index(x, y, z);
+        if (isOccupied(index)) {
+            return values[index];
+        }
+
+        double value = mappingFunction.applyAsDouble(x, y, z);
+        setAt(index, value);
+        return value;
+    }
+
+    @Override
+    public void forEach(@NotNull Vec3IDoubleBiConsumer consumer) {
+        Objects.requireNonNull(consumer);
+
+        for (int i = 0; i < occupied.length; i++) {
+            long word = occupied[i];
+            while (word != 0) {
+                int index = (i << 6) | Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+
+                consumer.accept(packer.x(index), packer.y(index), packer.z(index), values[index]);
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(occupied, 0);
+        size = 0;
+    }
+
+    @Override
+    public double defaultReturnValue() {
+        return defaultReturnValue;
+    }
+
+    @Override
+    public void defaultReturnValue(double rv) {
+        this.defaultReturnValue = rv;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,717 @@
+package com.github.steanky.vector;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.IntPredicate;
+
+/**
+ * Implementation of {@link Vec3I2ObjectMap} that stores its values in a flat array, indexed directly by the packed
+ * coordinate. Coordinates are packed in the same way as {@link BitPackingVec3I2ObjectMap}, including the wrapping
+ * behavior for coordinates outside the addressable space. Null values are not supported.
+ * <p>
+ * The backing array is always as large as the addressable space of the map, so this implementation is best suited to
+ * small regions that are expected to be densely populated. In exchange, lookups and insertions take constant time and
+ * never hash or probe. A bitset of occupied indices is maintained alongside the array, which allows iteration to skip
+ * empty runs 64 entries at a time.
+ *
+ * @param <T> the type of object held in the map
+ */
+public class ArrayVec3I2ObjectMap<T> extends AbstractVec3I2ObjectMap<T> {
+    /**
+     * The largest addressable size supported by this map.
+     */
+    public static final int MAX_ADDRESSABLE_SIZE = 1 << 30;
+
+    private final BitPacker packer;
+    private final Object[] values;
+    private final long[] occupied;
+
+    private int size;
+
+    /**
+     * Creates a new {@link ArrayVec3I2ObjectMap} with the given origin and bounds. See
+     * {@link BitPackingVec3I2ObjectMap} for details on how the actual widths are computed. If the resulting addressable
+     * size exceeds {@link ArrayVec3I2ObjectMap#MAX_ADDRESSABLE_SIZE}, an {@link IllegalArgumentException} will be
+     * thrown.
+     *
+     * @param x      the x-origin
+     * @param y      the y-origin
+     * @param z      the z-origin
+     * @param width  the x-width
+     * @param height the y-width
+     * @param depth  the z-width
+     */
+    public ArrayVec3I2ObjectMap(int x, int y, int z, int width, int height, int depth) {
+        this.packer = new BitPacker(x, y, z, width, height, depth);
+
+        long addressableSize = packer.addressableSize();
+        if (addressableSize <= 0 || addressableSize > MAX_ADDRESSABLE_SIZE) {
+            throw new IllegalArgumentException("Cannot create an ArrayVec3I2ObjectMap with more than 2^30 possible " +
+                    "values");
+        }
+
+        this.values = new Object[(int) addressableSize];
+        this.occupied = new long[(int) ((addressableSize + Long.SIZE - 1) >>> 6)];
+    }
+
+    /**
+     * Convenience overload for {@link ArrayVec3I2ObjectMap#ArrayVec3I2ObjectMap(int, int, int, int, int, int)} that
+     * uses the origin and lengths from the provided bounds.
+     *
+     * @param bounds the bounds which provides the origin and lengths
+     */
+    public ArrayVec3I2ObjectMap(@NotNull Bounds3I bounds) {
+        this(bounds.originX(), bounds.originY(), bounds.originZ(), bounds.lengthX(), bounds.lengthY(), bounds.lengthZ());
+    }
+
+    private int index(int x, int y, int z) {
+        return (int) packer.pack(x, y, z);
+    }
+
+    private int nextOccupied(int fromIndex) {
+        int wordIndex = fromIndex >>> 6;
+        if (wordIndex >= occupied.length) {
+            return -1;
+        }
+
+        long word = occupied[wordIndex] & (-1L << fromIndex);
+        while (true) {
+            if (word != 0) {
+                return (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+            }
+
+            if (++wordIndex == occupied.length) {
+                return -1;
+            }
+
+            word = occupied[wordIndex];
+        }
+    }
+
+    private int nextOccupied(int fromIndex, int toIndex) {
+        if (fromIndex >= toIndex) {
+            return -1;
+        }
+
+        int wordIndex = fromIndex >>> 6;
+        int lastWord = (toIndex - 1) >>> 6;
+        long word = occupied[wordIndex] & (-1L << fromIndex);
+        while (true) {
+            if (word != 0) {
+                int index = (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+                return index < toIndex ? index : -1;
+            }
+
+            if (++wordIndex > lastWord) {
+                return -1;
+            }
+
+            word = occupied[wordIndex];
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T setAt(int index, Object value) {
+        Object old = values[index];
+        values[index] = value;
+        if (old == null) {
+            occupied[index >>> 6] |= 1L << index;
+            size++;
+        }
+
+        return (T) old;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T removeAt(int index) {
+        Object old = values[index];
+        if (old != null) {
+            values[index] = null;
+            occupied[index >>> 6] &= ~(1L << index);
+            size--;
+        }
+
+        return (T) old;
+    }
+
+    /**
+     * The origin x-coordinate of this map, and therefore the origin of its uniquely addressable space.
+     * @return the x-coordinate of the map origin
+     */
+    public int originX() {
+        return packer.originX();
+    }
+
+    /**
+     * The origin y-coordinate of this map, and therefore the origin of its uniquely addressable space.
+     * @return the y-coordinate of the map origin
+     */
+    public int originY() {
+        return packer.originY();
+    }
+
+    /**
+     * The origin z-coordinate of this map, and therefore the origin of its uniquely addressable space.
+     * @return the z-coordinate of the map origin
+     */
+    public int originZ() {
+        return packer.originZ();
+    }
+
+    /**
+     * Gets the actual length of this map's addressable space along the x-axis.
+     * @return the actual width along the x-axis
+     */
+    public long width() {
+        return packer.width();
+    }
+
+    /**
+     * Gets the actual length of this map's addressable space along the y-axis.
+     * @return the actual width along the y-axis
+     */
+    public long height() {
+        return packer.height();
+    }
+
+    /**
+     * Gets the actual length of this map's addressable space along the z-axis.
+     * @return the actual width along the z-axis
+     */
+    public long depth() {
+        return packer.depth();
+    }
+
+    /**
+     * Computes the maximum possible capacity of this map; i.e. the number of unique elements it may store. This is
+     * also the length of the backing array.
+     * @return the addressable size of this map
+     */
+    public long addressableSize() {
+        return values.length;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T get(int x, int y, int z) {
+        return (T) values[index(x, y, z)];
+    }
+
+    @Override
+    public T put(int x, int y, int z, @NotNull T value) {
+        Objects.requireNonNull(value);
+        return setAt(index(x, y, z), value);
+    }
+
+    @Override
+    public T remove(int x, int y, int z) {
+        return removeAt(index(x, y, z));
+    }
+
+    @Override
+    public boolean remove(int x, int y, int z, @NotNull Object value) {
+        Objects.requireNonNull(value);
+
+        int index = index(x, y, z);
+        if (value.equals(values[index])) {
+            removeAt(index);
+            return true;
+        }
+
+        return false;
+    }
+
+    @Override
+    public boolean containsKey(int x, int y, int z) {
+        return values[index(x, y, z)] != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T computeIfAbsent(int x, int y, int z, @NotNull Vec3IFunction<? extends T> mappingFunction) {
+        Objects.requireNonNull(mappingFunction);
+
+        int index = index(x, y, z);
+        Object v = values[index];
+        if (v != null) {
+            return (T) v;
+        }
+
+        T functionResult = mappingFunction.apply(x, y, z);
+        if (functionResult == null) {
+            return null;
+        }
+
+        setAt(index, functionResult);
+        return functionResult;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T computeIfPresent(int x, int y, int z, @NotNull Vec3IObjectBiFunction<? super T, ? extends T> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+
+        int index = index(x, y, z);
+        Object oldValue = values[index];
+        if (oldValue == null) {
+            return null;
+        }
+
+        T newValue = remappingFunction.apply(x, y, z, (T) oldValue);
+        if (newValue == null) {
+            removeAt(index);
+            return null;
+        }
+
+        values[index] = newValue;
+        return newValue;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T compute(int x, int y, int z, @NotNull Vec3IObjectBiFunction<? super T, ? extends T> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+
+        int index = index(x, y, z);
+        T newValue = remappingFunction.apply(x, y, z, (T) values[index]);
+        if (newValue == null) {
+            removeAt(index);
+            return null;
+        }
+
+        setAt(index, newValue);
+        return newValue;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T putIfAbsent(int x, int y, int z, @NotNull T value) {
+        Objects.requireNonNull(value);
+
+        int index = index(x, y, z);
+        Object old = values[index];
+        if (old == null) {
+            setAt(index, value);
+        }
+
+        return (T) old;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void putAll(@NotNull Map<? extends Vec3I, ? extends T> map) {
+        if (map instanceof Vec3I2ObjectMap<?> other) {
+            putAll((Vec3I2ObjectMap<? extends T>) other);
+        }
+        else {
+            super.putAll(map);
+        }
+    }
+
+    @Override
+    public void putAll(@NotNull Vec3I2ObjectMap<? extends T> map) {
+        map.forEach((x, y, z, t) -> put(x, y, z, t));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T replace(int x, int y, int z, @NotNull T value) {
+        Objects.requireNonNull(value);
+
+        int index = index(x, y, z);
+        Object old = values[index];
+        if (old != null) {
+            values[index] = value;
+        }
+
+        return (T) old;
+    }
+
+    @Override
+    public boolean replace(int x, int y, int z, T oldValue, @NotNull T newValue) {
+        Objects.requireNonNull(newValue);
+        if (oldValue == null) {
+            return false;
+        }
+
+        int index = index(x, y, z);
+        if (oldValue.equals(values[index])) {
+            values[index] = newValue;
+            return true;
+        }
+
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void replaceAll(@NotNull Vec3IObjectBiFunction<? super T, ? extends T> function) {
+        Objects.requireNonNull(function);
+        for (int i = nextOccupied(0); i != -1; i = nextOccupied(i + 1)) {
+            values[i] = Objects.requireNonNull(function.apply(packer.x(i), packer.y(i), packer.z(i), (T) values[i]));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T getOrDefault(int x, int y, int z, T def) {
+        Object value = values[index(x, y, z)];
+        return value == null ? def : (T) value;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T merge(int x, int y, int z, @NotNull T value,
+            @NotNull BiFunction<? super T, ? super T, ? extends T> mergeFunction) {
+        Objects.requireNonNull(value);
+        Objects.requireNonNull(mergeFunction);
+
+        int index = index(x, y, z);
+        Object oldValue = values[index];
+        if (oldValue == null) {
+            setAt(index, value);
+            return value;
+        }
+
+        T newValue = mergeFunction.apply((T) oldValue, value);
+        if (newValue == null) {
+            removeAt(index);
+            return null;
+        }
+
+        values[index] = newValue;
+        return newValue;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void forEach(@NotNull Vec3IObjectBiConsumer<? super T> consumer) {
+        Objects.requireNonNull(consumer);
+
+        for (int i = 0; i < occupied.length; i++) {
+            long word = occupied[i];
+            while (word != 0) {
+                int index = (i << 6) | Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+
+                consumer.accept(packer.x(index), packer.y(index), packer.z(index), (T) values[index]);
+            }
+        }
+    }
+
+    /*
+    Calls the action with the index of each occupied slot within the bounds, and returns the number of times it returned
+    true. Indices along the z-axis are contiguous, so each row is scanned using the occupied bitset. The action may
+    remove the slot it is given.
+     */
+    private int forEachIndexIn(Bounds3I bounds, IntPredicate action) {
+        long minX = Math.max(bounds.originX(), packer.originX());
+        long minY = Math.max(bounds.originY(), packer.originY());
+        long minZ = Math.max(bounds.originZ(), packer.originZ());
+        long maxX = Math.min((long) bounds.originX() + bounds.lengthX(), packer.originX() + packer.width());
+        long maxY = Math.min((long) bounds.originY() + bounds.lengthY(), packer.originY() + packer.height());
+        long maxZ = Math.min((long) bounds.originZ() + bounds.lengthZ(), packer.originZ() + packer.depth());
+        if (minX >= maxX || minY >= maxY || minZ >= maxZ || size == 0) {
+            return 0;
+        }
+
+        int count = 0;
+        for (long x = minX; x < maxX; x++) {
+            for (long y = minY; y < maxY; y++) {
+                int from = index((int) x, (int) y, (int) minZ);
+                int to = from + (int) (maxZ - minZ);
+                for (int i = nextOccupied(from, to); i != -1; i = nextOccupied(i + 1, to)) {
+                    if (action.test(i)) {
+                        count++;
+                    }
+                }
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation scans each row of the bounds using the bitset of occupied indices, so it never checks more
+     * than the cells of the bounds, and skips empty cells 64 at a time.
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public void forEachIn(@NotNull Bounds3I bounds, @NotNull Vec3IObjectBiConsumer<? super T> consumer) {
+        Objects.requireNonNull(consumer);
+        forEachIndexIn(bounds, index -> {
+            consumer.accept(packer.x(index), packer.y(index), packer.z(index), (T) values[index]);
+            return false;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public boolean removeIf(@NotNull Bounds3I bounds, @NotNull Vec3IObjectBiPredicate<? super T> predicate) {
+        Objects.requireNonNull(predicate);
+        return forEachIndexIn(bounds, index -> {
+            if (predicate.test(packer.x(index), packer.y(index), packer.z(index), (T) values[index])) {
+                removeAt(index);
+                return true;
+            }
+
+            return false;
+        }) > 0;
+    }
+
+    @Override
+    public int countIn(@NotNull Bounds3I bounds) {
+        return forEachIndexIn(bounds, index -> true);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T valueAt(long index) {
+        return (T) values[(int) index];
+    }
+
+    @Override
+    public void forEachNeighbor(int x, int y, int z, @NotNull NeighborhoodKind kind,
+            @NotNull Vec3IObjectBiConsumer<? super T> consumer) {
+        Neighbors.forEach(packer, this::valueAt, x, y, z, kind, consumer);
+    }
+
+    @Override
+    public int getNeighbors(int x, int y, int z, @NotNull NeighborhoodKind kind, T @NotNull [] out) {
+        return Neighbors.get(packer, this::valueAt, x, y, z, kind, out);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        if (value == null) {
+            return false;
+        }
+
+        for (int i = nextOccupied(0); i != -1; i = nextOccupied(i + 1)) {
+            if (value.equals(values[i])) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < occupied.length; i++) {
+            long word = occupied[i];
+            while (word != 0) {
+                values[(i << 6) | Long.numberOfTrailingZeros(word)] = null;
+                word &= word - 1;
+            }
+
+            occupied[i] = 0;
+        }
+
+        size = 0;
+    }
+
+    private final class Slots implements SlotTable<T> {
+        @Override
+        public long slotCount() {
+            return values.length;
+        }
+
+        @Override
+        public int alignment() {
+            return Long.SIZE;
+        }
+
+        @Override
+        public long nextOccupied(long from, long to) {
+            return ArrayVec3I2ObjectMap.this.nextOccupied((int) from, (int) to);
+        }
+
+        @Override
+        public int x(long slot) {
+            return packer.x(slot);
+        }
+
+        @Override
+        public int y(long slot) {
+            return packer.y(slot);
+        }
+
+        @Override
+        public int z(long slot) {
+            return packer.z(slot);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T value(long slot) {
+            return (T) values[(int) slot];
+        }
+
+        @Override
+        public long count(long from, long to) {
+            int count = 0;
+            for (int i = (int) (from >>> 6), end = (int) ((to + Long.SIZE - 1) >>> 6); i < end; i++) {
+                count += Long.bitCount(occupied[i]);
+            }
+
+            return count;
+        }
+    }
+
+    @Override
+    public void parallelForEach(@NotNull Vec3IObjectBiConsumer<? super T> consumer) {
+        Objects.requireNonNull(consumer);
+        new Slots().parallelForEach(consumer);
+    }
+
+    @Override
+    public @NotNull Vec3IObjectCursor<T> cursor() {
+        return new Vec3IObjectCursor<>() {
+            private int index = -1;
+            private boolean removed;
+
+            @Override
+            public boolean next() {
+                removed = false;
+                if (index == Integer.MIN_VALUE) {
+                    return false;
+                }
+
+                int next = nextOccupied(index + 1);
+                if (next == -1) {
+                    index = Integer.MIN_VALUE;
+                    return false;
+                }
+
+                index = next;
+                return true;
+            }
+
+            @Override
+            public int x() {
+                return packer.x(index);
+            }
+
+            @Override
+            public int y() {
+                return packer.y(index);
+            }
+
+            @Override
+            public int z() {
+                return packer.z(index);
+            }
+
+            @SuppressWarnings("unchecked")
+            @Override
+            public T value() {
+                return (T) values[index];
+            }
+
+            @Override
+            public T setValue(T value) {
+                Objects.requireNonNull(value);
+                return setAt(index, value);
+            }
+
+            @Override
+            public void remove() {
+                if (index < 0 || removed) {
+                    throw new IllegalStateException();
+                }
+
+                removeAt(index);
+                removed = true;
+            }
+        };
+    }
+
+    @NotNull
+    @Override
+    public Set<Entry<Vec3I, T>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<Vec3I, T>> iterator() {
+                return new Iterator<>() {
+                    private int next = nextOccupied(0);
+                    private int last = -1;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next != -1;
+                    }
+
+                    @Override
+                    public Entry<Vec3I, T> next() {
+                        if (next == -1) {
+                            throw new NoSuchElementException();
+                        }
+
+                        int index = next;
+                        last = index;
+                        next = nextOccupied(index + 1);
+
+                        Vec3I key = Vec3I.immutable(packer.x(index), packer.y(index), packer.z(index));
+                        return new Entry<>() {
+                            @Override
+                            public Vec3I getKey() {
+                                return key;
+                            }
+
+                            @SuppressWarnings("unchecked")
+                            @Override
+                            public T getValue() {
+                                return (T) values[index];
+                            }
+
+                            @Override
+                            public T setValue(T value) {
+                                Objects.requireNonNull(value);
+                                return setAt(index, value);
+                            }
+                        };
+                    }
+
+                    @Override
+                    public void remove() {
+                        if (last == -1) {
+                            throw new IllegalStateException();
+                        }
+
+                        removeAt(last);
+                        last = -1;
+                    }
+                };
+            }
+
+            @Override
+            public Spliterator<Entry<Vec3I, T>> spliterator() {
+                return new Slots().spliterator(size);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public void clear() {
+                ArrayVec3I2ObjectMap.this.clear();
+            }
+        };
+    }
+}
@@ -0,0 +1,730 @@
+package com.github.steanky.vector;
+
+import it.unimi.dsi.fastutil.longs.AbstractLong2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.objects.AbstractObjectSet;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import it.unimi.dsi.fastutil.objects.ObjectSet;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Internal {@link Long2ObjectMap} which keeps its keys sorted in unsigned order, used by {@link TreeVec3I2ObjectMap}.
+ * Not part of the public API.
+ * <p>
+ * Entries are stored in a B+-tree with up to 64 keys per node. Leaves are linked in key order, so iteration and range
+ * scans walk leaves directly rather than descending the tree for each key. Deletion does not rebalance: nodes are only
+ * discarded once they become empty, which keeps deletion simple, and bounds the height of the tree by the most entries
+ * it has ever held rather than the number it currently holds.
+ * <p>
+ * {@link BTreeLong2ObjectMap#subMap(long, long)}, {@link BTreeLong2ObjectMap#headMap(long)} and
+ * {@link BTreeLong2ObjectMap#tailMap(long)} return views of a range of keys, which share the tree of the map they were
+ * created from. Views reject keys outside their range when putting, and treat them as absent otherwise.
+ *
+ * @param <V> the type of value stored in the map
+ */
+final class BTreeLong2ObjectMap<V> extends AbstractLong2ObjectMap<V> {
+    private static final int MAX_KEYS = 64;
+    private static final int HALF = MAX_KEYS / 2;
+
+    private static final class Tree {
+        private Node root = new Leaf();
+        private int size;
+    }
+
+    private abstract static class Node {
+        int size;
+    }
+
+    private static final class Leaf extends Node {
+        private final long[] keys = new long[MAX_KEYS];
+        private final Object[] values = new Object[MAX_KEYS];
+        private Leaf prev;
+        private Leaf next;
+    }
+
+    private static final class Inner extends Node {
+        //key i is the smallest key reachable through child i + 1; size is the number of children
+        private final long[] keys = new long[MAX_KEYS - 1];
+        private final Node[] children = new Node[MAX_KEYS];
+    }
+
+    private final Tree tree;
+
+    //bounds of this view, with the sign bit of each key flipped; from is inclusive, to is exclusive
+    private final long from;
+    private final long to;
+    private final boolean bottom;
+    private final boolean top;
+
+    //results of the last recursive put or remove
+    private V oldValue;
+    private long splitKey;
+    private boolean removed;
+
+    /**
+     * Creates a new, empty map.
+     */
+    BTreeLong2ObjectMap() {
+        this(new Tree(), 0, 0, true, true);
+    }
+
+    private BTreeLong2ObjectMap(Tree tree, long from, long to, boolean bottom, boolean top) {
+        this.tree = tree;
+        this.from = from;
+        this.to = to;
+        this.bottom = bottom;
+        this.top = top;
+    }
+
+    /*
+    Flipping the sign bit maps unsigned order onto signed order, so keys are stored flipped and compared as signed.
+    Flipping is its own inverse.
+     */
+    private static long flip(long key) {
+        return key ^ Long.MIN_VALUE;
+    }
+
+    private boolean inRange(long flipped) {
+        return (bottom || flipped >= from) && (top || flipped < to);
+    }
+
+    private static int search(long[] keys, int size, long flipped) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midKey = keys[mid];
+            if (midKey < flipped) {
+                low = mid + 1;
+            }
+            else if (midKey > flipped) {
+                high = mid - 1;
+            }
+            else {
+                return mid;
+            }
+        }
+
+        return -(low + 1);
+    }
+
+    private static int childIndex(Inner inner, long flipped) {
+        int index = search(inner.keys, inner.size - 1, flipped);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    private Leaf leaf(long flipped) {
+        Node node = tree.root;
+        while (node instanceof Inner inner) {
+            node = inner.children[childIndex(inner, flipped)];
+        }
+
+        return (Leaf) node;
+    }
+
+    /**
+     * Creates a view of the keys in the given range, in unsigned order. The view is further limited to the range of
+     * this map, if it is itself a view.
+     *
+     * @param fromKey the lowest key of the view, inclusive
+     * @param toKey   the highest key of the view, exclusive
+     * @return a view of the range
+     * @throws IllegalArgumentException if fromKey is greater than toKey
+     */
+    @NotNull BTreeLong2ObjectMap<V> subMap(long fromKey, long toKey) {
+        if (Long.compareUnsigned(fromKey, toKey) > 0) {
+            throw new IllegalArgumentException("Lower bound must not be greater than upper bound");
+        }
+
+        return range(flip(fromKey), true, flip(toKey), true);
+    }
+
+    /**
+     * Creates a view of the keys less than the given key, in unsigned order.
+     *
+     * @param toKey the highest key of the view, exclusive
+     * @return a view of the range
+     */
+    @NotNull BTreeLong2ObjectMap<V> headMap(long toKey) {
+        return range(0, false, flip(toKey), true);
+    }
+
+    /**
+     * Creates a view of the keys greater than or equal to the given key, in unsigned order.
+     *
+     * @param fromKey the lowest key of the view, inclusive
+     * @return a view of the range
+     */
+    @NotNull BTreeLong2ObjectMap<V> tailMap(long fromKey) {
+        return range(flip(fromKey), true, 0, false);
+    }
+
+    private BTreeLong2ObjectMap<V> range(long newFrom, boolean hasFrom, long newTo, boolean hasTo) {
+        boolean newBottom = bottom;
+        long lower = from;
+        if (hasFrom && (bottom || newFrom > from)) {
+            newBottom = false;
+            lower = newFrom;
+        }
+
+        boolean newTop = top;
+        long upper = to;
+        if (hasTo && (top || newTo < to)) {
+            newTop = false;
+            upper = newTo;
+        }
+
+        if (!newBottom && !newTop && upper < lower) {
+            upper = lower;
+        }
+
+        return new BTreeLong2ObjectMap<>(tree, lower, upper, newBottom, newTop);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public V get(long key) {
+        long flipped = flip(key);
+        if (!inRange(flipped)) {
+            return defRetValue;
+        }
+
+        Leaf leaf = leaf(flipped);
+        int index = search(leaf.keys, leaf.size, flipped);
+        return index >= 0 ? (V) leaf.values[index] : defRetValue;
+    }
+
+    @Override
+    public boolean containsKey(long key) {
+        long flipped = flip(key);
+        if (!inRange(flipped)) {
+            return false;
+        }
+
+        Leaf leaf = leaf(flipped);
+        return search(leaf.keys, leaf.size, flipped) >= 0;
+    }
+
+    @Override
+    public V put(long key, V value) {
+        long flipped = flip(key);
+        if (!inRange(flipped)) {
+            throw new IllegalArgumentException("Key out of range");
+        }
+
+        Node split = insert(tree.root, flipped, value);
+        if (split != null) {
+            Inner root = new Inner();
+            root.children[0] = tree.root;
+            root.children[1] = split;
+            root.keys[0] = splitKey;
+            root.size = 2;
+            tree.root = root;
+        }
+
+        V old = oldValue;
+        oldValue = null;
+        return old;
+    }
+
+    /*
+    Inserts into the subtree rooted at the given node. If the node had to be split, returns the new right sibling, and
+    sets splitKey to the smallest key reachable through it.
+     */
+    @SuppressWarnings("unchecked")
+    private Node insert(Node node, long flipped, V value) {
+        if (node instanceof Leaf leaf) {
+            int index = search(leaf.keys, leaf.size, flipped);
+            if (index >= 0) {
+                oldValue = (V) leaf.values[index];
+                leaf.values[index] = value;
+                return null;
+            }
+
+            oldValue = defRetValue;
+            tree.size++;
+            index = -index - 1;
+            if (leaf.size < MAX_KEYS) {
+                insertAt(leaf, index, flipped, value);
+                return null;
+            }
+
+            Leaf right = new Leaf();
+            System.arraycopy(leaf.keys, HALF, right.keys, 0, MAX_KEYS - HALF);
+            System.arraycopy(leaf.values, HALF, right.values, 0, MAX_KEYS - HALF);
+            for (int i = HALF; i < MAX_KEYS; i++) {
+                leaf.values[i] = null;
+            }
+
+            right.size = MAX_KEYS - HALF;
+            leaf.size = HALF;
+
+            right.prev = leaf;
+            right.next = leaf.next;
+            if (leaf.next != null) {
+                leaf.next.prev = right;
+            }
+
+            leaf.next = right;
+
+            if (index <= HALF) {
+                insertAt(leaf, index, flipped, value);
+            }
+            else {
+                insertAt(right, index - HALF, flipped, value);
+            }
+
+            splitKey = right.keys[0];
+            return right;
+        }
+
+        Inner inner = (Inner) node;
+        int childIndex = childIndex(inner, flipped);
+        Node child = insert(inner.children[childIndex], flipped, value);
+        if (child == null) {
+            return null;
+        }
+
+        long separator = splitKey;
+        if (inner.size < MAX_KEYS) {
+            insertChild(inner, childIndex, separator, child);
+            return null;
+        }
+
+        //the left node keeps HALF children, and the separator between the halves moves up to the parent
+        Inner right = new Inner();
+        long promoted = inner.keys[HALF - 1];
+        System.arraycopy(inner.children, HALF, right.children, 0, MAX_KEYS - HALF);
+        System.arraycopy(inner.keys, HALF, right.keys, 0, MAX_KEYS - 1 - HALF);
+        for (int i = HALF; i < MAX_KEYS; i++) {
+            inner.children[i] = null;
+        }
+
+        right.size = MAX_KEYS - HALF;
+        inner.size = HALF;
+
+        if (childIndex < HALF) {
+            insertChild(inner, childIndex, separator, child);
+        }
+        else {
+            insertChild(right, childIndex - HALF, separator, child);
+        }
+
+        splitKey = promoted;
+        return right;
+    }
+
+    private static void insertAt(Leaf leaf, int index, long flipped, Object value) {
+        int moved = leaf.size - index;
+        System.arraycopy(leaf.keys, index, leaf.keys, index + 1, moved);
+        System.arraycopy(leaf.values, index, leaf.values, index + 1, moved);
+        leaf.keys[index] = flipped;
+        leaf.values[index] = value;
+        leaf.size++;
+    }
+
+    //inserts a child directly after the child at the given index
+    private static void insertChild(Inner inner, int index, long separator, Node child) {
+        System.arraycopy(inner.children, index + 1, inner.children, index + 2, inner.size - index - 1);
+        System.arraycopy(inner.keys, index, inner.keys, index + 1, inner.size - 1 - index);
+        inner.children[index + 1] = child;
+        inner.keys[index] = separator;
+        inner.size++;
+    }
+
+    @Override
+    public V remove(long key) {
+        long flipped = flip(key);
+        if (!inRange(flipped)) {
+            return defRetValue;
+        }
+
+        if (delete(tree.root, flipped)) {
+            tree.root = new Leaf();
+        }
+
+        if (!removed) {
+            return defRetValue;
+        }
+
+        while (tree.root instanceof Inner inner && inner.size == 1) {
+            tree.root = inner.children[0];
+        }
+
+        V old = oldValue;
+        oldValue = null;
+        removed = false;
+        return old;
+    }
+
+    /*
+    Deletes from the subtree rooted at the given node, returning true if the node became empty and must be discarded.
+     */
+    @SuppressWarnings("unchecked")
+    private boolean delete(Node node, long flipped) {
+        if (node instanceof Leaf leaf) {
+            int index = search(leaf.keys, leaf.size, flipped);
+            if (index < 0) {
+                return false;
+            }
+
+            oldValue = (V) leaf.values[index];
+            removed = true;
+            tree.size--;
+
+            int moved = leaf.size - index - 1;
+            System.arraycopy(leaf.keys, index + 1, leaf.keys, index, moved);
+            System.arraycopy(leaf.values, index + 1, leaf.values, index, moved);
+            leaf.values[--leaf.size] = null;
+            if (leaf.size > 0) {
+                return false;
+            }
+
+            if (leaf.prev != null) {
+                leaf.prev.next = leaf.next;
+            }
+
+            if (leaf.next != null) {
+                leaf.next.prev = leaf.prev;
+            }
+
+            leaf.prev = null;
+            leaf.next = null;
+            return true;
+        }
+
+        Inner inner = (Inner) node;
+        int childIndex = childIndex(inner, flipped);
+        if (!delete(inner.children[childIndex], flipped)) {
+            return false;
+        }
+
+        if (inner.size == 1) {
+            inner.children[0] = null;
+            inner.size = 0;
+            return true;
+        }
+
+        //the range of the removed child is merged into its left neighbor, or its right neighbor if it has none
+        int separator = childIndex == 0 ? 0 : childIndex - 1;
+        System.arraycopy(inner.children, childIndex + 1, inner.children, childIndex, inner.size - childIndex - 1);
+        System.arraycopy(inner.keys, separator + 1, inner.keys, separator, inner.size - 2 - separator);
+        inner.children[--inner.size] = null;
+        return false;
+    }
+
+    @Override
+    public int size() {
+        if (bottom && top) {
+            return tree.size;
+        }
+
+        int count = 0;
+        Cursor cursor = new Cursor();
+        while (cursor.next()) {
+            count++;
+        }
+
+        return count;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return bottom && top ? tree.size == 0 : !new Cursor().next();
+    }
+
+    @Override
+    public void clear() {
+        if (bottom && top) {
+            tree.root = new Leaf();
+            tree.size = 0;
+            return;
+        }
+
+        Cursor cursor = new Cursor();
+        boolean valid = cursor.next();
+        while (valid) {
+            long key = cursor.key();
+            remove(key);
+            valid = cursor.seek(key);
+        }
+    }
+
+    private Long2ObjectMap.Entry<V> entry(Cursor cursor, boolean valid) {
+        return valid ? new BasicEntry<>(cursor.key(), cursor.value()) : null;
+    }
+
+    /**
+     * Gets the entry with the least key greater than or equal to the given key.
+     *
+     * @param key the key
+     * @return the entry, or null if there is none
+     */
+    Long2ObjectMap.Entry<V> ceilingEntry(long key) {
+        Cursor cursor = new Cursor();
+        return entry(cursor, cursor.seek(key));
+    }
+
+    /**
+     * Gets the entry with the greatest key less than or equal to the given key.
+     *
+     * @param key the key
+     * @return the entry, or null if there is none
+     */
+    Long2ObjectMap.Entry<V> floorEntry(long key) {
+        Cursor cursor = new Cursor();
+        return entry(cursor, cursor.seekFloor(key));
+    }
+
+    /**
+     * Gets the entry with the least key strictly greater than the given key.
+     *
+     * @param key the key
+     * @return the entry, or null if there is none
+     */
+    Long2ObjectMap.Entry<V> higherEntry(long key) {
+        return key == -1L ? null : ceilingEntry(key + 1);
+    }
+
+    /**
+     * Gets the entry with the greatest key strictly less than the given key.
+     *
+     * @param key the key
+     * @return the entry, or null if there is none
+     */
+    Long2ObjectMap.Entry<V> lowerEntry(long key) {
+        return key == 0L ? null : floorEntry(key - 1);
+    }
+
+    /**
+     * Gets the entry with the least key.
+     *
+     * @return the entry, or null if this map is empty
+     */
+    Long2ObjectMap.Entry<V> firstEntry() {
+        Cursor cursor = new Cursor();
+        return entry(cursor, cursor.next());
+    }
+
+    /**
+     * Gets the entry with the greatest key.
+     *
+     * @return the entry, or null if this map is empty
+     */
+    Long2ObjectMap.Entry<V> lastEntry() {
+        return floorEntry(-1L);
+    }
+
+    /**
+     * Creates a new cursor over the entries of this map, positioned before the first entry.
+     *
+     * @return a new cursor
+     */
+    @NotNull Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Calls the given consumer with each entry in this map, in key order. The map must not be modified until this
+     * method returns.
+     *
+     * @param consumer the consumer to call
+     */
+    void forEachEntry(@NotNull LongEntryConsumer<? super V> consumer) {
+        Cursor cursor = new Cursor();
+        while (cursor.next()) {
+            consumer.accept(cursor.key(), cursor.value());
+        }
+    }
+
+    /**
+     * A position within the entries of a {@link BTreeLong2ObjectMap}, which can be moved forwards one entry at a time,
+     * or to an arbitrary key. Any structural change to the map invalidates the cursor until it is next moved with
+     * {@link Cursor#seek(long)}.
+     */
+    final class Cursor {
+        private Leaf leaf;
+        private int index;
+        private boolean started;
+
+        private Cursor() {}
+
+        private boolean check() {
+            if (leaf != null && index == leaf.size) {
+                leaf = leaf.next;
+                index = 0;
+            }
+
+            if (leaf == null || leaf.size == 0 || (!top && leaf.keys[index] >= to)) {
+                leaf = null;
+                return false;
+            }
+
+            return true;
+        }
+
+        private boolean ceiling(long flipped) {
+            started = true;
+            if (!bottom && flipped < from) {
+                flipped = from;
+            }
+
+            leaf = leaf(flipped);
+            int found = search(leaf.keys, leaf.size, flipped);
+            index = found >= 0 ? found : -found - 1;
+            return check();
+        }
+
+        /**
+         * Moves this cursor to the entry with the least key greater than or equal to the given key.
+         *
+         * @param key the key
+         * @return true if the cursor now points at an entry; false if there is no such entry
+         */
+        boolean seek(long key) {
+            return ceiling(flip(key));
+        }
+
+        private boolean seekFloor(long key) {
+            started = true;
+            long flipped = flip(key);
+            if (!top) {
+                if (to == Long.MIN_VALUE) {
+                    leaf = null;
+                    return false;
+                }
+
+                flipped = Math.min(flipped, to - 1);
+            }
+
+            leaf = leaf(flipped);
+            int found = search(leaf.keys, leaf.size, flipped);
+            index = found >= 0 ? found : -found - 2;
+            if (index < 0) {
+                leaf = leaf.prev;
+                index = leaf == null ? 0 : leaf.size - 1;
+            }
+
+            if (leaf == null || leaf.size == 0 || (!bottom && leaf.keys[index] < from)) {
+                leaf = null;
+                return false;
+            }
+
+            return true;
+        }
+
+        /**
+         * Moves this cursor to the next entry, or to the first entry if it has not yet been moved.
+         *
+         * @return true if the cursor now points at an entry; false if there are no more entries
+         */
+        boolean next() {
+            if (!started) {
+                return ceiling(bottom ? Long.MIN_VALUE : from);
+            }
+
+            if (leaf == null) {
+                return false;
+            }
+
+            index++;
+            return check();
+        }
+
+        /**
+         * Gets the key of the current entry.
+         *
+         * @return the key
+         */
+        long key() {
+            return flip(leaf.keys[index]);
+        }
+
+        /**
+         * Gets the value of the current entry.
+         *
+         * @return the value
+         */
+        @SuppressWarnings("unchecked")
+        V value() {
+            return (V) leaf.values[index];
+        }
+    }
+
+    @Override
+    public ObjectSet<Long2ObjectMap.Entry<V>> long2ObjectEntrySet() {
+        return new AbstractObjectSet<>() {
+            @Override
+            public ObjectIterator<Long2ObjectMap.Entry<V>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return BTreeLong2ObjectMap.this.size();
+            }
+
+            @Override
+            public void clear() {
+                BTreeLong2ObjectMap.this.clear();
+            }
+        };
+    }
+
+    private final class EntryIterator implements ObjectIterator<Long2ObjectMap.Entry<V>> {
+        private final Cursor cursor = new Cursor();
+        private boolean hasNext = cursor.next();
+        private long lastKey;
+        private boolean canRemove;
+
+        @Override
+        public boolean hasNext() {
+            return hasNext;
+        }
+
+        @Override
+        public Long2ObjectMap.Entry<V> next() {
+            if (!hasNext) {
+                throw new NoSuchElementException();
+            }
+
+            long key = cursor.key();
+            V value = cursor.value();
+            lastKey = key;
+            canRemove = true;
+            hasNext = cursor.next();
+
+            return new BasicEntry<>(key, value) {
+                @Override
+                public V setValue(V value) {
+                    Objects.requireNonNull(value);
+                    V old = this.value;
+                    put(key, value);
+                    this.value = value;
+                    return old;
+                }
+            };
+        }
+
+        @Override
+        public void remove() {
+            if (!canRemove) {
+                throw new IllegalStateException();
+            }
+
+            canRemove = false;
+            if (hasNext) {
+                //removal may restructure the leaf the cursor points into
+                long nextKey = cursor.key();
+                BTreeLong2ObjectMap.this.remove(lastKey);
+                cursor.seek(nextKey);
+            }
+            else {
+                BTreeLong2ObjectMap.this.remove(lastKey);
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.github.steanky.vector;
+
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Internal {@link Long2ObjectOpenHashMap} with batched lookups and insertions, used by {@link HashVec3I2ObjectMap}. Not
+ * part of the public API.
+ * <p>
+ * Batches are processed in stages: first the starting slot of every key is computed, then every key is probed. Since
+ * the slots are known before any of them is read, the reads of the probe stage do not depend on each other, and the
+ * processor can have many cache misses outstanding at once rather than waiting for each key in turn.
+ *
+ * @param <V> the type of value stored in the map
+ */
+final class BatchLong2ObjectOpenHashMap<V> extends Long2ObjectOpenHashMap<V> {
+    /**
+     * The number of keys processed per batch by callers. Large enough to hide memory latency, and small enough that the
+     * scratch arrays stay in the L1 cache.
+     */
+    static final int BATCH_SIZE = 64;
+
+    /**
+     * Creates a new map.
+     *
+     * @param expected   the expected number of entries
+     * @param loadFactor the load factor
+     */
+    BatchLong2ObjectOpenHashMap(int expected, float loadFactor) {
+        super(expected, loadFactor);
+    }
+
+    private void startSlots(long[] keys, int[] slots, int length) {
+        int mask = this.mask;
+        for (int i = 0; i < length; i++) {
+            slots[i] = (int) HashCommon.mix(keys[i]) & mask;
+        }
+    }
+
+    /**
+     * Finds the slots holding the given keys.
+     *
+     * @param keys   the keys to find
+     * @param slots  the array in which to store the slot of each key, or -1 for keys which are absent
+     * @param length the number of keys to find
+     */
+    void locate(long @NotNull [] keys, int @NotNull [] slots, int length) {
+        startSlots(keys, slots, length);
+
+        long[] key = this.key;
+        int mask = this.mask;
+        for (int i = 0; i < length; i++) {
+            long k = keys[i];
+            if (k == 0) {
+                slots[i] = containsNullKey ? n : -1;
+                continue;
+            }
+
+            int pos = slots[i];
+            long current;
+            while ((current = key[pos]) != 0 && current != k) {
+                pos = (pos + 1) & mask;
+            }
+
+            slots[i] = current == 0 ? -1 : pos;
+        }
+    }
+
+    /**
+     * Gets the value in a slot found by {@link BatchLong2ObjectOpenHashMap#locate(long[], int[], int)}. The map must
+     * not have been modified since.
+     *
+     * @param slot the slot, which must not be -1
+     * @return the value in the slot
+     */
+    V valueAt(int slot) {
+        return value[slot];
+    }
+
+    /**
+     * Grows the table, if needed, so that the given number of additional entries can be inserted without rehashing.
+     *
+     * @param additional the number of additional entries
+     */
+    void reserve(int additional) {
+        int needed = HashCommon.arraySize((int) Math.min((long) size + additional, Integer.MAX_VALUE), f);
+        if (needed > n) {
+            rehash(needed);
+        }
+    }
+
+    /**
+     * Puts every given value under the corresponding key, replacing existing values. The table is grown once, if
+     * needed, before any key is inserted.
+     *
+     * @param keys   the keys
+     * @param values the values, none of which may be null
+     * @param offset the index of the first value to put
+     * @param slots  scratch space, at least as long as the number of values to put
+     * @param length the number of keys and values to put
+     */
+    void putAll(long @NotNull [] keys, Object @NotNull [] values, int offset, int @NotNull [] slots, int length) {
+        reserve(length);
+        startSlots(keys, slots, length);
+
+        long[] key = this.key;
+        int mask = this.mask;
+        for (int i = 0; i < length; i++) {
+            put(key, mask, keys[i], slots[i], values[offset + i]);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void put(long[] key, int mask, long k, int pos, Object v) {
+        if (k == 0) {
+            if (!containsNullKey) {
+                containsNullKey = true;
+                size++;
+            }
+
+            value[n] = (V) v;
+            return;
+        }
+
+        long current;
+        while ((current = key[pos]) != 0) {
+            if (current == k) {
+                value[pos] = (V) v;
+                return;
+            }
+
+            pos = (pos + 1) & mask;
+        }
+
+        //the table was sized for the whole batch, so there is no need to check maxFill
+        key[pos] = k;
+        value[pos] = (V) v;
+        size++;
+    }
+}
@@ -0,0 +1,378 @@
+package com.github.steanky.vector;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+
+/**
+ * Internal class for packing integer triplets into longs, relative to a bounded rectangular prism. Not part of the
+ * public API.
+ * <p>
+ * See {@link BitPackingVec3I2ObjectMap#BitPackingVec3I2ObjectMap(int, int, int, int, int, int,
+ * it.unimi.dsi.fastutil.longs.Long2ObjectMap)} for a description of how the actual widths are computed from the given
+ * ones.
+ */
+final class BitPacker {
+    private final int x;
+    private final int y;
+    private final int z;
+
+    private final int maskX;
+    private final int maskY;
+    private final int maskZ;
+
+    private final KeyLayout layout;
+
+    //shifts of each axis for axis-order layouts
+    private final int shiftX;
+    private final int shiftY;
+    private final int shiftZ;
+
+    //Morton layout only: the key bits occupied by each axis, and whether all axes have the same number of bits
+    private final long depositX;
+    private final long depositY;
+    private final long depositZ;
+    private final boolean uniform;
+
+    /**
+     * Creates a new packer with the given origin and widths, using the default {@link KeyLayout#XYZ} layout.
+     *
+     * @param x      the x-origin
+     * @param y      the y-origin
+     * @param z      the z-origin
+     * @param width  the x-width
+     * @param height the y-width
+     * @param depth  the z-width
+     */
+    BitPacker(int x, int y, int z, int width, int height, int depth) {
+        this(x, y, z, width, height, depth, KeyLayout.XYZ);
+    }
+
+    /**
+     * Creates a new packer with the given origin, widths and key layout.
+     *
+     * @param x      the x-origin
+     * @param y      the y-origin
+     * @param z      the z-origin
+     * @param width  the x-width
+     * @param height the y-width
+     * @param depth  the z-width
+     * @param layout the layout of packed keys
+     */
+    BitPacker(int x, int y, int z, int width, int height, int depth, @NotNull KeyLayout layout) {
+        if (width <= 0 || height <= 0 || depth <= 0) {
+            throw new IllegalArgumentException("Side lengths cannot be negative or 0");
+        }
+
+        this.x = x;
+        this.y = y;
+        this.z = z;
+
+        int widthBit = Integer.highestOneBit(Math.max(width - 1, 1));
+        int heightBit = Integer.highestOneBit(Math.max(height - 1, 1));
+        int depthBit = Integer.highestOneBit(Math.max(depth - 1, 1));
+
+        int bitWidth = bitSize(widthBit);
+        int bitHeight = bitSize(heightBit);
+        int bitDepth = bitSize(depthBit);
+
+        if ((bitWidth + bitHeight + bitDepth) > Long.SIZE) {
+            throw new IllegalArgumentException(
+                    "Cannot create a BasicVec3I2ObjectMap with more than 2^64 possible values");
+        }
+
+        this.maskX = (widthBit << 1) - 1;
+        this.maskY = (heightBit << 1) - 1;
+        this.maskZ = (depthBit << 1) - 1;
+
+        this.layout = Objects.requireNonNull(layout);
+
+        int[] bits = {bitWidth, bitHeight, bitDepth};
+        int[] shifts = new int[3];
+        long[] deposits = new long[3];
+        if (layout.isAxisOrder()) {
+            int shift = 0;
+            for (int position = 2; position >= 0; position--) {
+                int axis = layout.axis(position);
+                shifts[axis] = shift;
+                shift += bits[axis];
+            }
+        }
+        else {
+            //interleave one bit of each axis at a time, z first, skipping axes which have run out of bits
+            int keyBit = 0;
+            int maxBits = Math.max(bitWidth, Math.max(bitHeight, bitDepth));
+            for (int level = 0; level < maxBits; level++) {
+                for (int axis = 2; axis >= 0; axis--) {
+                    if (level < bits[axis]) {
+                        deposits[axis] |= 1L << keyBit++;
+                    }
+                }
+            }
+        }
+
+        this.shiftX = shifts[0];
+        this.shiftY = shifts[1];
+        this.shiftZ = shifts[2];
+
+        this.depositX = deposits[0];
+        this.depositY = deposits[1];
+        this.depositZ = deposits[2];
+        this.uniform = bitWidth == bitHeight && bitHeight == bitDepth;
+    }
+
+    /*
+    Spreads the low 21 bits of a value so that there are two zero bits between each of them.
+     */
+    private static long spread(long value) {
+        value &= 0x1FFFFFL;
+        value = (value | value << 32) & 0x1F00000000FFFFL;
+        value = (value | value << 16) & 0x1F0000FF0000FFL;
+        value = (value | value << 8) & 0x100F00F00F00F00FL;
+        value = (value | value << 4) & 0x10C30C30C30C30C3L;
+        return (value | value << 2) & 0x1249249249249249L;
+    }
+
+    /*
+    Inverse of spread: gathers every third bit, starting from the least significant, into the low 21 bits.
+     */
+    private static int compact(long value) {
+        value &= 0x1249249249249249L;
+        value = (value ^ (value >>> 2)) & 0x10C30C30C30C30C3L;
+        value = (value ^ (value >>> 4)) & 0x100F00F00F00F00FL;
+        value = (value ^ (value >>> 8)) & 0x1F0000FF0000FFL;
+        value = (value ^ (value >>> 16)) & 0x1F00000000FFFFL;
+        return (int) ((value ^ (value >>> 32)) & 0x1FFFFFL);
+    }
+
+    /*
+    Deposits the low bits of a value into the set bits of a mask, in order.
+     */
+    private static long deposit(long value, long mask) {
+        long result = 0;
+        for (long remaining = mask; remaining != 0; remaining &= remaining - 1) {
+            if ((value & 1) != 0) {
+                result |= remaining & -remaining;
+            }
+
+            value >>>= 1;
+        }
+
+        return result;
+    }
+
+    /*
+    Inverse of deposit: extracts the bits of a value selected by a mask into its low bits.
+     */
+    private static int extract(long value, long mask) {
+        int result = 0;
+        int bit = 0;
+        for (long remaining = mask; remaining != 0; remaining &= remaining - 1) {
+            if ((value & remaining & -remaining) != 0) {
+                result |= 1 << bit;
+            }
+
+            bit++;
+        }
+
+        return result;
+    }
+
+    private long packMorton(long rx, long ry, long rz) {
+        if (uniform) {
+            return (spread(rx) << 2) | (spread(ry) << 1) | spread(rz);
+        }
+
+        return deposit(rx, depositX) | deposit(ry, depositY) | deposit(rz, depositZ);
+    }
+
+    /**
+     * Determines if this packer produces the same key as another packer for every coordinate.
+     *
+     * @param other the other packer
+     * @return true if both packers have the same origin, actual widths and layout; false otherwise
+     */
+    boolean packsLike(@NotNull BitPacker other) {
+        return x == other.x && y == other.y && z == other.z && maskX == other.maskX && maskY == other.maskY &&
+                maskZ == other.maskZ && layout == other.layout;
+    }
+
+    /**
+     * Gets the layout of packed keys.
+     *
+     * @return the key layout
+     */
+    @NotNull KeyLayout layout() {
+        return layout;
+    }
+
+    private static int bitSize(int highestBit) {
+        return Integer.numberOfTrailingZeros(highestBit) + 1;
+    }
+
+    /**
+     * Packs three integers into a long.
+     *
+     * @param x the x-coordinate
+     * @param y the y-coordinate
+     * @param z the z-coordinate
+     * @return a single packed long
+     */
+    long pack(int x, int y, int z) {
+        long rx = ((long)x - this.x) & maskX;
+        long ry = ((long)y - this.y) & maskY;
+        long rz = ((long)z - this.z) & maskZ;
+        if (layout == KeyLayout.MORTON) {
+            return packMorton(rx, ry, rz);
+        }
+
+        return (rx << shiftX) | (ry << shiftY) | (rz << shiftZ);
+    }
+
+    /**
+     * Packs only the bits contributed by the x-coordinate. For any coordinates, {@code pack(x, y, z)} is equal to
+     * {@code packX(x) | packY(y) | packZ(z)}.
+     *
+     * @param x the x-coordinate
+     * @return the bits of the packed long which hold the x-coordinate
+     */
+    long packX(int x) {
+        long rx = ((long)x - this.x) & maskX;
+        if (layout == KeyLayout.MORTON) {
+            return uniform ? spread(rx) << 2 : deposit(rx, depositX);
+        }
+
+        return rx << shiftX;
+    }
+
+    /**
+     * Packs only the bits contributed by the y-coordinate. See {@link BitPacker#packX(int)}.
+     *
+     * @param y the y-coordinate
+     * @return the bits of the packed long which hold the y-coordinate
+     */
+    long packY(int y) {
+        long ry = ((long)y - this.y) & maskY;
+        if (layout == KeyLayout.MORTON) {
+            return uniform ? spread(ry) << 1 : deposit(ry, depositY);
+        }
+
+        return ry << shiftY;
+    }
+
+    /**
+     * Packs only the bits contributed by the z-coordinate. See {@link BitPacker#packX(int)}.
+     *
+     * @param z the z-coordinate
+     * @return the bits of the packed long which hold the z-coordinate
+     */
+    long packZ(int z) {
+        long rz = ((long)z - this.z) & maskZ;
+        if (layout == KeyLayout.MORTON) {
+            return uniform ? spread(rz) : deposit(rz, depositZ);
+        }
+
+        return rz << shiftZ;
+    }
+
+    /**
+     * Unpacks the x-coordinate from the given packed long. The origin is added back, so this is the inverse of
+     * {@link BitPacker#pack(int, int, int)} for all coordinates within the addressable space.
+     *
+     * @param key the packed long
+     * @return the x-coordinate
+     */
+    int x(long key) {
+        if (layout == KeyLayout.MORTON) {
+            return (uniform ? compact(key >>> 2) & maskX : extract(key, depositX)) + x;
+        }
+
+        return (int) ((key >>> shiftX) & maskX) + x;
+    }
+
+    /**
+     * Unpacks the y-coordinate from the given packed long.
+     *
+     * @param key the packed long
+     * @return the y-coordinate
+     */
+    int y(long key) {
+        if (layout == KeyLayout.MORTON) {
+            return (uniform ? compact(key >>> 1) & maskY : extract(key, depositY)) + y;
+        }
+
+        return (int) ((key >>> shiftY) & maskY) + y;
+    }
+
+    /**
+     * Unpacks the z-coordinate from the given packed long.
+     *
+     * @param key the packed long
+     * @return the z-coordinate
+     */
+    int z(long key) {
+        if (layout == KeyLayout.MORTON) {
+            return (uniform ? compact(key) & maskZ : extract(key, depositZ)) + z;
+        }
+
+        return (int) ((key >>> shiftZ) & maskZ) + z;
+    }
+
+    /**
+     * Computes the x-coordinate relative to the origin, wrapped to the actual width.
+     *
+     * @param x the x-coordinate
+     * @return the relative x-coordinate, always in the range [0, width)
+     */
+    int relativeX(int x) {
+        return (x - this.x) & maskX;
+    }
+
+    /**
+     * Computes the y-coordinate relative to the origin, wrapped to the actual height.
+     *
+     * @param y the y-coordinate
+     * @return the relative y-coordinate, always in the range [0, height)
+     */
+    int relativeY(int y) {
+        return (y - this.y) & maskY;
+    }
+
+    /**
+     * Computes the z-coordinate relative to the origin, wrapped to the actual depth.
+     *
+     * @param z the z-coordinate
+     * @return the relative z-coordinate, always in the range [0, depth)
+     */
+    int relativeZ(int z) {
+        return (z - this.z) & maskZ;
+    }
+
+    int originX() {
+        return x;
+    }
+
+    int originY() {
+        return y;
+    }
+
+    int originZ() {
+        return z;
+    }
+
+    long width() {
+        return maskX + 1L;
+    }
+
+    long height() {
+        return maskY + 1L;
+    }
+
+    long depth() {
+        return maskZ + 1L;
+    }
+
+    long addressableSize() {
+        return width() * height() * depth();
+    }
+}
@@ -0,0 +1,221 @@
+package com.github.steanky.vector;
+
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntMaps;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+
+/**
+ * Abstract implementation of {@link Vec3I2IntMap} which is based on a bounded rectangular prism of possible unique
+ * values, and an internal {@link Long2IntMap} which holds them. Coordinates are packed in the same way as
+ * {@link BitPackingVec3I2ObjectMap}; see its constructor for details.
+ *
+ * @see ConcurrentHashVec3I2IntMap
+ * @see HashVec3I2IntMap
+ */
+public abstract class BitPackingVec3I2IntMap implements Vec3I2IntMap {
+    /**
+     * The underlying map.
+     */
+    protected final Long2IntMap underlyingMap;
+
+    private final BitPacker packer;
+
+    /**
+     * Creates a new {@link BitPackingVec3I2IntMap} with the given origin and bounds. See
+     * {@link BitPackingVec3I2ObjectMap} for details on how the actual widths are computed.
+     *
+     * @param x             the x-origin
+     * @param y             the y-origin
+     * @param z             the z-origin
+     * @param width         the x-width
+     * @param height        the y-width
+     * @param depth         the z-width
+     * @param underlyingMap the underlying {@link Long2IntMap} in which to store data
+     */
+    protected BitPackingVec3I2IntMap(int x, int y, int z, int width, int height, int depth,
+            @NotNull Long2IntMap underlyingMap) {
+        this.packer = new BitPacker(x, y, z, width, height, depth);
+        this.underlyingMap = Objects.requireNonNull(underlyingMap);
+    }
+
+    /**
+     * Packs three integers into a long, with respect to the bounds of this map.
+     *
+     * @param x the x-coordinate of the vector to pack
+     * @param y the y-coordinate of the vector to pack
+     * @param z the z-coordinate of the vector to pack
+     * @return a single packed long
+     */
+    protected long pack(int x, int y, int z) {
+        return packer.pack(x, y, z);
+    }
+
+    /**
+     * Unpacks only the x-coordinate from the given packed long.
+     *
+     * @param key the packed long
+     * @return the x-coordinate contained in the packed long
+     */
+    protected int x(long key) {
+        return packer.x(key);
+    }
+
+    /**
+     * Unpacks only the y-coordinate from the given packed long.
+     *
+     * @param key the packed long
+     * @return the y-coordinate contained in the packed long
+     */
+    protected int y(long key) {
+        return packer.y(key);
+    }
+
+    /**
+     * Unpacks only the z-coordinate from the given packed long.
+     *
+     * @param key the packed long
+     * @return the z-coordinate contained in the packed long
+     */
+    protected int z(long key) {
+        return packer.z(key);
+    }
+
+    /**
+     * The origin x-coordinate of this map, and therefore the origin of its uniquely addressable space.
+     * @return the x-coordinate of the map origin
+     */
+    public int originX() {
+        return packer.originX();
+    }
+
+    /**
+     * The origin y-coordinate of this map, and therefore the origin of its uniquely addressable space.
+     * @return the y-coordinate of the map origin
+     */
+    public int originY() {
+        return packer.originY();
+    }
+
+    /**
+     * The origin z-coordinate of this map, and therefore the origin of its uniquely addressable space.
+     * @return the z-coordinate of the map origin
+     */
+    public int originZ() {
+        return packer.originZ();
+    }
+
+    /**
+     * Gets the actual length of this map's addressable space along the x-axis.
+     * @return the actual width along the x-axis
+     */
+    public long width() {
+        return packer.width();
+    }
+
+    /**
+     * Gets the actual length of this map's addressable space along the y-axis.
+     * @return the actual width along the y-axis
+     */
+    public long height() {
+        return packer.height();
+    }
+
+    /**
+     * Gets the actual length of this map's addressable space along the z-axis.
+     * @return the actual width along the z-axis
+     */
+    public long depth() {
+        return packer.depth();
+    }
+
+    /**
+     * Computes the maximum possible capacity of this map; i.e. the number of unique elements it may store.
+     * @return the addressable size of this map
+     */
+    public long addressableSize() {
+        return packer.addressableSize();
+    }
+
+    @Override
+    public int get(int x, int y, int z) {
+        return underlyingMap.get(pack(x, y, z));
+    }
+
+    @Override
+    public int getOrDefault(int x, int y, int z, int def) {
+        return underlyingMap.getOrDefault(pack(x, y, z), def);
+    }
+
+    @Override
+    public int put(int x, int y, int z, int value) {
+        return underlyingMap.put(pack(x, y, z), value);
+    }
+
+    @Override
+    public int remove(int x, int y, int z) {
+        return underlyingMap.remove(pack(x, y, z));
+    }
+
+    @Override
+    public boolean containsKey(int x, int y, int z) {
+        return underlyingMap.containsKey(pack(x, y, z));
+    }
+
+    @Override
+    public int addTo(int x, int y, int z, int increment) {
+        long key = pack(x, y, z);
+        int old = underlyingMap.get(key);
+        underlyingMap.put(key, old + increment);
+        return old;
+    }
+
+    @Override
+    public int computeIfAbsent(int x, int y, int z, @NotNull Vec3IToIntFunction mappingFunction) {
+        Objects.requireNonNull(mappingFunction);
+
+        long key = pack(x, y, z);
+        if (underlyingMap.containsKey(key)) {
+            return underlyingMap.get(key);
+        }
+
+        int value = mappingFunction.applyAsInt(x, y, z);
+        underlyingMap.put(key, value);
+        return value;
+    }
+
+    @Override
+    public void forEach(@NotNull Vec3IIntBiConsumer consumer) {
+        Objects.requireNonNull(consumer);
+        for (Long2IntMap.Entry entry : Long2IntMaps.fastIterable(underlyingMap)) {
+            long key = entry.getLongKey();
+            consumer.accept(x(key), y(key), z(key), entry.getIntValue());
+        }
+    }
+
+    @Override
+    public int size() {
+        return underlyingMap.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return underlyingMap.isEmpty();
+    }
+
+    @Override
+    public void clear() {
+        underlyingMap.clear();
+    }
+
+    @Override
+    public int defaultReturnValue() {
+        return underlyingMap.defaultReturnValue();
+    }
+
+    @Override
+    public void defaultReturnValue(int rv) {
+        underlyingMap.defaultReturnValue(rv);
+    }
+}
\ No newline at end of file
@@ -2,11 +2,14 @@ package com.github.steanky.vector;
 
 import it.unimi.dsi.fastutil.longs.AbstractLong2ObjectMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
 import it.unimi.dsi.fastutil.objects.ObjectSet;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.*;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.stream.StreamSupport;
 
 /**
  * A further abstract implementation of {@link AbstractVec3I2ObjectMap} which is based on a bounded rectangular prism of
@@ -22,16 +25,7 @@ public abstract class BitPackingVec3I2ObjectMap<T> extends AbstractVec3I2ObjectM
      */
     protected final Long2ObjectMap<T> underlyingMap;
 
-    private final int x;
-    private final int y;
-    private final int z;
-
-    private final int maskX;
-    private final int maskY;
-    private final int maskZ;
-
-    private final int bitHeight;
-    private final int bitDepth;
+    private final BitPacker packer;
 
     /**
      * Creates a new {@link BitPackingVec3I2ObjectMap} with the given origin and bounds. All operations are performed
@@ -60,61 +54,86 @@ public abstract class BitPackingVec3I2ObjectMap<T> extends AbstractVec3I2ObjectM
      */
     protected BitPackingVec3I2ObjectMap(int x, int y, int z, int width, int height, int depth,
             @NotNull Long2ObjectMap<T> underlyingMap) {
-        if (width <= 0 || height <= 0 || depth <= 0) {
-            throw new IllegalArgumentException("Side lengths cannot be negative or 0");
-        }
-
-        this.x = x;
-        this.y = y;
-        this.z = z;
-
-        int widthBit = Integer.highestOneBit(Math.max(width - 1, 1));
-        int heightBit = Integer.highestOneBit(Math.max(height - 1, 1));
-        int depthBit = Integer.highestOneBit(Math.max(depth - 1, 1));
-
-        int bitWidth = bitSize(widthBit);
-        int bitHeight = bitSize(heightBit);
-        int bitDepth = bitSize(depthBit);
-
-        if ((bitWidth + bitHeight + bitDepth) > Long.SIZE) {
-            throw new IllegalArgumentException(
-                    "Cannot create a BasicVec3I2ObjectMap with more than 2^64 possible values");
-        }
-
-        this.maskX = (widthBit << 1) - 1;
-        this.maskY = (heightBit << 1) - 1;
-        this.maskZ = (depthBit << 1) - 1;
-
-        this.bitHeight = bitHeight;
-        this.bitDepth = bitDepth;
-
-        this.underlyingMap = Objects.requireNonNull(underlyingMap);
+        this(x, y, z, width, height, depth, KeyLayout.XYZ, underlyingMap);
     }
 
-    private static int bitSize(int highestBit) {
-        return Integer.numberOfTrailingZeros(highestBit) + 1;
+    /**
+     * Creates a new {@link BitPackingVec3I2ObjectMap} with the given origin, bounds and key layout. See
+     * {@link BitPackingVec3I2ObjectMap#BitPackingVec3I2ObjectMap(int, int, int, int, int, int, Long2ObjectMap)} for
+     * details on how the actual widths are computed, and {@link KeyLayout} for how the layout affects packed keys.
+     *
+     * @param x             the x-origin
+     * @param y             the y-origin
+     * @param z             the z-origin
+     * @param width         the x-width
+     * @param height        the y-width
+     * @param depth         the z-width
+     * @param layout        the layout of packed keys
+     * @param underlyingMap the underlying {@link Long2ObjectMap} in which to store data
+     */
+    protected BitPackingVec3I2ObjectMap(int x, int y, int z, int width, int height, int depth,
+            @NotNull KeyLayout layout, @NotNull Long2ObjectMap<T> underlyingMap) {
+        this.packer = new BitPacker(x, y, z, width, height, depth, layout);
+        this.underlyingMap = Objects.requireNonNull(underlyingMap);
     }
 
-    @SuppressWarnings({"unchecked", "rawtypes"})
+    @SuppressWarnings("unchecked")
     @Override
     public void putAll(Map<? extends Vec3I, ? extends T> map) {
-        if (map instanceof BitPackingVec3I2ObjectMap<?> other) {
+        if (map instanceof BitPackingVec3I2ObjectMap<?> other && packer.packsLike(other.packer)) {
             underlyingMap.putAll((Long2ObjectMap<? extends T>) other.underlyingMap);
         }
         else {
-            Map.Entry[] entries = map.entrySet().toArray(Entry[]::new);
-            for (int i = 0; i < entries.length; i++) {
-                Map.Entry old = entries[i];
-                Vec3I key = (Vec3I) old.getKey();
-                Object value = Objects.requireNonNull(old.getValue());
+            //pack into flat arrays, so the underlying map can be presized without allocating per entry
+            long[] keys = new long[map.size()];
+            Object[] values = new Object[keys.length];
+            int i = 0;
+            for (Map.Entry<? extends Vec3I, ? extends T> entry : map.entrySet()) {
+                if (i == keys.length) {
+                    //the map grew while it was being copied
+                    break;
+                }
 
-                entries[i] = Map.entry(pack(key.x(), key.y(), key.z()), value);
+                Vec3I key = entry.getKey();
+                keys[i] = pack(key.x(), key.y(), key.z());
+                values[i++] = entry.getValue();
             }
 
-            underlyingMap.putAll(Map.ofEntries(entries));
+            if (i < keys.length) {
+                keys = Arrays.copyOf(keys, i);
+                values = Arrays.copyOf(values, i);
+            }
+
+            underlyingMap.putAll((Map<Long, T>) BulkLong2ObjectView.ofKeys(keys, values));
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation presents the arrays to the underlying map as a single batch, so that it can grow its table
+     * once if necessary, and packs each coordinate as it is copied without allocating per entry.
+     */
+    @Override
+    public void putAll(int @NotNull [] xs, int @NotNull [] ys, int @NotNull [] zs, T @NotNull [] values) {
+        underlyingMap.putAll(BulkLong2ObjectView.ofCoordinates(packer, xs, ys, zs, values));
+    }
+
+    /**
+     * Puts every value in the given array into this map, under the corresponding packed key. Keys must be packed in
+     * the same way as {@link BitPackingVec3I2ObjectMap#pack(int, int, int)} for this map; that is, by a map with the
+     * same origin, actual widths and {@link KeyLayout}. Like
+     * {@link BitPackingVec3I2ObjectMap#putAll(int[], int[], int[], Object[])}, this does not allocate per entry.
+     *
+     * @param keys   the packed keys
+     * @param values the values, which must have the same length as the keys
+     * @throws IllegalArgumentException if the arrays have different lengths
+     * @throws NullPointerException     if any value is null
+     */
+    public void putAll(long @NotNull [] keys, T @NotNull [] values) {
+        underlyingMap.putAll(BulkLong2ObjectView.ofKeys(keys, values));
+    }
+
     @Override
     public void putAll(@NotNull Vec3I2ObjectMap<? extends T> map) {
         putAll((Map<? extends Vec3I, ? extends T>) map);
@@ -155,6 +174,7 @@ public abstract class BitPackingVec3I2ObjectMap<T> extends AbstractVec3I2ObjectM
 
                             @Override
                             public T setValue(T value) {
+                                Objects.requireNonNull(value);
                                 return next.setValue(value);
                             }
                         };
@@ -167,6 +187,11 @@ public abstract class BitPackingVec3I2ObjectMap<T> extends AbstractVec3I2ObjectM
                 };
             }
 
+            @Override
+            public Spliterator<Entry<Vec3I, T>> spliterator() {
+                return new EntrySpliterator(entrySet.spliterator());
+            }
+
             @Override
             public int size() {
                 return underlyingMap.size();
@@ -194,6 +219,123 @@ public abstract class BitPackingVec3I2ObjectMap<T> extends AbstractVec3I2ObjectM
         };
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The returned cursor is based on {@link Long2ObjectMaps#fastIterator(Long2ObjectMap)}, so it does not allocate per
+     * entry if the underlying map supports fast iteration.
+     */
+    @Override
+    public @NotNull Vec3IObjectCursor<T> cursor() {
+        Iterator<Long2ObjectMap.Entry<T>> iterator = Long2ObjectMaps.fastIterator(underlyingMap);
+        return new Vec3IObjectCursor<>() {
+            private Long2ObjectMap.Entry<T> entry;
+            private long key;
+
+            @Override
+            public boolean next() {
+                if (!iterator.hasNext()) {
+                    entry = null;
+                    return false;
+                }
+
+                entry = iterator.next();
+                key = entry.getLongKey();
+                return true;
+            }
+
+            @Override
+            public int x() {
+                return BitPackingVec3I2ObjectMap.this.x(key);
+            }
+
+            @Override
+            public int y() {
+                return BitPackingVec3I2ObjectMap.this.y(key);
+            }
+
+            @Override
+            public int z() {
+                return BitPackingVec3I2ObjectMap.this.z(key);
+            }
+
+            @Override
+            public T value() {
+                return entry.getValue();
+            }
+
+            @Override
+            public T setValue(T value) {
+                Objects.requireNonNull(value);
+                return entry.setValue(value);
+            }
+
+            @Override
+            public void remove() {
+                iterator.remove();
+                entry = null;
+            }
+        };
+    }
+
+    /*
+    Adapts a spliterator over the underlying map, so that it splits in the same way. Entries are not write-through.
+     */
+    private final class EntrySpliterator implements Spliterator<Entry<Vec3I, T>> {
+        private final Spliterator<Long2ObjectMap.Entry<T>> spliterator;
+
+        private EntrySpliterator(Spliterator<Long2ObjectMap.Entry<T>> spliterator) {
+            this.spliterator = spliterator;
+        }
+
+        private Entry<Vec3I, T> entry(Long2ObjectMap.Entry<T> entry) {
+            return new AbstractMap.SimpleImmutableEntry<>(unpack(entry.getLongKey()), entry.getValue());
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Entry<Vec3I, T>> action) {
+            Objects.requireNonNull(action);
+            return spliterator.tryAdvance(entry -> action.accept(entry(entry)));
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Entry<Vec3I, T>> action) {
+            Objects.requireNonNull(action);
+            spliterator.forEachRemaining(entry -> action.accept(entry(entry)));
+        }
+
+        @Override
+        public Spliterator<Entry<Vec3I, T>> trySplit() {
+            Spliterator<Long2ObjectMap.Entry<T>> prefix = spliterator.trySplit();
+            return prefix == null ? null : new EntrySpliterator(prefix);
+        }
+
+        @Override
+        public long estimateSize() {
+            return spliterator.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return (spliterator.characteristics() & (SIZED | SUBSIZED | CONCURRENT)) | DISTINCT | NONNULL;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation uses a parallel stream over the entries of the underlying map, and therefore splits as well
+     * as its spliterator does.
+     */
+    @Override
+    public void parallelForEach(@NotNull Vec3IObjectBiConsumer<? super T> consumer) {
+        Objects.requireNonNull(consumer);
+        StreamSupport.stream(underlyingMap.long2ObjectEntrySet().spliterator(), true).forEach(entry -> {
+            long key = entry.getLongKey();
+            consumer.accept(x(key), y(key), z(key), entry.getValue());
+        });
+    }
+
     /**
      * Packs three integers into a long, with respect to the bounds of this map.
      *
@@ -203,8 +345,16 @@ public abstract class BitPackingVec3I2ObjectMap<T> extends AbstractVec3I2ObjectM
      * @return a single packed long
      */
     protected long pack(int x, int y, int z) {
-        return ((((long)x - this.x) & maskX) << (bitHeight + bitDepth)) | ((((long)y - this.y) & maskY) << bitDepth) |
-                (((long)z - this.z) & maskZ);
+        return packer.pack(x, y, z);
+    }
+
+    /**
+     * Gets the layout of the packed keys used by this map.
+     *
+     * @return the key layout
+     */
+    public @NotNull KeyLayout keyLayout() {
+        return packer.layout();
     }
 
     /**
@@ -219,13 +369,14 @@ public abstract class BitPackingVec3I2ObjectMap<T> extends AbstractVec3I2ObjectM
     }
 
     /**
-     * Unpacks only the x-coordinate from the given packed long.
+     * Unpacks only the x-coordinate from the given packed long. The origin of this map is added back, so the result
+     * is the coordinate that was originally packed (modulo the actual width of this map).
      *
      * @param key the packed long
      * @return the x-coordinate contained in the packed long
      */
     protected int x(long key) {
-        return (int) ((key >>> (bitDepth + bitHeight)) & maskX);
+        return packer.x(key);
     }
 
     /**
@@ -235,7 +386,7 @@ public abstract class BitPackingVec3I2ObjectMap<T> extends AbstractVec3I2ObjectM
      * @return the y-coordinate contained in the packed long
      */
     protected int y(long key) {
-        return (int) ((key >>> bitDepth) & maskY);
+        return packer.y(key);
     }
 
     /**
@@ -245,7 +396,7 @@ public abstract class BitPackingVec3I2ObjectMap<T> extends AbstractVec3I2ObjectM
      * @return the z-coordinate contained in the packed long
      */
     protected int z(long key) {
-        return (int) (key & maskZ);
+        return packer.z(key);
     }
 
     /**
@@ -253,7 +404,7 @@ public abstract class BitPackingVec3I2ObjectMap<T> extends AbstractVec3I2ObjectM
      * @return the x-coordinate of the map origin
      */
     public int originX() {
-        return x;
+        return packer.originX();
     }
 
     /**
@@ -261,7 +412,7 @@ public abstract class BitPackingVec3I2ObjectMap<T> extends AbstractVec3I2ObjectM
      * @return the y-coordinate of the map origin
      */
     public int originY() {
-        return y;
+        return packer.originY();
     }
 
     /**
@@ -269,7 +420,7 @@ public abstract class BitPackingVec3I2ObjectMap<T> extends AbstractVec3I2ObjectM
      * @return the z-coordinate of the map origin
      */
     public int originZ() {
-        return z;
+        return packer.originZ();
     }
 
     /**
@@ -278,7 +429,7 @@ public abstract class BitPackingVec3I2ObjectMap<T> extends AbstractVec3I2ObjectM
      * @return the actual width along the x-axis
      */
     public long width() {
-        return maskX + 1L;
+        return packer.width();
     }
 
     /**
@@ -287,7 +438,7 @@ public abstract class BitPackingVec3I2ObjectMap<T> extends AbstractVec3I2ObjectM
      * @return the actual width along the y-axis
      */
     public long height() {
-        return maskY + 1L;
+        return packer.height();
     }
 
     /**
@@ -296,7 +447,7 @@ public abstract class BitPackingVec3I2ObjectMap<T> extends AbstractVec3I2ObjectM
      * @return the actual width along the z-axis
      */
     public long depth() {
-        return maskZ + 1L;
+        return packer.depth();
     }
 
     /**
@@ -304,7 +455,7 @@ public abstract class BitPackingVec3I2ObjectMap<T> extends AbstractVec3I2ObjectM
      * @return the addressable size of this map
      */
     public long addressableSize() {
-        return width() * height() * depth();
+        return packer.addressableSize();
     }
 
     @Override
@@ -401,6 +552,32 @@ public abstract class BitPackingVec3I2ObjectMap<T> extends AbstractVec3I2ObjectM
         underlyingMap.forEach((l, t) -> consumer.accept(x(l), y(l), z(l), t));
     }
 
+    @Override
+    public void forEachIn(@NotNull Bounds3I bounds, @NotNull Vec3IObjectBiConsumer<? super T> consumer) {
+        RegionQueries.forEachIn(this, bounds, packer, consumer);
+    }
+
+    @Override
+    public boolean removeIf(@NotNull Bounds3I bounds, @NotNull Vec3IObjectBiPredicate<? super T> predicate) {
+        return RegionQueries.removeIf(this, bounds, packer, predicate);
+    }
+
+    @Override
+    public int countIn(@NotNull Bounds3I bounds) {
+        return RegionQueries.countIn(this, bounds, packer);
+    }
+
+    @Override
+    public void forEachNeighbor(int x, int y, int z, @NotNull NeighborhoodKind kind,
+            @NotNull Vec3IObjectBiConsumer<? super T> consumer) {
+        Neighbors.forEach(packer, underlyingMap, x, y, z, kind, consumer);
+    }
+
+    @Override
+    public int getNeighbors(int x, int y, int z, @NotNull NeighborhoodKind kind, T @NotNull [] out) {
+        return Neighbors.get(packer, underlyingMap, x, y, z, kind, out);
+    }
+
     @Override
     public int size() {
         return underlyingMap.size();
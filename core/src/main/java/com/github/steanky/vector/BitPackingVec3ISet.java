@@ -0,0 +1,183 @@
+package com.github.steanky.vector;
+
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+
+/**
+ * Abstract implementation of {@link Vec3ISet} which is based on a bounded rectangular prism of possible unique values,
+ * and an internal {@link LongSet} which holds them. Coordinates are packed in the same way as
+ * {@link BitPackingVec3I2ObjectMap}; see its constructor for details. Nothing is stored for each coordinate except its
+ * packed key.
+ *
+ * @see BoundedVec3ISet
+ * @see ConcurrentHashVec3ISet
+ * @see HashVec3ISet
+ */
+public abstract class BitPackingVec3ISet implements Vec3ISet {
+    /**
+     * The underlying set.
+     */
+    protected final LongSet underlyingSet;
+
+    private final BitPacker packer;
+
+    /**
+     * Creates a new {@link BitPackingVec3ISet} with the given origin and bounds. See {@link BitPackingVec3I2ObjectMap}
+     * for details on how the actual widths are computed.
+     *
+     * @param x             the x-origin
+     * @param y             the y-origin
+     * @param z             the z-origin
+     * @param width         the x-width
+     * @param height        the y-width
+     * @param depth         the z-width
+     * @param underlyingSet the underlying {@link LongSet} in which to store data
+     */
+    protected BitPackingVec3ISet(int x, int y, int z, int width, int height, int depth,
+            @NotNull LongSet underlyingSet) {
+        this.packer = new BitPacker(x, y, z, width, height, depth);
+        this.underlyingSet = Objects.requireNonNull(underlyingSet);
+    }
+
+    /**
+     * Packs three integers into a long, with respect to the bounds of this set.
+     *
+     * @param x the x-coordinate of the vector to pack
+     * @param y the y-coordinate of the vector to pack
+     * @param z the z-coordinate of the vector to pack
+     * @return a single packed long
+     */
+    protected long pack(int x, int y, int z) {
+        return packer.pack(x, y, z);
+    }
+
+    /**
+     * Unpacks only the x-coordinate from the given packed long.
+     *
+     * @param key the packed long
+     * @return the x-coordinate contained in the packed long
+     */
+    protected int x(long key) {
+        return packer.x(key);
+    }
+
+    /**
+     * Unpacks only the y-coordinate from the given packed long.
+     *
+     * @param key the packed long
+     * @return the y-coordinate contained in the packed long
+     */
+    protected int y(long key) {
+        return packer.y(key);
+    }
+
+    /**
+     * Unpacks only the z-coordinate from the given packed long.
+     *
+     * @param key the packed long
+     * @return the z-coordinate contained in the packed long
+     */
+    protected int z(long key) {
+        return packer.z(key);
+    }
+
+    /**
+     * The origin x-coordinate of this set, and therefore the origin of its uniquely addressable space.
+     * @return the x-coordinate of the set origin
+     */
+    public int originX() {
+        return packer.originX();
+    }
+
+    /**
+     * The origin y-coordinate of this set, and therefore the origin of its uniquely addressable space.
+     * @return the y-coordinate of the set origin
+     */
+    public int originY() {
+        return packer.originY();
+    }
+
+    /**
+     * The origin z-coordinate of this set, and therefore the origin of its uniquely addressable space.
+     * @return the z-coordinate of the set origin
+     */
+    public int originZ() {
+        return packer.originZ();
+    }
+
+    /**
+     * Gets the actual length of this set's addressable space along the x-axis.
+     * @return the actual width along the x-axis
+     */
+    public long width() {
+        return packer.width();
+    }
+
+    /**
+     * Gets the actual length of this set's addressable space along the y-axis.
+     * @return the actual width along the y-axis
+     */
+    public long height() {
+        return packer.height();
+    }
+
+    /**
+     * Gets the actual length of this set's addressable space along the z-axis.
+     * @return the actual width along the z-axis
+     */
+    public long depth() {
+        return packer.depth();
+    }
+
+    /**
+     * Computes the maximum possible capacity of this set; i.e. the number of unique elements it may store.
+     * @return the addressable size of this set
+     */
+    public long addressableSize() {
+        return packer.addressableSize();
+    }
+
+    @Override
+    public boolean add(int x, int y, int z) {
+        return underlyingSet.add(pack(x, y, z));
+    }
+
+    @Override
+    public boolean contains(int x, int y, int z) {
+        return underlyingSet.contains(pack(x, y, z));
+    }
+
+    @Override
+    public boolean remove(int x, int y, int z) {
+        return underlyingSet.remove(pack(x, y, z));
+    }
+
+    @Override
+    public void forEach(@NotNull Vec3IConsumer consumer) {
+        Objects.requireNonNull(consumer);
+
+        LongIterator iterator = underlyingSet.iterator();
+        while (iterator.hasNext()) {
+            long key = iterator.nextLong();
+            consumer.accept(x(key), y(key), z(key));
+        }
+    }
+
+    @Override
+    public int size() {
+        return underlyingSet.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return underlyingSet.isEmpty();
+    }
+
+    @Override
+    public void clear() {
+        underlyingSet.clear();
+    }
+}
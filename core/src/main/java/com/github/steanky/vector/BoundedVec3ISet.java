@@ -0,0 +1,77 @@
+package com.github.steanky.vector;
+
+import it.unimi.dsi.fastutil.Hash;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Implementation of {@link Vec3ISet} based on an internal {@link LongOpenHashSet}, which only accepts coordinates
+ * contained in an exact {@link Bounds3I}. Unlike {@link HashVec3ISet}, coordinates outside the bounds never "wrap
+ * around" to alias coordinates inside of it. Instead, {@link BoundedVec3ISet#add(int, int, int)} throws an
+ * {@link IllegalArgumentException}, and other operations treat such coordinates as absent.
+ */
+public class BoundedVec3ISet extends BitPackingVec3ISet {
+    private final Bounds3I bounds;
+
+    /**
+     * Creates a new {@link BoundedVec3ISet} accepting only coordinates inside the given bounds.
+     *
+     * @param bounds          the bounds of this set; later changes to it, if it is mutable, are not reflected
+     * @param initialCapacity the initial capacity of the underlying set
+     * @param loadFactor      the load factor of the underlying set
+     */
+    public BoundedVec3ISet(@NotNull Bounds3I bounds, int initialCapacity, float loadFactor) {
+        super(bounds.originX(), bounds.originY(), bounds.originZ(), bounds.lengthX(), bounds.lengthY(),
+                bounds.lengthZ(), new LongOpenHashSet(initialCapacity, loadFactor));
+        this.bounds = bounds.immutable();
+    }
+
+    /**
+     * Convenience overload for {@link BoundedVec3ISet#BoundedVec3ISet(Bounds3I, int, float)} that uses the given
+     * initial size, and the default load factor {@link Hash#DEFAULT_LOAD_FACTOR}.
+     *
+     * @param bounds          the bounds of this set
+     * @param initialCapacity the initial capacity of the underlying set
+     */
+    public BoundedVec3ISet(@NotNull Bounds3I bounds, int initialCapacity) {
+        this(bounds, initialCapacity, Hash.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Convenience overload for {@link BoundedVec3ISet#BoundedVec3ISet(Bounds3I, int, float)} that uses the default
+     * initial size {@link Hash#DEFAULT_INITIAL_SIZE}, and the default load factor {@link Hash#DEFAULT_LOAD_FACTOR}.
+     *
+     * @param bounds the bounds of this set
+     */
+    public BoundedVec3ISet(@NotNull Bounds3I bounds) {
+        this(bounds, Hash.DEFAULT_INITIAL_SIZE, Hash.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Gets the bounds of this set. Only coordinates contained in these bounds may be added.
+     *
+     * @return the immutable bounds of this set
+     */
+    public @NotNull Bounds3I bounds() {
+        return bounds;
+    }
+
+    @Override
+    public boolean add(int x, int y, int z) {
+        if (!bounds.contains(x, y, z)) {
+            throw new IllegalArgumentException("Coordinate (" + x + ", " + y + ", " + z + ") is out of bounds");
+        }
+
+        return super.add(x, y, z);
+    }
+
+    @Override
+    public boolean contains(int x, int y, int z) {
+        return bounds.contains(x, y, z) && super.contains(x, y, z);
+    }
+
+    @Override
+    public boolean remove(int x, int y, int z) {
+        return bounds.contains(x, y, z) && super.remove(x, y, z);
+    }
+}
@@ -0,0 +1,177 @@
+package com.github.steanky.vector;
+
+import it.unimi.dsi.fastutil.longs.AbstractLong2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.objects.AbstractObjectSet;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import it.unimi.dsi.fastutil.objects.ObjectSet;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Internal read-only view of parallel key and value arrays as a {@link Long2ObjectMap}, used to bulk-load an
+ * underlying map. Not part of the public API.
+ * <p>
+ * Passing this view to {@link Long2ObjectMap#putAll(java.util.Map)} lets maps like
+ * {@link it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap} grow their table once for the whole batch, and then copy
+ * the entries through a fast iterator which reuses a single entry object. Keys are either given directly, or packed
+ * from coordinate arrays as they are visited. Keys are assumed to be distinct; duplicate keys are put in order, so the
+ * last value wins, but {@link BulkLong2ObjectView#get(long)} and {@link BulkLong2ObjectView#size()} do not account for
+ * them. Null values are rejected as they are visited.
+ *
+ * @param <V> the type of value in the view
+ */
+final class BulkLong2ObjectView<V> extends AbstractLong2ObjectMap<V> {
+    private final long[] keys;
+    private final BitPacker packer;
+    private final int[] xs;
+    private final int[] ys;
+    private final int[] zs;
+    private final V[] values;
+
+    private BulkLong2ObjectView(long[] keys, BitPacker packer, int[] xs, int[] ys, int[] zs, V[] values) {
+        this.keys = keys;
+        this.packer = packer;
+        this.xs = xs;
+        this.ys = ys;
+        this.zs = zs;
+        this.values = values;
+    }
+
+    /**
+     * Creates a view of packed keys and their values.
+     *
+     * @param keys   the packed keys
+     * @param values the values, which must have the same length as the keys
+     * @param <V>    the type of value
+     * @return a new view
+     */
+    static <V> BulkLong2ObjectView<V> ofKeys(long[] keys, V[] values) {
+        checkLength(keys.length, values.length);
+        return new BulkLong2ObjectView<>(keys, null, null, null, null, values);
+    }
+
+    /**
+     * Creates a view of coordinates and their values, which packs each coordinate as it is visited.
+     *
+     * @param packer the packer used to pack coordinates
+     * @param xs     the x-coordinates
+     * @param ys     the y-coordinates
+     * @param zs     the z-coordinates
+     * @param values the values, which must have the same length as each coordinate array
+     * @param <V>    the type of value
+     * @return a new view
+     */
+    static <V> BulkLong2ObjectView<V> ofCoordinates(BitPacker packer, int[] xs, int[] ys, int[] zs, V[] values) {
+        checkLength(xs.length, values.length);
+        checkLength(ys.length, values.length);
+        checkLength(zs.length, values.length);
+        return new BulkLong2ObjectView<>(null, packer, xs, ys, zs, values);
+    }
+
+    /**
+     * Checks that two parallel arrays have the same length.
+     *
+     * @param first  the length of the first array
+     * @param second the length of the second array
+     * @throws IllegalArgumentException if the lengths differ
+     */
+    static void checkLength(int first, int second) {
+        if (first != second) {
+            throw new IllegalArgumentException("Arrays must have the same length");
+        }
+    }
+
+    /**
+     * Checks that an output array is long enough.
+     *
+     * @param length   the length of the output array
+     * @param required the required length
+     * @throws IllegalArgumentException if the output array is too short
+     */
+    static void checkCapacity(int length, int required) {
+        if (length < required) {
+            throw new IllegalArgumentException("Output array must have a length of at least " + required);
+        }
+    }
+
+    private long key(int index) {
+        return keys != null ? keys[index] : packer.pack(xs[index], ys[index], zs[index]);
+    }
+
+    @Override
+    public V get(long key) {
+        for (int i = values.length - 1; i >= 0; i--) {
+            if (key(i) == key) {
+                return values[i];
+            }
+        }
+
+        return defRetValue;
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    private static final class MutableEntry<V> extends BasicEntry<V> {
+        private void set(long key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    private final class ViewIterator implements ObjectIterator<Entry<V>> {
+        private final MutableEntry<V> reused;
+        private int index;
+
+        private ViewIterator(boolean reuse) {
+            this.reused = reuse ? new MutableEntry<>() : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < values.length;
+        }
+
+        @Override
+        public Entry<V> next() {
+            if (index >= values.length) {
+                throw new NoSuchElementException();
+            }
+
+            long key = key(index);
+            V value = Objects.requireNonNull(values[index++]);
+            if (reused == null) {
+                return new BasicEntry<>(key, value);
+            }
+
+            reused.set(key, value);
+            return reused;
+        }
+    }
+
+    @Override
+    public ObjectSet<Entry<V>> long2ObjectEntrySet() {
+        return new EntrySet();
+    }
+
+    private final class EntrySet extends AbstractObjectSet<Entry<V>> implements FastEntrySet<V> {
+        @Override
+        public ObjectIterator<Entry<V>> iterator() {
+            return new ViewIterator(false);
+        }
+
+        @Override
+        public ObjectIterator<Entry<V>> fastIterator() {
+            return new ViewIterator(true);
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+    }
+}
@@ -0,0 +1,512 @@
+package com.github.steanky.vector;
+
+import it.unimi.dsi.fastutil.Hash;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * Implementation of {@link Vec3I2ObjectMap} made up of dense 16x16x16 sections, held in a sparse directory. Like
+ * {@link UnboundedHashVec3I2ObjectMap}, it accepts the full range of integers on every axis, and coordinates are never
+ * wrapped.
+ * <p>
+ * Each section is a flat array with one slot per cell, found by hashing its section coordinates in a
+ * {@link Long2ObjectOpenHashMap}. The most recently used section is remembered, so consecutive accesses to the same
+ * section, such as a search expanding through it, skip the directory entirely. Neighbor lookups with
+ * {@link ChunkedVec3I2ObjectMap#forEachNeighbor(int, int, int, NeighborhoodKind, Vec3IObjectBiConsumer)} and
+ * {@link ChunkedVec3I2ObjectMap#getNeighbors(int, int, int, NeighborhoodKind, Object[])} read neighbors in the same
+ * section as the central cell directly from its array. Sections are allocated when their first entry is added, and
+ * discarded once they become empty.
+ * <p>
+ * Compared to a hash map, this trades memory for locality: a section costs 4096 references however few entries it
+ * holds, so this map suits data which is clustered, rather than scattered. Null values are not supported.
+ *
+ * @param <T> the type of object held in the map
+ */
+public class ChunkedVec3I2ObjectMap<T> extends AbstractVec3I2ObjectMap<T> {
+    private static final int SECTION_SHIFT = 4;
+    private static final int SECTION_MASK = (1 << SECTION_SHIFT) - 1;
+    private static final int SECTION_SIZE = 1 << (SECTION_SHIFT * 3);
+
+    private static final int KEY_BITS = 21;
+    private static final long KEY_MASK = (1L << KEY_BITS) - 1;
+
+    private final Long2ObjectOpenHashMap<Section> sections;
+    private Section last;
+    private int size;
+
+    /*
+    Directory keys hold the low 21 bits of each section coordinate, which is exact for coordinates within 2^24 of 0.
+    Sections further out may share a key, in which case they are chained through Section.next.
+     */
+    private static final class Section {
+        private final int sectionX;
+        private final int sectionY;
+        private final int sectionZ;
+        private final Object[] values = new Object[SECTION_SIZE];
+        private int count;
+        private Section next;
+
+        private Section(int sectionX, int sectionY, int sectionZ) {
+            this.sectionX = sectionX;
+            this.sectionY = sectionY;
+            this.sectionZ = sectionZ;
+        }
+
+        private boolean isAt(int sectionX, int sectionY, int sectionZ) {
+            return this.sectionX == sectionX && this.sectionY == sectionY && this.sectionZ == sectionZ;
+        }
+
+        private int nextOccupied(int from) {
+            for (int i = from; i < SECTION_SIZE; i++) {
+                if (values[i] != null) {
+                    return i;
+                }
+            }
+
+            return -1;
+        }
+
+        private int baseX() {
+            return sectionX << SECTION_SHIFT;
+        }
+
+        private int baseY() {
+            return sectionY << SECTION_SHIFT;
+        }
+
+        private int baseZ() {
+            return sectionZ << SECTION_SHIFT;
+        }
+    }
+
+    /**
+     * Creates a new {@link ChunkedVec3I2ObjectMap} with room for the given number of sections before its directory
+     * needs to grow.
+     *
+     * @param initialSections the expected number of sections
+     */
+    public ChunkedVec3I2ObjectMap(int initialSections) {
+        if (initialSections < 0) {
+            throw new IllegalArgumentException("The expected number of sections must be nonnegative");
+        }
+
+        this.sections = new Long2ObjectOpenHashMap<>(initialSections);
+    }
+
+    /**
+     * Convenience overload that uses the default initial size {@link Hash#DEFAULT_INITIAL_SIZE}.
+     */
+    public ChunkedVec3I2ObjectMap() {
+        this(Hash.DEFAULT_INITIAL_SIZE);
+    }
+
+    private static long sectionKey(int sectionX, int sectionY, int sectionZ) {
+        return ((sectionX & KEY_MASK) << (KEY_BITS << 1)) | ((sectionY & KEY_MASK) << KEY_BITS) |
+                (sectionZ & KEY_MASK);
+    }
+
+    private static int localIndex(int x, int y, int z) {
+        return ((x & SECTION_MASK) << (SECTION_SHIFT << 1)) | ((y & SECTION_MASK) << SECTION_SHIFT) |
+                (z & SECTION_MASK);
+    }
+
+    private static int localX(int index) {
+        return index >>> (SECTION_SHIFT << 1);
+    }
+
+    private static int localY(int index) {
+        return (index >>> SECTION_SHIFT) & SECTION_MASK;
+    }
+
+    private static int localZ(int index) {
+        return index & SECTION_MASK;
+    }
+
+    private Section section(int sectionX, int sectionY, int sectionZ) {
+        Section section = last;
+        if (section != null && section.isAt(sectionX, sectionY, sectionZ)) {
+            return section;
+        }
+
+        section = sections.get(sectionKey(sectionX, sectionY, sectionZ));
+        while (section != null && !section.isAt(sectionX, sectionY, sectionZ)) {
+            section = section.next;
+        }
+
+        if (section != null) {
+            last = section;
+        }
+
+        return section;
+    }
+
+    private Section sectionOf(int x, int y, int z) {
+        return section(x >> SECTION_SHIFT, y >> SECTION_SHIFT, z >> SECTION_SHIFT);
+    }
+
+    private void unlink(Section section) {
+        long key = sectionKey(section.sectionX, section.sectionY, section.sectionZ);
+        Section head = sections.get(key);
+        if (head == section) {
+            if (section.next == null) {
+                sections.remove(key);
+            }
+            else {
+                sections.put(key, section.next);
+            }
+        }
+        else {
+            while (head.next != section) {
+                head = head.next;
+            }
+
+            head.next = section.next;
+        }
+
+        if (last == section) {
+            last = null;
+        }
+    }
+
+    /**
+     * Gets the number of 16x16x16 sections currently allocated by this map.
+     * @return the number of sections
+     */
+    public int sectionCount() {
+        int count = 0;
+        for (Section section : sections.values()) {
+            for (; section != null; section = section.next) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T get(int x, int y, int z) {
+        Section section = sectionOf(x, y, z);
+        return section == null ? null : (T) section.values[localIndex(x, y, z)];
+    }
+
+    @Override
+    public boolean containsKey(int x, int y, int z) {
+        return get(x, y, z) != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T put(int x, int y, int z, @NotNull T value) {
+        Objects.requireNonNull(value);
+
+        int sectionX = x >> SECTION_SHIFT;
+        int sectionY = y >> SECTION_SHIFT;
+        int sectionZ = z >> SECTION_SHIFT;
+        Section section = section(sectionX, sectionY, sectionZ);
+        if (section == null) {
+            section = new Section(sectionX, sectionY, sectionZ);
+            section.next = sections.put(sectionKey(sectionX, sectionY, sectionZ), section);
+            last = section;
+        }
+
+        int index = localIndex(x, y, z);
+        T old = (T) section.values[index];
+        section.values[index] = value;
+        if (old == null) {
+            section.count++;
+            size++;
+        }
+
+        return old;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T remove(int x, int y, int z) {
+        Section section = sectionOf(x, y, z);
+        if (section == null) {
+            return null;
+        }
+
+        int index = localIndex(x, y, z);
+        T old = (T) section.values[index];
+        if (old != null) {
+            section.values[index] = null;
+            size--;
+            if (--section.count == 0) {
+                unlink(section);
+            }
+        }
+
+        return old;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void forEachNeighbor(int x, int y, int z, @NotNull NeighborhoodKind kind,
+            @NotNull Vec3IObjectBiConsumer<? super T> consumer) {
+        Objects.requireNonNull(kind);
+        Objects.requireNonNull(consumer);
+
+        int sectionX = x >> SECTION_SHIFT;
+        int sectionY = y >> SECTION_SHIFT;
+        int sectionZ = z >> SECTION_SHIFT;
+        Section center = section(sectionX, sectionY, sectionZ);
+        for (int i = 0; i < kind.size(); i++) {
+            int nx = x + kind.offsetX(i);
+            int ny = y + kind.offsetY(i);
+            int nz = z + kind.offsetZ(i);
+
+            Section section = (nx >> SECTION_SHIFT) == sectionX && (ny >> SECTION_SHIFT) == sectionY &&
+                    (nz >> SECTION_SHIFT) == sectionZ ? center : sectionOf(nx, ny, nz);
+            if (section != null) {
+                T value = (T) section.values[localIndex(nx, ny, nz)];
+                if (value != null) {
+                    consumer.accept(nx, ny, nz, value);
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public int getNeighbors(int x, int y, int z, @NotNull NeighborhoodKind kind, T @NotNull [] out) {
+        BulkLong2ObjectView.checkCapacity(out.length, kind.size());
+
+        int sectionX = x >> SECTION_SHIFT;
+        int sectionY = y >> SECTION_SHIFT;
+        int sectionZ = z >> SECTION_SHIFT;
+        Section center = section(sectionX, sectionY, sectionZ);
+
+        int count = 0;
+        for (int i = 0; i < kind.size(); i++) {
+            int nx = x + kind.offsetX(i);
+            int ny = y + kind.offsetY(i);
+            int nz = z + kind.offsetZ(i);
+
+            Section section = (nx >> SECTION_SHIFT) == sectionX && (ny >> SECTION_SHIFT) == sectionY &&
+                    (nz >> SECTION_SHIFT) == sectionZ ? center : sectionOf(nx, ny, nz);
+            T value = section == null ? null : (T) section.values[localIndex(nx, ny, nz)];
+            if (value != null) {
+                count++;
+            }
+
+            out[i] = value;
+        }
+
+        return count;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void replaceAll(@NotNull Vec3IObjectBiFunction<? super T, ? extends T> function) {
+        Objects.requireNonNull(function);
+        for (Section head : sections.values()) {
+            for (Section section = head; section != null; section = section.next) {
+                int bx = section.baseX();
+                int by = section.baseY();
+                int bz = section.baseZ();
+                for (int i = section.nextOccupied(0); i != -1; i = section.nextOccupied(i + 1)) {
+                    section.values[i] = Objects.requireNonNull(function.apply(bx + localX(i), by + localY(i),
+                            bz + localZ(i), (T) section.values[i]));
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void forEach(@NotNull Vec3IObjectBiConsumer<? super T> consumer) {
+        Objects.requireNonNull(consumer);
+        for (Section head : sections.values()) {
+            for (Section section = head; section != null; section = section.next) {
+                int bx = section.baseX();
+                int by = section.baseY();
+                int bz = section.baseZ();
+                for (int i = section.nextOccupied(0); i != -1; i = section.nextOccupied(i + 1)) {
+                    consumer.accept(bx + localX(i), by + localY(i), bz + localZ(i), (T) section.values[i]);
+                }
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear() {
+        sections.clear();
+        last = null;
+        size = 0;
+    }
+
+    /*
+    Iterates a snapshot of the sections, so that emptied sections can be discarded during iteration.
+     */
+    private final class SectionCursor implements Vec3IObjectCursor<T> {
+        private final Section[] snapshot;
+        private int sectionIndex = -1;
+
+        private Section section;
+        private int next = -1;
+
+        private Section lastSection;
+        private int last = -1;
+
+        private SectionCursor() {
+            List<Section> list = new ArrayList<>(sections.size());
+            for (Section head : sections.values()) {
+                for (Section section = head; section != null; section = section.next) {
+                    list.add(section);
+                }
+            }
+
+            this.snapshot = list.toArray(new Section[0]);
+            advance(0);
+        }
+
+        private void advance(int from) {
+            if (section != null) {
+                next = section.nextOccupied(from);
+                if (next != -1) {
+                    return;
+                }
+            }
+
+            while (++sectionIndex < snapshot.length) {
+                Section candidate = snapshot[sectionIndex];
+                next = candidate.nextOccupied(0);
+                if (next != -1) {
+                    section = candidate;
+                    return;
+                }
+            }
+
+            section = null;
+        }
+
+        private boolean hasNext() {
+            return section != null;
+        }
+
+        @Override
+        public boolean next() {
+            if (section == null) {
+                last = -1;
+                return false;
+            }
+
+            lastSection = section;
+            last = next;
+            advance(next + 1);
+            return true;
+        }
+
+        @Override
+        public int x() {
+            return lastSection.baseX() + localX(last);
+        }
+
+        @Override
+        public int y() {
+            return lastSection.baseY() + localY(last);
+        }
+
+        @Override
+        public int z() {
+            return lastSection.baseZ() + localZ(last);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T value() {
+            return (T) lastSection.values[last];
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T setValue(T value) {
+            Objects.requireNonNull(value);
+            T old = (T) lastSection.values[last];
+            lastSection.values[last] = value;
+            return old;
+        }
+
+        @Override
+        public void remove() {
+            if (last == -1) {
+                throw new IllegalStateException();
+            }
+
+            lastSection.values[last] = null;
+            last = -1;
+            size--;
+            if (--lastSection.count == 0) {
+                unlink(lastSection);
+            }
+        }
+    }
+
+    @Override
+    public @NotNull Vec3IObjectCursor<T> cursor() {
+        return new SectionCursor();
+    }
+
+    @NotNull
+    @Override
+    public Set<Entry<Vec3I, T>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<Vec3I, T>> iterator() {
+                SectionCursor cursor = new SectionCursor();
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return cursor.hasNext();
+                    }
+
+                    @Override
+                    public Entry<Vec3I, T> next() {
+                        if (!cursor.next()) {
+                            throw new NoSuchElementException();
+                        }
+
+                        Vec3I key = Vec3I.immutable(cursor.x(), cursor.y(), cursor.z());
+                        return new AbstractMap.SimpleEntry<>(key, cursor.value()) {
+                            @Override
+                            public T setValue(T value) {
+                                super.setValue(value);
+                                return put(key.x(), key.y(), key.z(), value);
+                            }
+                        };
+                    }
+
+                    @Override
+                    public void remove() {
+                        cursor.remove();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public void clear() {
+                ChunkedVec3I2ObjectMap.this.clear();
+            }
+        };
+    }
+}
@@ -0,0 +1,910 @@
+package com.github.steanky.vector;
+
+import it.unimi.dsi.fastutil.Hash;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A compressed {@link Vec3ISet} for large, clustered sets of coordinates, in the style of Roaring bitmaps. Like
+ * {@link ChunkedVec3I2ObjectMap}, it accepts the full range of integers on every axis.
+ * <p>
+ * Space is divided into 32x32x32 blocks, held in a sparse directory. Each block that contains at least one coordinate
+ * stores its cells in whichever of three containers is smallest:
+ * <ul>
+ *     <li>a sorted array of cell indices, while the block holds at most 2048 cells</li>
+ *     <li>a bitmap with one bit per cell, for denser blocks</li>
+ *     <li>a list of runs of consecutive cells, for solid regions</li>
+ * </ul>
+ * Array and bitmap containers convert into each other as cells are added and removed, and a bitmap becomes a single
+ * run once its block is full. Other run containers are only created by {@link CompressedVec3ISet#optimize()} and by
+ * set algebra; once created, they switch back to another container if they stop being the smallest. Within a block,
+ * cells are ordered with the z-axis varying fastest, so runs follow the z-axis.
+ * <p>
+ * {@link CompressedVec3ISet#union(CompressedVec3ISet)}, {@link CompressedVec3ISet#intersect(CompressedVec3ISet)} and
+ * {@link CompressedVec3ISet#andNot(CompressedVec3ISet)} combine two sets block by block, never visiting individual
+ * coordinates of bitmap or run containers.
+ */
+public class CompressedVec3ISet implements Vec3ISet {
+    private static final int BLOCK_SHIFT = 5;
+    private static final int BLOCK_MASK = (1 << BLOCK_SHIFT) - 1;
+    private static final int BLOCK_SIZE = 1 << (BLOCK_SHIFT * 3);
+
+    private static final int WORDS = BLOCK_SIZE >>> 6;
+
+    //the size of a bitmap, in shorts
+    private static final int MAX_ARRAY = WORDS << 2;
+
+    private static final int KEY_BITS = 21;
+    private static final long KEY_MASK = (1L << KEY_BITS) - 1;
+
+    private final Long2ObjectOpenHashMap<Block> blocks;
+    private Block last;
+    private int size;
+
+    /*
+    Directory keys hold the low 21 bits of each block coordinate. Blocks which share a key are chained through
+    Block.next.
+     */
+    private static final class Block {
+        private final int blockX;
+        private final int blockY;
+        private final int blockZ;
+        private Container container;
+        private Block next;
+
+        private Block(int blockX, int blockY, int blockZ, Container container) {
+            this.blockX = blockX;
+            this.blockY = blockY;
+            this.blockZ = blockZ;
+            this.container = container;
+        }
+
+        private boolean isAt(int blockX, int blockY, int blockZ) {
+            return this.blockX == blockX && this.blockY == blockY && this.blockZ == blockZ;
+        }
+    }
+
+    private abstract static class Container {
+        abstract int cardinality();
+
+        abstract boolean contains(int index);
+
+        abstract Container add(int index);
+
+        abstract Container remove(int index);
+
+        abstract void orInto(long[] words);
+
+        abstract void andNotInto(long[] words);
+
+        abstract void forEach(int baseX, int baseY, int baseZ, Vec3IConsumer consumer);
+
+        abstract Container copy();
+
+        long[] toWords() {
+            long[] words = new long[WORDS];
+            orInto(words);
+            return words;
+        }
+
+        Container optimize() {
+            return fromWords(toWords());
+        }
+    }
+
+    private static final class ArrayContainer extends Container {
+        private short[] values;
+        private int size;
+
+        private ArrayContainer(short[] values, int size) {
+            this.values = values;
+            this.size = size;
+        }
+
+        private ArrayContainer() {
+            this(new short[4], 0);
+        }
+
+        private static ArrayContainer of(long[] words, int cardinality) {
+            short[] values = new short[cardinality];
+            int i = 0;
+            for (int index = nextSet(words, 0); index != -1; index = nextSet(words, index + 1)) {
+                values[i++] = (short) index;
+            }
+
+            return new ArrayContainer(values, cardinality);
+        }
+
+        @Override
+        int cardinality() {
+            return size;
+        }
+
+        @Override
+        boolean contains(int index) {
+            return Arrays.binarySearch(values, 0, size, (short) index) >= 0;
+        }
+
+        @Override
+        Container add(int index) {
+            int position = Arrays.binarySearch(values, 0, size, (short) index);
+            if (position >= 0) {
+                return this;
+            }
+
+            if (size == MAX_ARRAY) {
+                return new BitmapContainer(toWords(), size).add(index);
+            }
+
+            position = -position - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.min(Math.max(size << 1, 4), MAX_ARRAY));
+            }
+
+            System.arraycopy(values, position, values, position + 1, size - position);
+            values[position] = (short) index;
+            size++;
+            return this;
+        }
+
+        @Override
+        Container remove(int index) {
+            int position = Arrays.binarySearch(values, 0, size, (short) index);
+            if (position >= 0) {
+                System.arraycopy(values, position + 1, values, position, size - position - 1);
+                size--;
+            }
+
+            return this;
+        }
+
+        @Override
+        void orInto(long[] words) {
+            for (int i = 0; i < size; i++) {
+                int index = values[i];
+                words[index >>> 6] |= 1L << index;
+            }
+        }
+
+        @Override
+        void andNotInto(long[] words) {
+            for (int i = 0; i < size; i++) {
+                int index = values[i];
+                words[index >>> 6] &= ~(1L << index);
+            }
+        }
+
+        @Override
+        void forEach(int baseX, int baseY, int baseZ, Vec3IConsumer consumer) {
+            for (int i = 0; i < size; i++) {
+                int index = values[i];
+                consumer.accept(baseX + localX(index), baseY + localY(index), baseZ + localZ(index));
+            }
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, size), size);
+        }
+
+        private ArrayContainer filter(Container other, boolean keep) {
+            short[] filtered = new short[size];
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (other.contains(values[i]) == keep) {
+                    filtered[count++] = values[i];
+                }
+            }
+
+            return new ArrayContainer(filtered, count);
+        }
+
+        private ArrayContainer merge(ArrayContainer other) {
+            short[] merged = new short[size + other.size];
+            int i = 0;
+            int j = 0;
+            int count = 0;
+            while (i < size && j < other.size) {
+                short a = values[i];
+                short b = other.values[j];
+                if (a < b) {
+                    merged[count++] = a;
+                    i++;
+                }
+                else if (a > b) {
+                    merged[count++] = b;
+                    j++;
+                }
+                else {
+                    merged[count++] = a;
+                    i++;
+                    j++;
+                }
+            }
+
+            while (i < size) {
+                merged[count++] = values[i++];
+            }
+
+            while (j < other.size) {
+                merged[count++] = other.values[j++];
+            }
+
+            return new ArrayContainer(merged, count);
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+        private final long[] words;
+        private int cardinality;
+
+        private BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(int index) {
+            return (words[index >>> 6] & (1L << index)) != 0;
+        }
+
+        @Override
+        Container add(int index) {
+            long word = words[index >>> 6];
+            long bit = 1L << index;
+            if ((word & bit) != 0) {
+                return this;
+            }
+
+            words[index >>> 6] = word | bit;
+            return ++cardinality == BLOCK_SIZE ? RunContainer.full() : this;
+        }
+
+        @Override
+        Container remove(int index) {
+            long word = words[index >>> 6];
+            long bit = 1L << index;
+            if ((word & bit) == 0) {
+                return this;
+            }
+
+            words[index >>> 6] = word & ~bit;
+            return --cardinality <= MAX_ARRAY ? ArrayContainer.of(words, cardinality) : this;
+        }
+
+        @Override
+        void orInto(long[] words) {
+            for (int i = 0; i < WORDS; i++) {
+                words[i] |= this.words[i];
+            }
+        }
+
+        @Override
+        void andNotInto(long[] words) {
+            for (int i = 0; i < WORDS; i++) {
+                words[i] &= ~this.words[i];
+            }
+        }
+
+        @Override
+        void forEach(int baseX, int baseY, int baseZ, Vec3IConsumer consumer) {
+            for (int i = 0; i < WORDS; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    int index = (i << 6) | Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+
+                    consumer.accept(baseX + localX(index), baseY + localY(index), baseZ + localZ(index));
+                }
+            }
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+        @Override
+        long[] toWords() {
+            return words.clone();
+        }
+    }
+
+    /*
+    Runs are stored as pairs of inclusive start and end indices, in ascending order. Adjacent runs are always merged.
+     */
+    private static final class RunContainer extends Container {
+        private short[] runs;
+        private int runCount;
+        private int cardinality;
+
+        private RunContainer(short[] runs, int runCount, int cardinality) {
+            this.runs = runs;
+            this.runCount = runCount;
+            this.cardinality = cardinality;
+        }
+
+        private static RunContainer full() {
+            return new RunContainer(new short[] {0, BLOCK_SIZE - 1}, 1, BLOCK_SIZE);
+        }
+
+        private static RunContainer of(long[] words, int runCount, int cardinality) {
+            short[] runs = new short[runCount << 1];
+            int i = 0;
+            for (int start = nextSet(words, 0); start != -1; ) {
+                int end = nextClear(words, start);
+                runs[i++] = (short) start;
+                runs[i++] = (short) (end - 1);
+                start = end == BLOCK_SIZE ? -1 : nextSet(words, end);
+            }
+
+            return new RunContainer(runs, runCount, cardinality);
+        }
+
+        private int start(int run) {
+            return runs[run << 1];
+        }
+
+        private int end(int run) {
+            return runs[(run << 1) + 1];
+        }
+
+        //index of the last run starting at or before the given index, or -1 if there is none
+        private int floorRun(int index) {
+            int low = 0;
+            int high = runCount - 1;
+            int result = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (start(mid) <= index) {
+                    result = mid;
+                    low = mid + 1;
+                }
+                else {
+                    high = mid - 1;
+                }
+            }
+
+            return result;
+        }
+
+        private void insertRun(int run, int start, int end) {
+            if ((runCount << 1) == runs.length) {
+                runs = Arrays.copyOf(runs, Math.max(runs.length << 1, 4));
+            }
+
+            System.arraycopy(runs, run << 1, runs, (run + 1) << 1, (runCount - run) << 1);
+            runs[run << 1] = (short) start;
+            runs[(run << 1) + 1] = (short) end;
+            runCount++;
+        }
+
+        private void removeRun(int run) {
+            System.arraycopy(runs, (run + 1) << 1, runs, run << 1, (runCount - run - 1) << 1);
+            runCount--;
+        }
+
+        private Container checkCost() {
+            return runsCheaper(runCount, cardinality) ? this : fromWords(toWords());
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(int index) {
+            int run = floorRun(index);
+            return run != -1 && index <= end(run);
+        }
+
+        @Override
+        Container add(int index) {
+            int run = floorRun(index);
+            if (run != -1 && index <= end(run)) {
+                return this;
+            }
+
+            boolean joinsPrevious = run != -1 && end(run) + 1 == index;
+            boolean joinsNext = run + 1 < runCount && start(run + 1) == index + 1;
+            if (joinsPrevious && joinsNext) {
+                runs[(run << 1) + 1] = (short) end(run + 1);
+                removeRun(run + 1);
+            }
+            else if (joinsPrevious) {
+                runs[(run << 1) + 1] = (short) index;
+            }
+            else if (joinsNext) {
+                runs[(run + 1) << 1] = (short) index;
+            }
+            else {
+                insertRun(run + 1, index, index);
+            }
+
+            cardinality++;
+            return checkCost();
+        }
+
+        @Override
+        Container remove(int index) {
+            int run = floorRun(index);
+            if (run == -1 || index > end(run)) {
+                return this;
+            }
+
+            int start = start(run);
+            int end = end(run);
+            if (start == end) {
+                removeRun(run);
+            }
+            else if (index == start) {
+                runs[run << 1] = (short) (start + 1);
+            }
+            else if (index == end) {
+                runs[(run << 1) + 1] = (short) (end - 1);
+            }
+            else {
+                runs[(run << 1) + 1] = (short) (index - 1);
+                insertRun(run + 1, index + 1, end);
+            }
+
+            cardinality--;
+            return checkCost();
+        }
+
+        @Override
+        void orInto(long[] words) {
+            for (int i = 0; i < runCount; i++) {
+                setRange(words, start(i), end(i) + 1);
+            }
+        }
+
+        @Override
+        void andNotInto(long[] words) {
+            for (int i = 0; i < runCount; i++) {
+                clearRange(words, start(i), end(i) + 1);
+            }
+        }
+
+        @Override
+        void forEach(int baseX, int baseY, int baseZ, Vec3IConsumer consumer) {
+            for (int i = 0; i < runCount; i++) {
+                int end = end(i);
+                for (int index = start(i); index <= end; index++) {
+                    consumer.accept(baseX + localX(index), baseY + localY(index), baseZ + localZ(index));
+                }
+            }
+        }
+
+        @Override
+        Container copy() {
+            return new RunContainer(Arrays.copyOf(runs, runCount << 1), runCount, cardinality);
+        }
+    }
+
+    /**
+     * Creates a new, empty {@link CompressedVec3ISet} with room for the given number of blocks before its directory
+     * needs to grow.
+     *
+     * @param initialBlocks the expected number of non-empty blocks
+     */
+    public CompressedVec3ISet(int initialBlocks) {
+        if (initialBlocks < 0) {
+            throw new IllegalArgumentException("The expected number of blocks must be nonnegative");
+        }
+
+        this.blocks = new Long2ObjectOpenHashMap<>(initialBlocks);
+    }
+
+    /**
+     * Convenience overload that uses the default initial size {@link Hash#DEFAULT_INITIAL_SIZE}.
+     */
+    public CompressedVec3ISet() {
+        this(Hash.DEFAULT_INITIAL_SIZE);
+    }
+
+    private static int localIndex(int x, int y, int z) {
+        return ((x & BLOCK_MASK) << (BLOCK_SHIFT << 1)) | ((y & BLOCK_MASK) << BLOCK_SHIFT) | (z & BLOCK_MASK);
+    }
+
+    private static int localX(int index) {
+        return index >>> (BLOCK_SHIFT << 1);
+    }
+
+    private static int localY(int index) {
+        return (index >>> BLOCK_SHIFT) & BLOCK_MASK;
+    }
+
+    private static int localZ(int index) {
+        return index & BLOCK_MASK;
+    }
+
+    private static long blockKey(int blockX, int blockY, int blockZ) {
+        return ((blockX & KEY_MASK) << (KEY_BITS << 1)) | ((blockY & KEY_MASK) << KEY_BITS) | (blockZ & KEY_MASK);
+    }
+
+    private static boolean runsCheaper(int runCount, int cardinality) {
+        return (runCount << 1) < Math.min(cardinality, MAX_ARRAY);
+    }
+
+    private static int nextSet(long[] words, int from) {
+        if (from >= BLOCK_SIZE) {
+            return -1;
+        }
+
+        int i = from >>> 6;
+        long word = words[i] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return (i << 6) | Long.numberOfTrailingZeros(word);
+            }
+
+            if (++i == WORDS) {
+                return -1;
+            }
+
+            word = words[i];
+        }
+    }
+
+    private static int nextClear(long[] words, int from) {
+        if (from >= BLOCK_SIZE) {
+            return BLOCK_SIZE;
+        }
+
+        int i = from >>> 6;
+        long word = ~words[i] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return (i << 6) | Long.numberOfTrailingZeros(word);
+            }
+
+            if (++i == WORDS) {
+                return BLOCK_SIZE;
+            }
+
+            word = ~words[i];
+        }
+    }
+
+    private static void setRange(long[] words, int from, int to) {
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (first == last) {
+            words[first] |= firstMask & lastMask;
+            return;
+        }
+
+        words[first] |= firstMask;
+        for (int i = first + 1; i < last; i++) {
+            words[i] = -1L;
+        }
+
+        words[last] |= lastMask;
+    }
+
+    private static void clearRange(long[] words, int from, int to) {
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (first == last) {
+            words[first] &= ~(firstMask & lastMask);
+            return;
+        }
+
+        words[first] &= ~firstMask;
+        for (int i = first + 1; i < last; i++) {
+            words[i] = 0;
+        }
+
+        words[last] &= ~lastMask;
+    }
+
+    //picks the smallest container for the given bits, which it may take ownership of
+    private static Container fromWords(long[] words) {
+        int cardinality = 0;
+        int runCount = 0;
+        long previous = 0;
+        for (long word : words) {
+            cardinality += Long.bitCount(word);
+            runCount += Long.bitCount(word & ~((word << 1) | (previous >>> 63)));
+            previous = word;
+        }
+
+        if (runsCheaper(runCount, cardinality)) {
+            return RunContainer.of(words, runCount, cardinality);
+        }
+
+        return cardinality <= MAX_ARRAY ? ArrayContainer.of(words, cardinality) :
+                new BitmapContainer(words, cardinality);
+    }
+
+    private static Container or(Container first, Container second) {
+        if (first instanceof ArrayContainer firstArray && second instanceof ArrayContainer secondArray &&
+                firstArray.size + secondArray.size <= MAX_ARRAY) {
+            return firstArray.merge(secondArray);
+        }
+
+        long[] words = first.toWords();
+        second.orInto(words);
+        return fromWords(words);
+    }
+
+    private static Container and(Container first, Container second) {
+        if (first instanceof ArrayContainer firstArray) {
+            return firstArray.filter(second, true);
+        }
+
+        if (second instanceof ArrayContainer secondArray) {
+            return secondArray.filter(first, true);
+        }
+
+        long[] words = first.toWords();
+        long[] other = second.toWords();
+        for (int i = 0; i < WORDS; i++) {
+            words[i] &= other[i];
+        }
+
+        return fromWords(words);
+    }
+
+    private static Container andNot(Container first, Container second) {
+        if (first instanceof ArrayContainer firstArray) {
+            return firstArray.filter(second, false);
+        }
+
+        long[] words = first.toWords();
+        second.andNotInto(words);
+        return fromWords(words);
+    }
+
+    private Block block(int blockX, int blockY, int blockZ) {
+        Block block = last;
+        if (block != null && block.isAt(blockX, blockY, blockZ)) {
+            return block;
+        }
+
+        block = blocks.get(blockKey(blockX, blockY, blockZ));
+        while (block != null && !block.isAt(blockX, blockY, blockZ)) {
+            block = block.next;
+        }
+
+        if (block != null) {
+            last = block;
+        }
+
+        return block;
+    }
+
+    private Block link(int blockX, int blockY, int blockZ, Container container) {
+        Block block = new Block(blockX, blockY, blockZ, container);
+        block.next = blocks.put(blockKey(blockX, blockY, blockZ), block);
+        last = block;
+        return block;
+    }
+
+    private void unlink(Block block) {
+        long key = blockKey(block.blockX, block.blockY, block.blockZ);
+        Block head = blocks.get(key);
+        if (head == block) {
+            if (block.next == null) {
+                blocks.remove(key);
+            }
+            else {
+                blocks.put(key, block.next);
+            }
+        }
+        else {
+            while (head.next != block) {
+                head = head.next;
+            }
+
+            head.next = block.next;
+        }
+
+        if (last == block) {
+            last = null;
+        }
+    }
+
+    private List<Block> snapshot() {
+        List<Block> list = new ArrayList<>(blocks.size());
+        for (Block head : blocks.values()) {
+            for (Block block = head; block != null; block = block.next) {
+                list.add(block);
+            }
+        }
+
+        return list;
+    }
+
+    //replaces the container of a block with the result of set algebra, which is never the same instance
+    private void update(Block block, Container container) {
+        size += container.cardinality() - block.container.cardinality();
+        if (container.cardinality() == 0) {
+            unlink(block);
+        }
+        else {
+            block.container = container;
+        }
+    }
+
+    /**
+     * Adds every coordinate of the other set to this one.
+     *
+     * @param other the other set
+     */
+    public void union(@NotNull CompressedVec3ISet other) {
+        Objects.requireNonNull(other);
+        if (other == this) {
+            return;
+        }
+
+        for (Block head : other.blocks.values()) {
+            for (Block otherBlock = head; otherBlock != null; otherBlock = otherBlock.next) {
+                Block block = block(otherBlock.blockX, otherBlock.blockY, otherBlock.blockZ);
+                if (block == null) {
+                    link(otherBlock.blockX, otherBlock.blockY, otherBlock.blockZ, otherBlock.container.copy());
+                    size += otherBlock.container.cardinality();
+                }
+                else {
+                    update(block, or(block.container, otherBlock.container));
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes every coordinate of this set which is not also in the other set.
+     *
+     * @param other the other set
+     */
+    public void intersect(@NotNull CompressedVec3ISet other) {
+        Objects.requireNonNull(other);
+        if (other == this) {
+            return;
+        }
+
+        for (Block block : snapshot()) {
+            Block otherBlock = other.block(block.blockX, block.blockY, block.blockZ);
+            if (otherBlock == null) {
+                size -= block.container.cardinality();
+                unlink(block);
+            }
+            else {
+                update(block, and(block.container, otherBlock.container));
+            }
+        }
+    }
+
+    /**
+     * Removes every coordinate of this set which is also in the other set.
+     *
+     * @param other the other set
+     */
+    public void andNot(@NotNull CompressedVec3ISet other) {
+        Objects.requireNonNull(other);
+        if (other == this) {
+            clear();
+            return;
+        }
+
+        for (Block block : snapshot()) {
+            Block otherBlock = other.block(block.blockX, block.blockY, block.blockZ);
+            if (otherBlock != null) {
+                update(block, andNot(block.container, otherBlock.container));
+            }
+        }
+    }
+
+    /**
+     * Converts every block to its smallest container. In particular, this is the only way besides set algebra for
+     * blocks that were filled cell by cell to become run containers, unless they are completely full.
+     */
+    public void optimize() {
+        for (Block head : blocks.values()) {
+            for (Block block = head; block != null; block = block.next) {
+                block.container = block.container.optimize();
+            }
+        }
+    }
+
+    @Override
+    public boolean add(int x, int y, int z) {
+        int blockX = x >> BLOCK_SHIFT;
+        int blockY = y >> BLOCK_SHIFT;
+        int blockZ = z >> BLOCK_SHIFT;
+        Block block = block(blockX, blockY, blockZ);
+        if (block == null) {
+            block = link(blockX, blockY, blockZ, new ArrayContainer());
+        }
+
+        Container container = block.container;
+        int cardinality = container.cardinality();
+        block.container = container.add(localIndex(x, y, z));
+        if (block.container.cardinality() == cardinality) {
+            return false;
+        }
+
+        size++;
+        return true;
+    }
+
+    @Override
+    public boolean contains(int x, int y, int z) {
+        Block block = block(x >> BLOCK_SHIFT, y >> BLOCK_SHIFT, z >> BLOCK_SHIFT);
+        return block != null && block.container.contains(localIndex(x, y, z));
+    }
+
+    @Override
+    public boolean remove(int x, int y, int z) {
+        Block block = block(x >> BLOCK_SHIFT, y >> BLOCK_SHIFT, z >> BLOCK_SHIFT);
+        if (block == null) {
+            return false;
+        }
+
+        Container container = block.container;
+        int cardinality = container.cardinality();
+        Container result = container.remove(localIndex(x, y, z));
+        if (result.cardinality() == cardinality) {
+            return false;
+        }
+
+        size--;
+        if (result.cardinality() == 0) {
+            unlink(block);
+        }
+        else {
+            block.container = result;
+        }
+
+        return true;
+    }
+
+    @Override
+    public void forEach(@NotNull Vec3IConsumer consumer) {
+        Objects.requireNonNull(consumer);
+        for (Block head : blocks.values()) {
+            for (Block block = head; block != null; block = block.next) {
+                block.container.forEach(block.blockX << BLOCK_SHIFT, block.blockY << BLOCK_SHIFT,
+                        block.blockZ << BLOCK_SHIFT, consumer);
+            }
+        }
+    }
+
+    @Override
+    public void addAll(@NotNull Vec3ISet set) {
+        if (set instanceof CompressedVec3ISet other) {
+            union(other);
+            return;
+        }
+
+        Vec3ISet.super.addAll(set);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        blocks.clear();
+        last = null;
+        size = 0;
+    }
+}
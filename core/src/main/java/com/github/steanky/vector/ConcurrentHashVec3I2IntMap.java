@@ -0,0 +1,91 @@
+package com.github.steanky.vector;
+
+import it.unimi.dsi.fastutil.Hash;
+import it.unimi.dsi.fastutil.longs.Long2IntMaps;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A thread-safe implementation of {@link Vec3I2IntMap} backed by a synchronized {@link Long2IntOpenHashMap}.
+ * Every operation, including compound operations like {@link Vec3I2IntMap#addTo(int, int, int, int)} and
+ * {@link Vec3I2IntMap#computeIfAbsent(int, int, int, Vec3IToIntFunction)}, is atomic. Iteration using
+ * {@link Vec3I2IntMap#forEach(Vec3IIntBiConsumer)} holds the lock for its entire duration.
+ */
+public class ConcurrentHashVec3I2IntMap extends BitPackingVec3I2IntMap {
+    /**
+     * Creates a new {@link ConcurrentHashVec3I2IntMap} with the given origin and bounds, backed by an underlying
+     * synchronized {@link Long2IntOpenHashMap}. See {@link BitPackingVec3I2ObjectMap} for more details.
+     *
+     * @param x               the x-origin
+     * @param y               the y-origin
+     * @param z               the z-origin
+     * @param width           the x-width
+     * @param height          the y-width
+     * @param depth           the z-width
+     * @param initialCapacity the initial capacity of the underlying map
+     */
+    public ConcurrentHashVec3I2IntMap(int x, int y, int z, int width, int height, int depth, int initialCapacity) {
+        super(x, y, z, width, height, depth, Long2IntMaps.synchronize(new Long2IntOpenHashMap(initialCapacity)));
+    }
+
+    /**
+     * Convenience overload that uses the default initial size {@link Hash#DEFAULT_INITIAL_SIZE} for the internal
+     * {@link Long2IntOpenHashMap}.
+     *
+     * @param x      the x-origin
+     * @param y      the y-origin
+     * @param z      the z-origin
+     * @param width  the x-width
+     * @param height the y-width
+     * @param depth  the z-width
+     */
+    public ConcurrentHashVec3I2IntMap(int x, int y, int z, int width, int height, int depth) {
+        this(x, y, z, width, height, depth, Hash.DEFAULT_INITIAL_SIZE);
+    }
+
+    /**
+     * Convenience overload for
+     * {@link ConcurrentHashVec3I2IntMap#ConcurrentHashVec3I2IntMap(int, int, int, int, int, int, int)} that uses
+     * the origin and lengths from the provided bounds, and the default initial size {@link Hash#DEFAULT_INITIAL_SIZE}.
+     *
+     * @param bounds the bounds which provides the origin and lengths
+     */
+    public ConcurrentHashVec3I2IntMap(@NotNull Bounds3I bounds) {
+        this(bounds.originX(), bounds.originY(), bounds.originZ(), bounds.lengthX(), bounds.lengthY(), bounds.lengthZ(),
+                Hash.DEFAULT_INITIAL_SIZE);
+    }
+
+    /**
+     * Convenience overload for
+     * {@link ConcurrentHashVec3I2IntMap#ConcurrentHashVec3I2IntMap(int, int, int, int, int, int, int)} that uses
+     * the origin and lengths from the provided bounds, and the given initial size.
+     *
+     * @param bounds the bounds which provides the origin and lengths
+     * @param initialCapacity the initial capacity for the underlying map
+     */
+    public ConcurrentHashVec3I2IntMap(@NotNull Bounds3I bounds, int initialCapacity) {
+        this(bounds.originX(), bounds.originY(), bounds.originZ(), bounds.lengthX(), bounds.lengthY(), bounds.lengthZ(),
+                initialCapacity);
+    }
+
+    @Override
+    public int addTo(int x, int y, int z, int increment) {
+        synchronized (underlyingMap) {
+            return super.addTo(x, y, z, increment);
+        }
+    }
+
+    @Override
+    public int computeIfAbsent(int x, int y, int z, @NotNull Vec3IToIntFunction mappingFunction) {
+        synchronized (underlyingMap) {
+            return super.computeIfAbsent(x, y, z, mappingFunction);
+        }
+    }
+
+    @Override
+    public void forEach(@NotNull Vec3IIntBiConsumer consumer) {
+        synchronized (underlyingMap) {
+            super.forEach(consumer);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.github.steanky.vector;
+
+import it.unimi.dsi.fastutil.Hash;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSets;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A thread-safe implementation of {@link Vec3ISet} backed by a synchronized {@link LongOpenHashSet}. Iteration using
+ * {@link Vec3ISet#forEach(Vec3IConsumer)} holds the lock for its entire duration.
+ */
+public class ConcurrentHashVec3ISet extends BitPackingVec3ISet {
+    /**
+     * Creates a new {@link ConcurrentHashVec3ISet} with the given origin and bounds, backed by an underlying
+     * synchronized {@link LongOpenHashSet}. See {@link BitPackingVec3I2ObjectMap} for more details.
+     *
+     * @param x               the x-origin
+     * @param y               the y-origin
+     * @param z               the z-origin
+     * @param width           the x-width
+     * @param height          the y-width
+     * @param depth           the z-width
+     * @param initialCapacity the initial capacity of the underlying set
+     */
+    public ConcurrentHashVec3ISet(int x, int y, int z, int width, int height, int depth, int initialCapacity) {
+        super(x, y, z, width, height, depth, LongSets.synchronize(new LongOpenHashSet(initialCapacity)));
+    }
+
+    /**
+     * Convenience overload that uses the default initial size {@link Hash#DEFAULT_INITIAL_SIZE} for the internal
+     * {@link LongOpenHashSet}.
+     *
+     * @param x      the x-origin
+     * @param y      the y-origin
+     * @param z      the z-origin
+     * @param width  the x-width
+     * @param height the y-width
+     * @param depth  the z-width
+     */
+    public ConcurrentHashVec3ISet(int x, int y, int z, int width, int height, int depth) {
+        this(x, y, z, width, height, depth, Hash.DEFAULT_INITIAL_SIZE);
+    }
+
+    /**
+     * Convenience overload for {@link ConcurrentHashVec3ISet#ConcurrentHashVec3ISet(int, int, int, int, int, int, int)}
+     * that uses the origin and lengths from the provided bounds, and the default initial size
+     * {@link Hash#DEFAULT_INITIAL_SIZE}.
+     *
+     * @param bounds the bounds which provides the origin and lengths
+     */
+    public ConcurrentHashVec3ISet(@NotNull Bounds3I bounds) {
+        this(bounds.originX(), bounds.originY(), bounds.originZ(), bounds.lengthX(), bounds.lengthY(), bounds.lengthZ(),
+                Hash.DEFAULT_INITIAL_SIZE);
+    }
+
+    /**
+     * Convenience overload for {@link ConcurrentHashVec3ISet#ConcurrentHashVec3ISet(int, int, int, int, int, int, int)}
+     * that uses the origin and lengths from the provided bounds, and the given initial size.
+     *
+     * @param bounds the bounds which provides the origin and lengths
+     * @param initialCapacity the initial capacity for the underlying set
+     */
+    public ConcurrentHashVec3ISet(@NotNull Bounds3I bounds, int initialCapacity) {
+        this(bounds.originX(), bounds.originY(), bounds.originZ(), bounds.lengthX(), bounds.lengthY(), bounds.lengthZ(),
+                initialCapacity);
+    }
+
+    @Override
+    public void forEach(@NotNull Vec3IConsumer consumer) {
+        synchronized (underlyingSet) {
+            super.forEach(consumer);
+        }
+    }
+}
@@ -0,0 +1,494 @@
+package com.github.steanky.vector;
+
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.longs.AbstractLong2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.objects.AbstractObjectSet;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import it.unimi.dsi.fastutil.objects.ObjectSet;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Internal size-bounded {@link Long2ObjectMap} used by {@link Vec3I2ObjectCache}. Not part of the public API.
+ * <p>
+ * Entries live in a fixed number of slots, allocated up front, and a {@link Long2IntOpenHashMap} maps each key to its
+ * slot. The recency lists used by {@link EvictionPolicy#LRU} and {@link EvictionPolicy#W_TINY_LFU} are doubly linked
+ * through arrays of slot indices, so that no node is allocated per entry. Only {@link EvictingLong2ObjectMap#get(long)}
+ * and {@link EvictingLong2ObjectMap#put(long, Object)} count as accesses; iteration and
+ * {@link EvictingLong2ObjectMap#containsKey(long)} do not.
+ *
+ * @param <V> the type of value stored in the map
+ */
+final class EvictingLong2ObjectMap<V> extends AbstractLong2ObjectMap<V> {
+    //list identifiers; LRU uses only the first list
+    private static final byte WINDOW = 0;
+    private static final byte PROBATION = 1;
+    private static final byte PROTECTED = 2;
+
+    private static final int NONE = -1;
+
+    private final int capacity;
+    private final EvictionPolicy policy;
+
+    private final Long2IntOpenHashMap slots;
+    private final long[] keys;
+    private final Object[] values;
+    private final int[] free;
+    private int freeCount;
+
+    //W_TINY_LFU: the list holding each slot; CLOCK: 1 if the slot has been referenced since the hand last passed it
+    private final byte[] state;
+    private final int[] prev;
+    private final int[] next;
+    private final int[] heads = new int[3];
+    private final int[] tails = new int[3];
+    private final int[] sizes = new int[3];
+
+    private final int windowCapacity;
+    private final int protectedCapacity;
+    private final FrequencySketch sketch;
+
+    private int hand;
+
+    private LongEntryConsumer<? super V> evictionListener;
+
+    /*
+    Count-min sketch of 4-bit counters, 16 per long, with 4 counters per key. Every counter is halved once the number
+    of increments reaches 10 times the capacity of the cache, so that the sketch favors recent accesses.
+     */
+    private static final class FrequencySketch {
+        private static final long[] SEEDS = {0xC3A5C85C97CB3127L, 0xB492B66FBE98F273L, 0x9AE16A3B2F90404FL,
+                0xCBF29CE484222325L};
+        private static final long RESET_MASK = 0x7777777777777777L;
+
+        private final long[] table;
+        private final int tableMask;
+        private final int sampleSize;
+        private int additions;
+
+        private FrequencySketch(int capacity) {
+            this.table = new long[HashCommon.nextPowerOfTwo(Math.max(capacity, 4))];
+            this.tableMask = table.length - 1;
+            this.sampleSize = (int) Math.min(10L * capacity, Integer.MAX_VALUE);
+        }
+
+        private int index(long hash, int i) {
+            long h = (hash + SEEDS[i]) * SEEDS[i];
+            return (int) (h + (h >>> 32)) & tableMask;
+        }
+
+        private static int shift(long hash, int i) {
+            return (int) ((hash >>> (i << 3)) & 15) << 2;
+        }
+
+        private void increment(long key) {
+            long hash = HashCommon.mix(key);
+            boolean added = false;
+            for (int i = 0; i < SEEDS.length; i++) {
+                int index = index(hash, i);
+                int shift = shift(hash, i);
+                if (((table[index] >>> shift) & 15) != 15) {
+                    table[index] += 1L << shift;
+                    added = true;
+                }
+            }
+
+            if (added && ++additions == sampleSize) {
+                for (int i = 0; i < table.length; i++) {
+                    table[i] = (table[i] >>> 1) & RESET_MASK;
+                }
+
+                additions >>>= 1;
+            }
+        }
+
+        private int frequency(long key) {
+            long hash = HashCommon.mix(key);
+            int frequency = 15;
+            for (int i = 0; i < SEEDS.length; i++) {
+                frequency = Math.min(frequency, (int) ((table[index(hash, i)] >>> shift(hash, i)) & 15));
+            }
+
+            return frequency;
+        }
+
+        private void clear() {
+            Arrays.fill(table, 0);
+            additions = 0;
+        }
+    }
+
+    /**
+     * Creates a new map.
+     *
+     * @param capacity the maximum number of entries
+     * @param policy   the eviction policy
+     */
+    EvictingLong2ObjectMap(int capacity, @NotNull EvictionPolicy policy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+
+        this.capacity = capacity;
+        this.policy = Objects.requireNonNull(policy);
+
+        this.slots = new Long2IntOpenHashMap(capacity);
+        slots.defaultReturnValue(NONE);
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+        this.free = new int[capacity];
+        this.state = new byte[capacity];
+        this.prev = policy == EvictionPolicy.CLOCK ? IntArrays.EMPTY_ARRAY : new int[capacity];
+        this.next = policy == EvictionPolicy.CLOCK ? IntArrays.EMPTY_ARRAY : new int[capacity];
+
+        this.windowCapacity = Math.max(1, capacity / 100);
+        this.protectedCapacity = (int) ((capacity - windowCapacity) * 0.8F);
+        this.sketch = policy == EvictionPolicy.W_TINY_LFU ? new FrequencySketch(capacity) : null;
+
+        clear();
+    }
+
+    /**
+     * Sets the listener called with each entry after it is evicted. Entries which are removed or replaced explicitly
+     * are not passed to the listener.
+     *
+     * @param evictionListener the listener, or null to remove the current listener
+     */
+    void evictionListener(LongEntryConsumer<? super V> evictionListener) {
+        this.evictionListener = evictionListener;
+    }
+
+    /**
+     * Gets the maximum number of entries in this map.
+     *
+     * @return the capacity
+     */
+    int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the eviction policy of this map.
+     *
+     * @return the eviction policy
+     */
+    @NotNull EvictionPolicy policy() {
+        return policy;
+    }
+
+    private void unlink(int slot) {
+        int list = state[slot];
+        int before = prev[slot];
+        int after = next[slot];
+        if (before == NONE) {
+            heads[list] = after;
+        }
+        else {
+            next[before] = after;
+        }
+
+        if (after == NONE) {
+            tails[list] = before;
+        }
+        else {
+            prev[after] = before;
+        }
+
+        sizes[list]--;
+    }
+
+    private void link(int slot, byte list) {
+        int tail = tails[list];
+        state[slot] = list;
+        prev[slot] = tail;
+        next[slot] = NONE;
+        if (tail == NONE) {
+            heads[list] = slot;
+        }
+        else {
+            next[tail] = slot;
+        }
+
+        tails[list] = slot;
+        sizes[list]++;
+    }
+
+    private void moveToTail(int slot, byte list) {
+        unlink(slot);
+        link(slot, list);
+    }
+
+    private void onInsert(int slot) {
+        switch (policy) {
+            case LRU -> link(slot, WINDOW);
+            case CLOCK -> state[slot] = 0;
+            case W_TINY_LFU -> {
+                link(slot, WINDOW);
+                if (sizes[WINDOW] > windowCapacity) {
+                    moveToTail(heads[WINDOW], PROBATION);
+                }
+            }
+        }
+    }
+
+    private void onAccess(int slot) {
+        switch (policy) {
+            case LRU -> moveToTail(slot, WINDOW);
+            case CLOCK -> state[slot] = 1;
+            case W_TINY_LFU -> {
+                if (state[slot] == WINDOW) {
+                    moveToTail(slot, WINDOW);
+                    return;
+                }
+
+                moveToTail(slot, PROTECTED);
+                if (sizes[PROTECTED] > protectedCapacity) {
+                    moveToTail(heads[PROTECTED], PROBATION);
+                }
+            }
+        }
+    }
+
+    private int selectVictim() {
+        switch (policy) {
+            case LRU -> {
+                return heads[WINDOW];
+            }
+            case CLOCK -> {
+                //every slot is occupied when evicting, so the hand only needs to skip referenced slots
+                while (state[hand] != 0) {
+                    state[hand] = 0;
+                    hand = hand + 1 == capacity ? 0 : hand + 1;
+                }
+
+                int victim = hand;
+                hand = hand + 1 == capacity ? 0 : hand + 1;
+                return victim;
+            }
+            default -> {
+                int candidate = heads[WINDOW];
+                int victim = heads[PROBATION] != NONE ? heads[PROBATION] : heads[PROTECTED];
+                if (candidate == NONE) {
+                    return victim;
+                }
+
+                if (victim == NONE) {
+                    return candidate;
+                }
+
+                //the candidate leaving the window displaces the victim only if it is used more often
+                if (sketch.frequency(keys[candidate]) > sketch.frequency(keys[victim])) {
+                    moveToTail(candidate, PROBATION);
+                    return victim;
+                }
+
+                return candidate;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private V removeSlot(int slot) {
+        if (policy != EvictionPolicy.CLOCK) {
+            unlink(slot);
+        }
+
+        state[slot] = 0;
+        V old = (V) values[slot];
+        values[slot] = null;
+        free[freeCount++] = slot;
+        return old;
+    }
+
+    private void evict() {
+        int slot = selectVictim();
+        long key = keys[slot];
+        slots.remove(key);
+        V value = removeSlot(slot);
+
+        LongEntryConsumer<? super V> listener = evictionListener;
+        if (listener != null) {
+            listener.accept(key, value);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public V get(long key) {
+        if (sketch != null) {
+            sketch.increment(key);
+        }
+
+        int slot = slots.get(key);
+        if (slot == NONE) {
+            return defRetValue;
+        }
+
+        onAccess(slot);
+        return (V) values[slot];
+    }
+
+    @Override
+    public boolean containsKey(long key) {
+        return slots.containsKey(key);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public V put(long key, @NotNull V value) {
+        Objects.requireNonNull(value);
+        if (sketch != null) {
+            sketch.increment(key);
+        }
+
+        int slot = slots.get(key);
+        if (slot != NONE) {
+            V old = (V) values[slot];
+            values[slot] = value;
+            onAccess(slot);
+            return old;
+        }
+
+        if (freeCount == 0) {
+            evict();
+        }
+
+        slot = free[--freeCount];
+        keys[slot] = key;
+        values[slot] = value;
+        slots.put(key, slot);
+        onInsert(slot);
+        return defRetValue;
+    }
+
+    @Override
+    public V remove(long key) {
+        int slot = slots.remove(key);
+        return slot == NONE ? defRetValue : removeSlot(slot);
+    }
+
+    @Override
+    public int size() {
+        return slots.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return slots.isEmpty();
+    }
+
+    @Override
+    public void clear() {
+        slots.clear();
+        Arrays.fill(values, null);
+        Arrays.fill(state, (byte) 0);
+        Arrays.fill(heads, NONE);
+        Arrays.fill(tails, NONE);
+        Arrays.fill(sizes, 0);
+        if (sketch != null) {
+            sketch.clear();
+        }
+
+        //slots are allocated in increasing order
+        for (int i = 0; i < capacity; i++) {
+            free[i] = capacity - i - 1;
+        }
+
+        freeCount = capacity;
+        hand = 0;
+    }
+
+    /**
+     * Calls the given consumer with each entry in this map, in storage order. The map must not be modified until this
+     * method returns.
+     *
+     * @param consumer the consumer to call
+     */
+    @SuppressWarnings("unchecked")
+    void forEachEntry(@NotNull LongEntryConsumer<? super V> consumer) {
+        for (int slot = 0; slot < capacity; slot++) {
+            Object value = values[slot];
+            if (value != null) {
+                consumer.accept(keys[slot], (V) value);
+            }
+        }
+    }
+
+    @Override
+    public ObjectSet<Long2ObjectMap.Entry<V>> long2ObjectEntrySet() {
+        return new AbstractObjectSet<>() {
+            @Override
+            public ObjectIterator<Long2ObjectMap.Entry<V>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return slots.size();
+            }
+
+            @Override
+            public void clear() {
+                EvictingLong2ObjectMap.this.clear();
+            }
+        };
+    }
+
+    private final class EntryIterator implements ObjectIterator<Long2ObjectMap.Entry<V>> {
+        private int nextSlot;
+        private int lastSlot = NONE;
+
+        private EntryIterator() {
+            advance();
+        }
+
+        private void advance() {
+            while (nextSlot < capacity && values[nextSlot] == null) {
+                nextSlot++;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextSlot < capacity;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public Long2ObjectMap.Entry<V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            int slot = lastSlot = nextSlot++;
+            advance();
+
+            return new BasicEntry<>(keys[slot], (V) values[slot]) {
+                @Override
+                public V setValue(V value) {
+                    Objects.requireNonNull(value);
+                    V old = this.value;
+                    values[slot] = value;
+                    this.value = value;
+                    return old;
+                }
+            };
+        }
+
+        @Override
+        public void remove() {
+            if (lastSlot == NONE) {
+                throw new IllegalStateException();
+            }
+
+            EvictingLong2ObjectMap.this.remove(keys[lastSlot]);
+            lastSlot = NONE;
+        }
+    }
+}
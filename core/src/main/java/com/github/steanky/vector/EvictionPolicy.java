@@ -0,0 +1,28 @@
+package com.github.steanky.vector;
+
+/**
+ * The policy used by {@link Vec3I2ObjectCache} to choose which entry to evict when it is full.
+ */
+public enum EvictionPolicy {
+    /**
+     * Evicts the least recently used entry. Entries are kept in a doubly linked list ordered by recency, which each
+     * read or write updates.
+     */
+    LRU,
+
+    /**
+     * Approximates {@link EvictionPolicy#LRU} with a single reference bit per entry, set on each read or write. To
+     * evict, a hand sweeps the entries in storage order, clearing set bits, until it finds an entry whose bit is clear.
+     * Reads are cheaper than under LRU, since they only set a bit.
+     */
+    CLOCK,
+
+    /**
+     * Window TinyLFU, as used by Caffeine. New entries enter a small LRU window, covering 1% of the capacity. Entries
+     * leaving the window are admitted to the main segmented LRU only if they have been accessed more often than the
+     * entry they would displace, as estimated by a compact frequency sketch of recent reads and writes, including
+     * reads of absent keys. This keeps frequently used entries cached through bursts of one-off accesses, which would
+     * flush an LRU cache.
+     */
+    W_TINY_LFU
+}
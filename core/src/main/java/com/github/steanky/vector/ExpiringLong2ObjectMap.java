@@ -0,0 +1,412 @@
+package com.github.steanky.vector;
+
+import it.unimi.dsi.fastutil.longs.AbstractLong2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.objects.AbstractObjectSet;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import it.unimi.dsi.fastutil.objects.ObjectSet;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Internal {@link Long2ObjectMap} whose entries expire after a number of ticks, used by
+ * {@link ExpiringVec3I2ObjectMap}. Not part of the public API.
+ * <p>
+ * Entries live in slots, and a {@link Long2IntOpenHashMap} maps each key to its slot. Each slot is also linked into one
+ * bucket of a hierarchical timing wheel, as described by Varghese and Lauck. The wheel has 6 levels of 64 buckets; a
+ * bucket at level {@code n} spans 64<sup>n</sup> ticks. An entry is placed at the lowest level which can tell its
+ * deadline apart from the current time, so that when time advances, only the buckets which come due are visited: their
+ * entries either expire, or move down to a finer level. Each entry therefore moves at most 5 times over its lifetime,
+ * regardless of how far time advances at once.
+ *
+ * @param <V> the type of value stored in the map
+ */
+final class ExpiringLong2ObjectMap<V> extends AbstractLong2ObjectMap<V> {
+    private static final int BITS = 6;
+    private static final int BUCKETS = 1 << BITS;
+    private static final int MASK = BUCKETS - 1;
+    private static final int LEVELS = 6;
+
+    private static final int NONE = -1;
+    private static final int INITIAL_SLOTS = 16;
+
+    private final long defaultTimeToLive;
+
+    private final Long2IntOpenHashMap slots;
+    private long[] keys;
+    private Object[] values;
+    private long[] deadlines;
+    private int[] buckets;
+    private int[] prev;
+    private int[] next;
+    private int[] free;
+    private int freeCount;
+
+    //the first slot of each bucket, indexed by level * BUCKETS + bucket
+    private final int[] heads = new int[LEVELS * BUCKETS];
+
+    private long now;
+
+    private LongEntryConsumer<? super V> expirationListener;
+
+    /**
+     * Creates a new map.
+     *
+     * @param defaultTimeToLive the number of ticks after which entries put without an explicit time-to-live expire
+     */
+    ExpiringLong2ObjectMap(long defaultTimeToLive) {
+        this.defaultTimeToLive = checkTimeToLive(defaultTimeToLive);
+        this.slots = new Long2IntOpenHashMap();
+        slots.defaultReturnValue(NONE);
+        allocate(INITIAL_SLOTS);
+        Arrays.fill(heads, NONE);
+    }
+
+    private static long checkTimeToLive(long timeToLive) {
+        if (timeToLive <= 0) {
+            throw new IllegalArgumentException("Time-to-live must be positive");
+        }
+
+        return timeToLive;
+    }
+
+    private void allocate(int length) {
+        int oldLength = keys == null ? 0 : keys.length;
+        keys = keys == null ? new long[length] : Arrays.copyOf(keys, length);
+        values = values == null ? new Object[length] : Arrays.copyOf(values, length);
+        deadlines = deadlines == null ? new long[length] : Arrays.copyOf(deadlines, length);
+        buckets = buckets == null ? new int[length] : Arrays.copyOf(buckets, length);
+        prev = prev == null ? new int[length] : Arrays.copyOf(prev, length);
+        next = next == null ? new int[length] : Arrays.copyOf(next, length);
+        free = free == null ? new int[length] : Arrays.copyOf(free, length);
+
+        //new slots are allocated in increasing order
+        for (int slot = length - 1; slot >= oldLength; slot--) {
+            free[freeCount++] = slot;
+        }
+    }
+
+    /**
+     * Sets the listener called with each entry after it expires. Entries which are removed or replaced explicitly are
+     * not passed to the listener.
+     *
+     * @param expirationListener the listener, or null to remove the current listener
+     */
+    void expirationListener(LongEntryConsumer<? super V> expirationListener) {
+        this.expirationListener = expirationListener;
+    }
+
+    /**
+     * Gets the time-to-live used by {@link ExpiringLong2ObjectMap#put(long, Object)}.
+     *
+     * @return the default time-to-live, in ticks
+     */
+    long defaultTimeToLive() {
+        return defaultTimeToLive;
+    }
+
+    /**
+     * Gets the current time.
+     *
+     * @return the current time, in ticks
+     */
+    long currentTime() {
+        return now;
+    }
+
+    private void link(int slot) {
+        long deadline = deadlines[slot];
+        int level = 0;
+        long epoch = deadline;
+        long currentEpoch = now;
+        while (epoch - currentEpoch >= BUCKETS && level < LEVELS - 1) {
+            level++;
+            epoch = deadline >>> (level * BITS);
+            currentEpoch = now >>> (level * BITS);
+        }
+
+        //deadlines past the range of the top level wait in its furthest bucket, and are rescheduled when it comes due
+        int bucket = level * BUCKETS + (int) (Math.min(epoch, currentEpoch + BUCKETS) & MASK);
+        int head = heads[bucket];
+        buckets[slot] = bucket;
+        prev[slot] = NONE;
+        next[slot] = head;
+        if (head != NONE) {
+            prev[head] = slot;
+        }
+
+        heads[bucket] = slot;
+    }
+
+    private void unlink(int slot) {
+        int before = prev[slot];
+        int after = next[slot];
+        if (before == NONE) {
+            heads[buckets[slot]] = after;
+        }
+        else {
+            next[before] = after;
+        }
+
+        if (after != NONE) {
+            prev[after] = before;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private V release(int slot) {
+        V old = (V) values[slot];
+        values[slot] = null;
+        free[freeCount++] = slot;
+        return old;
+    }
+
+    /**
+     * Advances the current time, expiring every entry whose deadline is at or before the new time. Only the buckets of
+     * the timing wheel which come due are visited.
+     *
+     * @param time the new time, in ticks
+     * @throws IllegalArgumentException if the new time is before the current time
+     */
+    void advanceTo(long time) {
+        if (time < now) {
+            throw new IllegalArgumentException("Time cannot move backwards");
+        }
+
+        long previous = now;
+        now = time;
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = level * BITS;
+            long previousEpoch = previous >>> shift;
+            long currentEpoch = time >>> shift;
+            if (previousEpoch == currentEpoch) {
+                //coarser levels can only roll over if this one did
+                break;
+            }
+
+            long count = Math.min(currentEpoch - previousEpoch, BUCKETS);
+            for (long i = 1; i <= count; i++) {
+                drain(level * BUCKETS + (int) ((previousEpoch + i) & MASK));
+            }
+        }
+    }
+
+    private void drain(int bucket) {
+        int slot = heads[bucket];
+        heads[bucket] = NONE;
+        while (slot != NONE) {
+            int after = next[slot];
+            if (deadlines[slot] <= now) {
+                long key = keys[slot];
+                slots.remove(key);
+                V value = release(slot);
+
+                LongEntryConsumer<? super V> listener = expirationListener;
+                if (listener != null) {
+                    listener.accept(key, value);
+                }
+            }
+            else {
+                link(slot);
+            }
+
+            slot = after;
+        }
+    }
+
+    /**
+     * Gets the number of ticks until the entry with the given key expires.
+     *
+     * @param key the key
+     * @return the remaining time-to-live, or 0 if there is no entry with the key
+     */
+    long timeToLive(long key) {
+        int slot = slots.get(key);
+        return slot == NONE ? 0 : deadlines[slot] - now;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public V get(long key) {
+        int slot = slots.get(key);
+        return slot == NONE ? defRetValue : (V) values[slot];
+    }
+
+    @Override
+    public boolean containsKey(long key) {
+        return slots.containsKey(key);
+    }
+
+    @Override
+    public V put(long key, @NotNull V value) {
+        return put(key, value, defaultTimeToLive);
+    }
+
+    /**
+     * Puts an entry which expires after the given number of ticks. If there is already an entry with the key, its value
+     * and deadline are both replaced.
+     *
+     * @param key        the key
+     * @param value      the value
+     * @param timeToLive the number of ticks after which the entry expires; {@link Long#MAX_VALUE} if it should never
+     *                   expire
+     * @return the old value, or null if there was no entry with the key
+     */
+    @SuppressWarnings("unchecked")
+    V put(long key, @NotNull V value, long timeToLive) {
+        Objects.requireNonNull(value);
+        checkTimeToLive(timeToLive);
+
+        long deadline = now + timeToLive < now ? Long.MAX_VALUE : now + timeToLive;
+        int slot = slots.get(key);
+        if (slot != NONE) {
+            V old = (V) values[slot];
+            values[slot] = value;
+            if (deadlines[slot] != deadline) {
+                unlink(slot);
+                deadlines[slot] = deadline;
+                link(slot);
+            }
+
+            return old;
+        }
+
+        if (freeCount == 0) {
+            allocate(keys.length << 1);
+        }
+
+        slot = free[--freeCount];
+        keys[slot] = key;
+        values[slot] = value;
+        deadlines[slot] = deadline;
+        slots.put(key, slot);
+        link(slot);
+        return defRetValue;
+    }
+
+    @Override
+    public V remove(long key) {
+        int slot = slots.remove(key);
+        if (slot == NONE) {
+            return defRetValue;
+        }
+
+        unlink(slot);
+        return release(slot);
+    }
+
+    @Override
+    public int size() {
+        return slots.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return slots.isEmpty();
+    }
+
+    @Override
+    public void clear() {
+        slots.clear();
+        Arrays.fill(values, null);
+        Arrays.fill(heads, NONE);
+
+        freeCount = 0;
+        for (int slot = keys.length - 1; slot >= 0; slot--) {
+            free[freeCount++] = slot;
+        }
+    }
+
+    /**
+     * Calls the given consumer with each entry in this map, in storage order. The map must not be modified until this
+     * method returns.
+     *
+     * @param consumer the consumer to call
+     */
+    @SuppressWarnings("unchecked")
+    void forEachEntry(@NotNull LongEntryConsumer<? super V> consumer) {
+        Object[] values = this.values;
+        for (int slot = 0; slot < values.length; slot++) {
+            Object value = values[slot];
+            if (value != null) {
+                consumer.accept(keys[slot], (V) value);
+            }
+        }
+    }
+
+    @Override
+    public ObjectSet<Long2ObjectMap.Entry<V>> long2ObjectEntrySet() {
+        return new AbstractObjectSet<>() {
+            @Override
+            public ObjectIterator<Long2ObjectMap.Entry<V>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return slots.size();
+            }
+
+            @Override
+            public void clear() {
+                ExpiringLong2ObjectMap.this.clear();
+            }
+        };
+    }
+
+    private final class EntryIterator implements ObjectIterator<Long2ObjectMap.Entry<V>> {
+        private int nextSlot;
+        private int lastSlot = NONE;
+
+        private EntryIterator() {
+            advance();
+        }
+
+        private void advance() {
+            while (nextSlot < values.length && values[nextSlot] == null) {
+                nextSlot++;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextSlot < values.length;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public Long2ObjectMap.Entry<V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            int slot = lastSlot = nextSlot++;
+            advance();
+
+            return new BasicEntry<>(keys[slot], (V) values[slot]) {
+                @Override
+                public V setValue(V value) {
+                    Objects.requireNonNull(value);
+                    V old = this.value;
+                    values[slot] = value;
+                    this.value = value;
+                    return old;
+                }
+            };
+        }
+
+        @Override
+        public void remove() {
+            if (lastSlot == NONE) {
+                throw new IllegalStateException();
+            }
+
+            ExpiringLong2ObjectMap.this.remove(keys[lastSlot]);
+            lastSlot = NONE;
+        }
+    }
+}
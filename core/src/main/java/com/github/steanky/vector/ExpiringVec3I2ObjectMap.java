@@ -0,0 +1,183 @@
+package com.github.steanky.vector;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+
+/**
+ * A {@link Vec3I2ObjectMap} whose entries expire after a number of ticks. Time is logical: it starts at 0, and only
+ * moves forward when {@link ExpiringVec3I2ObjectMap#advance(long)} or {@link ExpiringVec3I2ObjectMap#advanceTo(long)}
+ * is called, typically once per tick. An entry put with a time-to-live of {@code n} ticks is present until the time has
+ * advanced by {@code n}, at which point it is removed.
+ * <p>
+ * Entries are tracked by a hierarchical timing wheel, so advancing time only visits the entries which come due, and a
+ * handful of wheel buckets, rather than sweeping the whole map. Lookups never do any expiration work. Each entry is
+ * visited at most a few times over its lifetime, no matter how far time advances at once.
+ * <p>
+ * Entries put through {@link Vec3I2ObjectMap} methods, such as {@link ExpiringVec3I2ObjectMap#put(int, int, int,
+ * Object)} or {@link ExpiringVec3I2ObjectMap#computeIfAbsent(int, int, int, Vec3IFunction)}, use the default
+ * time-to-live of the map; {@link ExpiringVec3I2ObjectMap#put(int, int, int, Object, long)} sets it per entry. Writing
+ * to an existing entry restarts its time-to-live. An optional expiration listener is called with each entry after it
+ * expires, but not with entries that are removed or replaced explicitly; the listener must not modify the map.
+ * <p>
+ * This class is not thread-safe, and null values are not supported. See {@link BitPackingVec3I2ObjectMap} for details
+ * on how coordinates are packed.
+ *
+ * @param <T> the type of object stored in this map
+ */
+public class ExpiringVec3I2ObjectMap<T> extends BitPackingVec3I2ObjectMap<T> {
+    private final ExpiringLong2ObjectMap<T> expiringMap;
+
+    private ExpiringVec3I2ObjectMap(int x, int y, int z, int width, int height, int depth,
+            ExpiringLong2ObjectMap<T> expiringMap, Vec3IObjectBiConsumer<? super T> expirationListener) {
+        super(x, y, z, width, height, depth, expiringMap);
+        this.expiringMap = expiringMap;
+
+        if (expirationListener != null) {
+            expiringMap.expirationListener((key, value) -> expirationListener.accept(x(key), y(key), z(key), value));
+        }
+    }
+
+    /**
+     * Creates a new {@link ExpiringVec3I2ObjectMap} with the given origin, bounds, default time-to-live and expiration
+     * listener. See {@link BitPackingVec3I2ObjectMap} for more details.
+     *
+     * @param x                  the x-origin
+     * @param y                  the y-origin
+     * @param z                  the z-origin
+     * @param width              the x-width
+     * @param height             the y-width
+     * @param depth              the z-width
+     * @param defaultTimeToLive  the number of ticks after which entries expire, unless given a time-to-live of their
+     *                           own; must be positive
+     * @param expirationListener the listener to call with each expired entry
+     */
+    public ExpiringVec3I2ObjectMap(int x, int y, int z, int width, int height, int depth, long defaultTimeToLive,
+            @NotNull Vec3IObjectBiConsumer<? super T> expirationListener) {
+        this(x, y, z, width, height, depth, new ExpiringLong2ObjectMap<>(defaultTimeToLive),
+                Objects.requireNonNull(expirationListener));
+    }
+
+    /**
+     * Convenience overload for a map without an expiration listener.
+     *
+     * @param x                 the x-origin
+     * @param y                 the y-origin
+     * @param z                 the z-origin
+     * @param width             the x-width
+     * @param height            the y-width
+     * @param depth             the z-width
+     * @param defaultTimeToLive the number of ticks after which entries expire, unless given a time-to-live of their
+     *                          own; must be positive
+     */
+    public ExpiringVec3I2ObjectMap(int x, int y, int z, int width, int height, int depth, long defaultTimeToLive) {
+        this(x, y, z, width, height, depth, new ExpiringLong2ObjectMap<>(defaultTimeToLive), null);
+    }
+
+    /**
+     * Convenience overload for
+     * {@link ExpiringVec3I2ObjectMap#ExpiringVec3I2ObjectMap(int, int, int, int, int, int, long,
+     * Vec3IObjectBiConsumer)} that uses the origin and lengths from the provided bounds.
+     *
+     * @param bounds             the bounds which provides the origin and lengths
+     * @param defaultTimeToLive  the number of ticks after which entries expire, unless given a time-to-live of their
+     *                           own; must be positive
+     * @param expirationListener the listener to call with each expired entry
+     */
+    public ExpiringVec3I2ObjectMap(@NotNull Bounds3I bounds, long defaultTimeToLive,
+            @NotNull Vec3IObjectBiConsumer<? super T> expirationListener) {
+        this(bounds.originX(), bounds.originY(), bounds.originZ(), bounds.lengthX(), bounds.lengthY(), bounds.lengthZ(),
+                defaultTimeToLive, expirationListener);
+    }
+
+    /**
+     * Convenience overload for
+     * {@link ExpiringVec3I2ObjectMap#ExpiringVec3I2ObjectMap(int, int, int, int, int, int, long)} that uses the origin
+     * and lengths from the provided bounds.
+     *
+     * @param bounds            the bounds which provides the origin and lengths
+     * @param defaultTimeToLive the number of ticks after which entries expire, unless given a time-to-live of their
+     *                          own; must be positive
+     */
+    public ExpiringVec3I2ObjectMap(@NotNull Bounds3I bounds, long defaultTimeToLive) {
+        this(bounds.originX(), bounds.originY(), bounds.originZ(), bounds.lengthX(), bounds.lengthY(), bounds.lengthZ(),
+                defaultTimeToLive);
+    }
+
+    /**
+     * Puts a value which expires after the given number of ticks, replacing any existing value and restarting its
+     * time-to-live.
+     *
+     * @param x          the x-coordinate
+     * @param y          the y-coordinate
+     * @param z          the z-coordinate
+     * @param value      the value
+     * @param timeToLive the number of ticks after which the value expires, which must be positive;
+     *                   {@link Long#MAX_VALUE} if it should never expire
+     * @return the old value, or null if there was none
+     */
+    public T put(int x, int y, int z, @NotNull T value, long timeToLive) {
+        return expiringMap.put(pack(x, y, z), value, timeToLive);
+    }
+
+    /**
+     * Gets the number of ticks until the value at the given coordinate expires.
+     *
+     * @param x the x-coordinate
+     * @param y the y-coordinate
+     * @param z the z-coordinate
+     * @return the remaining time-to-live, or 0 if there is no value at the coordinate
+     */
+    public long timeToLive(int x, int y, int z) {
+        return expiringMap.timeToLive(pack(x, y, z));
+    }
+
+    /**
+     * Gets the time-to-live given to values which are not put with one of their own.
+     *
+     * @return the default time-to-live, in ticks
+     */
+    public long defaultTimeToLive() {
+        return expiringMap.defaultTimeToLive();
+    }
+
+    /**
+     * Gets the current time of this map.
+     *
+     * @return the current time, in ticks
+     */
+    public long currentTime() {
+        return expiringMap.currentTime();
+    }
+
+    /**
+     * Advances the current time by the given number of ticks, removing every value which expires in that time.
+     *
+     * @param ticks the number of ticks to advance by, which must be nonnegative
+     * @throws IllegalArgumentException if the number of ticks is negative
+     */
+    public void advance(long ticks) {
+        if (ticks < 0) {
+            throw new IllegalArgumentException("Cannot advance by a negative number of ticks");
+        }
+
+        long time = expiringMap.currentTime() + ticks;
+        expiringMap.advanceTo(time < 0 ? Long.MAX_VALUE : time);
+    }
+
+    /**
+     * Advances the current time to the given time, removing every value which expires before or at that time.
+     *
+     * @param time the new time, in ticks, which must not be before the current time
+     * @throws IllegalArgumentException if the new time is before the current time
+     */
+    public void advanceTo(long time) {
+        expiringMap.advanceTo(time);
+    }
+
+    @Override
+    public void forEach(@NotNull Vec3IObjectBiConsumer<? super T> consumer) {
+        Objects.requireNonNull(consumer);
+        expiringMap.forEachEntry((key, value) -> consumer.accept(x(key), y(key), z(key), value));
+    }
+}
@@ -0,0 +1,106 @@
+package com.github.steanky.vector;
+
+import it.unimi.dsi.fastutil.Hash;
+import it.unimi.dsi.fastutil.longs.Long2DoubleOpenHashMap;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Implementation of {@link Vec3I2DoubleMap} based on an internal {@link Long2DoubleOpenHashMap}.
+ */
+public class HashVec3I2DoubleMap extends BitPackingVec3I2DoubleMap {
+    /**
+     * Creates a new {@link HashVec3I2DoubleMap} with the given origin and bounds, backed by an underlying
+     * {@link Long2DoubleOpenHashMap}. See {@link BitPackingVec3I2ObjectMap} for more details.
+     *
+     * @param x               the x-origin
+     * @param y               the y-origin
+     * @param z               the z-origin
+     * @param width           the x-width
+     * @param height          the y-width
+     * @param depth           the z-width
+     * @param initialCapacity the initial capacity of the underlying map
+     * @param loadFactor      the load factor of the underlying map
+     */
+    public HashVec3I2DoubleMap(int x, int y, int z, int width, int height, int depth, int initialCapacity,
+            float loadFactor) {
+        super(x, y, z, width, height, depth, new Long2DoubleOpenHashMap(initialCapacity, loadFactor));
+    }
+
+    /**
+     * Convenience overload that uses the default initial size {@link Hash#DEFAULT_INITIAL_SIZE} and default load factor
+     * {@link Hash#DEFAULT_LOAD_FACTOR} for the internal {@link Long2DoubleOpenHashMap}.
+     *
+     * @param x      the x-origin
+     * @param y      the y-origin
+     * @param z      the z-origin
+     * @param width  the x-width
+     * @param height the y-width
+     * @param depth  the z-width
+     */
+    public HashVec3I2DoubleMap(int x, int y, int z, int width, int height, int depth) {
+        this(x, y, z, width, height, depth, Hash.DEFAULT_INITIAL_SIZE, Hash.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Convenience overload that uses the default load factor {@link Hash#DEFAULT_LOAD_FACTOR} for the internal
+     * {@link Long2DoubleOpenHashMap}.
+     *
+     * @param x               the x-origin
+     * @param y               the y-origin
+     * @param z               the z-origin
+     * @param width           the x-width
+     * @param height          the y-width
+     * @param depth           the z-width
+     * @param initialCapacity the initial capacity of the underlying map
+     */
+    public HashVec3I2DoubleMap(int x, int y, int z, int width, int height, int depth, int initialCapacity) {
+        this(x, y, z, width, height, depth, initialCapacity, Hash.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Convenience overload for {@link HashVec3I2DoubleMap#HashVec3I2DoubleMap(int, int, int, int, int, int, int, float)}
+     * that uses the origin and lengths from the provided bounds, the default initial size
+     * {@link Hash#DEFAULT_INITIAL_SIZE}, and the default load factor {@link Hash#DEFAULT_LOAD_FACTOR}.
+     *
+     * @param bounds the bounds which provides the origin and lengths
+     */
+    public HashVec3I2DoubleMap(@NotNull Bounds3I bounds) {
+        this(bounds.originX(), bounds.originY(), bounds.originZ(), bounds.lengthX(), bounds.lengthY(), bounds.lengthZ(),
+                Hash.DEFAULT_INITIAL_SIZE, Hash.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Convenience overload for {@link HashVec3I2DoubleMap#HashVec3I2DoubleMap(int, int, int, int, int, int, int, float)}
+     * that uses the origin and lengths from the provided bounds, the given initial size, and the default load factor
+     * {@link Hash#DEFAULT_LOAD_FACTOR}.
+     *
+     * @param bounds the bounds which provides the origin and lengths
+     * @param initialCapacity the initial capacity for the underlying map
+     */
+    public HashVec3I2DoubleMap(@NotNull Bounds3I bounds, int initialCapacity) {
+        this(bounds.originX(), bounds.originY(), bounds.originZ(), bounds.lengthX(), bounds.lengthY(), bounds.lengthZ(),
+                initialCapacity, Hash.DEFAULT_LOAD_FACTOR);
+    }
+
+    @Override
+    public double addTo(int x, int y, int z, double increment) {
+        return ((Long2DoubleOpenHashMap) underlyingMap).addTo(pack(x, y, z), increment);
+    }
+
+    /**
+     * Calls {@link Long2DoubleOpenHashMap#trim()} on the underlying map.
+     * @return true if there was enough memory to trim the map
+     */
+    public boolean trim() {
+        return ((Long2DoubleOpenHashMap) underlyingMap).trim();
+    }
+
+    /**
+     * Calls {@link Long2DoubleOpenHashMap#trim(int)} on the underlying map.
+     * @param n the threshold for trimming
+     * @return true if there was enough memory to trim the map
+     */
+    public boolean trim(int n) {
+        return ((Long2DoubleOpenHashMap) underlyingMap).trim(n);
+    }
+}
\ No newline at end of file
@@ -28,7 +28,40 @@ public class HashVec3I2ObjectMap<T> extends BitPackingVec3I2ObjectMap<T> {
      */
     public HashVec3I2ObjectMap(int x, int y, int z, int width, int height, int depth, int initialCapacity,
             float loadFactor) {
-        super(x, y, z, width, height, depth, new Long2ObjectOpenHashMap<>(initialCapacity, loadFactor));
+        super(x, y, z, width, height, depth, new BatchLong2ObjectOpenHashMap<>(initialCapacity, loadFactor));
+    }
+
+    /**
+     * Creates a new {@link HashVec3I2ObjectMap} with the given origin, bounds and key layout, backed by an underlying
+     * {@link Long2ObjectOpenHashMap}. See {@link BitPackingVec3I2ObjectMap} and {@link KeyLayout} for more details.
+     *
+     * @param x               the x-origin
+     * @param y               the y-origin
+     * @param z               the z-origin
+     * @param width           the x-width
+     * @param height          the y-width
+     * @param depth           the z-width
+     * @param layout          the layout of packed keys
+     * @param initialCapacity the initial capacity of the underlying map
+     * @param loadFactor      the load factor of the underlying map
+     */
+    public HashVec3I2ObjectMap(int x, int y, int z, int width, int height, int depth, @NotNull KeyLayout layout,
+            int initialCapacity, float loadFactor) {
+        super(x, y, z, width, height, depth, layout, new BatchLong2ObjectOpenHashMap<>(initialCapacity, loadFactor));
+    }
+
+    /**
+     * Convenience overload for
+     * {@link HashVec3I2ObjectMap#HashVec3I2ObjectMap(int, int, int, int, int, int, KeyLayout, int, float)} that uses
+     * the origin and lengths from the provided bounds, the default initial size {@link Hash#DEFAULT_INITIAL_SIZE}, and
+     * the default load factor {@link Hash#DEFAULT_LOAD_FACTOR}.
+     *
+     * @param bounds the bounds which provides the origin and lengths
+     * @param layout the layout of packed keys
+     */
+    public HashVec3I2ObjectMap(@NotNull Bounds3I bounds, @NotNull KeyLayout layout) {
+        this(bounds.originX(), bounds.originY(), bounds.originZ(), bounds.lengthX(), bounds.lengthY(), bounds.lengthZ(),
+                layout, Hash.DEFAULT_INITIAL_SIZE, Hash.DEFAULT_LOAD_FACTOR);
     }
 
     /**
@@ -188,6 +221,143 @@ public class HashVec3I2ObjectMap<T> extends BitPackingVec3I2ObjectMap<T> {
         return newValue;
     }
 
+    private BatchLong2ObjectOpenHashMap<T> batchMap() {
+        return (BatchLong2ObjectOpenHashMap<T>) underlyingMap;
+    }
+
+    private void packAll(int[] xs, int[] ys, int[] zs, int start, long[] keys, int length) {
+        for (int i = 0; i < length; i++) {
+            keys[i] = pack(xs[start + i], ys[start + i], zs[start + i]);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation packs and hashes up to 64 coordinates before probing the table for any of them, so that the
+     * memory accesses of several probes can overlap.
+     */
+    @Override
+    public int getAll(int @NotNull [] xs, int @NotNull [] ys, int @NotNull [] zs, T @NotNull [] out) {
+        BulkLong2ObjectView.checkLength(ys.length, xs.length);
+        BulkLong2ObjectView.checkLength(zs.length, xs.length);
+        BulkLong2ObjectView.checkCapacity(out.length, xs.length);
+
+        BatchLong2ObjectOpenHashMap<T> map = batchMap();
+        long[] keys = new long[Math.min(xs.length, BatchLong2ObjectOpenHashMap.BATCH_SIZE)];
+        int[] slots = new int[keys.length];
+
+        int count = 0;
+        for (int start = 0; start < xs.length; start += keys.length) {
+            int length = Math.min(keys.length, xs.length - start);
+            packAll(xs, ys, zs, start, keys, length);
+            map.locate(keys, slots, length);
+
+            for (int i = 0; i < length; i++) {
+                int slot = slots[i];
+                if (slot == -1) {
+                    out[start + i] = null;
+                    continue;
+                }
+
+                out[start + i] = map.valueAt(slot);
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation packs and hashes 64 coordinates at a time, one bitmask word's worth, before probing the table
+     * for any of them.
+     */
+    @Override
+    public int containsAll(int @NotNull [] xs, int @NotNull [] ys, int @NotNull [] zs, long @NotNull [] bitmaskOut) {
+        BulkLong2ObjectView.checkLength(ys.length, xs.length);
+        BulkLong2ObjectView.checkLength(zs.length, xs.length);
+        BulkLong2ObjectView.checkCapacity(bitmaskOut.length, (xs.length + Long.SIZE - 1) >>> 6);
+
+        BatchLong2ObjectOpenHashMap<T> map = batchMap();
+        long[] keys = new long[Long.SIZE];
+        int[] slots = new int[Long.SIZE];
+
+        int count = 0;
+        for (int start = 0; start < xs.length; start += Long.SIZE) {
+            int length = Math.min(Long.SIZE, xs.length - start);
+            packAll(xs, ys, zs, start, keys, length);
+            map.locate(keys, slots, length);
+
+            long word = 0;
+            for (int i = 0; i < length; i++) {
+                if (slots[i] != -1) {
+                    word |= 1L << i;
+                }
+            }
+
+            bitmaskOut[start >>> 6] = word;
+            count += Long.bitCount(word);
+        }
+
+        return count;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation grows the table once for the whole batch, then packs and hashes up to 64 coordinates at a
+     * time before inserting them.
+     */
+    @Override
+    public void putAll(int @NotNull [] xs, int @NotNull [] ys, int @NotNull [] zs, T @NotNull [] values) {
+        BulkLong2ObjectView.checkLength(xs.length, values.length);
+        BulkLong2ObjectView.checkLength(ys.length, values.length);
+        BulkLong2ObjectView.checkLength(zs.length, values.length);
+
+        BatchLong2ObjectOpenHashMap<T> map = batchMap();
+        map.reserve(values.length);
+
+        long[] keys = new long[Math.min(values.length, BatchLong2ObjectOpenHashMap.BATCH_SIZE)];
+        int[] slots = new int[keys.length];
+        for (int start = 0; start < values.length; start += keys.length) {
+            int length = Math.min(keys.length, values.length - start);
+            for (int i = 0; i < length; i++) {
+                Objects.requireNonNull(values[start + i]);
+            }
+
+            packAll(xs, ys, zs, start, keys, length);
+            map.putAll(keys, values, start, slots, length);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation grows the table once for the whole batch, then hashes up to 64 keys at a time before
+     * inserting them.
+     */
+    @Override
+    public void putAll(long @NotNull [] keys, T @NotNull [] values) {
+        BulkLong2ObjectView.checkLength(keys.length, values.length);
+
+        BatchLong2ObjectOpenHashMap<T> map = batchMap();
+        map.reserve(values.length);
+
+        long[] batch = new long[Math.min(values.length, BatchLong2ObjectOpenHashMap.BATCH_SIZE)];
+        int[] slots = new int[batch.length];
+        for (int start = 0; start < values.length; start += batch.length) {
+            int length = Math.min(batch.length, values.length - start);
+            for (int i = 0; i < length; i++) {
+                Objects.requireNonNull(values[start + i]);
+            }
+
+            System.arraycopy(keys, start, batch, 0, length);
+            map.putAll(batch, values, start, slots, length);
+        }
+    }
+
     /**
      * Calls {@link Long2ObjectOpenHashMap#trim()} on the underlying map.
      * @return true if there was enough memory to trim the map
@@ -204,4 +374,191 @@ public class HashVec3I2ObjectMap<T> extends BitPackingVec3I2ObjectMap<T> {
     public boolean trim(int n) {
         return ((Long2ObjectOpenHashMap<?>)underlyingMap).trim(n);
     }
-}
\ No newline at end of file
+
+    /**
+     * Accumulates entries for a new {@link HashVec3I2ObjectMap}, so that its table can be sized exactly once when it is
+     * built. Entries are buffered as packed keys and values in two flat arrays, so adding an entry does not allocate
+     * unless the buffers need to grow; calling {@link Builder#expectedSize(int)} first avoids that too.
+     * <p>
+     * If the same coordinate is added more than once, the last value wins. Null values are not supported.
+     *
+     * @param <T> the type of object held in the map
+     */
+    public static final class Builder<T> {
+        private final int x;
+        private final int y;
+        private final int z;
+        private final int width;
+        private final int height;
+        private final int depth;
+        private final KeyLayout layout;
+        private final BitPacker packer;
+
+        private long[] keys = new long[Hash.DEFAULT_INITIAL_SIZE];
+        private Object[] values = new Object[Hash.DEFAULT_INITIAL_SIZE];
+        private int size;
+
+        /**
+         * Creates a new builder for a map with the given origin, bounds and key layout. See
+         * {@link BitPackingVec3I2ObjectMap} and {@link KeyLayout} for more details.
+         *
+         * @param x      the x-origin
+         * @param y      the y-origin
+         * @param z      the z-origin
+         * @param width  the x-width
+         * @param height the y-width
+         * @param depth  the z-width
+         * @param layout the layout of packed keys
+         */
+        public Builder(int x, int y, int z, int width, int height, int depth, @NotNull KeyLayout layout) {
+            this.packer = new BitPacker(x, y, z, width, height, depth, layout);
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.width = width;
+            this.height = height;
+            this.depth = depth;
+            this.layout = layout;
+        }
+
+        /**
+         * Convenience overload for {@link Builder#Builder(int, int, int, int, int, int, KeyLayout)} that uses the origin
+         * and lengths from the provided bounds, and the given key layout.
+         *
+         * @param bounds the bounds which provides the origin and lengths
+         * @param layout the layout of packed keys
+         */
+        public Builder(@NotNull Bounds3I bounds, @NotNull KeyLayout layout) {
+            this(bounds.originX(), bounds.originY(), bounds.originZ(), bounds.lengthX(), bounds.lengthY(),
+                    bounds.lengthZ(), layout);
+        }
+
+        /**
+         * Convenience overload for {@link Builder#Builder(int, int, int, int, int, int, KeyLayout)} that uses the origin
+         * and lengths from the provided bounds, and the default key layout {@link KeyLayout#XYZ}.
+         *
+         * @param bounds the bounds which provides the origin and lengths
+         */
+        public Builder(@NotNull Bounds3I bounds) {
+            this(bounds, KeyLayout.XYZ);
+        }
+
+        /**
+         * Ensures that this builder can hold at least the given number of entries without growing its buffers.
+         *
+         * @param expectedSize the expected number of entries
+         * @return this builder
+         */
+        public @NotNull Builder<T> expectedSize(int expectedSize) {
+            if (expectedSize < 0) {
+                throw new IllegalArgumentException("The expected number of elements must be nonnegative");
+            }
+
+            if (expectedSize > keys.length) {
+                keys = Arrays.copyOf(keys, expectedSize);
+                values = Arrays.copyOf(values, expectedSize);
+            }
+
+            return this;
+        }
+
+        private void grow(int additional) {
+            long required = (long) size + additional;
+            if (required > keys.length) {
+                expectedSize((int) Math.min(Math.max(required, (long) keys.length << 1), Integer.MAX_VALUE - 8));
+            }
+        }
+
+        /**
+         * Adds an entry.
+         *
+         * @param x     the x-coordinate
+         * @param y     the y-coordinate
+         * @param z     the z-coordinate
+         * @param value the value
+         * @return this builder
+         */
+        public @NotNull Builder<T> put(int x, int y, int z, @NotNull T value) {
+            Objects.requireNonNull(value);
+            grow(1);
+            keys[size] = packer.pack(x, y, z);
+            values[size++] = value;
+            return this;
+        }
+
+        /**
+         * Adds every value in the given array, at the coordinate given by the corresponding elements of the coordinate
+         * arrays.
+         *
+         * @param xs     the x-coordinates
+         * @param ys     the y-coordinates
+         * @param zs     the z-coordinates
+         * @param values the values, which must have the same length as each coordinate array
+         * @return this builder
+         * @throws IllegalArgumentException if the arrays have different lengths
+         */
+        public @NotNull Builder<T> putAll(int @NotNull [] xs, int @NotNull [] ys, int @NotNull [] zs,
+                T @NotNull [] values) {
+            BulkLong2ObjectView.checkLength(xs.length, values.length);
+            BulkLong2ObjectView.checkLength(ys.length, values.length);
+            BulkLong2ObjectView.checkLength(zs.length, values.length);
+
+            grow(values.length);
+            for (int i = 0; i < values.length; i++) {
+                keys[size] = packer.pack(xs[i], ys[i], zs[i]);
+                this.values[size++] = Objects.requireNonNull(values[i]);
+            }
+
+            return this;
+        }
+
+        /**
+         * Adds every value in the given array, under the corresponding packed key. Keys must be packed in the same way
+         * as {@link BitPackingVec3I2ObjectMap#pack(int, int, int)} for the map being built.
+         *
+         * @param keys   the packed keys
+         * @param values the values, which must have the same length as the keys
+         * @return this builder
+         * @throws IllegalArgumentException if the arrays have different lengths
+         */
+        public @NotNull Builder<T> putAll(long @NotNull [] keys, T @NotNull [] values) {
+            BulkLong2ObjectView.checkLength(keys.length, values.length);
+
+            grow(values.length);
+            for (int i = 0; i < values.length; i++) {
+                this.values[size] = Objects.requireNonNull(values[i]);
+                this.keys[size++] = keys[i];
+            }
+
+            return this;
+        }
+
+        /**
+         * Builds a new map containing every entry added so far, using the given load factor. The underlying table is
+         * sized once for the number of entries added. This builder may continue to be used afterwards.
+         *
+         * @param loadFactor the load factor of the underlying map
+         * @return a new map
+         */
+        @SuppressWarnings("unchecked")
+        public @NotNull HashVec3I2ObjectMap<T> build(float loadFactor) {
+            HashVec3I2ObjectMap<T> map = new HashVec3I2ObjectMap<>(x, y, z, width, height, depth, layout, size,
+                    loadFactor);
+            for (int i = 0; i < size; i++) {
+                map.underlyingMap.put(keys[i], (T) values[i]);
+            }
+
+            return map;
+        }
+
+        /**
+         * Builds a new map containing every entry added so far, using the default load factor
+         * {@link Hash#DEFAULT_LOAD_FACTOR}.
+         *
+         * @return a new map
+         */
+        public @NotNull HashVec3I2ObjectMap<T> build() {
+            return build(Hash.DEFAULT_LOAD_FACTOR);
+        }
+    }
+}
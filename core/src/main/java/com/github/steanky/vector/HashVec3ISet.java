@@ -0,0 +1,100 @@
+package com.github.steanky.vector;
+
+import it.unimi.dsi.fastutil.Hash;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Implementation of {@link Vec3ISet} based on an internal {@link LongOpenHashSet}.
+ */
+public class HashVec3ISet extends BitPackingVec3ISet {
+    /**
+     * Creates a new {@link HashVec3ISet} with the given origin and bounds, backed by an underlying
+     * {@link LongOpenHashSet}. See {@link BitPackingVec3I2ObjectMap} for more details.
+     *
+     * @param x               the x-origin
+     * @param y               the y-origin
+     * @param z               the z-origin
+     * @param width           the x-width
+     * @param height          the y-width
+     * @param depth           the z-width
+     * @param initialCapacity the initial capacity of the underlying set
+     * @param loadFactor      the load factor of the underlying set
+     */
+    public HashVec3ISet(int x, int y, int z, int width, int height, int depth, int initialCapacity, float loadFactor) {
+        super(x, y, z, width, height, depth, new LongOpenHashSet(initialCapacity, loadFactor));
+    }
+
+    /**
+     * Convenience overload that uses the default initial size {@link Hash#DEFAULT_INITIAL_SIZE} and default load factor
+     * {@link Hash#DEFAULT_LOAD_FACTOR} for the internal {@link LongOpenHashSet}.
+     *
+     * @param x      the x-origin
+     * @param y      the y-origin
+     * @param z      the z-origin
+     * @param width  the x-width
+     * @param height the y-width
+     * @param depth  the z-width
+     */
+    public HashVec3ISet(int x, int y, int z, int width, int height, int depth) {
+        this(x, y, z, width, height, depth, Hash.DEFAULT_INITIAL_SIZE, Hash.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Convenience overload that uses the default load factor {@link Hash#DEFAULT_LOAD_FACTOR} for the internal
+     * {@link LongOpenHashSet}.
+     *
+     * @param x               the x-origin
+     * @param y               the y-origin
+     * @param z               the z-origin
+     * @param width           the x-width
+     * @param height          the y-width
+     * @param depth           the z-width
+     * @param initialCapacity the initial capacity of the underlying set
+     */
+    public HashVec3ISet(int x, int y, int z, int width, int height, int depth, int initialCapacity) {
+        this(x, y, z, width, height, depth, initialCapacity, Hash.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Convenience overload for {@link HashVec3ISet#HashVec3ISet(int, int, int, int, int, int, int, float)} that uses the
+     * origin and lengths from the provided bounds, the default initial size {@link Hash#DEFAULT_INITIAL_SIZE}, and the
+     * default load factor {@link Hash#DEFAULT_LOAD_FACTOR}.
+     *
+     * @param bounds the bounds which provides the origin and lengths
+     */
+    public HashVec3ISet(@NotNull Bounds3I bounds) {
+        this(bounds.originX(), bounds.originY(), bounds.originZ(), bounds.lengthX(), bounds.lengthY(), bounds.lengthZ(),
+                Hash.DEFAULT_INITIAL_SIZE, Hash.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Convenience overload for {@link HashVec3ISet#HashVec3ISet(int, int, int, int, int, int, int, float)} that uses the
+     * origin and lengths from the provided bounds, the given initial size, and the default load factor
+     * {@link Hash#DEFAULT_LOAD_FACTOR}.
+     *
+     * @param bounds the bounds which provides the origin and lengths
+     * @param initialCapacity the initial capacity for the underlying set
+     */
+    public HashVec3ISet(@NotNull Bounds3I bounds, int initialCapacity) {
+        this(bounds.originX(), bounds.originY(), bounds.originZ(), bounds.lengthX(), bounds.lengthY(), bounds.lengthZ(),
+                initialCapacity, Hash.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Calls {@link LongOpenHashSet#trim()} on the underlying set.
+     * @return true if there was enough memory to trim the set
+     */
+    public boolean trim() {
+        return ((LongOpenHashSet) underlyingSet).trim();
+    }
+
+    /**
+     * Calls {@link LongOpenHashSet#trim(int)} on the underlying set.
+     * @param n the threshold for trimming
+     * @return true if there was enough memory to trim the set
+     */
+    public boolean trim(int n) {
+        return ((LongOpenHashSet) underlyingSet).trim(n);
+    }
+}
@@ -0,0 +1,82 @@
+package com.github.steanky.vector;
+
+/**
+ * Determines how bit-packing maps, such as {@link BitPackingVec3I2ObjectMap}, arrange the bits of each coordinate
+ * within their packed long keys.
+ * <p>
+ * The axis-order layouts concatenate the bit fields of the three coordinates, with the first named axis in the most
+ * significant bits and the last named axis in the least significant bits. Coordinates which differ only along the last
+ * axis therefore have adjacent keys, while those which differ along the first axis have keys that are far apart.
+ * {@link KeyLayout#XYZ} is the default.
+ * <p>
+ * {@link KeyLayout#MORTON} interleaves the bits of the three coordinates instead, producing a Z-order curve. Cells
+ * which are near each other along any axis tend to have nearby keys, which improves the locality of structures that
+ * are sorted or indexed by key. Packing and unpacking are slightly more expensive than for the axis-order layouts, and
+ * cheapest when the actual widths along all three axes are equal.
+ * <p>
+ * Every layout maps the addressable space of a map onto the same range of keys, so the choice of layout does not
+ * affect which coordinates may be stored.
+ */
+public enum KeyLayout {
+    /**
+     * The x-coordinate occupies the most significant bits, followed by the y- and then the z-coordinate.
+     */
+    XYZ(0, 1, 2),
+
+    /**
+     * The x-coordinate occupies the most significant bits, followed by the z- and then the y-coordinate.
+     */
+    XZY(0, 2, 1),
+
+    /**
+     * The y-coordinate occupies the most significant bits, followed by the x- and then the z-coordinate.
+     */
+    YXZ(1, 0, 2),
+
+    /**
+     * The y-coordinate occupies the most significant bits, followed by the z- and then the x-coordinate.
+     */
+    YZX(1, 2, 0),
+
+    /**
+     * The z-coordinate occupies the most significant bits, followed by the x- and then the y-coordinate.
+     */
+    ZXY(2, 0, 1),
+
+    /**
+     * The z-coordinate occupies the most significant bits, followed by the y- and then the x-coordinate.
+     */
+    ZYX(2, 1, 0),
+
+    /**
+     * The bits of the coordinates are interleaved, starting from the least significant bit of the z-coordinate, then
+     * y, then x. When the actual widths differ, the extra high bits of the longer axes are interleaved among
+     * themselves.
+     */
+    MORTON(-1, -1, -1);
+
+    private final int[] order;
+
+    KeyLayout(int first, int second, int third) {
+        this.order = first == -1 ? null : new int[] {first, second, third};
+    }
+
+    /**
+     * Gets the axis at the given position, for axis-order layouts only.
+     *
+     * @param position the position, where 0 is the most significant
+     * @return the axis at the position, where 0 is x, 1 is y and 2 is z
+     */
+    int axis(int position) {
+        return order[position];
+    }
+
+    /**
+     * Determines if this layout concatenates the bit fields of the coordinates.
+     *
+     * @return true for the axis-order layouts; false for {@link KeyLayout#MORTON}
+     */
+    boolean isAxisOrder() {
+        return order != null;
+    }
+}
@@ -0,0 +1,18 @@
+package com.github.steanky.vector;
+
+/**
+ * Internal consumer of primitive long keys and their values, used to iterate the internal maps without boxing. Not
+ * part of the public API.
+ *
+ * @param <V> the type of value
+ */
+@FunctionalInterface
+interface LongEntryConsumer<V> {
+    /**
+     * Accepts an entry.
+     *
+     * @param key   the key
+     * @param value the value
+     */
+    void accept(long key, V value);
+}
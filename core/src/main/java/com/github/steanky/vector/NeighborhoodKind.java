@@ -0,0 +1,98 @@
+package com.github.steanky.vector;
+
+/**
+ * A set of cells adjacent to some central cell, used by
+ * {@link Vec3I2ObjectMap#forEachNeighbor(int, int, int, NeighborhoodKind, Vec3IObjectBiConsumer)} and
+ * {@link Vec3I2ObjectMap#getNeighbors(int, int, int, NeighborhoodKind, Object[])}.
+ * <p>
+ * Each kind defines a fixed order of neighbor offsets, which is the lexicographic order of (dx, dy, dz). The offset of
+ * the neighbor at index {@code i} is given by {@link NeighborhoodKind#offsetX(int)},
+ * {@link NeighborhoodKind#offsetY(int)} and {@link NeighborhoodKind#offsetZ(int)}.
+ */
+public enum NeighborhoodKind {
+    /**
+     * The 6 cells sharing a face with the central cell.
+     */
+    FACES(1),
+
+    /**
+     * The 18 cells sharing a face or an edge with the central cell.
+     */
+    EDGES(2),
+
+    /**
+     * The 26 cells sharing a face, an edge or a corner with the central cell.
+     */
+    CORNERS(3);
+
+    private final byte[] offsetsX;
+    private final byte[] offsetsY;
+    private final byte[] offsetsZ;
+
+    NeighborhoodKind(int maxChanged) {
+        int size = switch (maxChanged) {
+            case 1 -> 6;
+            case 2 -> 18;
+            default -> 26;
+        };
+
+        this.offsetsX = new byte[size];
+        this.offsetsY = new byte[size];
+        this.offsetsZ = new byte[size];
+
+        int i = 0;
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dz = -1; dz <= 1; dz++) {
+                    int changed = Math.abs(dx) + Math.abs(dy) + Math.abs(dz);
+                    if (changed == 0 || changed > maxChanged) {
+                        continue;
+                    }
+
+                    offsetsX[i] = (byte) dx;
+                    offsetsY[i] = (byte) dy;
+                    offsetsZ[i++] = (byte) dz;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the number of neighbors in this neighborhood.
+     *
+     * @return the number of neighbors; 6, 18 or 26
+     */
+    public int size() {
+        return offsetsX.length;
+    }
+
+    /**
+     * Gets the x-offset of the neighbor at the given index.
+     *
+     * @param index the index of the neighbor, in the range [0, {@link NeighborhoodKind#size()})
+     * @return the x-offset; -1, 0 or 1
+     */
+    public int offsetX(int index) {
+        return offsetsX[index];
+    }
+
+    /**
+     * Gets the y-offset of the neighbor at the given index.
+     *
+     * @param index the index of the neighbor, in the range [0, {@link NeighborhoodKind#size()})
+     * @return the y-offset; -1, 0 or 1
+     */
+    public int offsetY(int index) {
+        return offsetsY[index];
+    }
+
+    /**
+     * Gets the z-offset of the neighbor at the given index.
+     *
+     * @param index the index of the neighbor, in the range [0, {@link NeighborhoodKind#size()})
+     * @return the z-offset; -1, 0 or 1
+     */
+    public int offsetZ(int index) {
+        return offsetsZ[index];
+    }
+}
@@ -0,0 +1,112 @@
+package com.github.steanky.vector;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectFunction;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+
+/**
+ * Internal implementations of the neighbor lookups of {@link Vec3I2ObjectMap}. Not part of the public API.
+ * <p>
+ * Maps which pack their coordinates with a {@link BitPacker} look up neighbors by key. Since every key is the bitwise
+ * OR of independent parts for each axis, the keys of all 26 neighbors can be assembled from just 9 parts, one for each
+ * of the three coordinates along each axis, instead of packing each neighbor from scratch.
+ */
+final class Neighbors {
+    private Neighbors() {
+        throw new UnsupportedOperationException();
+    }
+
+    private static long select(int offset, long below, long center, long above) {
+        return offset < 0 ? below : offset == 0 ? center : above;
+    }
+
+    static <T> void forEach(@NotNull Vec3I2ObjectMap<T> map, int x, int y, int z, @NotNull NeighborhoodKind kind,
+            @NotNull Vec3IObjectBiConsumer<? super T> consumer) {
+        Objects.requireNonNull(kind);
+        Objects.requireNonNull(consumer);
+
+        for (int i = 0; i < kind.size(); i++) {
+            int nx = x + kind.offsetX(i);
+            int ny = y + kind.offsetY(i);
+            int nz = z + kind.offsetZ(i);
+
+            T value = map.get(nx, ny, nz);
+            if (value != null) {
+                consumer.accept(nx, ny, nz, value);
+            }
+        }
+    }
+
+    static <T> int get(@NotNull Vec3I2ObjectMap<T> map, int x, int y, int z, @NotNull NeighborhoodKind kind,
+            T @NotNull [] out) {
+        BulkLong2ObjectView.checkCapacity(out.length, kind.size());
+
+        int count = 0;
+        for (int i = 0; i < kind.size(); i++) {
+            T value = map.get(x + kind.offsetX(i), y + kind.offsetY(i), z + kind.offsetZ(i));
+            if (value != null) {
+                count++;
+            }
+
+            out[i] = value;
+        }
+
+        return count;
+    }
+
+    static <T> void forEach(@NotNull BitPacker packer, @NotNull Long2ObjectFunction<? extends T> lookup, int x, int y,
+            int z, @NotNull NeighborhoodKind kind, @NotNull Vec3IObjectBiConsumer<? super T> consumer) {
+        Objects.requireNonNull(kind);
+        Objects.requireNonNull(consumer);
+
+        long x0 = packer.packX(x - 1);
+        long x1 = packer.packX(x);
+        long x2 = packer.packX(x + 1);
+        long y0 = packer.packY(y - 1);
+        long y1 = packer.packY(y);
+        long y2 = packer.packY(y + 1);
+        long z0 = packer.packZ(z - 1);
+        long z1 = packer.packZ(z);
+        long z2 = packer.packZ(z + 1);
+
+        for (int i = 0; i < kind.size(); i++) {
+            int dx = kind.offsetX(i);
+            int dy = kind.offsetY(i);
+            int dz = kind.offsetZ(i);
+
+            T value = lookup.get(select(dx, x0, x1, x2) | select(dy, y0, y1, y2) | select(dz, z0, z1, z2));
+            if (value != null) {
+                consumer.accept(x + dx, y + dy, z + dz, value);
+            }
+        }
+    }
+
+    static <T> int get(@NotNull BitPacker packer, @NotNull Long2ObjectFunction<? extends T> lookup, int x, int y,
+            int z, @NotNull NeighborhoodKind kind, T @NotNull [] out) {
+        BulkLong2ObjectView.checkCapacity(out.length, kind.size());
+
+        long x0 = packer.packX(x - 1);
+        long x1 = packer.packX(x);
+        long x2 = packer.packX(x + 1);
+        long y0 = packer.packY(y - 1);
+        long y1 = packer.packY(y);
+        long y2 = packer.packY(y + 1);
+        long z0 = packer.packZ(z - 1);
+        long z1 = packer.packZ(z);
+        long z2 = packer.packZ(z + 1);
+
+        int count = 0;
+        for (int i = 0; i < kind.size(); i++) {
+            T value = lookup.get(select(kind.offsetX(i), x0, x1, x2) | select(kind.offsetY(i), y0, y1, y2) |
+                    select(kind.offsetZ(i), z0, z1, z2));
+            if (value != null) {
+                count++;
+            }
+
+            out[i] = value;
+        }
+
+        return count;
+    }
+}
@@ -0,0 +1,653 @@
+package com.github.steanky.vector;
+
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.longs.AbstractLong2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.objects.AbstractObjectSet;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import it.unimi.dsi.fastutil.objects.ObjectSet;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Internal non-blocking {@link Long2ObjectMap} used by {@link NonBlockingVec3I2ObjectMap}. Not part of the public API.
+ * <p>
+ * This follows the design of Cliff Click's {@code NonBlockingHashMapLong}. Keys and values are stored in parallel
+ * arrays that form a linear-probing table. A key slot is claimed once, by CAS from {@link NonBlockingLong2ObjectMap#NO_KEY},
+ * and never changes afterwards; all further state changes happen by CAS on the value slot. Removed values are replaced
+ * by a tombstone. The key {@code 0} is used to mark empty key slots, so its value is stored in a separate field.
+ * <p>
+ * When a table becomes too full, a larger table is attached to it and every thread that touches the old table helps
+ * to copy it, a chunk of slots at a time. A value being copied is first wrapped in a {@link Prime}, which tells other
+ * threads to look in the new table instead; once the copy is complete the new table is promoted. No operation ever
+ * waits for another thread. Reads never write, except to help copy the slot they are looking at.
+ * <p>
+ * The map-level operations {@code put}, {@code remove}, {@code putIfAbsent} and both {@code replace} methods are
+ * atomic. Null values are not supported.
+ *
+ * @param <V> the type of value stored in the map
+ */
+final class NonBlockingLong2ObjectMap<V> extends AbstractLong2ObjectMap<V> {
+    private static final long NO_KEY = 0L;
+
+    private static final Object TOMBSTONE = new Object();
+    private static final Object MATCH_ANY = new Object();
+    private static final Object NO_MATCH_OLD = new Object();
+    private static final Prime TOMBPRIME = new Prime(TOMBSTONE);
+
+    private static final int MIN_SIZE = 8;
+    private static final int MAX_SIZE = 1 << 30;
+    private static final int REPROBE_LIMIT = 10;
+    private static final int COPY_CHUNK = 1024;
+
+    private static final VarHandle KEYS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle VALUES = MethodHandles.arrayElementVarHandle(Object[].class);
+    private static final VarHandle TABLE;
+    private static final VarHandle ZERO_VALUE;
+    private static final VarHandle NEXT;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            TABLE = lookup.findVarHandle(NonBlockingLong2ObjectMap.class, "table", Table.class);
+            ZERO_VALUE = lookup.findVarHandle(NonBlockingLong2ObjectMap.class, "zeroValue", Object.class);
+            NEXT = lookup.findVarHandle(Table.class, "next", Table.class);
+        }
+        catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /*
+    A value which is being copied to the next table. TOMBPRIME indicates that the slot has been fully copied, or that
+    there was nothing to copy.
+     */
+    private static final class Prime {
+        private final Object value;
+
+        private Prime(Object value) {
+            this.value = value;
+        }
+    }
+
+    private static final class Table {
+        private final long[] keys;
+        private final Object[] values;
+
+        //number of claimed key slots, including those whose value has since been removed
+        private final AtomicInteger slots = new AtomicInteger();
+
+        //number of live entries, shared with every table this one is copied to
+        private final LongAdder size;
+
+        private final AtomicInteger copyIndex = new AtomicInteger();
+        private final AtomicInteger copyDone = new AtomicInteger();
+
+        private volatile Table next;
+
+        private Table(int length, LongAdder size) {
+            this.keys = new long[length];
+            this.values = new Object[length];
+            this.size = size;
+        }
+
+        private long key(int index) {
+            return (long) KEYS.getVolatile(keys, index);
+        }
+
+        private Object value(int index) {
+            return VALUES.getVolatile(values, index);
+        }
+
+        private boolean casKey(int index, long expected, long key) {
+            return KEYS.compareAndSet(keys, index, expected, key);
+        }
+
+        private boolean casValue(int index, Object expected, Object value) {
+            return VALUES.compareAndSet(values, index, expected, value);
+        }
+    }
+
+    private volatile Table table;
+    private volatile Object zeroValue;
+
+    /**
+     * Creates a new map.
+     *
+     * @param initialCapacity the expected number of elements
+     */
+    NonBlockingLong2ObjectMap(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("The expected number of elements must be nonnegative");
+        }
+
+        //keep tables at most half full
+        int length = HashCommon.nextPowerOfTwo(Math.max(MIN_SIZE, Math.min(initialCapacity, MAX_SIZE >>> 1) << 1));
+        this.table = new Table(length, new LongAdder());
+    }
+
+    private static int hash(long key) {
+        return (int) HashCommon.mix(key);
+    }
+
+    private static int reprobeLimit(int length) {
+        return REPROBE_LIMIT + (length >> 2);
+    }
+
+    private static boolean isAbsent(Object value) {
+        return value == null || value == TOMBSTONE;
+    }
+
+    /**
+     * Calls the given consumer with each entry in this map. Iteration is weakly consistent.
+     *
+     * @param consumer the consumer to call
+     */
+    @SuppressWarnings("unchecked")
+    void forEachEntry(@NotNull LongEntryConsumer<? super V> consumer) {
+        Object zero = zeroValue;
+        if (zero != null) {
+            consumer.accept(NO_KEY, (V) zero);
+        }
+
+        Table table = stableTable();
+        for (int i = 0; i < table.keys.length; i++) {
+            long key = table.key(i);
+            if (key == NO_KEY) {
+                continue;
+            }
+
+            Object value = table.value(i);
+            if (value instanceof Prime) {
+                //a resize started since iteration began, so look in the newest table
+                value = get(table, key);
+            }
+
+            if (!isAbsent(value)) {
+                consumer.accept(key, (V) value);
+            }
+        }
+    }
+
+    //completes any resize in progress, so that iteration can proceed over a single table
+    private Table stableTable() {
+        Table table;
+        while ((table = this.table).next != null) {
+            copyChunk(table, true);
+        }
+
+        return table;
+    }
+
+    private Object get(Table table, long key) {
+        int length = table.keys.length;
+        int mask = length - 1;
+        int index = hash(key) & mask;
+        int reprobeCount = 0;
+
+        while (true) {
+            long k = table.key(index);
+            if (k == NO_KEY) {
+                return null;
+            }
+
+            Object value = table.value(index);
+            if (k == key) {
+                if (!(value instanceof Prime)) {
+                    return value == TOMBSTONE ? null : value;
+                }
+
+                return get(copySlotAndCheck(table, index, true), key);
+            }
+
+            if (++reprobeCount >= reprobeLimit(length)) {
+                Table next = table.next;
+                return next == null ? null : get(next, key);
+            }
+
+            index = (index + 1) & mask;
+        }
+    }
+
+    private Object putIfMatch(Table table, long key, Object putValue, Object expected) {
+        int length = table.keys.length;
+        int mask = length - 1;
+        int index = hash(key) & mask;
+        int reprobeCount = 0;
+
+        while (true) {
+            long k = table.key(index);
+            if (k == NO_KEY) {
+                if (putValue == TOMBSTONE) {
+                    //no need to claim a slot just to remove nothing
+                    return TOMBSTONE;
+                }
+
+                if (table.casKey(index, NO_KEY, key)) {
+                    table.slots.incrementAndGet();
+                    break;
+                }
+
+                k = table.key(index);
+            }
+
+            if (k == key) {
+                break;
+            }
+
+            if (++reprobeCount >= reprobeLimit(length)) {
+                Table next = resize(table);
+                if (expected != null) {
+                    helpCopy();
+                }
+
+                return putIfMatch(next, key, putValue, expected);
+            }
+
+            index = (index + 1) & mask;
+        }
+
+        while (true) {
+            Object value = table.value(index);
+            if (putValue == value) {
+                return value;
+            }
+
+            Table next = table.next;
+            if (next == null && ((value == null && isFull(table, reprobeCount)) || value instanceof Prime)) {
+                next = resize(table);
+            }
+
+            if (next != null) {
+                return putIfMatch(copySlotAndCheck(table, index, expected != null), key, putValue, expected);
+            }
+
+            if (expected != NO_MATCH_OLD && value != expected && (expected != MATCH_ANY || isAbsent(value)) &&
+                    !(value == null && expected == TOMBSTONE) && (expected == null || !expected.equals(value))) {
+                return value == null ? TOMBSTONE : value;
+            }
+
+            if (table.casValue(index, value, putValue)) {
+                //a null return tells a copying thread that it was the one to copy the value
+                return value == null && expected != null ? TOMBSTONE : value;
+            }
+        }
+    }
+
+    private static boolean isFull(Table table, int reprobeCount) {
+        return reprobeCount >= REPROBE_LIMIT || table.slots.get() >= (table.keys.length >> 1);
+    }
+
+    private Table resize(Table table) {
+        Table next = table.next;
+        if (next != null) {
+            return next;
+        }
+
+        int length = table.keys.length;
+        long live = table.size.sum();
+
+        //if most claimed slots are dead, a table of the same size is enough to clean them up
+        int newLength = length;
+        if (live >= (length >> 2)) {
+            newLength = length << 1;
+        }
+
+        if (live >= (length >> 1)) {
+            newLength = length << 2;
+        }
+
+        newLength = Math.max(MIN_SIZE, Math.min(newLength, MAX_SIZE));
+        Table newTable = new Table(newLength, table.size);
+        return NEXT.compareAndSet(table, null, newTable) ? newTable : table.next;
+    }
+
+    private void helpCopy() {
+        Table top = table;
+        if (top.next != null) {
+            copyChunk(top, false);
+        }
+    }
+
+    private void copyChunk(Table table, boolean copyAll) {
+        int length = table.keys.length;
+        int chunk = Math.min(length, COPY_CHUNK);
+
+        //chunks may be claimed twice over before every thread falls back to copying the whole table itself
+        boolean panic = false;
+        int copyIndex = 0;
+        while (table.copyDone.get() < length) {
+            if (!panic) {
+                copyIndex = table.copyIndex.get();
+                while (copyIndex < (length << 1) && !table.copyIndex.compareAndSet(copyIndex, copyIndex + chunk)) {
+                    copyIndex = table.copyIndex.get();
+                }
+
+                if (copyIndex >= (length << 1)) {
+                    panic = true;
+                }
+            }
+
+            int workDone = 0;
+            for (int i = 0; i < chunk; i++) {
+                if (copySlot(table, (copyIndex + i) & (length - 1))) {
+                    workDone++;
+                }
+            }
+
+            if (workDone > 0) {
+                copyCheckAndPromote(table, workDone);
+            }
+
+            copyIndex += chunk;
+            if (!copyAll && !panic) {
+                return;
+            }
+        }
+
+        copyCheckAndPromote(table, 0);
+    }
+
+    private Table copySlotAndCheck(Table table, int index, boolean shouldHelp) {
+        Table next = table.next;
+        if (copySlot(table, index)) {
+            copyCheckAndPromote(table, 1);
+        }
+
+        if (shouldHelp) {
+            helpCopy();
+        }
+
+        return next;
+    }
+
+    private void copyCheckAndPromote(Table table, int workDone) {
+        int length = table.keys.length;
+        int done = workDone > 0 ? table.copyDone.addAndGet(workDone) : table.copyDone.get();
+        if (done == length) {
+            TABLE.compareAndSet(this, table, table.next);
+        }
+    }
+
+    //returns true if this call completed the copy of the slot, which happens exactly once per slot
+    private boolean copySlot(Table table, int index) {
+        //claim empty key slots with a dummy key, so no new key can be inserted into them
+        long key;
+        while ((key = table.key(index)) == NO_KEY) {
+            table.casKey(index, NO_KEY, index + (long) table.keys.length);
+        }
+
+        Object value = table.value(index);
+        while (!(value instanceof Prime)) {
+            Prime box = isAbsent(value) ? TOMBPRIME : new Prime(value);
+            if (table.casValue(index, value, box)) {
+                if (box == TOMBPRIME) {
+                    return true;
+                }
+
+                value = box;
+                break;
+            }
+
+            value = table.value(index);
+        }
+
+        if (value == TOMBPRIME) {
+            return false;
+        }
+
+        Object unboxed = ((Prime) value).value;
+        boolean copied = putIfMatch(table.next, key, unboxed, null) == null;
+
+        //now that the value is visible in the new table, hide it in the old one
+        while (!table.casValue(index, value, TOMBPRIME)) {
+            value = table.value(index);
+        }
+
+        return copied;
+    }
+
+    private Object putIfMatchZero(Object putValue, Object expected) {
+        Object newValue = putValue == TOMBSTONE ? null : putValue;
+        while (true) {
+            Object value = zeroValue;
+            boolean absent = value == null;
+            if (expected != NO_MATCH_OLD && !(expected == TOMBSTONE && absent) &&
+                    !(expected == MATCH_ANY && !absent) && (absent || !expected.equals(value))) {
+                return value;
+            }
+
+            if (ZERO_VALUE.compareAndSet(this, value, newValue)) {
+                return value;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private V putIfMatch(long key, Object putValue, Object expected) {
+        if (key == NO_KEY) {
+            return (V) putIfMatchZero(putValue, expected);
+        }
+
+        Table top = table;
+        Object old = putIfMatch(top, key, putValue, expected);
+
+        boolean absent = isAbsent(old);
+        boolean success = expected == NO_MATCH_OLD || (expected == TOMBSTONE ? absent :
+                expected == MATCH_ANY ? !absent : !absent && expected.equals(old));
+        if (success) {
+            if (absent && putValue != TOMBSTONE) {
+                top.size.increment();
+            }
+            else if (!absent && putValue == TOMBSTONE) {
+                top.size.decrement();
+            }
+        }
+
+        return absent ? null : (V) old;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public V get(long key) {
+        return (V) (key == NO_KEY ? zeroValue : get(table, key));
+    }
+
+    @Override
+    public V getOrDefault(long key, V defaultValue) {
+        V value = get(key);
+        return value == null ? defaultValue : value;
+    }
+
+    @Override
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        if (value == null) {
+            return false;
+        }
+
+        boolean[] found = new boolean[1];
+        forEachEntry((key, v) -> {
+            if (!found[0] && value.equals(v)) {
+                found[0] = true;
+            }
+        });
+
+        return found[0];
+    }
+
+    @Override
+    public V put(long key, @NotNull V value) {
+        Objects.requireNonNull(value);
+        return putIfMatch(key, value, NO_MATCH_OLD);
+    }
+
+    @Override
+    public V remove(long key) {
+        return putIfMatch(key, TOMBSTONE, NO_MATCH_OLD);
+    }
+
+    @Override
+    public boolean remove(long key, Object value) {
+        if (value == null) {
+            return false;
+        }
+
+        V old = putIfMatch(key, TOMBSTONE, value);
+        return old != null && value.equals(old);
+    }
+
+    @Override
+    public V putIfAbsent(long key, @NotNull V value) {
+        Objects.requireNonNull(value);
+        return putIfMatch(key, value, TOMBSTONE);
+    }
+
+    @Override
+    public V replace(long key, @NotNull V value) {
+        Objects.requireNonNull(value);
+        return putIfMatch(key, value, MATCH_ANY);
+    }
+
+    @Override
+    public boolean replace(long key, V oldValue, @NotNull V newValue) {
+        Objects.requireNonNull(newValue);
+        if (oldValue == null) {
+            return false;
+        }
+
+        V old = putIfMatch(key, newValue, oldValue);
+        return old != null && oldValue.equals(old);
+    }
+
+    @Override
+    public int size() {
+        long size = table.size.sum() + (zeroValue == null ? 0 : 1);
+        return (int) Math.max(0, Math.min(size, Integer.MAX_VALUE));
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public void clear() {
+        TABLE.setVolatile(this, new Table(MIN_SIZE, new LongAdder()));
+        ZERO_VALUE.setVolatile(this, null);
+    }
+
+    @Override
+    public ObjectSet<Long2ObjectMap.Entry<V>> long2ObjectEntrySet() {
+        return new AbstractObjectSet<>() {
+            @Override
+            public ObjectIterator<Long2ObjectMap.Entry<V>> iterator() {
+                return new ObjectIterator<>() {
+                    private final Table table = stableTable();
+                    private int index = -2;
+
+                    private long nextKey;
+                    private Object nextValue;
+
+                    private long lastKey;
+                    private boolean canRemove;
+
+                    {
+                        advance();
+                    }
+
+                    private void advance() {
+                        nextValue = null;
+                        if (index == -2) {
+                            index = -1;
+
+                            Object zero = zeroValue;
+                            if (zero != null) {
+                                nextKey = NO_KEY;
+                                nextValue = zero;
+                                return;
+                            }
+                        }
+
+                        while (++index < table.keys.length) {
+                            long key = table.key(index);
+                            if (key == NO_KEY) {
+                                continue;
+                            }
+
+                            Object value = table.value(index);
+                            if (value instanceof Prime) {
+                                value = get(NonBlockingLong2ObjectMap.this.table, key);
+                            }
+
+                            if (!isAbsent(value)) {
+                                nextKey = key;
+                                nextValue = value;
+                                return;
+                            }
+                        }
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        return nextValue != null;
+                    }
+
+                    @SuppressWarnings("unchecked")
+                    @Override
+                    public Long2ObjectMap.Entry<V> next() {
+                        if (nextValue == null) {
+                            throw new NoSuchElementException();
+                        }
+
+                        long key = nextKey;
+                        V value = (V) nextValue;
+                        lastKey = key;
+                        canRemove = true;
+                        advance();
+
+                        return new BasicEntry<>(key, value) {
+                            @Override
+                            public V setValue(V value) {
+                                V old = this.value;
+                                NonBlockingLong2ObjectMap.this.put(key, value);
+                                this.value = value;
+                                return old;
+                            }
+                        };
+                    }
+
+                    @Override
+                    public void remove() {
+                        if (!canRemove) {
+                            throw new IllegalStateException();
+                        }
+
+                        NonBlockingLong2ObjectMap.this.remove(lastKey);
+                        canRemove = false;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return NonBlockingLong2ObjectMap.this.size();
+            }
+
+            @Override
+            public void clear() {
+                NonBlockingLong2ObjectMap.this.clear();
+            }
+        };
+    }
+}
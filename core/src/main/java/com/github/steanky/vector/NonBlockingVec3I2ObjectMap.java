@@ -0,0 +1,178 @@
+package com.github.steanky.vector;
+
+import it.unimi.dsi.fastutil.Hash;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+import java.util.function.BiFunction;
+
+/**
+ * A thread-safe, lock-free implementation of {@link Vec3I2ObjectMap}. Packed keys are stored in an open-addressing
+ * table with linear probing, in the manner of Cliff Click's {@code NonBlockingHashMap}: key and value slots are
+ * updated by compare-and-set, and when the table fills up every thread that touches it helps to copy it into a larger
+ * one. No operation ever blocks, and reads never wait for writes.
+ * <p>
+ * {@link NonBlockingVec3I2ObjectMap#put(int, int, int, Object)}, {@link NonBlockingVec3I2ObjectMap#remove(int, int,
+ * int)}, {@link NonBlockingVec3I2ObjectMap#putIfAbsent(int, int, int, Object)} and both {@code replace} methods are
+ * atomic. The compound operations {@link NonBlockingVec3I2ObjectMap#compute(int, int, int, Vec3IObjectBiFunction)},
+ * {@link NonBlockingVec3I2ObjectMap#computeIfAbsent(int, int, int, Vec3IFunction)},
+ * {@link NonBlockingVec3I2ObjectMap#computeIfPresent(int, int, int, Vec3IObjectBiFunction)} and
+ * {@link NonBlockingVec3I2ObjectMap#merge(int, int, int, Object, BiFunction)} are also atomic, but are implemented as
+ * compare-and-set loops: their functions may be called more than once when there is contention, so they should be free
+ * of side effects. Returning null from any of these functions removes the entry.
+ * <p>
+ * Iteration is weakly consistent. Null values are not supported. See {@link BitPackingVec3I2ObjectMap} for details on
+ * how coordinates are packed.
+ *
+ * @param <T> the type of object stored in this map
+ */
+public class NonBlockingVec3I2ObjectMap<T> extends BitPackingVec3I2ObjectMap<T> {
+    private final NonBlockingLong2ObjectMap<T> nonBlockingMap;
+
+    private NonBlockingVec3I2ObjectMap(int x, int y, int z, int width, int height, int depth,
+            NonBlockingLong2ObjectMap<T> nonBlockingMap) {
+        super(x, y, z, width, height, depth, nonBlockingMap);
+        this.nonBlockingMap = nonBlockingMap;
+    }
+
+    /**
+     * Creates a new {@link NonBlockingVec3I2ObjectMap} with the given origin and bounds. See
+     * {@link BitPackingVec3I2ObjectMap} for more details.
+     *
+     * @param x               the x-origin
+     * @param y               the y-origin
+     * @param z               the z-origin
+     * @param width           the x-width
+     * @param height          the y-width
+     * @param depth           the z-width
+     * @param initialCapacity the expected number of elements
+     */
+    public NonBlockingVec3I2ObjectMap(int x, int y, int z, int width, int height, int depth, int initialCapacity) {
+        this(x, y, z, width, height, depth, new NonBlockingLong2ObjectMap<>(initialCapacity));
+    }
+
+    /**
+     * Convenience overload that uses the default initial size {@link Hash#DEFAULT_INITIAL_SIZE}.
+     *
+     * @param x      the x-origin
+     * @param y      the y-origin
+     * @param z      the z-origin
+     * @param width  the x-width
+     * @param height the y-width
+     * @param depth  the z-width
+     */
+    public NonBlockingVec3I2ObjectMap(int x, int y, int z, int width, int height, int depth) {
+        this(x, y, z, width, height, depth, Hash.DEFAULT_INITIAL_SIZE);
+    }
+
+    /**
+     * Convenience overload for
+     * {@link NonBlockingVec3I2ObjectMap#NonBlockingVec3I2ObjectMap(int, int, int, int, int, int, int)} that uses the
+     * origin and lengths from the provided bounds.
+     *
+     * @param bounds          the bounds which provides the origin and lengths
+     * @param initialCapacity the expected number of elements
+     */
+    public NonBlockingVec3I2ObjectMap(@NotNull Bounds3I bounds, int initialCapacity) {
+        this(bounds.originX(), bounds.originY(), bounds.originZ(), bounds.lengthX(), bounds.lengthY(), bounds.lengthZ(),
+                initialCapacity);
+    }
+
+    /**
+     * Convenience overload for
+     * {@link NonBlockingVec3I2ObjectMap#NonBlockingVec3I2ObjectMap(int, int, int, int, int, int)} that uses the origin
+     * and lengths from the provided bounds.
+     *
+     * @param bounds the bounds which provides the origin and lengths
+     */
+    public NonBlockingVec3I2ObjectMap(@NotNull Bounds3I bounds) {
+        this(bounds.originX(), bounds.originY(), bounds.originZ(), bounds.lengthX(), bounds.lengthY(), bounds.lengthZ());
+    }
+
+    @Override
+    public T computeIfAbsent(int x, int y, int z, @NotNull Vec3IFunction<? extends T> mappingFunction) {
+        Objects.requireNonNull(mappingFunction);
+
+        long key = pack(x, y, z);
+        T value = nonBlockingMap.get(key);
+        if (value != null) {
+            return value;
+        }
+
+        T newValue = mappingFunction.apply(x, y, z);
+        if (newValue == null) {
+            return null;
+        }
+
+        T witness = nonBlockingMap.putIfAbsent(key, newValue);
+        return witness == null ? newValue : witness;
+    }
+
+    @Override
+    public T computeIfPresent(int x, int y, int z,
+            @NotNull Vec3IObjectBiFunction<? super T, ? extends T> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+
+        long key = pack(x, y, z);
+        T oldValue;
+        while ((oldValue = nonBlockingMap.get(key)) != null) {
+            T newValue = remappingFunction.apply(x, y, z, oldValue);
+            if (newValue == null) {
+                if (nonBlockingMap.remove(key, oldValue)) {
+                    return null;
+                }
+            }
+            else if (nonBlockingMap.replace(key, oldValue, newValue)) {
+                return newValue;
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public T compute(int x, int y, int z, @NotNull Vec3IObjectBiFunction<? super T, ? extends T> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+
+        long key = pack(x, y, z);
+        while (true) {
+            T oldValue = nonBlockingMap.get(key);
+            T newValue = remappingFunction.apply(x, y, z, oldValue);
+            if (update(key, oldValue, newValue)) {
+                return newValue;
+            }
+        }
+    }
+
+    @Override
+    public T merge(int x, int y, int z, @NotNull T value,
+            @NotNull BiFunction<? super T, ? super T, ? extends T> mergeFunction) {
+        Objects.requireNonNull(value);
+        Objects.requireNonNull(mergeFunction);
+
+        long key = pack(x, y, z);
+        while (true) {
+            T oldValue = nonBlockingMap.get(key);
+            T newValue = oldValue == null ? value : mergeFunction.apply(oldValue, value);
+            if (update(key, oldValue, newValue)) {
+                return newValue;
+            }
+        }
+    }
+
+    //atomically replaces oldValue with newValue, where null means absent; fails if the current value is not oldValue
+    private boolean update(long key, T oldValue, T newValue) {
+        if (oldValue == null) {
+            return newValue == null || nonBlockingMap.putIfAbsent(key, newValue) == null;
+        }
+
+        return newValue == null ? nonBlockingMap.remove(key, oldValue) : nonBlockingMap.replace(key, oldValue,
+                newValue);
+    }
+
+    @Override
+    public void forEach(@NotNull Vec3IObjectBiConsumer<? super T> consumer) {
+        Objects.requireNonNull(consumer);
+        nonBlockingMap.forEachEntry((key, value) -> consumer.accept(x(key), y(key), z(key), value));
+    }
+}
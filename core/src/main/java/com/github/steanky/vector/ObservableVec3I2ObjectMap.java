@@ -0,0 +1,378 @@
+package com.github.steanky.vector;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * A {@link Vec3I2ObjectMap} which wraps another map and observes every change made through it. This lets consumers
+ * process only what has changed, rather than comparing the entire map against an earlier copy.
+ * <p>
+ * Changes are observed in two ways. First, the map records which 16x16x16 sections have changed since the last call
+ * to {@link ObservableVec3I2ObjectMap#drainDirty(Vec3IConsumer)}. Sections are aligned to multiples of 16, so the
+ * section containing a coordinate is found by shifting each component right by 4. Dirty sections are tracked by a
+ * {@link Vec3IBitSet} with one bit per section of the tracked bounds given on construction; changes outside of those
+ * bounds do not mark any section. Second, listeners added with
+ * {@link ObservableVec3I2ObjectMap#addListener(Vec3IObjectChangeListener)} are called after each change with the
+ * coordinate, the old value and the new value.
+ * <p>
+ * A change is any mutation which stores a value that is not identical (in the sense of {@code ==}) to the previous
+ * value at its coordinate, including removals. Every mutating method is observed, including compound operations, bulk
+ * operations, {@link ObservableVec3I2ObjectMap#clear()}, cursors and the views returned by {@link Map} methods.
+ * Compound operations are performed using lookups and puts on the wrapped map, so they are not atomic even if the
+ * wrapped map's own would be.
+ * <p>
+ * The wrapped map must not be modified other than through this map, or those changes will not be observed. This class
+ * is not thread-safe, and supports null values only if the wrapped map does.
+ *
+ * @param <T> the type of object stored in this map
+ */
+public class ObservableVec3I2ObjectMap<T> extends AbstractVec3I2ObjectMap<T> {
+    private static final int SECTION_SHIFT = 4;
+
+    private final Vec3I2ObjectMap<T> map;
+    private final Vec3IBitSet dirty;
+    private final List<Vec3IObjectChangeListener<? super T>> listeners;
+
+    /**
+     * Creates a new {@link ObservableVec3I2ObjectMap} which wraps the given map, and tracks dirty sections overlapping
+     * the given origin and lengths.
+     *
+     * @param map    the map to wrap
+     * @param x      the x-origin of the tracked region
+     * @param y      the y-origin of the tracked region
+     * @param z      the z-origin of the tracked region
+     * @param width  the x-width of the tracked region
+     * @param height the y-width of the tracked region
+     * @param depth  the z-width of the tracked region
+     * @throws IllegalArgumentException if any of the lengths is negative
+     */
+    public ObservableVec3I2ObjectMap(@NotNull Vec3I2ObjectMap<T> map, int x, int y, int z, int width, int height,
+            int depth) {
+        if (width < 0 || height < 0 || depth < 0) {
+            throw new IllegalArgumentException("Lengths must be nonnegative");
+        }
+
+        this.map = Objects.requireNonNull(map);
+        this.dirty = new Vec3IBitSet(Bounds3I.immutable(x >> SECTION_SHIFT, y >> SECTION_SHIFT, z >> SECTION_SHIFT,
+                sections(x, width), sections(y, height), sections(z, depth)));
+        this.listeners = new ArrayList<>(2);
+    }
+
+    /**
+     * Convenience overload for
+     * {@link ObservableVec3I2ObjectMap#ObservableVec3I2ObjectMap(Vec3I2ObjectMap, int, int, int, int, int, int)} that
+     * uses the origin and lengths from the provided bounds.
+     *
+     * @param map    the map to wrap
+     * @param bounds the bounds of the tracked region
+     */
+    public ObservableVec3I2ObjectMap(@NotNull Vec3I2ObjectMap<T> map, @NotNull Bounds3I bounds) {
+        this(map, bounds.originX(), bounds.originY(), bounds.originZ(), bounds.lengthX(), bounds.lengthY(),
+                bounds.lengthZ());
+    }
+
+    private static int sections(int origin, int length) {
+        if (length == 0) {
+            return 0;
+        }
+
+        return (int) ((((long) origin + length - 1) >> SECTION_SHIFT) - (origin >> SECTION_SHIFT) + 1);
+    }
+
+    /**
+     * Adds a listener which is called after each change to this map. Listeners are called in the order they were
+     * added, and may not modify this map.
+     *
+     * @param listener the listener to add
+     */
+    public void addListener(@NotNull Vec3IObjectChangeListener<? super T> listener) {
+        listeners.add(Objects.requireNonNull(listener));
+    }
+
+    /**
+     * Removes a listener previously added with
+     * {@link ObservableVec3I2ObjectMap#addListener(Vec3IObjectChangeListener)}.
+     *
+     * @param listener the listener to remove
+     * @return true if the listener was removed; false if it had not been added
+     */
+    public boolean removeListener(@NotNull Vec3IObjectChangeListener<? super T> listener) {
+        return listeners.remove(Objects.requireNonNull(listener));
+    }
+
+    /**
+     * Determines whether the section with the given section coordinates has changed since it was last drained.
+     *
+     * @param sectionX the x-coordinate of the section
+     * @param sectionY the y-coordinate of the section
+     * @param sectionZ the z-coordinate of the section
+     * @return true if the section is dirty; false otherwise, or if it lies outside the tracked region
+     */
+    public boolean isDirty(int sectionX, int sectionY, int sectionZ) {
+        return dirty.get(sectionX, sectionY, sectionZ);
+    }
+
+    /**
+     * Gets the number of dirty sections.
+     *
+     * @return the number of sections that have changed since they were last drained
+     */
+    public long dirtyCount() {
+        return dirty.cardinality();
+    }
+
+    /**
+     * Calls the given consumer with the section coordinates of every dirty section, clearing each one before it is
+     * passed to the consumer. Multiplying a section coordinate by 16 gives the smallest block coordinate in the
+     * section. Sections are visited in the order of {@link Vec3IBitSet}.
+     * <p>
+     * The consumer may modify this map. Sections it makes dirty are either visited by this call, or left dirty.
+     *
+     * @param consumer the consumer to call with each dirty section
+     * @return the number of sections visited
+     */
+    public long drainDirty(@NotNull Vec3IConsumer consumer) {
+        Objects.requireNonNull(consumer);
+
+        long count = 0;
+        long index = dirty.nextSetBit(0);
+        while (index != -1) {
+            int sectionX = dirty.x(index);
+            int sectionY = dirty.y(index);
+            int sectionZ = dirty.z(index);
+            dirty.clear(sectionX, sectionY, sectionZ);
+            consumer.accept(sectionX, sectionY, sectionZ);
+            count++;
+
+            index = dirty.nextSetBit(index + 1);
+        }
+
+        return count;
+    }
+
+    private void changed(int x, int y, int z, T oldValue, T newValue) {
+        if (oldValue == newValue) {
+            return;
+        }
+
+        int sectionX = x >> SECTION_SHIFT;
+        int sectionY = y >> SECTION_SHIFT;
+        int sectionZ = z >> SECTION_SHIFT;
+        if (dirty.index(sectionX, sectionY, sectionZ) != -1) {
+            dirty.set(sectionX, sectionY, sectionZ);
+        }
+
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).changed(x, y, z, oldValue, newValue);
+        }
+    }
+
+    @Override
+    public T get(int x, int y, int z) {
+        return map.get(x, y, z);
+    }
+
+    @Override
+    public boolean containsKey(int x, int y, int z) {
+        return map.containsKey(x, y, z);
+    }
+
+    @Override
+    public T getOrDefault(int x, int y, int z, T def) {
+        return map.getOrDefault(x, y, z, def);
+    }
+
+    @Override
+    public T put(int x, int y, int z, T value) {
+        T oldValue = map.put(x, y, z, value);
+        changed(x, y, z, oldValue, value);
+        return oldValue;
+    }
+
+    @Override
+    public T remove(int x, int y, int z) {
+        T oldValue = map.remove(x, y, z);
+        changed(x, y, z, oldValue, null);
+        return oldValue;
+    }
+
+    @Override
+    public void replaceAll(@NotNull Vec3IObjectBiFunction<? super T, ? extends T> function) {
+        Objects.requireNonNull(function);
+
+        Vec3IObjectCursor<T> cursor = cursor();
+        while (cursor.next()) {
+            cursor.setValue(function.apply(cursor.x(), cursor.y(), cursor.z(), cursor.value()));
+        }
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return map.isEmpty();
+    }
+
+    @Override
+    public void clear() {
+        if (listeners.isEmpty()) {
+            map.forEach((x, y, z, value) -> changed(x, y, z, value, null));
+            map.clear();
+            return;
+        }
+
+        Vec3IObjectCursor<T> cursor = cursor();
+        while (cursor.next()) {
+            cursor.remove();
+        }
+    }
+
+    @Override
+    public void forEach(@NotNull Vec3IObjectBiConsumer<? super T> consumer) {
+        map.forEach(consumer);
+    }
+
+    @Override
+    public void parallelForEach(@NotNull Vec3IObjectBiConsumer<? super T> consumer) {
+        map.parallelForEach(consumer);
+    }
+
+    @Override
+    public void forEachIn(@NotNull Bounds3I bounds, @NotNull Vec3IObjectBiConsumer<? super T> consumer) {
+        map.forEachIn(bounds, consumer);
+    }
+
+    @Override
+    public int countIn(@NotNull Bounds3I bounds) {
+        return map.countIn(bounds);
+    }
+
+    @Override
+    public int getAll(int @NotNull [] xs, int @NotNull [] ys, int @NotNull [] zs, T @NotNull [] out) {
+        return map.getAll(xs, ys, zs, out);
+    }
+
+    @Override
+    public int containsAll(int @NotNull [] xs, int @NotNull [] ys, int @NotNull [] zs, long @NotNull [] bitmaskOut) {
+        return map.containsAll(xs, ys, zs, bitmaskOut);
+    }
+
+    @Override
+    public void forEachNeighbor(int x, int y, int z, @NotNull NeighborhoodKind kind,
+            @NotNull Vec3IObjectBiConsumer<? super T> consumer) {
+        map.forEachNeighbor(x, y, z, kind, consumer);
+    }
+
+    @Override
+    public int getNeighbors(int x, int y, int z, @NotNull NeighborhoodKind kind, T @NotNull [] out) {
+        return map.getNeighbors(x, y, z, kind, out);
+    }
+
+    @Override
+    public @NotNull Vec3IObjectCursor<T> cursor() {
+        Vec3IObjectCursor<T> cursor = map.cursor();
+        return new Vec3IObjectCursor<>() {
+            @Override
+            public boolean next() {
+                return cursor.next();
+            }
+
+            @Override
+            public int x() {
+                return cursor.x();
+            }
+
+            @Override
+            public int y() {
+                return cursor.y();
+            }
+
+            @Override
+            public int z() {
+                return cursor.z();
+            }
+
+            @Override
+            public T value() {
+                return cursor.value();
+            }
+
+            @Override
+            public T setValue(T value) {
+                T oldValue = cursor.setValue(value);
+                changed(cursor.x(), cursor.y(), cursor.z(), oldValue, value);
+                return oldValue;
+            }
+
+            @Override
+            public void remove() {
+                int x = cursor.x();
+                int y = cursor.y();
+                int z = cursor.z();
+                T oldValue = cursor.value();
+
+                cursor.remove();
+                changed(x, y, z, oldValue, null);
+            }
+        };
+    }
+
+    @NotNull
+    @Override
+    public Set<Entry<Vec3I, T>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<Vec3I, T>> iterator() {
+                Iterator<Entry<Vec3I, T>> iterator = map.entrySet().iterator();
+                return new Iterator<>() {
+                    private Entry<Vec3I, T> last;
+
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public Entry<Vec3I, T> next() {
+                        Entry<Vec3I, T> entry = iterator.next();
+                        Vec3I key = entry.getKey().immutable();
+                        return last = new AbstractMap.SimpleEntry<>(key, entry.getValue()) {
+                            @Override
+                            public T setValue(T value) {
+                                super.setValue(value);
+                                return put(key.x(), key.y(), key.z(), value);
+                            }
+                        };
+                    }
+
+                    @Override
+                    public void remove() {
+                        if (last == null) {
+                            throw new IllegalStateException();
+                        }
+
+                        Vec3I key = last.getKey();
+                        T oldValue = last.getValue();
+                        iterator.remove();
+                        last = null;
+                        changed(key.x(), key.y(), key.z(), oldValue, null);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return map.size();
+            }
+
+            @Override
+            public void clear() {
+                ObservableVec3I2ObjectMap.this.clear();
+            }
+        };
+    }
+}
@@ -0,0 +1,152 @@
+package com.github.steanky.vector;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Internal block of zeroed memory outside the Java heap. Not part of the public API.
+ * <p>
+ * Memory is allocated as a number of direct {@link ByteBuffer} pages of {@code 2^30} bytes each, so a single block may
+ * be larger than the 2 GiB limit of a single buffer. Values accessed through this class must be aligned to their own
+ * size, which guarantees that they never straddle pages. Memory is released by {@link OffHeapMemory#free()} as soon as
+ * it is called where the JDK permits it (through {@code sun.misc.Unsafe#invokeCleaner}); otherwise it is released
+ * when the buffers are garbage collected.
+ */
+final class OffHeapMemory {
+    private static final int PAGE_SHIFT = 30;
+    private static final long PAGE_MASK = (1L << PAGE_SHIFT) - 1;
+
+    private static final ByteBuffer ZEROS = ByteBuffer.allocateDirect(8192);
+    private static final MethodHandle INVOKE_CLEANER = findCleaner();
+
+    private final long bytes;
+    private ByteBuffer[] pages;
+
+    /**
+     * Allocates a new block of zeroed memory.
+     *
+     * @param bytes the size of the block, in bytes
+     */
+    OffHeapMemory(long bytes) {
+        if (bytes < 0) {
+            throw new IllegalArgumentException("Size must be nonnegative");
+        }
+
+        long pageCount = (bytes + PAGE_MASK) >>> PAGE_SHIFT;
+        if (pageCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Size too large");
+        }
+
+        this.bytes = bytes;
+        this.pages = new ByteBuffer[(int) pageCount];
+
+        try {
+            for (int i = 0; i < pages.length; i++) {
+                long remaining = bytes - ((long) i << PAGE_SHIFT);
+                pages[i] = ByteBuffer.allocateDirect((int) Math.min(remaining, 1L << PAGE_SHIFT))
+                        .order(ByteOrder.nativeOrder());
+            }
+        }
+        catch (OutOfMemoryError e) {
+            free();
+            throw e;
+        }
+    }
+
+    private static MethodHandle findCleaner() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+
+            return MethodHandles.lookup().findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class,
+                    ByteBuffer.class)).bindTo(field.get(null));
+        }
+        catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private ByteBuffer page(long offset) {
+        return pages[(int) (offset >>> PAGE_SHIFT)];
+    }
+
+    /**
+     * Gets the size of this block.
+     *
+     * @return the size of this block, in bytes
+     */
+    long bytes() {
+        return bytes;
+    }
+
+    byte getByte(long offset) {
+        return page(offset).get((int) (offset & PAGE_MASK));
+    }
+
+    void putByte(long offset, byte value) {
+        page(offset).put((int) (offset & PAGE_MASK), value);
+    }
+
+    int getInt(long offset) {
+        return page(offset).getInt((int) (offset & PAGE_MASK));
+    }
+
+    void putInt(long offset, int value) {
+        page(offset).putInt((int) (offset & PAGE_MASK), value);
+    }
+
+    long getLong(long offset) {
+        return page(offset).getLong((int) (offset & PAGE_MASK));
+    }
+
+    void putLong(long offset, long value) {
+        page(offset).putLong((int) (offset & PAGE_MASK), value);
+    }
+
+    /**
+     * Sets every byte of this block to 0.
+     */
+    void zero() {
+        for (ByteBuffer page : pages) {
+            ByteBuffer target = page.duplicate().clear();
+            while (target.hasRemaining()) {
+                ByteBuffer zeros = ZEROS.duplicate().clear();
+                zeros.limit(Math.min(zeros.capacity(), target.remaining()));
+                target.put(zeros);
+            }
+        }
+    }
+
+    /**
+     * Releases the memory held by this block. The block must not be used afterwards.
+     */
+    void free() {
+        ByteBuffer[] pages = this.pages;
+        if (pages == null) {
+            return;
+        }
+
+        this.pages = null;
+        if (INVOKE_CLEANER == null) {
+            return;
+        }
+
+        for (ByteBuffer page : pages) {
+            if (page == null) {
+                continue;
+            }
+
+            try {
+                INVOKE_CLEANER.invokeExact(page);
+            }
+            catch (Throwable ignored) {
+                //the memory will be freed when the buffer is collected
+            }
+        }
+    }
+}
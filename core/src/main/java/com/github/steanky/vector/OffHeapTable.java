@@ -0,0 +1,344 @@
+package com.github.steanky.vector;
+
+import it.unimi.dsi.fastutil.Hash;
+import it.unimi.dsi.fastutil.HashCommon;
+
+/**
+ * Internal open-addressing hash table of primitive long keys to primitive values, stored outside the Java heap. Not
+ * part of the public API.
+ * <p>
+ * Keys and values are kept in two separate {@link OffHeapMemory} blocks. Values are stored as 1, 4 or 8 bytes, and
+ * passed around as the bits of a long. As in fastutil's open hash maps, the key 0 marks empty slots, so its value is
+ * stored in the extra value slot at index {@code capacity}; probing is linear, and removal shifts later entries back
+ * instead of leaving tombstones.
+ */
+final class OffHeapTable {
+    /**
+     * Consumer of keys and value bits.
+     */
+    @FunctionalInterface
+    interface SlotConsumer {
+        void accept(long key, long bits);
+    }
+
+    private static final long MIN_CAPACITY = 16;
+
+    private final int valueShift;
+    private final float loadFactor;
+
+    private OffHeapMemory keys;
+    private OffHeapMemory values;
+
+    private long capacity;
+    private long mask;
+    private long maxFill;
+
+    private long size;
+    private boolean containsZeroKey;
+    private boolean closed;
+
+    /**
+     * Creates a new table.
+     *
+     * @param expected   the expected number of entries
+     * @param loadFactor the load factor
+     * @param valueShift the base-2 logarithm of the size of each value in bytes; 0, 2 or 3
+     */
+    OffHeapTable(long expected, float loadFactor, int valueShift) {
+        if (expected < 0) {
+            throw new IllegalArgumentException("The expected number of elements must be nonnegative");
+        }
+
+        if (loadFactor <= 0 || loadFactor >= 1) {
+            throw new IllegalArgumentException("Load factor must be greater than 0 and smaller than 1");
+        }
+
+        this.valueShift = valueShift;
+        this.loadFactor = loadFactor;
+        allocate(Math.max(MIN_CAPACITY, HashCommon.bigArraySize(expected, loadFactor)));
+    }
+
+    /**
+     * Creates a new table with the default load factor {@link Hash#DEFAULT_LOAD_FACTOR}.
+     *
+     * @param expected   the expected number of entries
+     * @param valueShift the base-2 logarithm of the size of each value in bytes; 0, 2 or 3
+     */
+    OffHeapTable(long expected, int valueShift) {
+        this(expected, Hash.DEFAULT_LOAD_FACTOR, valueShift);
+    }
+
+    private void allocate(long capacity) {
+        OffHeapMemory keys = new OffHeapMemory(capacity << 3);
+        try {
+            this.values = new OffHeapMemory((capacity + 1) << valueShift);
+        }
+        catch (OutOfMemoryError e) {
+            keys.free();
+            throw e;
+        }
+
+        this.keys = keys;
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.maxFill = HashCommon.maxFill(capacity, loadFactor);
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Off-heap map has been closed");
+        }
+    }
+
+    private long key(long slot) {
+        return keys.getLong(slot << 3);
+    }
+
+    private void setKey(long slot, long key) {
+        keys.putLong(slot << 3, key);
+    }
+
+    private static long start(long key, long mask) {
+        return HashCommon.mix(key) & mask;
+    }
+
+    /**
+     * Gets the bits of the value in the given slot.
+     *
+     * @param slot the slot, as returned by {@link OffHeapTable#find(long)}
+     * @return the value bits; bytes and ints are sign-extended
+     */
+    long bits(long slot) {
+        long offset = slot << valueShift;
+        return switch (valueShift) {
+            case 0 -> values.getByte(offset);
+            case 2 -> values.getInt(offset);
+            default -> values.getLong(offset);
+        };
+    }
+
+    /**
+     * Sets the bits of the value in the given slot.
+     *
+     * @param slot the slot, as returned by {@link OffHeapTable#find(long)}
+     * @param bits the value bits; only the low 1 or 4 bytes are stored for narrow values
+     */
+    void setBits(long slot, long bits) {
+        long offset = slot << valueShift;
+        switch (valueShift) {
+            case 0 -> values.putByte(offset, (byte) bits);
+            case 2 -> values.putInt(offset, (int) bits);
+            default -> values.putLong(offset, bits);
+        }
+    }
+
+    /**
+     * Finds the slot holding the given key.
+     *
+     * @param key the key
+     * @return the slot holding the key, if it is present; otherwise {@code -(insertionSlot + 1)}
+     */
+    long find(long key) {
+        ensureOpen();
+        if (key == 0) {
+            return containsZeroKey ? capacity : -(capacity + 1);
+        }
+
+        long slot = start(key, mask);
+        long current;
+        while ((current = key(slot)) != 0) {
+            if (current == key) {
+                return slot;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        return -(slot + 1);
+    }
+
+    /**
+     * Inserts an absent key.
+     *
+     * @param insertion the negative value returned by {@link OffHeapTable#find(long)} for the key
+     * @param key       the key
+     * @param bits      the value bits
+     */
+    void insert(long insertion, long key, long bits) {
+        long slot = -insertion - 1;
+        if (key == 0) {
+            containsZeroKey = true;
+        }
+        else {
+            setKey(slot, key);
+        }
+
+        setBits(slot, bits);
+        if (++size >= maxFill) {
+            rehash(capacity << 1);
+        }
+    }
+
+    /**
+     * Removes the entry in the given slot.
+     *
+     * @param slot the slot, as returned by {@link OffHeapTable#find(long)}
+     */
+    void removeAt(long slot) {
+        size--;
+        if (slot == capacity) {
+            containsZeroKey = false;
+            return;
+        }
+
+        shiftKeys(slot);
+    }
+
+    private void shiftKeys(long pos) {
+        long last;
+        long current;
+        while (true) {
+            pos = ((last = pos) + 1) & mask;
+            while (true) {
+                if ((current = key(pos)) == 0) {
+                    setKey(last, 0);
+                    return;
+                }
+
+                long start = start(current, mask);
+                if (last <= pos ? last >= start || start > pos : last >= start && start > pos) {
+                    break;
+                }
+
+                pos = (pos + 1) & mask;
+            }
+
+            setKey(last, current);
+            setBits(last, bits(pos));
+        }
+    }
+
+    private void rehash(long newCapacity) {
+        OffHeapMemory oldKeys = keys;
+        OffHeapMemory oldValues = values;
+        long oldCapacity = capacity;
+
+        allocate(newCapacity);
+        for (long slot = 0; slot < oldCapacity; slot++) {
+            long key = oldKeys.getLong(slot << 3);
+            if (key == 0) {
+                continue;
+            }
+
+            long newSlot = start(key, mask);
+            while (key(newSlot) != 0) {
+                newSlot = (newSlot + 1) & mask;
+            }
+
+            setKey(newSlot, key);
+            copyBits(oldValues, slot, newSlot);
+        }
+
+        copyBits(oldValues, oldCapacity, capacity);
+        oldKeys.free();
+        oldValues.free();
+    }
+
+    private void copyBits(OffHeapMemory from, long fromSlot, long toSlot) {
+        long offset = fromSlot << valueShift;
+        switch (valueShift) {
+            case 0 -> setBits(toSlot, from.getByte(offset));
+            case 2 -> setBits(toSlot, from.getInt(offset));
+            default -> setBits(toSlot, from.getLong(offset));
+        }
+    }
+
+    /**
+     * Calls the given consumer with each key and its value bits.
+     *
+     * @param consumer the consumer to call
+     */
+    void forEach(SlotConsumer consumer) {
+        ensureOpen();
+        if (containsZeroKey) {
+            consumer.accept(0, bits(capacity));
+        }
+
+        for (long slot = 0; slot < capacity; slot++) {
+            long key = key(slot);
+            if (key != 0) {
+                consumer.accept(key, bits(slot));
+            }
+        }
+    }
+
+    /**
+     * Gets the number of entries.
+     *
+     * @return the number of entries
+     */
+    long size() {
+        return size;
+    }
+
+    /**
+     * Removes every entry, keeping the current capacity.
+     */
+    void clear() {
+        ensureOpen();
+        if (size == 0) {
+            return;
+        }
+
+        keys.zero();
+        size = 0;
+        containsZeroKey = false;
+    }
+
+    /**
+     * Shrinks the table to the smallest capacity which can hold its entries.
+     *
+     * @return true if there was enough memory to trim the table
+     */
+    boolean trim() {
+        ensureOpen();
+        long newCapacity = Math.max(MIN_CAPACITY, HashCommon.bigArraySize(size, loadFactor));
+        if (newCapacity >= capacity) {
+            return true;
+        }
+
+        try {
+            rehash(newCapacity);
+        }
+        catch (OutOfMemoryError e) {
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Gets the number of bytes of memory held by this table.
+     *
+     * @return the number of bytes held, or 0 if this table has been closed
+     */
+    long allocatedBytes() {
+        return closed ? 0 : keys.bytes() + values.bytes();
+    }
+
+    /**
+     * Frees the memory held by this table. Afterwards, every operation other than {@link OffHeapTable#size()} and this
+     * method throws an {@link IllegalStateException}.
+     */
+    void close() {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+        size = 0;
+        containsZeroKey = false;
+        keys.free();
+        values.free();
+    }
+}
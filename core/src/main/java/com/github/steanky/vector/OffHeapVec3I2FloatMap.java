@@ -0,0 +1,192 @@
+package com.github.steanky.vector;
+
+import it.unimi.dsi.fastutil.Hash;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+
+/**
+ * Implementation of {@link Vec3I2FloatMap} which stores its entries outside the Java heap. See {@link OffHeapVec3IMap}
+ * for details; in particular, this map should be closed when it is no longer needed.
+ */
+public class OffHeapVec3I2FloatMap extends OffHeapVec3IMap implements Vec3I2FloatMap {
+    private float defaultReturnValue;
+
+    /**
+     * Creates a new {@link OffHeapVec3I2FloatMap} with the given origin and bounds. See
+     * {@link BitPackingVec3I2ObjectMap} for details on how the actual widths are computed.
+     *
+     * @param x            the x-origin
+     * @param y            the y-origin
+     * @param z            the z-origin
+     * @param width        the x-width
+     * @param height       the y-width
+     * @param depth        the z-width
+     * @param expectedSize the expected number of elements
+     * @param loadFactor   the load factor of the off-heap table
+     */
+    public OffHeapVec3I2FloatMap(int x, int y, int z, int width, int height, int depth, long expectedSize,
+            float loadFactor) {
+        super(x, y, z, width, height, depth, expectedSize, loadFactor, 2);
+    }
+
+    /**
+     * Convenience overload that uses the default load factor {@link Hash#DEFAULT_LOAD_FACTOR}.
+     *
+     * @param x            the x-origin
+     * @param y            the y-origin
+     * @param z            the z-origin
+     * @param width        the x-width
+     * @param height       the y-width
+     * @param depth        the z-width
+     * @param expectedSize the expected number of elements
+     */
+    public OffHeapVec3I2FloatMap(int x, int y, int z, int width, int height, int depth, long expectedSize) {
+        this(x, y, z, width, height, depth, expectedSize, Hash.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Convenience overload that uses the default initial size {@link Hash#DEFAULT_INITIAL_SIZE} and default load factor
+     * {@link Hash#DEFAULT_LOAD_FACTOR}.
+     *
+     * @param x      the x-origin
+     * @param y      the y-origin
+     * @param z      the z-origin
+     * @param width  the x-width
+     * @param height the y-width
+     * @param depth  the z-width
+     */
+    public OffHeapVec3I2FloatMap(int x, int y, int z, int width, int height, int depth) {
+        this(x, y, z, width, height, depth, Hash.DEFAULT_INITIAL_SIZE, Hash.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Convenience overload for
+     * {@link OffHeapVec3I2FloatMap#OffHeapVec3I2FloatMap(int, int, int, int, int, int, long, float)} that uses
+     * the origin and lengths from the provided bounds, the given expected size, and the default load factor
+     * {@link Hash#DEFAULT_LOAD_FACTOR}.
+     *
+     * @param bounds       the bounds which provides the origin and lengths
+     * @param expectedSize the expected number of elements
+     */
+    public OffHeapVec3I2FloatMap(@NotNull Bounds3I bounds, long expectedSize) {
+        this(bounds.originX(), bounds.originY(), bounds.originZ(), bounds.lengthX(), bounds.lengthY(), bounds.lengthZ(),
+                expectedSize, Hash.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Convenience overload for
+     * {@link OffHeapVec3I2FloatMap#OffHeapVec3I2FloatMap(int, int, int, int, int, int, long, float)} that uses
+     * the origin and lengths from the provided bounds, the default initial size {@link Hash#DEFAULT_INITIAL_SIZE}, and
+     * the default load factor {@link Hash#DEFAULT_LOAD_FACTOR}.
+     *
+     * @param bounds the bounds which provides the origin and lengths
+     */
+    public OffHeapVec3I2FloatMap(@NotNull Bounds3I bounds) {
+        this(bounds, Hash.DEFAULT_INITIAL_SIZE);
+    }
+
+    private static float value(long bits) {
+        return Float.intBitsToFloat((int) bits);
+    }
+
+    private static long bits(float value) {
+        return Float.floatToRawIntBits(value);
+    }
+
+    @Override
+    public float get(int x, int y, int z) {
+        return getOrDefault(x, y, z, defaultReturnValue);
+    }
+
+    @Override
+    public float getOrDefault(int x, int y, int z, float def) {
+        long slot = table.find(pack(x, y, z));
+        return slot < 0 ? def : value(table.bits(slot));
+    }
+
+    @Override
+    public float put(int x, int y, int z, float value) {
+        long key = pack(x, y, z);
+        long slot = table.find(key);
+        if (slot < 0) {
+            table.insert(slot, key, bits(value));
+            return defaultReturnValue;
+        }
+
+        float old = value(table.bits(slot));
+        table.setBits(slot, bits(value));
+        return old;
+    }
+
+    @Override
+    public float remove(int x, int y, int z) {
+        long slot = table.find(pack(x, y, z));
+        if (slot < 0) {
+            return defaultReturnValue;
+        }
+
+        float old = value(table.bits(slot));
+        table.removeAt(slot);
+        return old;
+    }
+
+    @Override
+    public boolean containsKey(int x, int y, int z) {
+        return table.find(pack(x, y, z)) >= 0;
+    }
+
+    @Override
+    public float addTo(int x, int y, int z, float increment) {
+        long key = pack(x, y, z);
+        long slot = table.find(key);
+        if (slot < 0) {
+            table.insert(slot, key, bits(defaultReturnValue + increment));
+            return defaultReturnValue;
+        }
+
+        float old = value(table.bits(slot));
+        table.setBits(slot, bits(old + increment));
+        return old;
+    }
+
+    @Override
+    public float computeIfAbsent(int x, int y, int z, @NotNull Vec3IToFloatFunction mappingFunction) {
+        Objects.requireNonNull(mappingFunction);
+
+        long key = pack(x, y, z);
+        long slot = table.find(key);
+        if (slot >= 0) {
+            return value(table.bits(slot));
+        }
+
+        float value = mappingFunction.applyAsFloat(x, y, z);
+
+        //the mapping function may have added the key itself, so look it up again rather than assuming a miss
+        slot = table.find(key);
+        if (slot >= 0) {
+            table.setBits(slot, bits(value));
+        }
+        else {
+            table.insert(slot, key, bits(value));
+        }
+
+        return value;
+    }
+
+    @Override
+    public void forEach(@NotNull Vec3IFloatBiConsumer consumer) {
+        Objects.requireNonNull(consumer);
+        table.forEach((key, bits) -> consumer.accept(x(key), y(key), z(key), value(bits)));
+    }
+
+    @Override
+    public float defaultReturnValue() {
+        return defaultReturnValue;
+    }
+
+    @Override
+    public void defaultReturnValue(float rv) {
+        this.defaultReturnValue = rv;
+    }
+}
@@ -0,0 +1,186 @@
+package com.github.steanky.vector;
+
+/**
+ * Base class of the off-heap primitive maps, such as {@link OffHeapVec3I2IntMap}. Entries are stored in an
+ * open-addressing hash table outside the Java heap, so that very large maps do not add to garbage collection pauses,
+ * and their memory can be released deterministically by calling {@link OffHeapVec3IMap#close()}. Coordinates are
+ * packed in the same way as {@link BitPackingVec3I2ObjectMap}; see its constructor for details.
+ * <p>
+ * Each entry takes 8 bytes for its key, plus the size of its value, divided by the load factor. The table grows by
+ * doubling when it reaches its load factor, and never shrinks unless {@link OffHeapVec3IMap#trim()} is called. Tables
+ * may exceed 2 GiB.
+ * <p>
+ * Off-heap maps are not thread-safe. Once a map has been closed, every operation other than {@link #size()},
+ * {@link #isEmpty()} and {@link #close()} throws an {@link IllegalStateException}. Off-heap maps which are never
+ * closed release their memory when they are garbage collected.
+ */
+public abstract class OffHeapVec3IMap implements AutoCloseable {
+    final OffHeapTable table;
+
+    private final BitPacker packer;
+
+    OffHeapVec3IMap(int x, int y, int z, int width, int height, int depth, long expectedSize, float loadFactor,
+            int valueShift) {
+        this.packer = new BitPacker(x, y, z, width, height, depth);
+        this.table = new OffHeapTable(expectedSize, loadFactor, valueShift);
+    }
+
+    /**
+     * Packs three integers into a long, with respect to the bounds of this map.
+     *
+     * @param x the x-coordinate of the vector to pack
+     * @param y the y-coordinate of the vector to pack
+     * @param z the z-coordinate of the vector to pack
+     * @return a single packed long
+     */
+    protected long pack(int x, int y, int z) {
+        return packer.pack(x, y, z);
+    }
+
+    /**
+     * Unpacks only the x-coordinate from the given packed long.
+     *
+     * @param key the packed long
+     * @return the x-coordinate contained in the packed long
+     */
+    protected int x(long key) {
+        return packer.x(key);
+    }
+
+    /**
+     * Unpacks only the y-coordinate from the given packed long.
+     *
+     * @param key the packed long
+     * @return the y-coordinate contained in the packed long
+     */
+    protected int y(long key) {
+        return packer.y(key);
+    }
+
+    /**
+     * Unpacks only the z-coordinate from the given packed long.
+     *
+     * @param key the packed long
+     * @return the z-coordinate contained in the packed long
+     */
+    protected int z(long key) {
+        return packer.z(key);
+    }
+
+    /**
+     * The origin x-coordinate of this map, and therefore the origin of its uniquely addressable space.
+     * @return the x-coordinate of the map origin
+     */
+    public int originX() {
+        return packer.originX();
+    }
+
+    /**
+     * The origin y-coordinate of this map, and therefore the origin of its uniquely addressable space.
+     * @return the y-coordinate of the map origin
+     */
+    public int originY() {
+        return packer.originY();
+    }
+
+    /**
+     * The origin z-coordinate of this map, and therefore the origin of its uniquely addressable space.
+     * @return the z-coordinate of the map origin
+     */
+    public int originZ() {
+        return packer.originZ();
+    }
+
+    /**
+     * Gets the actual length of this map's addressable space along the x-axis.
+     * @return the actual width along the x-axis
+     */
+    public long width() {
+        return packer.width();
+    }
+
+    /**
+     * Gets the actual length of this map's addressable space along the y-axis.
+     * @return the actual width along the y-axis
+     */
+    public long height() {
+        return packer.height();
+    }
+
+    /**
+     * Gets the actual length of this map's addressable space along the z-axis.
+     * @return the actual width along the z-axis
+     */
+    public long depth() {
+        return packer.depth();
+    }
+
+    /**
+     * Computes the maximum possible capacity of this map; i.e. the number of unique elements it may store.
+     * @return the addressable size of this map
+     */
+    public long addressableSize() {
+        return packer.addressableSize();
+    }
+
+    /**
+     * Gets the number of values in this map. Unlike {@link #size()}, this does not saturate at
+     * {@link Integer#MAX_VALUE}.
+     *
+     * @return the number of values in this map
+     */
+    public long longSize() {
+        return table.size();
+    }
+
+    /**
+     * Gets the number of values in this map, or {@link Integer#MAX_VALUE} if there are more than that.
+     *
+     * @return the number of values in this map
+     */
+    public int size() {
+        return (int) Math.min(table.size(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Determines if this map is empty.
+     *
+     * @return true if this map contains no values; false otherwise
+     */
+    public boolean isEmpty() {
+        return table.size() == 0;
+    }
+
+    /**
+     * Removes all values from this map. The off-heap memory it holds is kept for reuse.
+     */
+    public void clear() {
+        table.clear();
+    }
+
+    /**
+     * Shrinks the off-heap table to the smallest size which can hold the current number of values.
+     *
+     * @return true if there was enough memory to trim the map
+     */
+    public boolean trim() {
+        return table.trim();
+    }
+
+    /**
+     * Gets the amount of off-heap memory currently held by this map.
+     *
+     * @return the number of bytes held, or 0 if this map has been closed
+     */
+    public long allocatedBytes() {
+        return table.allocatedBytes();
+    }
+
+    /**
+     * Releases the off-heap memory held by this map. Calling this method more than once has no effect.
+     */
+    @Override
+    public void close() {
+        table.close();
+    }
+}
@@ -0,0 +1,864 @@
+package com.github.steanky.vector;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * Implementation of {@link Vec3I2ObjectMap} that compresses values using per-section palettes. The addressable space
+ * is divided into 16x16x16 sections. Each non-empty section holds a small palette of the distinct values it contains,
+ * and a bit-packed array of palette indices, one per cell. The number of bits used per cell grows as the palette
+ * grows, and shrinks again once enough values have been removed from it. Sections which become empty are discarded.
+ * <p>
+ * When a map holds many cells but few distinct values, this uses a handful of bits per cell rather than the tens of
+ * bytes per entry required by {@link HashVec3I2ObjectMap}. Lookups and insertions hash once, to find the section.
+ * <p>
+ * Values are compared using {@link Object#equals(Object)}, and equal values share a single palette entry. Therefore,
+ * {@link PalettedVec3I2ObjectMap#get(int, int, int)} may return an instance that is equal to, but not the same as, the
+ * value that was originally put. Null values are not supported.
+ * <p>
+ * Coordinates are wrapped in the same way as {@link BitPackingVec3I2ObjectMap}, except that the actual width of every
+ * axis is at least 16.
+ *
+ * @param <T> the type of object held in the map
+ */
+public class PalettedVec3I2ObjectMap<T> extends AbstractVec3I2ObjectMap<T> {
+    private static final int SECTION_SHIFT = 4;
+    private static final int SECTION_WIDTH = 1 << SECTION_SHIFT;
+    private static final int SECTION_MASK = SECTION_WIDTH - 1;
+
+    private final BitPacker packer;
+    private final BitPacker sectionPacker;
+    private final Long2ObjectOpenHashMap<Section> sections;
+
+    private int size;
+
+    /**
+     * Creates a new {@link PalettedVec3I2ObjectMap} with the given origin and bounds. See
+     * {@link BitPackingVec3I2ObjectMap} for details on how the actual widths are computed.
+     *
+     * @param x      the x-origin
+     * @param y      the y-origin
+     * @param z      the z-origin
+     * @param width  the x-width
+     * @param height the y-width
+     * @param depth  the z-width
+     */
+    public PalettedVec3I2ObjectMap(int x, int y, int z, int width, int height, int depth) {
+        if (width <= 0 || height <= 0 || depth <= 0) {
+            throw new IllegalArgumentException("Side lengths cannot be negative or 0");
+        }
+
+        this.packer = new BitPacker(x, y, z, Math.max(width, SECTION_WIDTH), Math.max(height, SECTION_WIDTH),
+                Math.max(depth, SECTION_WIDTH));
+        this.sectionPacker = new BitPacker(0, 0, 0, (int) (packer.width() >>> SECTION_SHIFT),
+                (int) (packer.height() >>> SECTION_SHIFT), (int) (packer.depth() >>> SECTION_SHIFT));
+        this.sections = new Long2ObjectOpenHashMap<>();
+    }
+
+    /**
+     * Convenience overload for {@link PalettedVec3I2ObjectMap#PalettedVec3I2ObjectMap(int, int, int, int, int, int)}
+     * that uses the origin and lengths from the provided bounds.
+     *
+     * @param bounds the bounds which provides the origin and lengths
+     */
+    public PalettedVec3I2ObjectMap(@NotNull Bounds3I bounds) {
+        this(bounds.originX(), bounds.originY(), bounds.originZ(), bounds.lengthX(), bounds.lengthY(), bounds.lengthZ());
+    }
+
+    private long sectionKey(int rx, int ry, int rz) {
+        return sectionPacker.pack(rx >>> SECTION_SHIFT, ry >>> SECTION_SHIFT, rz >>> SECTION_SHIFT);
+    }
+
+    private static int localIndex(int rx, int ry, int rz) {
+        return ((rx & SECTION_MASK) << (SECTION_SHIFT << 1)) | ((ry & SECTION_MASK) << SECTION_SHIFT) |
+                (rz & SECTION_MASK);
+    }
+
+    private int baseX(long sectionKey) {
+        return packer.originX() + (sectionPacker.x(sectionKey) << SECTION_SHIFT);
+    }
+
+    private int baseY(long sectionKey) {
+        return packer.originY() + (sectionPacker.y(sectionKey) << SECTION_SHIFT);
+    }
+
+    private int baseZ(long sectionKey) {
+        return packer.originZ() + (sectionPacker.z(sectionKey) << SECTION_SHIFT);
+    }
+
+    /**
+     * The origin x-coordinate of this map, and therefore the origin of its uniquely addressable space.
+     * @return the x-coordinate of the map origin
+     */
+    public int originX() {
+        return packer.originX();
+    }
+
+    /**
+     * The origin y-coordinate of this map, and therefore the origin of its uniquely addressable space.
+     * @return the y-coordinate of the map origin
+     */
+    public int originY() {
+        return packer.originY();
+    }
+
+    /**
+     * The origin z-coordinate of this map, and therefore the origin of its uniquely addressable space.
+     * @return the z-coordinate of the map origin
+     */
+    public int originZ() {
+        return packer.originZ();
+    }
+
+    /**
+     * Gets the actual length of this map's addressable space along the x-axis.
+     * @return the actual width along the x-axis
+     */
+    public long width() {
+        return packer.width();
+    }
+
+    /**
+     * Gets the actual length of this map's addressable space along the y-axis.
+     * @return the actual width along the y-axis
+     */
+    public long height() {
+        return packer.height();
+    }
+
+    /**
+     * Gets the actual length of this map's addressable space along the z-axis.
+     * @return the actual width along the z-axis
+     */
+    public long depth() {
+        return packer.depth();
+    }
+
+    /**
+     * Computes the maximum possible capacity of this map; i.e. the number of unique elements it may store.
+     * @return the addressable size of this map
+     */
+    public long addressableSize() {
+        return packer.addressableSize();
+    }
+
+    /**
+     * Gets the number of non-empty 16x16x16 sections currently allocated by this map.
+     * @return the number of sections
+     */
+    public int sectionCount() {
+        return sections.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T get(int x, int y, int z) {
+        int rx = packer.relativeX(x);
+        int ry = packer.relativeY(y);
+        int rz = packer.relativeZ(z);
+
+        Section section = sections.get(sectionKey(rx, ry, rz));
+        if (section == null) {
+            return null;
+        }
+
+        return (T) section.get(localIndex(rx, ry, rz));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T put(int x, int y, int z, @NotNull T value) {
+        Objects.requireNonNull(value);
+
+        int rx = packer.relativeX(x);
+        int ry = packer.relativeY(y);
+        int rz = packer.relativeZ(z);
+
+        long key = sectionKey(rx, ry, rz);
+        Section section = sections.get(key);
+        if (section == null) {
+            section = new Section();
+            sections.put(key, section);
+        }
+
+        T old = (T) section.set(localIndex(rx, ry, rz), value);
+        if (old == null) {
+            size++;
+        }
+
+        return old;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T remove(int x, int y, int z) {
+        int rx = packer.relativeX(x);
+        int ry = packer.relativeY(y);
+        int rz = packer.relativeZ(z);
+
+        long key = sectionKey(rx, ry, rz);
+        Section section = sections.get(key);
+        if (section == null) {
+            return null;
+        }
+
+        T old = (T) section.set(localIndex(rx, ry, rz), null);
+        if (old != null) {
+            size--;
+            if (section.isEmpty()) {
+                sections.remove(key);
+            }
+        }
+
+        return old;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void replaceAll(@NotNull Vec3IObjectBiFunction<? super T, ? extends T> function) {
+        Objects.requireNonNull(function);
+        for (Long2ObjectMap.Entry<Section> entry : sections.long2ObjectEntrySet()) {
+            long key = entry.getLongKey();
+            int bx = baseX(key);
+            int by = baseY(key);
+            int bz = baseZ(key);
+
+            Section section = entry.getValue();
+            for (int i = section.nextOccupied(0); i != -1; i = section.nextOccupied(i + 1)) {
+                T newValue = Objects.requireNonNull(function.apply(bx + localX(i), by + localY(i), bz + localZ(i),
+                        (T) section.get(i)));
+                section.set(i, newValue);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void forEach(@NotNull Vec3IObjectBiConsumer<? super T> consumer) {
+        Objects.requireNonNull(consumer);
+        for (Long2ObjectMap.Entry<Section> entry : sections.long2ObjectEntrySet()) {
+            long key = entry.getLongKey();
+            entry.getValue().forEach(baseX(key), baseY(key), baseZ(key), (Vec3IObjectBiConsumer<Object>) consumer);
+        }
+    }
+
+    @Override
+    public void forEachIn(@NotNull Bounds3I bounds, @NotNull Vec3IObjectBiConsumer<? super T> consumer) {
+        RegionQueries.forEachIn(this, bounds, packer, consumer);
+    }
+
+    @Override
+    public boolean removeIf(@NotNull Bounds3I bounds, @NotNull Vec3IObjectBiPredicate<? super T> predicate) {
+        return RegionQueries.removeIf(this, bounds, packer, predicate);
+    }
+
+    @Override
+    public int countIn(@NotNull Bounds3I bounds) {
+        return RegionQueries.countIn(this, bounds, packer);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        if (value == null) {
+            return false;
+        }
+
+        for (Section section : sections.values()) {
+            if (section.containsValue(value)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public void clear() {
+        sections.clear();
+        size = 0;
+    }
+
+    /*
+    Iterates a snapshot of the section keys, so that emptied sections can be removed during iteration.
+     */
+    private final class SectionCursor implements Vec3IObjectCursor<T> {
+        private final long[] keys = sections.keySet().toLongArray();
+        private int keyIndex = -1;
+
+        private Section section;
+        private long sectionKey;
+        private int next = -1;
+
+        private Section lastSection;
+        private int bx;
+        private int by;
+        private int bz;
+        private long lastSectionKey;
+        private int last = -1;
+
+        private SectionCursor() {
+            advance(0);
+        }
+
+        private void advance(int from) {
+            if (section != null) {
+                next = section.nextOccupied(from);
+                if (next != -1) {
+                    return;
+                }
+            }
+
+            while (++keyIndex < keys.length) {
+                Section candidate = sections.get(keys[keyIndex]);
+                if (candidate == null) {
+                    continue;
+                }
+
+                next = candidate.nextOccupied(0);
+                if (next != -1) {
+                    section = candidate;
+                    sectionKey = keys[keyIndex];
+                    return;
+                }
+            }
+
+            section = null;
+        }
+
+        private boolean hasNext() {
+            return section != null;
+        }
+
+        @Override
+        public boolean next() {
+            if (section == null) {
+                last = -1;
+                return false;
+            }
+
+            if (lastSection != section) {
+                lastSection = section;
+                lastSectionKey = sectionKey;
+                bx = baseX(sectionKey);
+                by = baseY(sectionKey);
+                bz = baseZ(sectionKey);
+            }
+
+            last = next;
+            advance(next + 1);
+            return true;
+        }
+
+        @Override
+        public int x() {
+            return bx + localX(last);
+        }
+
+        @Override
+        public int y() {
+            return by + localY(last);
+        }
+
+        @Override
+        public int z() {
+            return bz + localZ(last);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T value() {
+            return (T) lastSection.get(last);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T setValue(T value) {
+            Objects.requireNonNull(value);
+            if (last == -1) {
+                throw new IllegalStateException();
+            }
+
+            return (T) lastSection.set(last, value);
+        }
+
+        @Override
+        public void remove() {
+            if (last == -1) {
+                throw new IllegalStateException();
+            }
+
+            if (lastSection.set(last, null) != null) {
+                size--;
+                if (lastSection.isEmpty()) {
+                    sections.remove(lastSectionKey);
+                }
+            }
+
+            last = -1;
+        }
+    }
+
+    /*
+    Each section occupies a run of Section.SIZE slots. The sections are captured when the table is created.
+     */
+    private final class Slots implements SlotTable<T> {
+        private final long[] keys = sections.keySet().toLongArray();
+        private final Section[] values = new Section[keys.length];
+
+        private Slots() {
+            for (int i = 0; i < keys.length; i++) {
+                values[i] = sections.get(keys[i]);
+            }
+        }
+
+        @Override
+        public long slotCount() {
+            return (long) keys.length * Section.SIZE;
+        }
+
+        @Override
+        public int alignment() {
+            return Section.SIZE;
+        }
+
+        @Override
+        public long nextOccupied(long from, long to) {
+            while (from < to) {
+                int sectionIndex = (int) (from / Section.SIZE);
+                int local = values[sectionIndex].nextOccupied((int) (from % Section.SIZE));
+                if (local != -1) {
+                    long slot = (long) sectionIndex * Section.SIZE + local;
+                    return slot < to ? slot : -1;
+                }
+
+                from = (long) (sectionIndex + 1) * Section.SIZE;
+            }
+
+            return -1;
+        }
+
+        @Override
+        public int x(long slot) {
+            return baseX(keys[(int) (slot / Section.SIZE)]) + localX((int) (slot % Section.SIZE));
+        }
+
+        @Override
+        public int y(long slot) {
+            return baseY(keys[(int) (slot / Section.SIZE)]) + localY((int) (slot % Section.SIZE));
+        }
+
+        @Override
+        public int z(long slot) {
+            return baseZ(keys[(int) (slot / Section.SIZE)]) + localZ((int) (slot % Section.SIZE));
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T value(long slot) {
+            return (T) values[(int) (slot / Section.SIZE)].get((int) (slot % Section.SIZE));
+        }
+
+        @Override
+        public long count(long from, long to) {
+            long count = 0;
+            for (int i = (int) (from / Section.SIZE), end = (int) (to / Section.SIZE); i < end; i++) {
+                count += values[i].occupiedCount();
+            }
+
+            return count;
+        }
+    }
+
+    @Override
+    public void parallelForEach(@NotNull Vec3IObjectBiConsumer<? super T> consumer) {
+        Objects.requireNonNull(consumer);
+        new Slots().parallelForEach(consumer);
+    }
+
+    @Override
+    public @NotNull Vec3IObjectCursor<T> cursor() {
+        return new SectionCursor();
+    }
+
+    @NotNull
+    @Override
+    public Set<Entry<Vec3I, T>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<Vec3I, T>> iterator() {
+                SectionCursor cursor = new SectionCursor();
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return cursor.hasNext();
+                    }
+
+                    @SuppressWarnings("unchecked")
+                    @Override
+                    public Entry<Vec3I, T> next() {
+                        if (!cursor.next()) {
+                            throw new NoSuchElementException();
+                        }
+
+                        Section entrySection = cursor.lastSection;
+                        int index = cursor.last;
+                        Vec3I key = Vec3I.immutable(cursor.x(), cursor.y(), cursor.z());
+                        return new Entry<>() {
+                            @Override
+                            public Vec3I getKey() {
+                                return key;
+                            }
+
+                            @Override
+                            public T getValue() {
+                                return (T) entrySection.get(index);
+                            }
+
+                            @Override
+                            public T setValue(T value) {
+                                return put(key.x(), key.y(), key.z(), value);
+                            }
+                        };
+                    }
+
+                    @Override
+                    public void remove() {
+                        cursor.remove();
+                    }
+                };
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                if (!(o instanceof Entry<?, ?> entry) || !(entry.getKey() instanceof Vec3I vec)) {
+                    return false;
+                }
+
+                T value = get(vec.x(), vec.y(), vec.z());
+                return value != null && value.equals(entry.getValue());
+            }
+
+            @Override
+            public boolean remove(Object o) {
+                if (!(o instanceof Entry<?, ?> entry) || !(entry.getKey() instanceof Vec3I vec)) {
+                    return false;
+                }
+
+                return PalettedVec3I2ObjectMap.this.remove(vec.x(), vec.y(), vec.z(), entry.getValue());
+            }
+
+            @Override
+            public Spliterator<Entry<Vec3I, T>> spliterator() {
+                return new Slots().spliterator(size);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public void clear() {
+                PalettedVec3I2ObjectMap.this.clear();
+            }
+        };
+    }
+
+    private static int localX(int index) {
+        return index >>> (SECTION_SHIFT << 1);
+    }
+
+    private static int localY(int index) {
+        return (index >>> SECTION_SHIFT) & SECTION_MASK;
+    }
+
+    private static int localZ(int index) {
+        return index & SECTION_MASK;
+    }
+
+    /**
+     * A single 16x16x16 section. Palette index 0 is reserved for empty cells. Entries are packed into longs using a
+     * power-of-two number of bits (1, 2, 4, 8 or 16), so no entry ever straddles two longs.
+     */
+    private static final class Section {
+        private static final int SIZE = SECTION_WIDTH * SECTION_WIDTH * SECTION_WIDTH;
+
+        //palettes with at most 2^2 bits per entry are searched linearly
+        private static final int MAX_LINEAR_BITS_SHIFT = 2;
+
+        private Object[] palette;
+        private int[] counts;
+        private Object2IntOpenHashMap<Object> lookup;
+
+        //number of palette slots in use, including slot 0 and any holes left by removed values
+        private int paletteSize;
+
+        //number of distinct non-empty values in the palette
+        private int liveEntries;
+
+        //base-2 logarithm of the number of bits per entry
+        private int bitsShift;
+        private long[] data;
+
+        private Section() {
+            this.palette = new Object[2];
+            this.counts = new int[2];
+            this.counts[0] = SIZE;
+            this.paletteSize = 1;
+            this.data = new long[SIZE >>> 6];
+        }
+
+        private static int read(long[] data, int bitsShift, int index) {
+            int entryShift = 6 - bitsShift;
+            int offset = (index & ((1 << entryShift) - 1)) << bitsShift;
+            return (int) ((data[index >>> entryShift] >>> offset) & ((1L << (1 << bitsShift)) - 1));
+        }
+
+        private static void write(long[] data, int bitsShift, int index, int value) {
+            int entryShift = 6 - bitsShift;
+            int offset = (index & ((1 << entryShift) - 1)) << bitsShift;
+            int word = index >>> entryShift;
+            long mask = ((1L << (1 << bitsShift)) - 1) << offset;
+            data[word] = (data[word] & ~mask) | ((long) value << offset);
+        }
+
+        private static int paletteCapacity(int bitsShift) {
+            //one slot for empty cells, one for each cell, and one more since a new value is added to the palette before
+            //the value it replaces is released
+            return Math.min(1 << (1 << bitsShift), SIZE + 2);
+        }
+
+        private boolean isEmpty() {
+            return counts[0] == SIZE;
+        }
+
+        private int occupiedCount() {
+            return SIZE - counts[0];
+        }
+
+        private Object get(int index) {
+            return palette[read(data, bitsShift, index)];
+        }
+
+        private Object set(int index, Object value) {
+            int oldIndex = read(data, bitsShift, index);
+            Object oldValue = palette[oldIndex];
+
+            //may change the number of bits per entry, but never changes existing palette indices
+            int newIndex = value == null ? 0 : indexOf(value);
+            if (newIndex == oldIndex) {
+                return oldValue;
+            }
+
+            write(data, bitsShift, index, newIndex);
+            counts[newIndex]++;
+            if (--counts[oldIndex] == 0 && oldIndex != 0) {
+                release(oldIndex);
+            }
+
+            return oldValue;
+        }
+
+        private int indexOf(Object value) {
+            if (lookup != null) {
+                int index = lookup.getInt(value);
+                if (index != 0) {
+                    return index;
+                }
+            }
+            else {
+                for (int i = 1; i < paletteSize; i++) {
+                    if (value.equals(palette[i])) {
+                        return i;
+                    }
+                }
+            }
+
+            int index;
+            if (liveEntries + 1 < paletteSize) {
+                index = 1;
+                while (palette[index] != null) {
+                    index++;
+                }
+            }
+            else {
+                if (paletteSize == paletteCapacity(bitsShift)) {
+                    grow();
+                }
+
+                index = paletteSize++;
+            }
+
+            palette[index] = value;
+            liveEntries++;
+            if (lookup != null) {
+                lookup.put(value, index);
+            }
+
+            return index;
+        }
+
+        private void release(int index) {
+            Object value = palette[index];
+            palette[index] = null;
+            liveEntries--;
+            if (lookup != null) {
+                lookup.removeInt(value);
+            }
+
+            while (paletteSize > 1 && palette[paletteSize - 1] == null) {
+                paletteSize--;
+            }
+
+            //only shrink when the smaller palette would be at most half full, so that alternating insertions and
+            //removals can't cause the section to be repacked on every operation
+            int required = (liveEntries + 1) << 1;
+            int targetShift = 0;
+            while (targetShift < bitsShift && paletteCapacity(targetShift) < required) {
+                targetShift++;
+            }
+
+            if (targetShift < bitsShift) {
+                shrink(targetShift);
+            }
+        }
+
+        private void grow() {
+            int newShift = bitsShift + 1;
+            repack(newShift, null);
+
+            int capacity = paletteCapacity(newShift);
+            palette = Arrays.copyOf(palette, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+            updateLookup();
+        }
+
+        private void shrink(int newShift) {
+            int capacity = paletteCapacity(newShift);
+            Object[] newPalette = new Object[capacity];
+            int[] newCounts = new int[capacity];
+            int[] remap = new int[paletteSize];
+
+            newCounts[0] = counts[0];
+            int next = 1;
+            for (int i = 1; i < paletteSize; i++) {
+                if (palette[i] != null) {
+                    remap[i] = next;
+                    newPalette[next] = palette[i];
+                    newCounts[next] = counts[i];
+                    next++;
+                }
+            }
+
+            repack(newShift, remap);
+            palette = newPalette;
+            counts = newCounts;
+            paletteSize = next;
+
+            lookup = null;
+            updateLookup();
+        }
+
+        private void repack(int newShift, int[] remap) {
+            long[] newData = new long[(SIZE >>> 6) << newShift];
+            int entryShift = 6 - bitsShift;
+            for (int word = 0; word < data.length; word++) {
+                if (data[word] == 0) {
+                    //every entry in this word is empty, and the new array is already zeroed
+                    continue;
+                }
+
+                int start = word << entryShift;
+                int end = start + (1 << entryShift);
+                for (int i = start; i < end; i++) {
+                    int value = read(data, bitsShift, i);
+                    if (value != 0) {
+                        write(newData, newShift, i, remap == null ? value : remap[value]);
+                    }
+                }
+            }
+
+            data = newData;
+            bitsShift = newShift;
+        }
+
+        private void updateLookup() {
+            if (bitsShift <= MAX_LINEAR_BITS_SHIFT) {
+                lookup = null;
+                return;
+            }
+
+            if (lookup == null) {
+                lookup = new Object2IntOpenHashMap<>(palette.length);
+                for (int i = 1; i < paletteSize; i++) {
+                    if (palette[i] != null) {
+                        lookup.put(palette[i], i);
+                    }
+                }
+            }
+        }
+
+        private int nextOccupied(int from) {
+            int entryShift = 6 - bitsShift;
+            for (int i = from; i < SIZE; i++) {
+                if ((i & ((1 << entryShift) - 1)) == 0 && data[i >>> entryShift] == 0) {
+                    //skip the entire word
+                    i += (1 << entryShift) - 1;
+                    continue;
+                }
+
+                if (read(data, bitsShift, i) != 0) {
+                    return i;
+                }
+            }
+
+            return -1;
+        }
+
+        private boolean containsValue(Object value) {
+            for (int i = 1; i < paletteSize; i++) {
+                if (value.equals(palette[i])) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        private void forEach(int baseX, int baseY, int baseZ, Vec3IObjectBiConsumer<Object> consumer) {
+            int entryShift = 6 - bitsShift;
+            int entriesPerWord = 1 << entryShift;
+            long mask = (1L << (1 << bitsShift)) - 1;
+            for (int word = 0; word < data.length; word++) {
+                long bits = data[word];
+                if (bits == 0) {
+                    continue;
+                }
+
+                int start = word << entryShift;
+                for (int j = 0; j < entriesPerWord; j++) {
+                    int value = (int) ((bits >>> (j << bitsShift)) & mask);
+                    if (value != 0) {
+                        int index = start + j;
+                        consumer.accept(baseX + localX(index), baseY + localY(index), baseZ + localZ(index),
+                                palette[value]);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,464 @@
+package com.github.steanky.vector;
+
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.longs.AbstractLong2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.objects.AbstractObjectSet;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import it.unimi.dsi.fastutil.objects.ObjectSet;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Internal persistent {@link Long2ObjectMap} used by {@link PersistentVec3I2ObjectMap}. Not part of the public API.
+ * <p>
+ * Entries are stored in a hash array mapped trie, in the compressed form described by Steindorfer and Vinju (CHAMP).
+ * Each node consumes 6 bits of the hash of a key, and keeps inline entries and child nodes in separate arrays indexed
+ * by two 64-bit bitmaps. The hash is {@link HashCommon#mix(long)}, which is a bijection, so distinct keys always have
+ * distinct hashes and there are no collision nodes.
+ * <p>
+ * Nodes are owned by the map that created them, identified by an edit token. A map mutates nodes it owns in place, and
+ * copies nodes it does not own, along with the path to them from the root. {@link PersistentLong2ObjectMap#snapshot()}
+ * gives this map a new edit token, so that every existing node is shared between the map and its snapshot, and
+ * neither will mutate any of them again. Iterators do the same, so that they always traverse an unchanging tree.
+ *
+ * @param <V> the type of value stored in the map
+ */
+final class PersistentLong2ObjectMap<V> extends AbstractLong2ObjectMap<V> {
+    private static final int BITS = 6;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final int MAX_DEPTH = (Long.SIZE + BITS - 1) / BITS;
+
+    private static final long[] EMPTY_KEYS = new long[0];
+    private static final Object[] EMPTY_VALUES = new Object[0];
+    private static final Node[] EMPTY_CHILDREN = new Node[0];
+
+    private static final class Node {
+        private final Object owner;
+
+        private long dataMap;
+        private long nodeMap;
+        private long[] keys;
+        private Object[] values;
+        private Node[] children;
+
+        private Node(Object owner, long dataMap, long nodeMap, long[] keys, Object[] values, Node[] children) {
+            this.owner = owner;
+            this.dataMap = dataMap;
+            this.nodeMap = nodeMap;
+            this.keys = keys;
+            this.values = values;
+            this.children = children;
+        }
+
+        private static int index(long bitmap, long bit) {
+            return Long.bitCount(bitmap & (bit - 1));
+        }
+
+        //returns this node with the given contents if it is owned by the edit token, otherwise a new node which does
+        //not share any arrays with this one
+        private Node with(Object edit, long dataMap, long nodeMap, long[] keys, Object[] values, Node[] children) {
+            if (owner != edit) {
+                return new Node(edit, dataMap, nodeMap, keys == this.keys ? keys.clone() : keys,
+                        values == this.values ? values.clone() : values,
+                        children == this.children ? children.clone() : children);
+            }
+
+            this.dataMap = dataMap;
+            this.nodeMap = nodeMap;
+            this.keys = keys;
+            this.values = values;
+            this.children = children;
+            return this;
+        }
+
+        private Node editable(Object edit) {
+            return owner == edit ? this : new Node(edit, dataMap, nodeMap, keys.clone(), values.clone(),
+                    children.clone());
+        }
+
+        private Node setValue(Object edit, int index, Object value) {
+            Node node = editable(edit);
+            node.values[index] = value;
+            return node;
+        }
+
+        private Node setChild(Object edit, int index, Node child) {
+            Node node = editable(edit);
+            node.children[index] = child;
+            return node;
+        }
+
+        private Node insertData(Object edit, long bit, long key, Object value) {
+            int index = index(dataMap, bit);
+            int length = keys.length;
+
+            long[] newKeys = new long[length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(keys, index, newKeys, index + 1, length - index);
+            newKeys[index] = key;
+
+            Object[] newValues = new Object[length + 1];
+            System.arraycopy(values, 0, newValues, 0, index);
+            System.arraycopy(values, index, newValues, index + 1, length - index);
+            newValues[index] = value;
+
+            return with(edit, dataMap | bit, nodeMap, newKeys, newValues, children);
+        }
+
+        private Node removeData(Object edit, long bit, int index) {
+            int length = keys.length;
+
+            long[] newKeys = length == 1 ? EMPTY_KEYS : new long[length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(keys, index + 1, newKeys, index, length - index - 1);
+
+            Object[] newValues = length == 1 ? EMPTY_VALUES : new Object[length - 1];
+            System.arraycopy(values, 0, newValues, 0, index);
+            System.arraycopy(values, index + 1, newValues, index, length - index - 1);
+
+            return with(edit, dataMap & ~bit, nodeMap, newKeys, newValues, children);
+        }
+
+        //replaces the inline entry at the given bit with a child node
+        private Node dataToNode(Object edit, long bit, int dataIndex, Node child) {
+            Node removed = removeData(edit, bit, dataIndex);
+            int index = index(nodeMap, bit);
+            int length = children.length;
+
+            Node[] newChildren = new Node[length + 1];
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(children, index, newChildren, index + 1, length - index);
+            newChildren[index] = child;
+
+            return removed.with(edit, removed.dataMap, nodeMap | bit, removed.keys, removed.values, newChildren);
+        }
+
+        //replaces the child node at the given bit with an inline entry
+        private Node nodeToData(Object edit, long bit, int nodeIndex, long key, Object value) {
+            int length = children.length;
+            Node[] newChildren = length == 1 ? EMPTY_CHILDREN : new Node[length - 1];
+            System.arraycopy(children, 0, newChildren, 0, nodeIndex);
+            System.arraycopy(children, nodeIndex + 1, newChildren, nodeIndex, length - nodeIndex - 1);
+
+            Node removed = with(edit, dataMap, nodeMap & ~bit, keys, values, newChildren);
+            return removed.insertData(edit, bit, key, value);
+        }
+    }
+
+    private Object edit = new Object();
+    private Node root;
+    private int size;
+
+    //results of the last put or remove
+    private Object oldValue;
+    private boolean modified;
+
+    /**
+     * Creates a new, empty map.
+     */
+    PersistentLong2ObjectMap() {
+        this.root = emptyRoot();
+    }
+
+    private PersistentLong2ObjectMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    private Node emptyRoot() {
+        return new Node(edit, 0, 0, EMPTY_KEYS, EMPTY_VALUES, EMPTY_CHILDREN);
+    }
+
+    private static long hash(long key) {
+        return HashCommon.mix(key);
+    }
+
+    private static long bit(long hash, int shift) {
+        return 1L << ((hash >>> shift) & MASK);
+    }
+
+    /**
+     * Creates a snapshot of this map in constant time. The snapshot and this map share their structure, but changes to
+     * either one are not visible in the other.
+     *
+     * @return a new map with the same entries as this one
+     */
+    @NotNull PersistentLong2ObjectMap<V> snapshot() {
+        edit = new Object();
+        return new PersistentLong2ObjectMap<>(root, size);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public V get(long key) {
+        long hash = hash(key);
+        Node node = root;
+        for (int shift = 0; ; shift += BITS) {
+            long bit = bit(hash, shift);
+            if ((node.dataMap & bit) != 0) {
+                int index = Node.index(node.dataMap, bit);
+                return node.keys[index] == key ? (V) node.values[index] : defRetValue;
+            }
+
+            if ((node.nodeMap & bit) == 0) {
+                return defRetValue;
+            }
+
+            node = node.children[Node.index(node.nodeMap, bit)];
+        }
+    }
+
+    @Override
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public V put(long key, @NotNull V value) {
+        Objects.requireNonNull(value);
+
+        oldValue = null;
+        modified = false;
+        root = put(root, key, hash(key), 0, value);
+        if (modified) {
+            size++;
+        }
+
+        V old = (V) oldValue;
+        oldValue = null;
+        return old;
+    }
+
+    private Node put(Node node, long key, long hash, int shift, Object value) {
+        long bit = bit(hash, shift);
+        if ((node.dataMap & bit) != 0) {
+            int index = Node.index(node.dataMap, bit);
+            long existingKey = node.keys[index];
+            if (existingKey == key) {
+                oldValue = node.values[index];
+                return oldValue == value ? node : node.setValue(edit, index, value);
+            }
+
+            modified = true;
+            Node child = merge(existingKey, hash(existingKey), node.values[index], key, hash, value, shift + BITS);
+            return node.dataToNode(edit, bit, index, child);
+        }
+
+        if ((node.nodeMap & bit) != 0) {
+            int index = Node.index(node.nodeMap, bit);
+            Node child = node.children[index];
+            Node newChild = put(child, key, hash, shift + BITS, value);
+            return newChild == child ? node : node.setChild(edit, index, newChild);
+        }
+
+        modified = true;
+        return node.insertData(edit, bit, key, value);
+    }
+
+    //creates a node holding two entries whose hashes agree below the given shift
+    private Node merge(long firstKey, long firstHash, Object firstValue, long secondKey, long secondHash,
+            Object secondValue, int shift) {
+        long firstBit = bit(firstHash, shift);
+        long secondBit = bit(secondHash, shift);
+        if (firstBit == secondBit) {
+            Node child = merge(firstKey, firstHash, firstValue, secondKey, secondHash, secondValue, shift + BITS);
+            return new Node(edit, 0, firstBit, EMPTY_KEYS, EMPTY_VALUES, new Node[] {child});
+        }
+
+        //entries are ordered by bit position
+        boolean firstIsLower = Long.compareUnsigned(firstBit, secondBit) < 0;
+        long[] keys = firstIsLower ? new long[] {firstKey, secondKey} : new long[] {secondKey, firstKey};
+        Object[] values = firstIsLower ? new Object[] {firstValue, secondValue} :
+                new Object[] {secondValue, firstValue};
+        return new Node(edit, firstBit | secondBit, 0, keys, values, EMPTY_CHILDREN);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public V remove(long key) {
+        oldValue = null;
+        modified = false;
+        root = remove(root, key, hash(key), 0);
+        if (modified) {
+            size--;
+        }
+
+        V old = (V) oldValue;
+        oldValue = null;
+        return old;
+    }
+
+    private Node remove(Node node, long key, long hash, int shift) {
+        long bit = bit(hash, shift);
+        if ((node.dataMap & bit) != 0) {
+            int index = Node.index(node.dataMap, bit);
+            if (node.keys[index] != key) {
+                return node;
+            }
+
+            modified = true;
+            oldValue = node.values[index];
+            return node.removeData(edit, bit, index);
+        }
+
+        if ((node.nodeMap & bit) == 0) {
+            return node;
+        }
+
+        int index = Node.index(node.nodeMap, bit);
+        Node child = node.children[index];
+        Node newChild = remove(child, key, hash, shift + BITS);
+        if (!modified) {
+            return node;
+        }
+
+        if (newChild.nodeMap == 0 && newChild.keys.length == 1) {
+            //a child with a single entry is replaced by the entry itself, keeping the trie canonical
+            return node.nodeToData(edit, bit, index, newChild.keys[0], newChild.values[0]);
+        }
+
+        return newChild == child ? node : node.setChild(edit, index, newChild);
+    }
+
+    /**
+     * Calls the given consumer with each entry in this map. The map must not be modified until this method returns.
+     *
+     * @param consumer the consumer to call
+     */
+    void forEachEntry(@NotNull LongEntryConsumer<? super V> consumer) {
+        forEachEntry(root, consumer);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> void forEachEntry(Node node, LongEntryConsumer<? super V> consumer) {
+        for (int i = 0; i < node.keys.length; i++) {
+            consumer.accept(node.keys[i], (V) node.values[i]);
+        }
+
+        for (Node child : node.children) {
+            forEachEntry(child, consumer);
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear() {
+        root = emptyRoot();
+        size = 0;
+    }
+
+    @Override
+    public ObjectSet<Long2ObjectMap.Entry<V>> long2ObjectEntrySet() {
+        return new AbstractObjectSet<>() {
+            @Override
+            public ObjectIterator<Long2ObjectMap.Entry<V>> iterator() {
+                //freeze the current tree, so that changes made while iterating copy it instead of mutating it
+                edit = new Object();
+                return new EntryIterator(root);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public void clear() {
+                PersistentLong2ObjectMap.this.clear();
+            }
+        };
+    }
+
+    private final class EntryIterator implements ObjectIterator<Long2ObjectMap.Entry<V>> {
+        private final Node[] nodes = new Node[MAX_DEPTH + 1];
+        private final int[] nextChild = new int[MAX_DEPTH + 1];
+        private int depth;
+
+        private Node dataNode;
+        private int dataIndex;
+
+        private long lastKey;
+        private boolean canRemove;
+
+        private EntryIterator(Node root) {
+            nodes[0] = root;
+            dataNode = root;
+        }
+
+        //descends to the next node with inline entries, in depth-first order
+        private boolean findNext() {
+            while (depth >= 0) {
+                Node node = nodes[depth];
+                int childIndex = nextChild[depth];
+                if (childIndex == node.children.length) {
+                    depth--;
+                    continue;
+                }
+
+                nextChild[depth]++;
+                Node child = node.children[childIndex];
+                nodes[++depth] = child;
+                nextChild[depth] = 0;
+                if (child.keys.length > 0) {
+                    dataNode = child;
+                    dataIndex = 0;
+                    return true;
+                }
+            }
+
+            dataNode = null;
+            return false;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return (dataNode != null && dataIndex < dataNode.keys.length) || (dataNode != null && findNext());
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public Long2ObjectMap.Entry<V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            long key = dataNode.keys[dataIndex];
+            V value = (V) dataNode.values[dataIndex++];
+            lastKey = key;
+            canRemove = true;
+
+            return new BasicEntry<>(key, value) {
+                @Override
+                public V setValue(V value) {
+                    V old = this.value;
+                    PersistentLong2ObjectMap.this.put(key, value);
+                    this.value = value;
+                    return old;
+                }
+            };
+        }
+
+        @Override
+        public void remove() {
+            if (!canRemove) {
+                throw new IllegalStateException();
+            }
+
+            PersistentLong2ObjectMap.this.remove(lastKey);
+            canRemove = false;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.github.steanky.vector;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+
+/**
+ * A {@link Vec3I2ObjectMap} that can create snapshots of itself in constant time. Entries are stored in a persistent
+ * hash array mapped trie, whose nodes are shared between a map and its snapshots; after a snapshot is taken, each write
+ * copies only the few nodes on the path to the changed entry, rather than the whole map. This makes it cheap to give
+ * other threads a consistent view of a map which is still being modified, for example once per tick.
+ * <p>
+ * A snapshot is itself a fully functional {@link PersistentVec3I2ObjectMap}, with the same origin, bounds and key
+ * layout as the map it was taken from. Changes made to a map after taking a snapshot are never visible in the snapshot,
+ * and vice versa. Neither map is thread-safe, but because they never modify shared nodes, each may be used by a
+ * different thread without synchronization, provided that the snapshot is safely published to the thread that reads
+ * it.
+ * <p>
+ * Lookups are slower than in {@link HashVec3I2ObjectMap}, taking up to 11 steps in the worst case, though usually
+ * around log<sub>64</sub>(n). Iterators traverse the map as it was when they were created, and changes made while
+ * iterating, through the iterator or otherwise, do not affect them. Null values are not supported. See
+ * {@link BitPackingVec3I2ObjectMap} for details on how coordinates are packed.
+ *
+ * @param <T> the type of object stored in this map
+ */
+public class PersistentVec3I2ObjectMap<T> extends BitPackingVec3I2ObjectMap<T> {
+    private final PersistentLong2ObjectMap<T> persistentMap;
+
+    private final int x;
+    private final int y;
+    private final int z;
+    private final int width;
+    private final int height;
+    private final int depth;
+
+    private PersistentVec3I2ObjectMap(int x, int y, int z, int width, int height, int depth, KeyLayout layout,
+            PersistentLong2ObjectMap<T> persistentMap) {
+        super(x, y, z, width, height, depth, layout, persistentMap);
+        this.persistentMap = persistentMap;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.width = width;
+        this.height = height;
+        this.depth = depth;
+    }
+
+    /**
+     * Creates a new, empty {@link PersistentVec3I2ObjectMap} with the given origin, bounds and key layout. See
+     * {@link BitPackingVec3I2ObjectMap} for more details.
+     *
+     * @param x      the x-origin
+     * @param y      the y-origin
+     * @param z      the z-origin
+     * @param width  the x-width
+     * @param height the y-width
+     * @param depth  the z-width
+     * @param layout the arrangement of coordinate bits within packed keys
+     */
+    public PersistentVec3I2ObjectMap(int x, int y, int z, int width, int height, int depth,
+            @NotNull KeyLayout layout) {
+        this(x, y, z, width, height, depth, Objects.requireNonNull(layout), new PersistentLong2ObjectMap<>());
+    }
+
+    /**
+     * Convenience overload that uses the default key layout {@link KeyLayout#XYZ}.
+     *
+     * @param x      the x-origin
+     * @param y      the y-origin
+     * @param z      the z-origin
+     * @param width  the x-width
+     * @param height the y-width
+     * @param depth  the z-width
+     */
+    public PersistentVec3I2ObjectMap(int x, int y, int z, int width, int height, int depth) {
+        this(x, y, z, width, height, depth, KeyLayout.XYZ);
+    }
+
+    /**
+     * Convenience overload for
+     * {@link PersistentVec3I2ObjectMap#PersistentVec3I2ObjectMap(int, int, int, int, int, int, KeyLayout)} that uses the
+     * origin and lengths from the provided bounds.
+     *
+     * @param bounds the bounds which provides the origin and lengths
+     * @param layout the arrangement of coordinate bits within packed keys
+     */
+    public PersistentVec3I2ObjectMap(@NotNull Bounds3I bounds, @NotNull KeyLayout layout) {
+        this(bounds.originX(), bounds.originY(), bounds.originZ(), bounds.lengthX(), bounds.lengthY(), bounds.lengthZ(),
+                layout);
+    }
+
+    /**
+     * Convenience overload for
+     * {@link PersistentVec3I2ObjectMap#PersistentVec3I2ObjectMap(int, int, int, int, int, int)} that uses the origin
+     * and lengths from the provided bounds.
+     *
+     * @param bounds the bounds which provides the origin and lengths
+     */
+    public PersistentVec3I2ObjectMap(@NotNull Bounds3I bounds) {
+        this(bounds, KeyLayout.XYZ);
+    }
+
+    /**
+     * Creates a snapshot of this map in constant time. The snapshot initially contains the same entries as this map,
+     * but subsequent changes to either map are not visible in the other.
+     *
+     * @return a new map containing the current entries of this map
+     */
+    public @NotNull PersistentVec3I2ObjectMap<T> snapshot() {
+        return new PersistentVec3I2ObjectMap<>(x, y, z, width, height, depth, keyLayout(), persistentMap.snapshot());
+    }
+
+    @Override
+    public void forEach(@NotNull Vec3IObjectBiConsumer<? super T> consumer) {
+        Objects.requireNonNull(consumer);
+        persistentMap.forEachEntry((key, value) -> consumer.accept(x(key), y(key), z(key), value));
+    }
+}
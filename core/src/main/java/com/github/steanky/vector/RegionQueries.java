@@ -0,0 +1,193 @@
+package com.github.steanky.vector;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+
+/**
+ * Internal implementations of the region-restricted operations of {@link Vec3I2ObjectMap}. Not part of the public
+ * API.
+ * <p>
+ * Each operation either probes every cell of the region with {@link Vec3I2ObjectMap#get(int, int, int)}, or scans
+ * every entry of the map with a {@link Vec3IObjectCursor} and filters out those outside the region, whichever visits
+ * fewer cells. Maps that wrap coordinates outside their addressable space supply their {@link BitPacker}, so that only
+ * the part of the region inside the addressable space is probed; otherwise, wrapped coordinates would be visited under
+ * the wrong key.
+ */
+final class RegionQueries {
+    private RegionQueries() {
+        throw new UnsupportedOperationException();
+    }
+
+    /*
+    The region being queried, clipped to the addressable space of the map if necessary. Max values are exclusive.
+     */
+    private static final class Box {
+        private final int minX;
+        private final int minY;
+        private final int minZ;
+        private final long maxX;
+        private final long maxY;
+        private final long maxZ;
+
+        private Box(Bounds3I bounds, BitPacker clip) {
+            long minX = bounds.originX();
+            long minY = bounds.originY();
+            long minZ = bounds.originZ();
+            long maxX = minX + bounds.lengthX();
+            long maxY = minY + bounds.lengthY();
+            long maxZ = minZ + bounds.lengthZ();
+
+            if (clip != null) {
+                minX = Math.max(minX, clip.originX());
+                minY = Math.max(minY, clip.originY());
+                minZ = Math.max(minZ, clip.originZ());
+                maxX = Math.min(maxX, clip.originX() + clip.width());
+                maxY = Math.min(maxY, clip.originY() + clip.height());
+                maxZ = Math.min(maxZ, clip.originZ() + clip.depth());
+            }
+
+            this.minX = (int) minX;
+            this.minY = (int) minY;
+            this.minZ = (int) minZ;
+            this.maxX = Math.max(maxX, minX);
+            this.maxY = Math.max(maxY, minY);
+            this.maxZ = Math.max(maxZ, minZ);
+        }
+
+        private boolean isEmpty() {
+            return maxX == minX || maxY == minY || maxZ == minZ;
+        }
+
+        //saturates at Long.MAX_VALUE, since each side may be as long as 2^32
+        private long volume() {
+            return saturatedMultiply(saturatedMultiply(maxX - minX, maxY - minY), maxZ - minZ);
+        }
+
+        private boolean contains(int x, int y, int z) {
+            return x >= minX && x < maxX && y >= minY && y < maxY && z >= minZ && z < maxZ;
+        }
+
+        //probing costs one lookup per cell, while scanning costs one step per entry
+        private boolean shouldProbe(Vec3I2ObjectMap<?> map) {
+            return volume() <= map.size();
+        }
+    }
+
+    private static long saturatedMultiply(long first, long second) {
+        return Math.multiplyHigh(first, second) == 0 && first * second >= 0 ? first * second : Long.MAX_VALUE;
+    }
+
+    static <T> void forEachIn(@NotNull Vec3I2ObjectMap<T> map, @NotNull Bounds3I bounds, BitPacker clip,
+            @NotNull Vec3IObjectBiConsumer<? super T> consumer) {
+        Objects.requireNonNull(consumer);
+        Box box = new Box(bounds, clip);
+        if (box.isEmpty()) {
+            return;
+        }
+
+        if (box.shouldProbe(map)) {
+            for (long lx = box.minX; lx < box.maxX; lx++) {
+                for (long ly = box.minY; ly < box.maxY; ly++) {
+                    for (long lz = box.minZ; lz < box.maxZ; lz++) {
+                        int x = (int) lx;
+                        int y = (int) ly;
+                        int z = (int) lz;
+                        T value = map.get(x, y, z);
+                        if (value != null || map.containsKey(x, y, z)) {
+                            consumer.accept(x, y, z, value);
+                        }
+                    }
+                }
+            }
+
+            return;
+        }
+
+        Vec3IObjectCursor<T> cursor = map.cursor();
+        while (cursor.next()) {
+            int x = cursor.x();
+            int y = cursor.y();
+            int z = cursor.z();
+            if (box.contains(x, y, z)) {
+                consumer.accept(x, y, z, cursor.value());
+            }
+        }
+    }
+
+    static <T> boolean removeIf(@NotNull Vec3I2ObjectMap<T> map, @NotNull Bounds3I bounds, BitPacker clip,
+            @NotNull Vec3IObjectBiPredicate<? super T> predicate) {
+        Objects.requireNonNull(predicate);
+        Box box = new Box(bounds, clip);
+        if (box.isEmpty()) {
+            return false;
+        }
+
+        boolean removed = false;
+        if (box.shouldProbe(map)) {
+            for (long lx = box.minX; lx < box.maxX; lx++) {
+                for (long ly = box.minY; ly < box.maxY; ly++) {
+                    for (long lz = box.minZ; lz < box.maxZ; lz++) {
+                        int x = (int) lx;
+                        int y = (int) ly;
+                        int z = (int) lz;
+                        T value = map.get(x, y, z);
+                        if ((value != null || map.containsKey(x, y, z)) && predicate.test(x, y, z, value)) {
+                            map.remove(x, y, z);
+                            removed = true;
+                        }
+                    }
+                }
+            }
+
+            return removed;
+        }
+
+        Vec3IObjectCursor<T> cursor = map.cursor();
+        while (cursor.next()) {
+            int x = cursor.x();
+            int y = cursor.y();
+            int z = cursor.z();
+            if (box.contains(x, y, z) && predicate.test(x, y, z, cursor.value())) {
+                cursor.remove();
+                removed = true;
+            }
+        }
+
+        return removed;
+    }
+
+    static int countIn(@NotNull Vec3I2ObjectMap<?> map, @NotNull Bounds3I bounds, BitPacker clip) {
+        Box box = new Box(bounds, clip);
+        if (box.isEmpty()) {
+            return 0;
+        }
+
+        int count = 0;
+        if (box.shouldProbe(map)) {
+            for (long lx = box.minX; lx < box.maxX; lx++) {
+                for (long ly = box.minY; ly < box.maxY; ly++) {
+                    for (long lz = box.minZ; lz < box.maxZ; lz++) {
+                        int x = (int) lx;
+                        int y = (int) ly;
+                        int z = (int) lz;
+                        if (map.containsKey(x, y, z)) {
+                            count++;
+                        }
+                    }
+                }
+            }
+
+            return count;
+        }
+
+        Vec3IObjectCursor<?> cursor = map.cursor();
+        while (cursor.next()) {
+            if (box.contains(cursor.x(), cursor.y(), cursor.z())) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+}
@@ -0,0 +1,430 @@
+package com.github.steanky.vector;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * Implementation of {@link Vec3I2ObjectMap} that holds values for a fixed-size window of coordinates, which can be
+ * moved. Suited to data kept around a moving point of interest. Null values are not supported.
+ * <p>
+ * Values are stored in a flat array which is addressed toroidally: each coordinate is reduced modulo the array's
+ * extent on its axis, so cells keep their slot when the window moves. Moving the window with
+ * {@link SlidingWindowVec3I2ObjectMap#recenter(int, int, int)} only evicts the cells which left it, in time
+ * proportional to their number, and never copies or rehashes the cells that remain. The array's extent on each axis
+ * is the window's length rounded up to the nearest power of two.
+ * <p>
+ * Coordinates outside the window are never present in the map: querying or removing them has no effect, and attempting
+ * to add them throws an {@link IllegalArgumentException}.
+ *
+ * @param <T> the type of object held in the map
+ */
+public class SlidingWindowVec3I2ObjectMap<T> extends AbstractVec3I2ObjectMap<T> {
+    /**
+     * The largest number of slots supported by this map.
+     */
+    public static final int MAX_ADDRESSABLE_SIZE = 1 << 30;
+
+    private final int width;
+    private final int height;
+    private final int depth;
+
+    private final int maskX;
+    private final int maskY;
+    private final int maskZ;
+    private final int shiftX;
+    private final int shiftY;
+
+    private final Object[] values;
+
+    private int originX;
+    private int originY;
+    private int originZ;
+    private int size;
+
+    /**
+     * Creates a new {@link SlidingWindowVec3I2ObjectMap} whose window initially has the given origin and lengths.
+     *
+     * @param x      the initial x-origin of the window
+     * @param y      the initial y-origin of the window
+     * @param z      the initial z-origin of the window
+     * @param width  the x-length of the window
+     * @param height the y-length of the window
+     * @param depth  the z-length of the window
+     * @throws IllegalArgumentException if any length is not positive, or the backing array would need more than
+     *                                  {@link SlidingWindowVec3I2ObjectMap#MAX_ADDRESSABLE_SIZE} slots
+     */
+    public SlidingWindowVec3I2ObjectMap(int x, int y, int z, int width, int height, int depth) {
+        if (width <= 0 || height <= 0 || depth <= 0) {
+            throw new IllegalArgumentException("Side lengths cannot be negative or 0");
+        }
+
+        int bitsX = bits(width);
+        int bitsY = bits(height);
+        int bitsZ = bits(depth);
+        if (bitsX + bitsY + bitsZ > Integer.numberOfTrailingZeros(MAX_ADDRESSABLE_SIZE)) {
+            throw new IllegalArgumentException("Cannot create a SlidingWindowVec3I2ObjectMap with more than 2^30 " +
+                    "possible values");
+        }
+
+        this.width = width;
+        this.height = height;
+        this.depth = depth;
+
+        this.maskX = (1 << bitsX) - 1;
+        this.maskY = (1 << bitsY) - 1;
+        this.maskZ = (1 << bitsZ) - 1;
+        this.shiftX = bitsY + bitsZ;
+        this.shiftY = bitsZ;
+
+        this.values = new Object[1 << (bitsX + bitsY + bitsZ)];
+
+        this.originX = x;
+        this.originY = y;
+        this.originZ = z;
+    }
+
+    /**
+     * Convenience overload for
+     * {@link SlidingWindowVec3I2ObjectMap#SlidingWindowVec3I2ObjectMap(int, int, int, int, int, int)} that uses the
+     * origin and lengths from the provided bounds as the initial window.
+     *
+     * @param bounds the bounds which provides the origin and lengths
+     */
+    public SlidingWindowVec3I2ObjectMap(@NotNull Bounds3I bounds) {
+        this(bounds.originX(), bounds.originY(), bounds.originZ(), bounds.lengthX(), bounds.lengthY(), bounds.lengthZ());
+    }
+
+    private static int bits(int length) {
+        return Integer.SIZE - Integer.numberOfLeadingZeros(length - 1);
+    }
+
+    /**
+     * Gets the current window of this map.
+     *
+     * @return the bounds of the current window
+     */
+    public @NotNull Bounds3I window() {
+        return Bounds3I.immutable(originX, originY, originZ, width, height, depth);
+    }
+
+    /**
+     * Determines if the given coordinate lies inside the current window.
+     *
+     * @param x the x-coordinate
+     * @param y the y-coordinate
+     * @param z the z-coordinate
+     * @return true if the coordinate is inside the window, false otherwise
+     */
+    public boolean inWindow(int x, int y, int z) {
+        return Integer.compareUnsigned(x - originX, width) < 0 && Integer.compareUnsigned(y - originY, height) < 0 &&
+                Integer.compareUnsigned(z - originZ, depth) < 0;
+    }
+
+    /**
+     * Moves the window so that it is centered on the given coordinate. On each axis, the new origin is the coordinate
+     * minus half the window's length, rounded down. Entries which fall outside the new window are removed.
+     *
+     * @param x the x-coordinate of the new center
+     * @param y the y-coordinate of the new center
+     * @param z the z-coordinate of the new center
+     */
+    public void recenter(int x, int y, int z) {
+        move(x - (width >> 1), y - (height >> 1), z - (depth >> 1), null);
+    }
+
+    /**
+     * Works like {@link SlidingWindowVec3I2ObjectMap#recenter(int, int, int)}, but also passes every evicted entry to
+     * the given consumer after removing it. The consumer must not modify this map.
+     *
+     * @param x       the x-coordinate of the new center
+     * @param y       the y-coordinate of the new center
+     * @param z       the z-coordinate of the new center
+     * @param evicted the consumer which receives evicted entries
+     */
+    public void recenter(int x, int y, int z, @NotNull Vec3IObjectBiConsumer<? super T> evicted) {
+        move(x - (width >> 1), y - (height >> 1), z - (depth >> 1), Objects.requireNonNull(evicted));
+    }
+
+    private void move(int newX, int newY, int newZ, Vec3IObjectBiConsumer<? super T> evicted) {
+        //offsets wrap like the coordinates in inWindow, so windows may straddle the integer boundary
+        int dx = newX - originX;
+        int dy = newY - originY;
+        int dz = newZ - originZ;
+
+        if (size > 0) {
+            if (Math.abs((long) dx) >= width || Math.abs((long) dy) >= height || Math.abs((long) dz) >= depth) {
+                evict(0, width, 0, height, 0, depth, evicted);
+            }
+            else {
+                //offsets, relative to the old origin, of the cells that stay in the window
+                int keepX0 = Math.max(0, dx);
+                int keepX1 = Math.min(width, width + dx);
+                int keepY0 = Math.max(0, dy);
+                int keepY1 = Math.min(height, height + dy);
+                int keepZ0 = Math.max(0, dz);
+                int keepZ1 = Math.min(depth, depth + dz);
+
+                //the cells that left form up to six disjoint slabs
+                evict(0, keepX0, 0, height, 0, depth, evicted);
+                evict(keepX1, width, 0, height, 0, depth, evicted);
+                evict(keepX0, keepX1, 0, keepY0, 0, depth, evicted);
+                evict(keepX0, keepX1, keepY1, height, 0, depth, evicted);
+                evict(keepX0, keepX1, keepY0, keepY1, 0, keepZ0, evicted);
+                evict(keepX0, keepX1, keepY0, keepY1, keepZ1, depth, evicted);
+            }
+        }
+
+        originX = newX;
+        originY = newY;
+        originZ = newZ;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void evict(int x0, int x1, int y0, int y1, int z0, int z1, Vec3IObjectBiConsumer<? super T> evicted) {
+        for (int ox = x0; ox < x1; ox++) {
+            int x = originX + ox;
+            int indexX = (x & maskX) << shiftX;
+            for (int oy = y0; oy < y1; oy++) {
+                int y = originY + oy;
+                int indexY = indexX | ((y & maskY) << shiftY);
+                for (int oz = z0; oz < z1; oz++) {
+                    int z = originZ + oz;
+                    int index = indexY | (z & maskZ);
+
+                    Object value = values[index];
+                    if (value != null) {
+                        values[index] = null;
+                        size--;
+                        if (evicted != null) {
+                            evicted.accept(x, y, z, (T) value);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private int index(int x, int y, int z) {
+        return ((x & maskX) << shiftX) | ((y & maskY) << shiftY) | (z & maskZ);
+    }
+
+    private int x(int index) {
+        return originX + (((index >>> shiftX) - originX) & maskX);
+    }
+
+    private int y(int index) {
+        return originY + ((((index >>> shiftY) & maskY) - originY) & maskY);
+    }
+
+    private int z(int index) {
+        return originZ + (((index & maskZ) - originZ) & maskZ);
+    }
+
+    private int nextOccupied(int from) {
+        for (int i = from; i < values.length; i++) {
+            if (values[i] != null) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T get(int x, int y, int z) {
+        return inWindow(x, y, z) ? (T) values[index(x, y, z)] : null;
+    }
+
+    @Override
+    public boolean containsKey(int x, int y, int z) {
+        return get(x, y, z) != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T put(int x, int y, int z, @NotNull T value) {
+        Objects.requireNonNull(value);
+        if (!inWindow(x, y, z)) {
+            throw new IllegalArgumentException("Coordinate (" + x + ", " + y + ", " + z + ") is out of bounds");
+        }
+
+        int index = index(x, y, z);
+        T old = (T) values[index];
+        values[index] = value;
+        if (old == null) {
+            size++;
+        }
+
+        return old;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T remove(int x, int y, int z) {
+        if (!inWindow(x, y, z)) {
+            return null;
+        }
+
+        int index = index(x, y, z);
+        T old = (T) values[index];
+        if (old != null) {
+            values[index] = null;
+            size--;
+        }
+
+        return old;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void replaceAll(@NotNull Vec3IObjectBiFunction<? super T, ? extends T> function) {
+        Objects.requireNonNull(function);
+        for (int i = nextOccupied(0); i != -1; i = nextOccupied(i + 1)) {
+            values[i] = Objects.requireNonNull(function.apply(x(i), y(i), z(i), (T) values[i]));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void forEach(@NotNull Vec3IObjectBiConsumer<? super T> consumer) {
+        Objects.requireNonNull(consumer);
+        for (int i = nextOccupied(0); i != -1; i = nextOccupied(i + 1)) {
+            consumer.accept(x(i), y(i), z(i), (T) values[i]);
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear() {
+        if (size > 0) {
+            Arrays.fill(values, null);
+            size = 0;
+        }
+    }
+
+    private final class WindowCursor implements Vec3IObjectCursor<T> {
+        private int next = nextOccupied(0);
+        private int last = -1;
+
+        private boolean hasNext() {
+            return next != -1;
+        }
+
+        @Override
+        public boolean next() {
+            if (next == -1) {
+                last = -1;
+                return false;
+            }
+
+            last = next;
+            next = nextOccupied(next + 1);
+            return true;
+        }
+
+        @Override
+        public int x() {
+            return SlidingWindowVec3I2ObjectMap.this.x(last);
+        }
+
+        @Override
+        public int y() {
+            return SlidingWindowVec3I2ObjectMap.this.y(last);
+        }
+
+        @Override
+        public int z() {
+            return SlidingWindowVec3I2ObjectMap.this.z(last);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T value() {
+            return (T) values[last];
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T setValue(T value) {
+            Objects.requireNonNull(value);
+            T old = (T) values[last];
+            values[last] = value;
+            return old;
+        }
+
+        @Override
+        public void remove() {
+            if (last == -1) {
+                throw new IllegalStateException();
+            }
+
+            values[last] = null;
+            last = -1;
+            size--;
+        }
+    }
+
+    @Override
+    public @NotNull Vec3IObjectCursor<T> cursor() {
+        return new WindowCursor();
+    }
+
+    @NotNull
+    @Override
+    public Set<Entry<Vec3I, T>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<Vec3I, T>> iterator() {
+                WindowCursor cursor = new WindowCursor();
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return cursor.hasNext();
+                    }
+
+                    @Override
+                    public Entry<Vec3I, T> next() {
+                        if (!cursor.next()) {
+                            throw new NoSuchElementException();
+                        }
+
+                        Vec3I key = Vec3I.immutable(cursor.x(), cursor.y(), cursor.z());
+                        return new AbstractMap.SimpleEntry<>(key, cursor.value()) {
+                            @Override
+                            public T setValue(T value) {
+                                super.setValue(value);
+                                return put(key.x(), key.y(), key.z(), value);
+                            }
+                        };
+                    }
+
+                    @Override
+                    public void remove() {
+                        cursor.remove();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public void clear() {
+                SlidingWindowVec3I2ObjectMap.this.clear();
+            }
+        };
+    }
+}
@@ -0,0 +1,250 @@
+package com.github.steanky.vector;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * Internal view of a map whose entries are stored in a flat table of slots, used to split traversals of the table
+ * evenly. Not part of the public API.
+ * <p>
+ * Ranges of slots are split on multiples of {@link SlotTable#alignment()}. If {@link SlotTable#count(long, long)} can
+ * count the entries in any aligned range exactly, spliterators report {@link Spliterator#SUBSIZED}.
+ *
+ * @param <T> the type of value stored in the table
+ */
+interface SlotTable<T> {
+    /**
+     * Gets the number of slots in this table. Valid slot indices range from 0 (inclusive) to this value (exclusive).
+     *
+     * @return the number of slots
+     */
+    long slotCount();
+
+    /**
+     * Gets the power-of-two alignment on which ranges of slots may be split.
+     *
+     * @return the alignment
+     */
+    int alignment();
+
+    /**
+     * Finds the first occupied slot in the given range.
+     *
+     * @param from the first slot to check, inclusive
+     * @param to   the last slot to check, exclusive
+     * @return the index of the first occupied slot, or -1 if there is none
+     */
+    long nextOccupied(long from, long to);
+
+    /**
+     * Gets the x-coordinate of the entry in an occupied slot.
+     *
+     * @param slot the slot
+     * @return the x-coordinate
+     */
+    int x(long slot);
+
+    /**
+     * Gets the y-coordinate of the entry in an occupied slot.
+     *
+     * @param slot the slot
+     * @return the y-coordinate
+     */
+    int y(long slot);
+
+    /**
+     * Gets the z-coordinate of the entry in an occupied slot.
+     *
+     * @param slot the slot
+     * @return the z-coordinate
+     */
+    int z(long slot);
+
+    /**
+     * Gets the value of the entry in an occupied slot.
+     *
+     * @param slot the slot
+     * @return the value
+     */
+    T value(long slot);
+
+    /**
+     * Counts the entries in the given aligned range.
+     *
+     * @param from the first slot in the range, inclusive
+     * @param to   the last slot in the range, exclusive
+     * @return the exact number of entries in the range, or -1 if it cannot be determined cheaply
+     */
+    long count(long from, long to);
+
+    /**
+     * Determines if {@link SlotTable#count(long, long)} can count every aligned range. Spliterators over tables which
+     * cannot are only sized at the root, not when split.
+     *
+     * @return true if every aligned range can be counted, false otherwise
+     */
+    default boolean countsRanges() {
+        return true;
+    }
+
+    /**
+     * Creates a new spliterator over the entries of this table.
+     *
+     * @param size the exact number of entries in the table
+     * @return a new spliterator
+     */
+    default @NotNull Spliterator<Map.Entry<Vec3I, T>> spliterator(int size) {
+        return new SlotSpliterator<>(this, 0, slotCount(), size, true, countsRanges());
+    }
+
+    /**
+     * Calls the given consumer with each entry in this table, splitting the table among the threads of the common
+     * {@link ForkJoinPool}.
+     *
+     * @param consumer the consumer to call
+     */
+    default void parallelForEach(@NotNull Vec3IObjectBiConsumer<? super T> consumer) {
+        long slotCount = slotCount();
+        long leafSize = Math.max(alignment(), slotCount / ((long) ForkJoinPool.getCommonPoolParallelism() << 3));
+        ForkJoinPool.commonPool().invoke(new ForEachTask<>(this, consumer, 0, slotCount, leafSize));
+    }
+
+    private void forEachInRange(long from, long to, Vec3IObjectBiConsumer<? super T> consumer) {
+        for (long slot = nextOccupied(from, to); slot != -1; slot = nextOccupied(slot + 1, to)) {
+            consumer.accept(x(slot), y(slot), z(slot), value(slot));
+        }
+    }
+
+    private long splitPoint(long from, long to) {
+        long mid = ((from + to) >>> 1) & -(long) alignment();
+        return mid <= from ? -1 : mid;
+    }
+
+    final class SlotSpliterator<T> implements Spliterator<Map.Entry<Vec3I, T>> {
+        private final SlotTable<T> table;
+
+        private long from;
+        private final long to;
+        private long estimate;
+        private boolean exact;
+        private final boolean subsized;
+
+        private SlotSpliterator(SlotTable<T> table, long from, long to, long estimate, boolean exact,
+                boolean subsized) {
+            this.table = table;
+            this.from = from;
+            this.to = to;
+            this.estimate = estimate;
+            this.exact = exact;
+            this.subsized = subsized;
+        }
+
+        private Map.Entry<Vec3I, T> entry(long slot) {
+            return new AbstractMap.SimpleImmutableEntry<>(
+                    Vec3I.immutable(table.x(slot), table.y(slot), table.z(slot)), table.value(slot));
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Map.Entry<Vec3I, T>> action) {
+            long slot = table.nextOccupied(from, to);
+            if (slot == -1) {
+                from = to;
+                return false;
+            }
+
+            from = slot + 1;
+            if (exact) {
+                estimate--;
+            }
+
+            action.accept(entry(slot));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Map.Entry<Vec3I, T>> action) {
+            for (long slot = table.nextOccupied(from, to); slot != -1; slot = table.nextOccupied(slot + 1, to)) {
+                action.accept(entry(slot));
+            }
+
+            from = to;
+            if (exact) {
+                estimate = 0;
+            }
+        }
+
+        @Override
+        public Spliterator<Map.Entry<Vec3I, T>> trySplit() {
+            long mid = table.splitPoint(from, to);
+            if (mid == -1) {
+                return null;
+            }
+
+            long prefixCount = table.count(from, mid);
+            SlotSpliterator<T> prefix;
+            if (exact && prefixCount != -1) {
+                prefix = new SlotSpliterator<>(table, from, mid, prefixCount, true, true);
+                estimate -= prefixCount;
+            }
+            else {
+                exact = false;
+                estimate >>>= 1;
+                prefix = new SlotSpliterator<>(table, from, mid, estimate, false, false);
+            }
+
+            from = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return estimate;
+        }
+
+        @Override
+        public int characteristics() {
+            if (!exact) {
+                return DISTINCT | NONNULL;
+            }
+
+            return subsized ? DISTINCT | NONNULL | SIZED | SUBSIZED : DISTINCT | NONNULL | SIZED;
+        }
+    }
+
+    final class ForEachTask<T> extends RecursiveAction {
+        private final SlotTable<T> table;
+        private final Vec3IObjectBiConsumer<? super T> consumer;
+        private final long from;
+        private final long to;
+        private final long leafSize;
+
+        private ForEachTask(SlotTable<T> table, Vec3IObjectBiConsumer<? super T> consumer, long from, long to,
+                long leafSize) {
+            this.table = table;
+            this.consumer = consumer;
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+        }
+
+        @Override
+        protected void compute() {
+            long mid;
+            if (to - from <= leafSize || (mid = table.splitPoint(from, to)) == -1) {
+                table.forEachInRange(from, to, consumer);
+                return;
+            }
+
+            ForEachTask<T> right = new ForEachTask<>(table, consumer, mid, to, leafSize);
+            right.fork();
+            new ForEachTask<>(table, consumer, from, mid, leafSize).compute();
+            right.join();
+        }
+    }
+}
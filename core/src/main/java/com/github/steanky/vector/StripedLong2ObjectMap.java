@@ -0,0 +1,500 @@
+package com.github.steanky.vector;
+
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.longs.AbstractLong2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectFunction;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.AbstractObjectSet;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import it.unimi.dsi.fastutil.objects.ObjectSet;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.LongFunction;
+
+/**
+ * Internal concurrent {@link Long2ObjectMap} used by {@link StripedVec3I2ObjectMap}. Not part of the public API.
+ * <p>
+ * Keys are distributed among a power-of-two number of segments, in the manner of the original segmented
+ * {@link java.util.concurrent.ConcurrentHashMap}. Each segment is a {@link Long2ObjectOpenHashMap} guarded by its own
+ * monitor, so operations on keys in different segments never contend, and every single-key operation (including
+ * {@code compute} and {@code merge}) is atomic. Iteration is weakly consistent: each segment is copied under its lock
+ * before its entries are visited. Null values are not supported.
+ *
+ * @param <V> the type of value stored in the map
+ */
+final class StripedLong2ObjectMap<V> extends AbstractLong2ObjectMap<V> {
+    static final class Segment<V> {
+        private final Long2ObjectOpenHashMap<V> map;
+
+        //written only while holding the segment lock
+        private volatile int size;
+
+        private Segment(int initialCapacity, float loadFactor) {
+            this.map = new Long2ObjectOpenHashMap<>(initialCapacity, loadFactor);
+        }
+
+        private void updateSize() {
+            size = map.size();
+        }
+
+        private void forEach(LongEntryConsumer<? super V> consumer) {
+            //copy under the lock, but call the consumer outside of it
+            long[] keys;
+            Object[] values;
+            synchronized (this) {
+                int size = map.size();
+                if (size == 0) {
+                    return;
+                }
+
+                keys = new long[size];
+                values = new Object[size];
+
+                int i = 0;
+                for (Long2ObjectMap.Entry<V> entry : map.long2ObjectEntrySet()) {
+                    keys[i] = entry.getLongKey();
+                    values[i++] = entry.getValue();
+                }
+            }
+
+            forEachCopied(keys, values, consumer);
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <V> void forEachCopied(long[] keys, Object[] values, LongEntryConsumer<? super V> consumer) {
+            for (int i = 0; i < keys.length; i++) {
+                consumer.accept(keys[i], (V) values[i]);
+            }
+        }
+    }
+
+    private final Segment<V>[] segments;
+    private final int segmentShift;
+
+    /**
+     * Creates a new map.
+     *
+     * @param initialCapacity  the expected number of elements
+     * @param loadFactor       the load factor of each segment
+     * @param concurrencyLevel the expected number of concurrently updating threads; used to determine the number of
+     *                         segments
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    StripedLong2ObjectMap(int initialCapacity, float loadFactor, int concurrencyLevel) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("The expected number of elements must be nonnegative");
+        }
+
+        if (concurrencyLevel <= 0) {
+            throw new IllegalArgumentException("Concurrency level must be positive");
+        }
+
+        int segmentCount = Math.max(2, HashCommon.nextPowerOfTwo(Math.min(concurrencyLevel, 1 << 16)));
+        this.segments = new Segment[segmentCount];
+        this.segmentShift = Long.SIZE - Integer.numberOfTrailingZeros(segmentCount);
+
+        int segmentCapacity = (initialCapacity + segmentCount - 1) / segmentCount;
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(segmentCapacity, loadFactor);
+        }
+    }
+
+    /**
+     * Gets the segment responsible for the given key. Callers must synchronize on the segment before accessing it.
+     *
+     * @param key the key
+     * @return the segment for the key
+     */
+    Segment<V> segment(long key) {
+        //the segment maps use the low bits of the same mixed hash, so use the high ones here
+        return segments[(int) (HashCommon.mix(key) >>> segmentShift)];
+    }
+
+    /**
+     * Calls the given consumer with each entry in this map. Each segment is copied under its lock, and the consumer is
+     * called without holding any lock.
+     *
+     * @param consumer the consumer to call
+     */
+    void forEachEntry(@NotNull LongEntryConsumer<? super V> consumer) {
+        for (Segment<V> segment : segments) {
+            segment.forEach(consumer);
+        }
+    }
+
+    /**
+     * Gets the number of segments in this map.
+     *
+     * @return the number of segments
+     */
+    int segmentCount() {
+        return segments.length;
+    }
+
+    /**
+     * Calls the given consumer with each entry in one segment of this map.
+     *
+     * @param index    the index of the segment
+     * @param consumer the consumer to call
+     */
+    void forEachEntry(int index, @NotNull LongEntryConsumer<? super V> consumer) {
+        segments[index].forEach(consumer);
+    }
+
+    /*
+    The following helpers access a segment directly, and must only be called while holding its lock.
+     */
+
+    static <V> V get(Segment<V> segment, long key) {
+        return segment.map.get(key);
+    }
+
+    static <V> V put(Segment<V> segment, long key, V value) {
+        V old = segment.map.put(key, value);
+        if (old == null) {
+            segment.updateSize();
+        }
+
+        return old;
+    }
+
+    static <V> V remove(Segment<V> segment, long key) {
+        V old = segment.map.remove(key);
+        if (old != null) {
+            segment.updateSize();
+        }
+
+        return old;
+    }
+
+    @Override
+    public V get(long key) {
+        Segment<V> segment = segment(key);
+        synchronized (segment) {
+            return segment.map.get(key);
+        }
+    }
+
+    @Override
+    public V getOrDefault(long key, V defaultValue) {
+        V value = get(key);
+        return value == null ? defaultValue : value;
+    }
+
+    @Override
+    public boolean containsKey(long key) {
+        Segment<V> segment = segment(key);
+        synchronized (segment) {
+            return segment.map.containsKey(key);
+        }
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        if (value == null) {
+            return false;
+        }
+
+        for (Segment<V> segment : segments) {
+            synchronized (segment) {
+                if (segment.map.containsValue(value)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public V put(long key, @NotNull V value) {
+        Objects.requireNonNull(value);
+
+        Segment<V> segment = segment(key);
+        synchronized (segment) {
+            return put(segment, key, value);
+        }
+    }
+
+    @Override
+    public V remove(long key) {
+        Segment<V> segment = segment(key);
+        synchronized (segment) {
+            return remove(segment, key);
+        }
+    }
+
+    @Override
+    public boolean remove(long key, Object value) {
+        if (value == null) {
+            return false;
+        }
+
+        Segment<V> segment = segment(key);
+        synchronized (segment) {
+            if (value.equals(segment.map.get(key))) {
+                remove(segment, key);
+                return true;
+            }
+
+            return false;
+        }
+    }
+
+    @Override
+    public V putIfAbsent(long key, @NotNull V value) {
+        Objects.requireNonNull(value);
+
+        Segment<V> segment = segment(key);
+        synchronized (segment) {
+            V old = segment.map.get(key);
+            if (old == null) {
+                put(segment, key, value);
+            }
+
+            return old;
+        }
+    }
+
+    @Override
+    public V replace(long key, @NotNull V value) {
+        Objects.requireNonNull(value);
+
+        Segment<V> segment = segment(key);
+        synchronized (segment) {
+            return segment.map.containsKey(key) ? segment.map.put(key, value) : null;
+        }
+    }
+
+    @Override
+    public boolean replace(long key, V oldValue, @NotNull V newValue) {
+        Objects.requireNonNull(newValue);
+        if (oldValue == null) {
+            return false;
+        }
+
+        Segment<V> segment = segment(key);
+        synchronized (segment) {
+            if (oldValue.equals(segment.map.get(key))) {
+                segment.map.put(key, newValue);
+                return true;
+            }
+
+            return false;
+        }
+    }
+
+    @Override
+    public V computeIfAbsent(long key, @NotNull LongFunction<? extends V> mappingFunction) {
+        Objects.requireNonNull(mappingFunction);
+
+        Segment<V> segment = segment(key);
+        synchronized (segment) {
+            V value = segment.map.get(key);
+            if (value != null) {
+                return value;
+            }
+
+            V newValue = mappingFunction.apply(key);
+            if (newValue != null) {
+                put(segment, key, newValue);
+            }
+
+            return newValue;
+        }
+    }
+
+    @Override
+    public V computeIfAbsent(long key, @NotNull Long2ObjectFunction<? extends V> mappingFunction) {
+        Objects.requireNonNull(mappingFunction);
+        return computeIfAbsent(key, (LongFunction<? extends V>) mappingFunction::get);
+    }
+
+    @Override
+    public V computeIfPresent(long key,
+            @NotNull BiFunction<? super Long, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+
+        Segment<V> segment = segment(key);
+        synchronized (segment) {
+            V oldValue = segment.map.get(key);
+            if (oldValue == null) {
+                return null;
+            }
+
+            V newValue = remappingFunction.apply(key, oldValue);
+            if (newValue == null) {
+                remove(segment, key);
+                return null;
+            }
+
+            segment.map.put(key, newValue);
+            return newValue;
+        }
+    }
+
+    @Override
+    public V compute(long key, @NotNull BiFunction<? super Long, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+
+        Segment<V> segment = segment(key);
+        synchronized (segment) {
+            V oldValue = segment.map.get(key);
+            V newValue = remappingFunction.apply(key, oldValue);
+            if (newValue == null) {
+                if (oldValue != null) {
+                    remove(segment, key);
+                }
+
+                return null;
+            }
+
+            put(segment, key, newValue);
+            return newValue;
+        }
+    }
+
+    @Override
+    public V merge(long key, @NotNull V value, @NotNull BiFunction<? super V, ? super V, ? extends V> mergeFunction) {
+        Objects.requireNonNull(value);
+        Objects.requireNonNull(mergeFunction);
+
+        Segment<V> segment = segment(key);
+        synchronized (segment) {
+            V oldValue = segment.map.get(key);
+            V newValue = oldValue == null ? value : mergeFunction.apply(oldValue, value);
+            if (newValue == null) {
+                remove(segment, key);
+                return null;
+            }
+
+            put(segment, key, newValue);
+            return newValue;
+        }
+    }
+
+    @Override
+    public int size() {
+        long size = 0;
+        for (Segment<V> segment : segments) {
+            size += segment.size;
+        }
+
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (Segment<V> segment : segments) {
+            if (segment.size != 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        for (Segment<V> segment : segments) {
+            synchronized (segment) {
+                segment.map.clear();
+                segment.updateSize();
+            }
+        }
+    }
+
+    @Override
+    public ObjectSet<Long2ObjectMap.Entry<V>> long2ObjectEntrySet() {
+        return new AbstractObjectSet<>() {
+            @Override
+            public ObjectIterator<Long2ObjectMap.Entry<V>> iterator() {
+                return new ObjectIterator<>() {
+                    private int segmentIndex = -1;
+                    private long[] keys = new long[0];
+                    private Object[] values = new Object[0];
+                    private int index;
+
+                    private long lastKey;
+                    private boolean canRemove;
+
+                    private boolean advance() {
+                        while (index == keys.length) {
+                            if (++segmentIndex == segments.length) {
+                                return false;
+                            }
+
+                            Segment<V> segment = segments[segmentIndex];
+                            synchronized (segment) {
+                                int size = segment.map.size();
+                                keys = new long[size];
+                                values = new Object[size];
+
+                                int i = 0;
+                                for (Long2ObjectMap.Entry<V> entry : segment.map.long2ObjectEntrySet()) {
+                                    keys[i] = entry.getLongKey();
+                                    values[i++] = entry.getValue();
+                                }
+                            }
+
+                            index = 0;
+                        }
+
+                        return true;
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        return advance();
+                    }
+
+                    @SuppressWarnings("unchecked")
+                    @Override
+                    public Long2ObjectMap.Entry<V> next() {
+                        if (!advance()) {
+                            throw new NoSuchElementException();
+                        }
+
+                        long key = keys[index];
+                        V value = (V) values[index++];
+                        lastKey = key;
+                        canRemove = true;
+                        return new BasicEntry<>(key, value) {
+                            @Override
+                            public V setValue(V value) {
+                                V old = this.value;
+                                StripedLong2ObjectMap.this.put(key, value);
+                                this.value = value;
+                                return old;
+                            }
+                        };
+                    }
+
+                    @Override
+                    public void remove() {
+                        if (!canRemove) {
+                            throw new IllegalStateException();
+                        }
+
+                        StripedLong2ObjectMap.this.remove(lastKey);
+                        canRemove = false;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return StripedLong2ObjectMap.this.size();
+            }
+
+            @Override
+            public void clear() {
+                StripedLong2ObjectMap.this.clear();
+            }
+        };
+    }
+}
@@ -0,0 +1,225 @@
+package com.github.steanky.vector;
+
+import it.unimi.dsi.fastutil.Hash;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.stream.IntStream;
+
+/**
+ * A thread-safe implementation of {@link Vec3I2ObjectMap} that divides its keys among a number of independently locked
+ * segments, in the manner of the original segmented {@link java.util.concurrent.ConcurrentHashMap}. Each segment is a
+ * {@link it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap}, so keys remain primitive and no node is allocated per
+ * entry.
+ * <p>
+ * Threads operating on keys in different segments never contend, so throughput scales with the number of threads for
+ * both reads and writes as long as there are enough segments. Every operation on a single key is atomic, including
+ * {@link StripedVec3I2ObjectMap#compute(int, int, int, Vec3IObjectBiFunction)},
+ * {@link StripedVec3I2ObjectMap#computeIfAbsent(int, int, int, Vec3IFunction)} and
+ * {@link StripedVec3I2ObjectMap#merge(int, int, int, Object, BiFunction)}; the functions passed to these methods are
+ * called while holding the segment lock, so they should be short and must not access other keys of this map.
+ * <p>
+ * Iteration is weakly consistent: each segment is copied while holding its lock, and its entries are then visited
+ * without holding any lock. {@link StripedVec3I2ObjectMap#parallelForEach(Vec3IObjectBiConsumer)} visits segments in
+ * parallel. Null values are not supported. See {@link BitPackingVec3I2ObjectMap} for details on how coordinates are
+ * packed.
+ *
+ * @param <T> the type of object stored in this map
+ */
+public class StripedVec3I2ObjectMap<T> extends BitPackingVec3I2ObjectMap<T> {
+    private final StripedLong2ObjectMap<T> stripedMap;
+
+    private StripedVec3I2ObjectMap(int x, int y, int z, int width, int height, int depth,
+            StripedLong2ObjectMap<T> stripedMap) {
+        super(x, y, z, width, height, depth, stripedMap);
+        this.stripedMap = stripedMap;
+    }
+
+    /**
+     * Creates a new {@link StripedVec3I2ObjectMap} with the given origin and bounds. See
+     * {@link BitPackingVec3I2ObjectMap} for more details.
+     *
+     * @param x                the x-origin
+     * @param y                the y-origin
+     * @param z                the z-origin
+     * @param width            the x-width
+     * @param height           the y-width
+     * @param depth            the z-width
+     * @param initialCapacity  the expected number of elements
+     * @param concurrencyLevel the expected number of concurrently updating threads; the number of segments is the
+     *                         smallest power of two at least this large
+     */
+    public StripedVec3I2ObjectMap(int x, int y, int z, int width, int height, int depth, int initialCapacity,
+            int concurrencyLevel) {
+        this(x, y, z, width, height, depth, new StripedLong2ObjectMap<>(initialCapacity, Hash.DEFAULT_LOAD_FACTOR,
+                concurrencyLevel));
+    }
+
+    /**
+     * Convenience overload that uses the given initial capacity, and a concurrency level of four times the number of
+     * available processors.
+     *
+     * @param x               the x-origin
+     * @param y               the y-origin
+     * @param z               the z-origin
+     * @param width           the x-width
+     * @param height          the y-width
+     * @param depth           the z-width
+     * @param initialCapacity the expected number of elements
+     */
+    public StripedVec3I2ObjectMap(int x, int y, int z, int width, int height, int depth, int initialCapacity) {
+        this(x, y, z, width, height, depth, initialCapacity, defaultConcurrencyLevel());
+    }
+
+    /**
+     * Convenience overload that uses the default initial size {@link Hash#DEFAULT_INITIAL_SIZE}, and a concurrency
+     * level of four times the number of available processors.
+     *
+     * @param x      the x-origin
+     * @param y      the y-origin
+     * @param z      the z-origin
+     * @param width  the x-width
+     * @param height the y-width
+     * @param depth  the z-width
+     */
+    public StripedVec3I2ObjectMap(int x, int y, int z, int width, int height, int depth) {
+        this(x, y, z, width, height, depth, Hash.DEFAULT_INITIAL_SIZE);
+    }
+
+    /**
+     * Convenience overload for
+     * {@link StripedVec3I2ObjectMap#StripedVec3I2ObjectMap(int, int, int, int, int, int, int, int)} that uses the origin
+     * and lengths from the provided bounds.
+     *
+     * @param bounds           the bounds which provides the origin and lengths
+     * @param initialCapacity  the expected number of elements
+     * @param concurrencyLevel the expected number of concurrently updating threads
+     */
+    public StripedVec3I2ObjectMap(@NotNull Bounds3I bounds, int initialCapacity, int concurrencyLevel) {
+        this(bounds.originX(), bounds.originY(), bounds.originZ(), bounds.lengthX(), bounds.lengthY(), bounds.lengthZ(),
+                initialCapacity, concurrencyLevel);
+    }
+
+    /**
+     * Convenience overload for {@link StripedVec3I2ObjectMap#StripedVec3I2ObjectMap(int, int, int, int, int, int)} that
+     * uses the origin and lengths from the provided bounds.
+     *
+     * @param bounds the bounds which provides the origin and lengths
+     */
+    public StripedVec3I2ObjectMap(@NotNull Bounds3I bounds) {
+        this(bounds.originX(), bounds.originY(), bounds.originZ(), bounds.lengthX(), bounds.lengthY(), bounds.lengthZ());
+    }
+
+    private static int defaultConcurrencyLevel() {
+        return Runtime.getRuntime().availableProcessors() << 2;
+    }
+
+    @Override
+    public T computeIfAbsent(int x, int y, int z, @NotNull Vec3IFunction<? extends T> mappingFunction) {
+        Objects.requireNonNull(mappingFunction);
+
+        long key = pack(x, y, z);
+        StripedLong2ObjectMap.Segment<T> segment = stripedMap.segment(key);
+        synchronized (segment) {
+            T value = StripedLong2ObjectMap.get(segment, key);
+            if (value != null) {
+                return value;
+            }
+
+            T newValue = mappingFunction.apply(x, y, z);
+            if (newValue != null) {
+                StripedLong2ObjectMap.put(segment, key, newValue);
+            }
+
+            return newValue;
+        }
+    }
+
+    @Override
+    public T computeIfPresent(int x, int y, int z,
+            @NotNull Vec3IObjectBiFunction<? super T, ? extends T> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+
+        long key = pack(x, y, z);
+        StripedLong2ObjectMap.Segment<T> segment = stripedMap.segment(key);
+        synchronized (segment) {
+            T oldValue = StripedLong2ObjectMap.get(segment, key);
+            if (oldValue == null) {
+                return null;
+            }
+
+            T newValue = remappingFunction.apply(x, y, z, oldValue);
+            if (newValue == null) {
+                StripedLong2ObjectMap.remove(segment, key);
+                return null;
+            }
+
+            StripedLong2ObjectMap.put(segment, key, newValue);
+            return newValue;
+        }
+    }
+
+    @Override
+    public T compute(int x, int y, int z, @NotNull Vec3IObjectBiFunction<? super T, ? extends T> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+
+        long key = pack(x, y, z);
+        StripedLong2ObjectMap.Segment<T> segment = stripedMap.segment(key);
+        synchronized (segment) {
+            T oldValue = StripedLong2ObjectMap.get(segment, key);
+            T newValue = remappingFunction.apply(x, y, z, oldValue);
+            if (newValue == null) {
+                if (oldValue != null) {
+                    StripedLong2ObjectMap.remove(segment, key);
+                }
+
+                return null;
+            }
+
+            StripedLong2ObjectMap.put(segment, key, newValue);
+            return newValue;
+        }
+    }
+
+    @Override
+    public T merge(int x, int y, int z, @NotNull T value,
+            @NotNull BiFunction<? super T, ? super T, ? extends T> mergeFunction) {
+        Objects.requireNonNull(value);
+        Objects.requireNonNull(mergeFunction);
+
+        long key = pack(x, y, z);
+        StripedLong2ObjectMap.Segment<T> segment = stripedMap.segment(key);
+        synchronized (segment) {
+            T oldValue = StripedLong2ObjectMap.get(segment, key);
+            T newValue = oldValue == null ? value : mergeFunction.apply(oldValue, value);
+            if (newValue == null) {
+                StripedLong2ObjectMap.remove(segment, key);
+                return null;
+            }
+
+            StripedLong2ObjectMap.put(segment, key, newValue);
+            return newValue;
+        }
+    }
+
+    @Override
+    public void forEach(@NotNull Vec3IObjectBiConsumer<? super T> consumer) {
+        Objects.requireNonNull(consumer);
+        stripedMap.forEachEntry((key, value) -> consumer.accept(x(key), y(key), z(key), value));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation visits segments in parallel. Like
+     * {@link StripedVec3I2ObjectMap#forEach(Vec3IObjectBiConsumer)}, it is weakly consistent, and the map may be
+     * modified concurrently.
+     */
+    @Override
+    public void parallelForEach(@NotNull Vec3IObjectBiConsumer<? super T> consumer) {
+        Objects.requireNonNull(consumer);
+        IntStream.range(0, stripedMap.segmentCount()).parallel().forEach(i -> stripedMap.forEachEntry(i,
+                (key, value) -> consumer.accept(x(key), y(key), z(key), value)));
+    }
+}
@@ -0,0 +1,432 @@
+package com.github.steanky.vector;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A {@link Vec3I2ObjectMap} which keeps its entries sorted by packed key. Entries are stored in a B+-tree, so iteration
+ * visits them in order without sorting, and the nearest entries to a coordinate can be found in logarithmic time.
+ * <p>
+ * With the default key layout {@link KeyLayout#XYZ}, the order of packed keys is the same as the order given by
+ * {@link Vec3I#compareTo(Vec3I)}, for all coordinates within the addressable space of the map. Other axis-order layouts
+ * sort by their own order of axes, and {@link KeyLayout#MORTON} sorts along a Z-order curve.
+ * <p>
+ * Region queries such as {@link TreeVec3I2ObjectMap#forEachIn(Bounds3I, Vec3IObjectBiConsumer)} search the tree
+ * directly: whenever the scan reaches a key outside the region, it jumps to the next key which could be inside of it,
+ * using the BIGMIN computation of Tropf and Herzog. This works with any layout, but is most effective with
+ * {@link KeyLayout#MORTON}, under which a box is covered by few, long runs of keys.
+ * <p>
+ * {@link TreeVec3I2ObjectMap#subMap(int, int, int, int, int, int)}, {@link TreeVec3I2ObjectMap#headMap(int, int, int)}
+ * and {@link TreeVec3I2ObjectMap#tailMap(int, int, int)} return views of a range of keys, which write through to this
+ * map. Putting a coordinate outside the range of a view throws an {@link IllegalArgumentException}. The size of a view
+ * is computed by counting its entries.
+ * <p>
+ * This class is not thread-safe, and null values are not supported. See {@link BitPackingVec3I2ObjectMap} for details
+ * on how coordinates are packed.
+ *
+ * @param <T> the type of object stored in this map
+ */
+public class TreeVec3I2ObjectMap<T> extends BitPackingVec3I2ObjectMap<T> {
+    private final BTreeLong2ObjectMap<T> treeMap;
+
+    private final int x;
+    private final int y;
+    private final int z;
+    private final int width;
+    private final int height;
+    private final int depth;
+
+    private TreeVec3I2ObjectMap(int x, int y, int z, int width, int height, int depth, KeyLayout layout,
+            BTreeLong2ObjectMap<T> treeMap) {
+        super(x, y, z, width, height, depth, layout, treeMap);
+        this.treeMap = treeMap;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.width = width;
+        this.height = height;
+        this.depth = depth;
+    }
+
+    /**
+     * Creates a new, empty {@link TreeVec3I2ObjectMap} with the given origin, bounds and key layout. See
+     * {@link BitPackingVec3I2ObjectMap} for more details.
+     *
+     * @param x      the x-origin
+     * @param y      the y-origin
+     * @param z      the z-origin
+     * @param width  the x-width
+     * @param height the y-width
+     * @param depth  the z-width
+     * @param layout the arrangement of coordinate bits within packed keys, which determines the order of entries
+     */
+    public TreeVec3I2ObjectMap(int x, int y, int z, int width, int height, int depth, @NotNull KeyLayout layout) {
+        this(x, y, z, width, height, depth, Objects.requireNonNull(layout), new BTreeLong2ObjectMap<>());
+    }
+
+    /**
+     * Convenience overload that uses the default key layout {@link KeyLayout#XYZ}.
+     *
+     * @param x      the x-origin
+     * @param y      the y-origin
+     * @param z      the z-origin
+     * @param width  the x-width
+     * @param height the y-width
+     * @param depth  the z-width
+     */
+    public TreeVec3I2ObjectMap(int x, int y, int z, int width, int height, int depth) {
+        this(x, y, z, width, height, depth, KeyLayout.XYZ);
+    }
+
+    /**
+     * Convenience overload for
+     * {@link TreeVec3I2ObjectMap#TreeVec3I2ObjectMap(int, int, int, int, int, int, KeyLayout)} that uses the origin
+     * and lengths from the provided bounds.
+     *
+     * @param bounds the bounds which provides the origin and lengths
+     * @param layout the arrangement of coordinate bits within packed keys, which determines the order of entries
+     */
+    public TreeVec3I2ObjectMap(@NotNull Bounds3I bounds, @NotNull KeyLayout layout) {
+        this(bounds.originX(), bounds.originY(), bounds.originZ(), bounds.lengthX(), bounds.lengthY(), bounds.lengthZ(),
+                layout);
+    }
+
+    /**
+     * Convenience overload for {@link TreeVec3I2ObjectMap#TreeVec3I2ObjectMap(int, int, int, int, int, int)} that uses
+     * the origin and lengths from the provided bounds.
+     *
+     * @param bounds the bounds which provides the origin and lengths
+     */
+    public TreeVec3I2ObjectMap(@NotNull Bounds3I bounds) {
+        this(bounds, KeyLayout.XYZ);
+    }
+
+    private TreeVec3I2ObjectMap<T> view(BTreeLong2ObjectMap<T> range) {
+        return new TreeVec3I2ObjectMap<>(x, y, z, width, height, depth, keyLayout(), range);
+    }
+
+    private Map.Entry<Vec3I, T> entry(Long2ObjectMap.Entry<T> entry) {
+        return entry == null ? null : new AbstractMap.SimpleImmutableEntry<>(unpack(entry.getLongKey()),
+                entry.getValue());
+    }
+
+    private Vec3I key(Long2ObjectMap.Entry<T> entry) {
+        return entry == null ? null : unpack(entry.getLongKey());
+    }
+
+    /**
+     * Creates a view of the entries from the first coordinate, inclusive, to the second, exclusive, in the order of
+     * this map.
+     *
+     * @param fromX the x-coordinate of the lower bound
+     * @param fromY the y-coordinate of the lower bound
+     * @param fromZ the z-coordinate of the lower bound
+     * @param toX   the x-coordinate of the upper bound
+     * @param toY   the y-coordinate of the upper bound
+     * @param toZ   the z-coordinate of the upper bound
+     * @return a view of the range, which writes through to this map
+     * @throws IllegalArgumentException if the lower bound comes after the upper bound
+     */
+    public @NotNull TreeVec3I2ObjectMap<T> subMap(int fromX, int fromY, int fromZ, int toX, int toY, int toZ) {
+        return view(treeMap.subMap(pack(fromX, fromY, fromZ), pack(toX, toY, toZ)));
+    }
+
+    /**
+     * Creates a view of the entries before the given coordinate, in the order of this map.
+     *
+     * @param toX the x-coordinate of the upper bound, exclusive
+     * @param toY the y-coordinate of the upper bound, exclusive
+     * @param toZ the z-coordinate of the upper bound, exclusive
+     * @return a view of the range, which writes through to this map
+     */
+    public @NotNull TreeVec3I2ObjectMap<T> headMap(int toX, int toY, int toZ) {
+        return view(treeMap.headMap(pack(toX, toY, toZ)));
+    }
+
+    /**
+     * Creates a view of the entries at or after the given coordinate, in the order of this map.
+     *
+     * @param fromX the x-coordinate of the lower bound, inclusive
+     * @param fromY the y-coordinate of the lower bound, inclusive
+     * @param fromZ the z-coordinate of the lower bound, inclusive
+     * @return a view of the range, which writes through to this map
+     */
+    public @NotNull TreeVec3I2ObjectMap<T> tailMap(int fromX, int fromY, int fromZ) {
+        return view(treeMap.tailMap(pack(fromX, fromY, fromZ)));
+    }
+
+    /**
+     * Gets the first entry of this map.
+     *
+     * @return an immutable copy of the first entry, or null if this map is empty
+     */
+    public Map.Entry<Vec3I, T> firstEntry() {
+        return entry(treeMap.firstEntry());
+    }
+
+    /**
+     * Gets the last entry of this map.
+     *
+     * @return an immutable copy of the last entry, or null if this map is empty
+     */
+    public Map.Entry<Vec3I, T> lastEntry() {
+        return entry(treeMap.lastEntry());
+    }
+
+    /**
+     * Gets the first entry at or after the given coordinate.
+     *
+     * @param x the x-coordinate
+     * @param y the y-coordinate
+     * @param z the z-coordinate
+     * @return an immutable copy of the entry, or null if there is none
+     */
+    public Map.Entry<Vec3I, T> ceilingEntry(int x, int y, int z) {
+        return entry(treeMap.ceilingEntry(pack(x, y, z)));
+    }
+
+    /**
+     * Gets the last entry at or before the given coordinate.
+     *
+     * @param x the x-coordinate
+     * @param y the y-coordinate
+     * @param z the z-coordinate
+     * @return an immutable copy of the entry, or null if there is none
+     */
+    public Map.Entry<Vec3I, T> floorEntry(int x, int y, int z) {
+        return entry(treeMap.floorEntry(pack(x, y, z)));
+    }
+
+    /**
+     * Gets the first entry strictly after the given coordinate.
+     *
+     * @param x the x-coordinate
+     * @param y the y-coordinate
+     * @param z the z-coordinate
+     * @return an immutable copy of the entry, or null if there is none
+     */
+    public Map.Entry<Vec3I, T> higherEntry(int x, int y, int z) {
+        return entry(treeMap.higherEntry(pack(x, y, z)));
+    }
+
+    /**
+     * Gets the last entry strictly before the given coordinate.
+     *
+     * @param x the x-coordinate
+     * @param y the y-coordinate
+     * @param z the z-coordinate
+     * @return an immutable copy of the entry, or null if there is none
+     */
+    public Map.Entry<Vec3I, T> lowerEntry(int x, int y, int z) {
+        return entry(treeMap.lowerEntry(pack(x, y, z)));
+    }
+
+    /**
+     * Gets the first coordinate at or after the given coordinate which has a value.
+     *
+     * @param x the x-coordinate
+     * @param y the y-coordinate
+     * @param z the z-coordinate
+     * @return the immutable coordinate, or null if there is none
+     */
+    public Vec3I ceilingKey(int x, int y, int z) {
+        return key(treeMap.ceilingEntry(pack(x, y, z)));
+    }
+
+    /**
+     * Gets the last coordinate at or before the given coordinate which has a value.
+     *
+     * @param x the x-coordinate
+     * @param y the y-coordinate
+     * @param z the z-coordinate
+     * @return the immutable coordinate, or null if there is none
+     */
+    public Vec3I floorKey(int x, int y, int z) {
+        return key(treeMap.floorEntry(pack(x, y, z)));
+    }
+
+    /*
+    The keys of a region clipped to the addressable space, and the key bits of each axis. The bits of one axis appear
+    in the same order in every layout, so masking a key with the bits of an axis preserves the order of that axis.
+     */
+    private final class Box {
+        private final long min;
+        private final long max;
+        private final long bitsX;
+        private final long bitsY;
+        private final long bitsZ;
+        private final boolean empty;
+
+        private Box(Bounds3I bounds) {
+            long minX = Math.max(bounds.originX(), originX());
+            long minY = Math.max(bounds.originY(), originY());
+            long minZ = Math.max(bounds.originZ(), originZ());
+            long maxX = Math.min((long) bounds.originX() + bounds.lengthX(), originX() + width());
+            long maxY = Math.min((long) bounds.originY() + bounds.lengthY(), originY() + height());
+            long maxZ = Math.min((long) bounds.originZ() + bounds.lengthZ(), originZ() + depth());
+
+            this.empty = maxX <= minX || maxY <= minY || maxZ <= minZ;
+            this.min = pack((int) minX, (int) minY, (int) minZ);
+            this.max = pack((int) (maxX - 1), (int) (maxY - 1), (int) (maxZ - 1));
+
+            //one less than the origin wraps to the highest relative coordinate, which sets every bit of the axis
+            this.bitsX = pack(originX() - 1, originY(), originZ());
+            this.bitsY = pack(originX(), originY() - 1, originZ());
+            this.bitsZ = pack(originX(), originY(), originZ() - 1);
+        }
+
+        private boolean contains(long key) {
+            return within(key, bitsX) && within(key, bitsY) && within(key, bitsZ);
+        }
+
+        private boolean within(long key, long bits) {
+            long value = key & bits;
+            return Long.compareUnsigned(value, min & bits) >= 0 && Long.compareUnsigned(value, max & bits) <= 0;
+        }
+
+        private boolean pastEnd(long key) {
+            return Long.compareUnsigned(key, max) > 0;
+        }
+
+        /*
+        Computes the least key greater than the given key which lies inside the box, given that the key lies between
+        min and max but outside the box. The bits are visited from most to least significant, narrowing min and max to
+        the half of the box which can still contain the result.
+         */
+        private long bigMin(long key) {
+            long low = min;
+            long high = max;
+            long result = 0;
+            for (long bit = Long.MIN_VALUE; bit != 0; bit >>>= 1) {
+                long axis = (bitsX & bit) != 0 ? bitsX : (bitsY & bit) != 0 ? bitsY : bitsZ;
+                if ((axis & bit) == 0) {
+                    continue;
+                }
+
+                //the bits of the same axis below the current one, and the current bit
+                long below = axis & (bit - 1);
+                long clear = ~(below | bit);
+
+                boolean keyBit = (key & bit) != 0;
+                boolean lowBit = (low & bit) != 0;
+                boolean highBit = (high & bit) != 0;
+                if (!keyBit) {
+                    if (lowBit) {
+                        return low;
+                    }
+
+                    if (highBit) {
+                        result = (low & clear) | bit;
+                        high = (high & clear) | below;
+                    }
+                }
+                else if (!highBit) {
+                    return result;
+                }
+                else if (!lowBit) {
+                    low = (low & clear) | bit;
+                }
+            }
+
+            return result;
+        }
+    }
+
+    @Override
+    public void forEachIn(@NotNull Bounds3I bounds, @NotNull Vec3IObjectBiConsumer<? super T> consumer) {
+        Objects.requireNonNull(consumer);
+        Box box = new Box(bounds);
+        if (box.empty) {
+            return;
+        }
+
+        BTreeLong2ObjectMap<T>.Cursor cursor = treeMap.cursor();
+        boolean valid = cursor.seek(box.min);
+        while (valid) {
+            long key = cursor.key();
+            if (box.pastEnd(key)) {
+                return;
+            }
+
+            if (box.contains(key)) {
+                consumer.accept(x(key), y(key), z(key), cursor.value());
+                valid = cursor.next();
+            }
+            else {
+                valid = cursor.seek(box.bigMin(key));
+            }
+        }
+    }
+
+    @Override
+    public boolean removeIf(@NotNull Bounds3I bounds, @NotNull Vec3IObjectBiPredicate<? super T> predicate) {
+        Objects.requireNonNull(predicate);
+        Box box = new Box(bounds);
+        if (box.empty) {
+            return false;
+        }
+
+        boolean removed = false;
+        BTreeLong2ObjectMap<T>.Cursor cursor = treeMap.cursor();
+        boolean valid = cursor.seek(box.min);
+        while (valid) {
+            long key = cursor.key();
+            if (box.pastEnd(key)) {
+                break;
+            }
+
+            if (!box.contains(key)) {
+                valid = cursor.seek(box.bigMin(key));
+            }
+            else if (predicate.test(x(key), y(key), z(key), cursor.value())) {
+                //removal may restructure the tree, so the cursor is moved to the next key from scratch
+                treeMap.remove(key);
+                removed = true;
+                valid = cursor.seek(key);
+            }
+            else {
+                valid = cursor.next();
+            }
+        }
+
+        return removed;
+    }
+
+    @Override
+    public int countIn(@NotNull Bounds3I bounds) {
+        Box box = new Box(bounds);
+        if (box.empty) {
+            return 0;
+        }
+
+        int count = 0;
+        BTreeLong2ObjectMap<T>.Cursor cursor = treeMap.cursor();
+        boolean valid = cursor.seek(box.min);
+        while (valid) {
+            long key = cursor.key();
+            if (box.pastEnd(key)) {
+                break;
+            }
+
+            if (box.contains(key)) {
+                count++;
+                valid = cursor.next();
+            }
+            else {
+                valid = cursor.seek(box.bigMin(key));
+            }
+        }
+
+        return count;
+    }
+
+    @Override
+    public void forEach(@NotNull Vec3IObjectBiConsumer<? super T> consumer) {
+        Objects.requireNonNull(consumer);
+        treeMap.forEachEntry((key, value) -> consumer.accept(x(key), y(key), z(key), value));
+    }
+}
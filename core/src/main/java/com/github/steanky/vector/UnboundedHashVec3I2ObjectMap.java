@@ -0,0 +1,714 @@
+package com.github.steanky.vector;
+
+import it.unimi.dsi.fastutil.Hash;
+import it.unimi.dsi.fastutil.HashCommon;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.function.BiFunction;
+
+/**
+ * Implementation of {@link Vec3I2ObjectMap} that accepts the full range of integers on every axis. Unlike
+ * {@link BitPackingVec3I2ObjectMap}, coordinates are never wrapped, so distinct keys never alias each other and no
+ * bounds need to be known in advance. Null values are not supported.
+ * <p>
+ * This map uses open addressing with linear probing. Each slot stores its key as three consecutive entries in a
+ * single {@code int} array, alongside a parallel array of values; an empty slot is indicated by a null value. Lookups
+ * and insertions take expected constant time and do not allocate. Compared to a {@link HashMap} of {@link Vec3I} keys,
+ * this avoids both the per-entry node and the key object, at the cost of 12 bytes of key storage per slot.
+ *
+ * @param <T> the type of object held in the map
+ */
+public class UnboundedHashVec3I2ObjectMap<T> extends AbstractVec3I2ObjectMap<T> {
+    private final float loadFactor;
+    private final int minN;
+
+    private int[] keys;
+    private Object[] values;
+    private int mask;
+    private int maxFill;
+    private int size;
+
+    /**
+     * Creates a new {@link UnboundedHashVec3I2ObjectMap} with the given initial capacity and load factor.
+     *
+     * @param initialCapacity the expected number of elements
+     * @param loadFactor      the load factor
+     */
+    public UnboundedHashVec3I2ObjectMap(int initialCapacity, float loadFactor) {
+        if (loadFactor <= 0 || loadFactor >= 1) {
+            throw new IllegalArgumentException("Load factor must be greater than 0 and smaller than 1");
+        }
+
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("The expected number of elements must be nonnegative");
+        }
+
+        this.loadFactor = loadFactor;
+
+        int n = HashCommon.arraySize(initialCapacity, loadFactor);
+        this.minN = n;
+        allocate(n);
+    }
+
+    /**
+     * Convenience overload that uses the default load factor {@link Hash#DEFAULT_LOAD_FACTOR}.
+     *
+     * @param initialCapacity the expected number of elements
+     */
+    public UnboundedHashVec3I2ObjectMap(int initialCapacity) {
+        this(initialCapacity, Hash.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Convenience overload that uses the default initial size {@link Hash#DEFAULT_INITIAL_SIZE} and default load factor
+     * {@link Hash#DEFAULT_LOAD_FACTOR}.
+     */
+    public UnboundedHashVec3I2ObjectMap() {
+        this(Hash.DEFAULT_INITIAL_SIZE, Hash.DEFAULT_LOAD_FACTOR);
+    }
+
+    private void allocate(int n) {
+        //three keys are stored per slot, so the key array overflows before the value array does
+        if (n > Integer.MAX_VALUE / 3) {
+            throw new IllegalArgumentException("Too many elements for an UnboundedHashVec3I2ObjectMap");
+        }
+
+        this.keys = new int[n * 3];
+        this.values = new Object[n];
+        this.mask = n - 1;
+        this.maxFill = HashCommon.maxFill(n, loadFactor);
+    }
+
+    //mixes all 96 bits of the key, so that dense regions do not collide before mixing
+    private static int hash(int x, int y, int z) {
+        return (int) HashCommon.mix(((long) x << 32 | (y & 0xFFFFFFFFL)) ^ (z * 0x9E3779B97F4A7C15L));
+    }
+
+    private int find(int x, int y, int z) {
+        int pos = hash(x, y, z) & mask;
+        while (values[pos] != null) {
+            int k = pos * 3;
+            if (keys[k] == x && keys[k + 1] == y && keys[k + 2] == z) {
+                return pos;
+            }
+
+            pos = (pos + 1) & mask;
+        }
+
+        return -(pos + 1);
+    }
+
+    private void insert(int pos, int x, int y, int z, Object value) {
+        int k = pos * 3;
+        keys[k] = x;
+        keys[k + 1] = y;
+        keys[k + 2] = z;
+        values[pos] = value;
+
+        if (size++ >= maxFill) {
+            rehash(HashCommon.arraySize(size + 1, loadFactor));
+        }
+    }
+
+    private void rehash(int newN) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(newN);
+
+        for (int i = 0; i < oldValues.length; i++) {
+            Object value = oldValues[i];
+            if (value == null) {
+                continue;
+            }
+
+            int k = i * 3;
+            int x = oldKeys[k];
+            int y = oldKeys[k + 1];
+            int z = oldKeys[k + 2];
+
+            int pos = hash(x, y, z) & mask;
+            while (values[pos] != null) {
+                pos = (pos + 1) & mask;
+            }
+
+            int newK = pos * 3;
+            keys[newK] = x;
+            keys[newK + 1] = y;
+            keys[newK + 2] = z;
+            values[pos] = value;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T removeAt(int pos) {
+        Object old = values[pos];
+        size--;
+        shiftKeys(pos, null);
+        return (T) old;
+    }
+
+    /*
+    Backward-shift deletion: entries following the removed slot are moved back so that no probe sequence is broken.
+    If a cursor is given, entries which are moved from the start of the table into a slot it has already passed are
+    reported to it, so they are not skipped.
+     */
+    private void shiftKeys(int pos, MapCursor cursor) {
+        int last;
+        while (true) {
+            pos = ((last = pos) + 1) & mask;
+
+            Object value;
+            int k;
+            while (true) {
+                if ((value = values[pos]) == null) {
+                    values[last] = null;
+                    return;
+                }
+
+                k = pos * 3;
+                int slot = hash(keys[k], keys[k + 1], keys[k + 2]) & mask;
+                if (last <= pos ? last >= slot || slot > pos : last >= slot && slot > pos) {
+                    break;
+                }
+
+                pos = (pos + 1) & mask;
+            }
+
+            if (cursor != null && pos < last) {
+                cursor.wrapped(keys[k], keys[k + 1], keys[k + 2]);
+            }
+
+            int lastK = last * 3;
+            keys[lastK] = keys[k];
+            keys[lastK + 1] = keys[k + 1];
+            keys[lastK + 2] = keys[k + 2];
+            values[last] = value;
+        }
+    }
+
+    /**
+     * Shrinks the backing arrays to the smallest size that can hold the current elements, without going below the
+     * initial capacity.
+     */
+    public void trim() {
+        int n = Math.max(minN, HashCommon.arraySize(size, loadFactor));
+        if (n < values.length) {
+            rehash(n);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T get(int x, int y, int z) {
+        int pos = find(x, y, z);
+        return pos < 0 ? null : (T) values[pos];
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T put(int x, int y, int z, @NotNull T value) {
+        Objects.requireNonNull(value);
+
+        int pos = find(x, y, z);
+        if (pos < 0) {
+            insert(-pos - 1, x, y, z, value);
+            return null;
+        }
+
+        Object old = values[pos];
+        values[pos] = value;
+        return (T) old;
+    }
+
+    @Override
+    public T remove(int x, int y, int z) {
+        int pos = find(x, y, z);
+        return pos < 0 ? null : removeAt(pos);
+    }
+
+    @Override
+    public boolean remove(int x, int y, int z, Object value) {
+        if (value == null) {
+            return false;
+        }
+
+        int pos = find(x, y, z);
+        if (pos >= 0 && value.equals(values[pos])) {
+            removeAt(pos);
+            return true;
+        }
+
+        return false;
+    }
+
+    @Override
+    public boolean containsKey(int x, int y, int z) {
+        return find(x, y, z) >= 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T computeIfAbsent(int x, int y, int z, @NotNull Vec3IFunction<? extends T> mappingFunction) {
+        Objects.requireNonNull(mappingFunction);
+
+        int pos = find(x, y, z);
+        if (pos >= 0) {
+            return (T) values[pos];
+        }
+
+        T functionResult = mappingFunction.apply(x, y, z);
+        if (functionResult == null) {
+            return null;
+        }
+
+        insert(-pos - 1, x, y, z, functionResult);
+        return functionResult;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T computeIfPresent(int x, int y, int z,
+            @NotNull Vec3IObjectBiFunction<? super T, ? extends T> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+
+        int pos = find(x, y, z);
+        if (pos < 0) {
+            return null;
+        }
+
+        T newValue = remappingFunction.apply(x, y, z, (T) values[pos]);
+        if (newValue == null) {
+            removeAt(pos);
+            return null;
+        }
+
+        values[pos] = newValue;
+        return newValue;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T compute(int x, int y, int z, @NotNull Vec3IObjectBiFunction<? super T, ? extends T> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+
+        int pos = find(x, y, z);
+        T newValue = remappingFunction.apply(x, y, z, pos < 0 ? null : (T) values[pos]);
+        if (newValue == null) {
+            if (pos >= 0) {
+                removeAt(pos);
+            }
+
+            return null;
+        }
+
+        if (pos < 0) {
+            insert(-pos - 1, x, y, z, newValue);
+        }
+        else {
+            values[pos] = newValue;
+        }
+
+        return newValue;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T putIfAbsent(int x, int y, int z, @NotNull T value) {
+        Objects.requireNonNull(value);
+
+        int pos = find(x, y, z);
+        if (pos < 0) {
+            insert(-pos - 1, x, y, z, value);
+            return null;
+        }
+
+        return (T) values[pos];
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void putAll(@NotNull Map<? extends Vec3I, ? extends T> map) {
+        if (map instanceof Vec3I2ObjectMap<?> other) {
+            putAll((Vec3I2ObjectMap<? extends T>) other);
+        }
+        else {
+            super.putAll(map);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation grows the table at most once, to fit every value in the arrays.
+     */
+    @Override
+    public void putAll(int @NotNull [] xs, int @NotNull [] ys, int @NotNull [] zs, T @NotNull [] values) {
+        BulkLong2ObjectView.checkLength(xs.length, values.length);
+        BulkLong2ObjectView.checkLength(ys.length, values.length);
+        BulkLong2ObjectView.checkLength(zs.length, values.length);
+
+        int n = HashCommon.arraySize((int) Math.min((long) size + values.length, 1 << 30), loadFactor);
+        if (n > this.values.length) {
+            rehash(n);
+        }
+
+        for (int i = 0; i < values.length; i++) {
+            put(xs[i], ys[i], zs[i], values[i]);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T replace(int x, int y, int z, @NotNull T value) {
+        Objects.requireNonNull(value);
+
+        int pos = find(x, y, z);
+        if (pos < 0) {
+            return null;
+        }
+
+        Object old = values[pos];
+        values[pos] = value;
+        return (T) old;
+    }
+
+    @Override
+    public boolean replace(int x, int y, int z, T oldValue, @NotNull T newValue) {
+        Objects.requireNonNull(newValue);
+        if (oldValue == null) {
+            return false;
+        }
+
+        int pos = find(x, y, z);
+        if (pos >= 0 && oldValue.equals(values[pos])) {
+            values[pos] = newValue;
+            return true;
+        }
+
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void replaceAll(@NotNull Vec3IObjectBiFunction<? super T, ? extends T> function) {
+        Objects.requireNonNull(function);
+
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            if (value != null) {
+                int k = i * 3;
+                values[i] = Objects.requireNonNull(function.apply(keys[k], keys[k + 1], keys[k + 2], (T) value));
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T getOrDefault(int x, int y, int z, T def) {
+        int pos = find(x, y, z);
+        return pos < 0 ? def : (T) values[pos];
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T merge(int x, int y, int z, @NotNull T value,
+            @NotNull BiFunction<? super T, ? super T, ? extends T> mergeFunction) {
+        Objects.requireNonNull(value);
+        Objects.requireNonNull(mergeFunction);
+
+        int pos = find(x, y, z);
+        if (pos < 0) {
+            insert(-pos - 1, x, y, z, value);
+            return value;
+        }
+
+        T newValue = mergeFunction.apply((T) values[pos], value);
+        if (newValue == null) {
+            removeAt(pos);
+            return null;
+        }
+
+        values[pos] = newValue;
+        return newValue;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void forEach(@NotNull Vec3IObjectBiConsumer<? super T> consumer) {
+        Objects.requireNonNull(consumer);
+
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            if (value != null) {
+                int k = i * 3;
+                consumer.accept(keys[k], keys[k + 1], keys[k + 2], (T) value);
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        if (value == null) {
+            return false;
+        }
+
+        for (Object v : values) {
+            if (value.equals(v)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public void clear() {
+        if (size == 0) {
+            return;
+        }
+
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /*
+    Iterates the table backwards, so that entries moved by backward-shift deletion are only ever moved into slots that
+    have already been visited. Entries that wrap around from the start of the table are collected separately.
+     */
+    private final class MapCursor implements Vec3IObjectCursor<T> {
+        private int pos = values.length;
+        private int remaining = size;
+
+        //slot of the current entry, or -1 if it is a wrapped entry or has been removed
+        private int last = -1;
+        private boolean current;
+
+        private int x;
+        private int y;
+        private int z;
+
+        private List<Vec3I> wrapped;
+        private int wrappedIndex;
+
+        private void wrapped(int x, int y, int z) {
+            if (wrapped == null) {
+                wrapped = new ArrayList<>(2);
+            }
+
+            wrapped.add(Vec3I.immutable(x, y, z));
+        }
+
+        private boolean hasNext() {
+            return remaining != 0;
+        }
+
+        @Override
+        public boolean next() {
+            if (remaining == 0) {
+                current = false;
+                return false;
+            }
+
+            remaining--;
+            current = true;
+            while (--pos >= 0) {
+                if (values[pos] != null) {
+                    last = pos;
+
+                    int k = pos * 3;
+                    x = keys[k];
+                    y = keys[k + 1];
+                    z = keys[k + 2];
+                    return true;
+                }
+            }
+
+            last = -1;
+            Vec3I key = wrapped.get(wrappedIndex++);
+            x = key.x();
+            y = key.y();
+            z = key.z();
+            return true;
+        }
+
+        @Override
+        public int x() {
+            return x;
+        }
+
+        @Override
+        public int y() {
+            return y;
+        }
+
+        @Override
+        public int z() {
+            return z;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T value() {
+            return last == -1 ? get(x, y, z) : (T) values[last];
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T setValue(T value) {
+            Objects.requireNonNull(value);
+            if (last == -1) {
+                return replace(x, y, z, value);
+            }
+
+            T old = (T) values[last];
+            values[last] = value;
+            return old;
+        }
+
+        @Override
+        public void remove() {
+            if (!current) {
+                throw new IllegalStateException();
+            }
+
+            current = false;
+            if (last == -1) {
+                UnboundedHashVec3I2ObjectMap.this.remove(x, y, z);
+                return;
+            }
+
+            size--;
+            shiftKeys(last, this);
+            last = -1;
+        }
+    }
+
+    private final class Slots implements SlotTable<T> {
+        @Override
+        public long slotCount() {
+            return values.length;
+        }
+
+        @Override
+        public int alignment() {
+            return 1;
+        }
+
+        @Override
+        public long nextOccupied(long from, long to) {
+            for (int i = (int) from; i < to; i++) {
+                if (values[i] != null) {
+                    return i;
+                }
+            }
+
+            return -1;
+        }
+
+        @Override
+        public int x(long slot) {
+            return keys[(int) slot * 3];
+        }
+
+        @Override
+        public int y(long slot) {
+            return keys[(int) slot * 3 + 1];
+        }
+
+        @Override
+        public int z(long slot) {
+            return keys[(int) slot * 3 + 2];
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T value(long slot) {
+            return (T) values[(int) slot];
+        }
+
+        @Override
+        public long count(long from, long to) {
+            return -1;
+        }
+
+        @Override
+        public boolean countsRanges() {
+            return false;
+        }
+    }
+
+    @Override
+    public void parallelForEach(@NotNull Vec3IObjectBiConsumer<? super T> consumer) {
+        Objects.requireNonNull(consumer);
+        new Slots().parallelForEach(consumer);
+    }
+
+    @Override
+    public @NotNull Vec3IObjectCursor<T> cursor() {
+        return new MapCursor();
+    }
+
+    @NotNull
+    @Override
+    public Set<Entry<Vec3I, T>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<Vec3I, T>> iterator() {
+                MapCursor cursor = new MapCursor();
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return cursor.hasNext();
+                    }
+
+                    @Override
+                    public Entry<Vec3I, T> next() {
+                        if (!cursor.next()) {
+                            throw new NoSuchElementException();
+                        }
+
+                        Vec3I key = Vec3I.immutable(cursor.x(), cursor.y(), cursor.z());
+                        return new AbstractMap.SimpleEntry<>(key, cursor.value()) {
+                            @Override
+                            public T setValue(T value) {
+                                super.setValue(value);
+                                return put(key, value);
+                            }
+                        };
+                    }
+
+                    @Override
+                    public void remove() {
+                        cursor.remove();
+                    }
+                };
+            }
+
+            @Override
+            public Spliterator<Entry<Vec3I, T>> spliterator() {
+                return new Slots().spliterator(size);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public void clear() {
+                UnboundedHashVec3I2ObjectMap.this.clear();
+            }
+        };
+    }
+}
@@ -0,0 +1,153 @@
+package com.github.steanky.vector;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A map of integer-vector keys to primitive {@code long} values. Unlike a {@link Vec3I2ObjectMap} of boxed values,
+ * implementations of this interface do not need to allocate an object for each value stored in or retrieved from the
+ * map.
+ * <p>
+ * Operations which would return a value that does not exist instead return the map's <i>default return value</i>,
+ * which is {@code 0} unless otherwise specified using {@link Vec3I2LongMap#defaultReturnValue(long)}.
+ * <p>
+ * Implementations may disallow any number of specific coordinates for use as keys, for example as part of a size
+ * limitation scheme or due to restrictions inherent in their design.
+ *
+ * @see Vec3I2ObjectMap
+ */
+public interface Vec3I2LongMap {
+    /**
+     * Gets the value at a specific coordinate.
+     *
+     * @param x the x-coordinate
+     * @param y the y-coordinate
+     * @param z the z-coordinate
+     *
+     * @return the value at the coordinate, or the default return value if there is none
+     */
+    long get(int x, int y, int z);
+
+    /**
+     * Gets the value at the coordinate if it is present; otherwise returns the given default value.
+     *
+     * @param x   the x-coordinate
+     * @param y   the y-coordinate
+     * @param z   the z-coordinate
+     * @param def the default value
+     *
+     * @return the value present at the coordinate if it exists; else the default value
+     */
+    long getOrDefault(int x, int y, int z, long def);
+
+    /**
+     * Puts a value at a specific coordinate and returns the old value.
+     *
+     * @param x     the x-coordinate
+     * @param y     the y-coordinate
+     * @param z     the z-coordinate
+     * @param value the value to put in the map
+     *
+     * @return the value previously located at the coordinate, or the default return value if there was none
+     */
+    long put(int x, int y, int z, long value);
+
+    /**
+     * Removes a value from the map.
+     *
+     * @param x the x-coordinate
+     * @param y the y-coordinate
+     * @param z the z-coordinate
+     *
+     * @return the value previously located at the coordinate, or the default return value if there was none
+     */
+    long remove(int x, int y, int z);
+
+    /**
+     * Tests if the map contains a value at a coordinate.
+     *
+     * @param x the x-coordinate
+     * @param y the y-coordinate
+     * @param z the z-coordinate
+     *
+     * @return true if the map contains a value here; false otherwise
+     */
+    boolean containsKey(int x, int y, int z);
+
+    /**
+     * Adds an increment to the value at the given coordinate. If there is no value, the increment is added to the
+     * default return value, and the result is entered into the map.
+     *
+     * @param x         the x-coordinate
+     * @param y         the y-coordinate
+     * @param z         the z-coordinate
+     * @param increment the amount to add
+     *
+     * @return the value previously located at the coordinate, or the default return value if there was none
+     */
+    long addTo(int x, int y, int z, long increment);
+
+    /**
+     * Returns the value currently at the coordinate if it exists; else computes a new value, enters it into the map,
+     * and returns it.
+     *
+     * @param x               the x-coordinate
+     * @param y               the y-coordinate
+     * @param z               the z-coordinate
+     * @param mappingFunction the mapping function used to create a new value if necessary
+     *
+     * @return the value currently at the coordinate; else the value created by the mapping function after it is added
+     * to the map
+     */
+    long computeIfAbsent(int x, int y, int z, @NotNull Vec3IToLongFunction mappingFunction);
+
+    /**
+     * Adds all values from the given map into this one.
+     *
+     * @param map the map from which to add values
+     */
+    default void putAll(@NotNull Vec3I2LongMap map) {
+        map.forEach(this::put);
+    }
+
+    /**
+     * Calls the given consumer with each coordinate and value in this map.
+     *
+     * @param consumer the consumer to call
+     */
+    void forEach(@NotNull Vec3ILongBiConsumer consumer);
+
+    /**
+     * Gets the number of values in this map.
+     *
+     * @return the number of values in this map
+     */
+    int size();
+
+    /**
+     * Determines if this map is empty.
+     *
+     * @return true if this map contains no values; false otherwise
+     */
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Removes all values from this map.
+     */
+    void clear();
+
+    /**
+     * Gets the default return value of this map.
+     *
+     * @return the default return value
+     */
+    long defaultReturnValue();
+
+    /**
+     * Sets the default return value of this map.
+     *
+     * @param rv the new default return value
+     */
+    void defaultReturnValue(long rv);
+}
\ No newline at end of file
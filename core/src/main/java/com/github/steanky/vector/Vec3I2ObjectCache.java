@@ -0,0 +1,128 @@
+package com.github.steanky.vector;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+
+/**
+ * A {@link Vec3I2ObjectMap} which holds at most a fixed number of entries. When an entry is added to a full cache,
+ * another entry is evicted first, as chosen by its {@link EvictionPolicy}. This allows expensive per-cell results to be
+ * cached indefinitely without unbounded growth, keeping the most useful entries rather than clearing everything at
+ * once.
+ * <p>
+ * Coordinates are packed in the same way as {@link BitPackingVec3I2ObjectMap}, and all storage is allocated up front
+ * for the full capacity, so adding and evicting entries does not allocate. Only reads and writes of individual keys,
+ * such as {@link Vec3I2ObjectCache#get(int, int, int)} and {@link Vec3I2ObjectCache#put(int, int, int, Object)},
+ * count as accesses for the purpose of eviction; {@link Vec3I2ObjectCache#containsKey(int, int, int)} and iteration
+ * do not.
+ * <p>
+ * An optional eviction listener is called with each entry after it has been evicted, but not with entries that are
+ * removed or replaced explicitly. The listener must not modify the cache. This class is not thread-safe, and null
+ * values are not supported.
+ *
+ * @param <T> the type of object stored in this cache
+ */
+public class Vec3I2ObjectCache<T> extends BitPackingVec3I2ObjectMap<T> {
+    private final EvictingLong2ObjectMap<T> evictingMap;
+
+    private Vec3I2ObjectCache(int x, int y, int z, int width, int height, int depth,
+            EvictingLong2ObjectMap<T> evictingMap, Vec3IObjectBiConsumer<? super T> evictionListener) {
+        super(x, y, z, width, height, depth, evictingMap);
+        this.evictingMap = evictingMap;
+
+        if (evictionListener != null) {
+            evictingMap.evictionListener((key, value) -> evictionListener.accept(x(key), y(key), z(key), value));
+        }
+    }
+
+    /**
+     * Creates a new {@link Vec3I2ObjectCache} with the given origin, bounds, capacity, eviction policy and eviction
+     * listener. See {@link BitPackingVec3I2ObjectMap} for more details.
+     *
+     * @param x                the x-origin
+     * @param y                the y-origin
+     * @param z                the z-origin
+     * @param width            the x-width
+     * @param height           the y-width
+     * @param depth            the z-width
+     * @param capacity         the maximum number of entries, which must be positive
+     * @param policy           the policy used to choose which entry to evict
+     * @param evictionListener the listener to call with each evicted entry
+     */
+    public Vec3I2ObjectCache(int x, int y, int z, int width, int height, int depth, int capacity,
+            @NotNull EvictionPolicy policy, @NotNull Vec3IObjectBiConsumer<? super T> evictionListener) {
+        this(x, y, z, width, height, depth, new EvictingLong2ObjectMap<>(capacity, policy),
+                Objects.requireNonNull(evictionListener));
+    }
+
+    /**
+     * Convenience overload for a cache without an eviction listener.
+     *
+     * @param x        the x-origin
+     * @param y        the y-origin
+     * @param z        the z-origin
+     * @param width    the x-width
+     * @param height   the y-width
+     * @param depth    the z-width
+     * @param capacity the maximum number of entries, which must be positive
+     * @param policy   the policy used to choose which entry to evict
+     */
+    public Vec3I2ObjectCache(int x, int y, int z, int width, int height, int depth, int capacity,
+            @NotNull EvictionPolicy policy) {
+        this(x, y, z, width, height, depth, new EvictingLong2ObjectMap<>(capacity, policy), null);
+    }
+
+    /**
+     * Convenience overload for
+     * {@link Vec3I2ObjectCache#Vec3I2ObjectCache(int, int, int, int, int, int, int, EvictionPolicy,
+     * Vec3IObjectBiConsumer)} that uses the origin and lengths from the provided bounds.
+     *
+     * @param bounds           the bounds which provides the origin and lengths
+     * @param capacity         the maximum number of entries, which must be positive
+     * @param policy           the policy used to choose which entry to evict
+     * @param evictionListener the listener to call with each evicted entry
+     */
+    public Vec3I2ObjectCache(@NotNull Bounds3I bounds, int capacity, @NotNull EvictionPolicy policy,
+            @NotNull Vec3IObjectBiConsumer<? super T> evictionListener) {
+        this(bounds.originX(), bounds.originY(), bounds.originZ(), bounds.lengthX(), bounds.lengthY(), bounds.lengthZ(),
+                capacity, policy, evictionListener);
+    }
+
+    /**
+     * Convenience overload for
+     * {@link Vec3I2ObjectCache#Vec3I2ObjectCache(int, int, int, int, int, int, int, EvictionPolicy)} that uses the
+     * origin and lengths from the provided bounds.
+     *
+     * @param bounds   the bounds which provides the origin and lengths
+     * @param capacity the maximum number of entries, which must be positive
+     * @param policy   the policy used to choose which entry to evict
+     */
+    public Vec3I2ObjectCache(@NotNull Bounds3I bounds, int capacity, @NotNull EvictionPolicy policy) {
+        this(bounds.originX(), bounds.originY(), bounds.originZ(), bounds.lengthX(), bounds.lengthY(), bounds.lengthZ(),
+                capacity, policy);
+    }
+
+    /**
+     * Gets the maximum number of entries in this cache.
+     *
+     * @return the capacity of this cache
+     */
+    public int capacity() {
+        return evictingMap.capacity();
+    }
+
+    /**
+     * Gets the policy this cache uses to choose which entry to evict.
+     *
+     * @return the eviction policy
+     */
+    public @NotNull EvictionPolicy policy() {
+        return evictingMap.policy();
+    }
+
+    @Override
+    public void forEach(@NotNull Vec3IObjectBiConsumer<? super T> consumer) {
+        Objects.requireNonNull(consumer);
+        evictingMap.forEachEntry((key, value) -> consumer.accept(x(key), y(key), z(key), value));
+    }
+}
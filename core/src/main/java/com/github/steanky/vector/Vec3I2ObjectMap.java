@@ -2,7 +2,10 @@ package com.github.steanky.vector;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.function.BiFunction;
 
 /**
@@ -171,6 +174,101 @@ public interface Vec3I2ObjectMap<T> extends Map<Vec3I, T> {
      */
     void replaceAll(@NotNull Vec3IObjectBiFunction<? super T, ? extends T> function);
 
+    /**
+     * Puts every value in the given array into this map, at the coordinate given by the corresponding elements of the
+     * coordinate arrays. If a coordinate occurs more than once, the last value wins.
+     * <p>
+     * The default implementation calls {@link Vec3I2ObjectMap#put(int, int, int, Object)} for each value.
+     * Implementations should override this method if they can presize their storage for the whole batch.
+     *
+     * @param xs     the x-coordinates
+     * @param ys     the y-coordinates
+     * @param zs     the z-coordinates
+     * @param values the values, which must have the same length as each coordinate array
+     * @throws IllegalArgumentException if the arrays have different lengths
+     */
+    default void putAll(int @NotNull [] xs, int @NotNull [] ys, int @NotNull [] zs, T @NotNull [] values) {
+        BulkLong2ObjectView.checkLength(xs.length, values.length);
+        BulkLong2ObjectView.checkLength(ys.length, values.length);
+        BulkLong2ObjectView.checkLength(zs.length, values.length);
+        for (int i = 0; i < values.length; i++) {
+            put(xs[i], ys[i], zs[i], values[i]);
+        }
+    }
+
+    /**
+     * Gets the value at each coordinate given by the corresponding elements of the coordinate arrays. The value for the
+     * coordinate at index {@code i} is stored in {@code out[i]}, or null if it is absent. Elements of the output array
+     * past the length of the coordinate arrays are not modified.
+     * <p>
+     * The default implementation calls {@link Vec3I2ObjectMap#get(int, int, int)} for each coordinate.
+     * Implementations should override this method if they can overlap the lookups of several keys.
+     *
+     * @param xs  the x-coordinates
+     * @param ys  the y-coordinates
+     * @param zs  the z-coordinates
+     * @param out the array in which to store values, which must be at least as long as each coordinate array
+     * @return the number of coordinates which have a value
+     * @throws IllegalArgumentException if the coordinate arrays have different lengths, or the output array is too
+     *                                  short
+     */
+    default int getAll(int @NotNull [] xs, int @NotNull [] ys, int @NotNull [] zs, T @NotNull [] out) {
+        BulkLong2ObjectView.checkLength(ys.length, xs.length);
+        BulkLong2ObjectView.checkLength(zs.length, xs.length);
+        BulkLong2ObjectView.checkCapacity(out.length, xs.length);
+
+        int count = 0;
+        for (int i = 0; i < xs.length; i++) {
+            T value = get(xs[i], ys[i], zs[i]);
+            if (value != null) {
+                count++;
+            }
+
+            out[i] = value;
+        }
+
+        return count;
+    }
+
+    /**
+     * Determines which of the coordinates given by the corresponding elements of the coordinate arrays have a value.
+     * Bit {@code i % 64} of {@code bitmaskOut[i / 64]} is set if the coordinate at index {@code i} has a value, and
+     * cleared otherwise. Elements of the bitmask array past those needed for the coordinate arrays are not modified.
+     * <p>
+     * The default implementation calls {@link Vec3I2ObjectMap#containsKey(int, int, int)} for each coordinate.
+     * Implementations should override this method if they can overlap the lookups of several keys.
+     *
+     * @param xs         the x-coordinates
+     * @param ys         the y-coordinates
+     * @param zs         the z-coordinates
+     * @param bitmaskOut the array in which to store the bitmask, which must have at least one element for every 64
+     *                   coordinates
+     * @return the number of coordinates which have a value
+     * @throws IllegalArgumentException if the coordinate arrays have different lengths, or the bitmask array is too
+     *                                  short
+     */
+    default int containsAll(int @NotNull [] xs, int @NotNull [] ys, int @NotNull [] zs, long @NotNull [] bitmaskOut) {
+        BulkLong2ObjectView.checkLength(ys.length, xs.length);
+        BulkLong2ObjectView.checkLength(zs.length, xs.length);
+        BulkLong2ObjectView.checkCapacity(bitmaskOut.length, (xs.length + Long.SIZE - 1) >>> 6);
+
+        int count = 0;
+        for (int i = 0; i < xs.length; i += Long.SIZE) {
+            int end = Math.min(i + Long.SIZE, xs.length);
+            long word = 0;
+            for (int j = i; j < end; j++) {
+                if (containsKey(xs[j], ys[j], zs[j])) {
+                    word |= 1L << j;
+                }
+            }
+
+            bitmaskOut[i >>> 6] = word;
+            count += Long.bitCount(word);
+        }
+
+        return count;
+    }
+
     /**
      * Gets the value at the coordinate if it is present; otherwise returns the given default value.
      *
@@ -204,4 +302,232 @@ public interface Vec3I2ObjectMap<T> extends Map<Vec3I, T> {
      * @param consumer the consumer to call
      */
     void forEach(@NotNull Vec3IObjectBiConsumer<? super T> consumer);
+
+    /**
+     * Creates a new cursor over the entries of this map. Implementations should override this method to return a
+     * cursor that does not allocate per entry; the default implementation is based on the iterator returned by
+     * {@link Map#entrySet()}.
+     *
+     * @return a new cursor
+     */
+    default @NotNull Vec3IObjectCursor<T> cursor() {
+        Iterator<Entry<Vec3I, T>> iterator = entrySet().iterator();
+        return new Vec3IObjectCursor<>() {
+            private Entry<Vec3I, T> entry;
+
+            @Override
+            public boolean next() {
+                if (!iterator.hasNext()) {
+                    entry = null;
+                    return false;
+                }
+
+                entry = iterator.next();
+                return true;
+            }
+
+            @Override
+            public int x() {
+                return entry.getKey().x();
+            }
+
+            @Override
+            public int y() {
+                return entry.getKey().y();
+            }
+
+            @Override
+            public int z() {
+                return entry.getKey().z();
+            }
+
+            @Override
+            public T value() {
+                return entry.getValue();
+            }
+
+            @Override
+            public T setValue(T value) {
+                return entry.setValue(value);
+            }
+
+            @Override
+            public void remove() {
+                iterator.remove();
+                entry = null;
+            }
+        };
+    }
+
+    /**
+     * Creates an iterator over the keys of this map that writes each key into the given mutable vector, which is then
+     * returned from {@link Iterator#next()}. Since the same vector is returned every time, callers that need to keep a
+     * key must copy it. When {@link Map#keySet()} would allocate a new vector per key, this avoids doing so.
+     * <p>
+     * The returned iterator is based on {@link Vec3I2ObjectMap#cursor()}. It supports {@link Iterator#remove()}, but
+     * only if {@link Iterator#hasNext()} has not been called since the last call to {@link Iterator#next()}.
+     *
+     * @param target the mutable vector that will receive each key
+     * @return a new key iterator
+     */
+    default @NotNull Iterator<Vec3I> keyIterator(@NotNull Vec3I target) {
+        Objects.requireNonNull(target);
+
+        Vec3IObjectCursor<T> cursor = cursor();
+        return new Iterator<>() {
+            private boolean advanced;
+            private boolean hasNext;
+            private boolean canRemove;
+
+            @Override
+            public boolean hasNext() {
+                if (!advanced) {
+                    hasNext = cursor.next();
+                    advanced = true;
+                    canRemove = false;
+                }
+
+                return hasNext;
+            }
+
+            @Override
+            public Vec3I next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                advanced = false;
+                canRemove = true;
+                return target.set(cursor.x(), cursor.y(), cursor.z());
+            }
+
+            @Override
+            public void remove() {
+                if (!canRemove) {
+                    throw new IllegalStateException();
+                }
+
+                cursor.remove();
+                canRemove = false;
+            }
+        };
+    }
+
+    /**
+     * Calls the given consumer with each coordinate and value object in this map, possibly from several threads at
+     * once. The consumer must therefore be thread-safe, and may be called in any order. The map must not be modified
+     * until this method returns.
+     * <p>
+     * The default implementation uses a parallel stream over {@link Map#entrySet()}. Implementations should override
+     * this method if they can split their entries more evenly, or visit them without creating entry objects.
+     *
+     * @param consumer the consumer to call
+     */
+    default void parallelForEach(@NotNull Vec3IObjectBiConsumer<? super T> consumer) {
+        Objects.requireNonNull(consumer);
+        entrySet().parallelStream().forEach(entry -> {
+            Vec3I key = entry.getKey();
+            consumer.accept(key.x(), key.y(), key.z(), entry.getValue());
+        });
+    }
+
+    /**
+     * Calls the given consumer with each coordinate and value in this map whose coordinate lies within the given
+     * bounds.
+     * <p>
+     * The default implementation either probes every cell of the bounds, or scans every entry of this map using
+     * {@link Vec3I2ObjectMap#cursor()}, depending on which visits fewer cells. Implementations which wrap coordinates
+     * outside their addressable space only probe the part of the bounds inside of it.
+     *
+     * @param bounds   the bounds to search
+     * @param consumer the consumer to call
+     */
+    default void forEachIn(@NotNull Bounds3I bounds, @NotNull Vec3IObjectBiConsumer<? super T> consumer) {
+        RegionQueries.forEachIn(this, bounds, null, consumer);
+    }
+
+    /**
+     * Removes every entry whose coordinate lies within the given bounds and which satisfies the given predicate. See
+     * {@link Vec3I2ObjectMap#forEachIn(Bounds3I, Vec3IObjectBiConsumer)} for how entries are found.
+     *
+     * @param bounds    the bounds to search
+     * @param predicate the predicate which returns true for entries that should be removed
+     * @return true if any entries were removed; false otherwise
+     */
+    default boolean removeIf(@NotNull Bounds3I bounds, @NotNull Vec3IObjectBiPredicate<? super T> predicate) {
+        return RegionQueries.removeIf(this, bounds, null, predicate);
+    }
+
+    /**
+     * Counts the entries whose coordinate lies within the given bounds. See
+     * {@link Vec3I2ObjectMap#forEachIn(Bounds3I, Vec3IObjectBiConsumer)} for how entries are found.
+     *
+     * @param bounds the bounds to search
+     * @return the number of entries within the bounds
+     */
+    default int countIn(@NotNull Bounds3I bounds) {
+        return RegionQueries.countIn(this, bounds, null);
+    }
+
+    /**
+     * Removes every entry whose coordinate lies within the given bounds.
+     *
+     * @param bounds the bounds to clear
+     */
+    default void clear(@NotNull Bounds3I bounds) {
+        removeIf(bounds, (x, y, z, value) -> true);
+    }
+
+    /**
+     * Calls the given consumer with each neighbor of the given coordinate which is present in this map, in the order
+     * defined by the neighborhood. Each neighbor is looked up as if by {@link Vec3I2ObjectMap#get(int, int, int)}, and
+     * passed to the consumer with the coordinate it was looked up at.
+     * <p>
+     * The default implementation calls {@link Vec3I2ObjectMap#get(int, int, int)} for each neighbor. Implementations
+     * which pack their coordinates compute the keys of all neighbors together.
+     *
+     * @param x        the x-coordinate of the central cell
+     * @param y        the y-coordinate of the central cell
+     * @param z        the z-coordinate of the central cell
+     * @param kind     the neighborhood to visit
+     * @param consumer the consumer to call
+     */
+    default void forEachNeighbor(int x, int y, int z, @NotNull NeighborhoodKind kind,
+            @NotNull Vec3IObjectBiConsumer<? super T> consumer) {
+        Neighbors.forEach(this, x, y, z, kind, consumer);
+    }
+
+    /**
+     * Gets the values of all neighbors of the given coordinate, in the order defined by the neighborhood. The value of
+     * the neighbor at index {@code i} is stored in {@code out[i]}, or null if it is absent. Elements of the array past
+     * {@link NeighborhoodKind#size()} are not modified. See
+     * {@link Vec3I2ObjectMap#forEachNeighbor(int, int, int, NeighborhoodKind, Vec3IObjectBiConsumer)} for how neighbors
+     * are looked up.
+     *
+     * @param x    the x-coordinate of the central cell
+     * @param y    the y-coordinate of the central cell
+     * @param z    the z-coordinate of the central cell
+     * @param kind the neighborhood to get
+     * @param out  the array in which to store values
+     * @return the number of neighbors which are present
+     * @throws IllegalArgumentException if the array is shorter than {@link NeighborhoodKind#size()}
+     */
+    default int getNeighbors(int x, int y, int z, @NotNull NeighborhoodKind kind, T @NotNull [] out) {
+        return Neighbors.get(this, x, y, z, kind, out);
+    }
+
+    /**
+     * Convenience overload for {@link Vec3I2ObjectMap#getNeighbors(int, int, int, NeighborhoodKind, Object[])} which
+     * gets all 26 neighbors, as defined by {@link NeighborhoodKind#CORNERS}.
+     *
+     * @param x   the x-coordinate of the central cell
+     * @param y   the y-coordinate of the central cell
+     * @param z   the z-coordinate of the central cell
+     * @param out the array in which to store values, which must have a length of at least 26
+     * @return the number of neighbors which are present
+     * @throws IllegalArgumentException if the array is shorter than 26
+     */
+    default int getNeighbors(int x, int y, int z, T @NotNull [] out) {
+        return getNeighbors(x, y, z, NeighborhoodKind.CORNERS, out);
+    }
 }
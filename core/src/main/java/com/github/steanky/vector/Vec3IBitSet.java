@@ -0,0 +1,333 @@
+package com.github.steanky.vector;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A dense bitset covering every coordinate in a {@link Bounds3I}, using one bit per coordinate. Coordinates are
+ * stored in the same order as they are visited by {@link Bounds3I#forEach(Vec3IConsumer)}; that is, with the z-axis
+ * varying fastest.
+ * <p>
+ * Setting, clearing and testing individual coordinates takes constant time, and the number of set bits is maintained
+ * so that {@link Vec3IBitSet#cardinality()} does as well. Iteration skips unset bits 64 at a time. Bitsets covering
+ * equal bounds may be combined word-by-word using {@link Vec3IBitSet#and(Vec3IBitSet)},
+ * {@link Vec3IBitSet#or(Vec3IBitSet)} and {@link Vec3IBitSet#andNot(Vec3IBitSet)}.
+ * <p>
+ * As a {@link Vec3ISet}, this class behaves like {@link BoundedVec3ISet}: coordinates outside the bounds never alias
+ * coordinates inside of it, and attempting to add one throws an {@link IllegalArgumentException}.
+ */
+public class Vec3IBitSet implements Vec3ISet {
+    //the largest number of bits that fit in a long array
+    private static final long MAX_VOLUME = (long) (Integer.MAX_VALUE - 8) * Long.SIZE;
+
+    private final Bounds3I bounds;
+    private final long lengthYZ;
+    private final long volume;
+    private final long[] words;
+
+    private long cardinality;
+
+    /**
+     * Creates a new, empty {@link Vec3IBitSet} covering the given bounds.
+     *
+     * @param bounds the bounds of this bitset; later changes to it, if it is mutable, are not reflected
+     */
+    public Vec3IBitSet(@NotNull Bounds3I bounds) {
+        this.bounds = bounds.immutable();
+        this.lengthYZ = (long) bounds.lengthY() * bounds.lengthZ();
+
+        //lengthYZ alone cannot overflow, but multiplying in the x-length can wrap a long, even all the way around to 0
+        int lengthX = bounds.lengthX();
+        if (lengthX != 0 && lengthYZ > MAX_VOLUME / lengthX) {
+            throw new IllegalArgumentException("Bounds too large for a Vec3IBitSet");
+        }
+
+        this.volume = lengthYZ * lengthX;
+        this.words = new long[(int) ((volume + Long.SIZE - 1) >>> 6)];
+    }
+
+    /**
+     * Gets the bounds covered by this bitset.
+     *
+     * @return the immutable bounds of this bitset
+     */
+    public @NotNull Bounds3I bounds() {
+        return bounds;
+    }
+
+    /**
+     * Gets the linear index of the given coordinate, or -1 if it is out of bounds.
+     *
+     * @param x the x-coordinate
+     * @param y the y-coordinate
+     * @param z the z-coordinate
+     * @return the index of the bit corresponding to the coordinate, or -1
+     */
+    public long index(int x, int y, int z) {
+        if (!bounds.contains(x, y, z)) {
+            return -1;
+        }
+
+        return ((long) x - bounds.originX()) * lengthYZ + ((long) y - bounds.originY()) * bounds.lengthZ() +
+                ((long) z - bounds.originZ());
+    }
+
+    /**
+     * Decodes the x-coordinate of a linear index.
+     *
+     * @param index the index
+     * @return the x-coordinate
+     */
+    public int x(long index) {
+        return (int) (index / lengthYZ) + bounds.originX();
+    }
+
+    /**
+     * Decodes the y-coordinate of a linear index.
+     *
+     * @param index the index
+     * @return the y-coordinate
+     */
+    public int y(long index) {
+        return (int) ((index % lengthYZ) / bounds.lengthZ()) + bounds.originY();
+    }
+
+    /**
+     * Decodes the z-coordinate of a linear index.
+     *
+     * @param index the index
+     * @return the z-coordinate
+     */
+    public int z(long index) {
+        return (int) (index % bounds.lengthZ()) + bounds.originZ();
+    }
+
+    private boolean setIndex(long index) {
+        int wordIndex = (int) (index >>> 6);
+        long word = words[wordIndex];
+        long bit = 1L << index;
+        if ((word & bit) != 0) {
+            return false;
+        }
+
+        words[wordIndex] = word | bit;
+        cardinality++;
+        return true;
+    }
+
+    private boolean clearIndex(long index) {
+        int wordIndex = (int) (index >>> 6);
+        long word = words[wordIndex];
+        long bit = 1L << index;
+        if ((word & bit) == 0) {
+            return false;
+        }
+
+        words[wordIndex] = word & ~bit;
+        cardinality--;
+        return true;
+    }
+
+    private long checkedIndex(int x, int y, int z) {
+        long index = index(x, y, z);
+        if (index == -1) {
+            throw new IllegalArgumentException("Coordinate (" + x + ", " + y + ", " + z + ") is out of bounds");
+        }
+
+        return index;
+    }
+
+    /**
+     * Sets the bit corresponding to the given coordinate.
+     *
+     * @param x the x-coordinate
+     * @param y the y-coordinate
+     * @param z the z-coordinate
+     * @throws IllegalArgumentException if the coordinate is out of bounds
+     */
+    public void set(int x, int y, int z) {
+        setIndex(checkedIndex(x, y, z));
+    }
+
+    /**
+     * Clears the bit corresponding to the given coordinate. Does nothing if the coordinate is out of bounds.
+     *
+     * @param x the x-coordinate
+     * @param y the y-coordinate
+     * @param z the z-coordinate
+     */
+    public void clear(int x, int y, int z) {
+        long index = index(x, y, z);
+        if (index != -1) {
+            clearIndex(index);
+        }
+    }
+
+    /**
+     * Gets the bit corresponding to the given coordinate.
+     *
+     * @param x the x-coordinate
+     * @param y the y-coordinate
+     * @param z the z-coordinate
+     * @return true if the bit is set; false if it is unset or the coordinate is out of bounds
+     */
+    public boolean get(int x, int y, int z) {
+        long index = index(x, y, z);
+        return index != -1 && (words[(int) (index >>> 6)] & (1L << index)) != 0;
+    }
+
+    /**
+     * Gets the number of set bits. Unlike {@link Vec3IBitSet#size()}, this may exceed {@link Integer#MAX_VALUE}.
+     *
+     * @return the number of set bits
+     */
+    public long cardinality() {
+        return cardinality;
+    }
+
+    /**
+     * Finds the index of the first set bit at or after the given index, in the manner of
+     * {@link java.util.BitSet#nextSetBit(int)}. Indices may be converted into coordinates using
+     * {@link Vec3IBitSet#x(long)}, {@link Vec3IBitSet#y(long)} and {@link Vec3IBitSet#z(long)}.
+     *
+     * @param fromIndex the index from which to start searching, inclusive
+     * @return the index of the next set bit, or -1 if there is none
+     */
+    public long nextSetBit(long fromIndex) {
+        if (fromIndex < 0) {
+            throw new IndexOutOfBoundsException("fromIndex < 0: " + fromIndex);
+        }
+
+        if (fromIndex >= volume) {
+            return -1;
+        }
+
+        int wordIndex = (int) (fromIndex >>> 6);
+        long word = words[wordIndex] & (-1L << fromIndex);
+        while (true) {
+            if (word != 0) {
+                return ((long) wordIndex << 6) + Long.numberOfTrailingZeros(word);
+            }
+
+            if (++wordIndex == words.length) {
+                return -1;
+            }
+
+            word = words[wordIndex];
+        }
+    }
+
+    private void checkBounds(Vec3IBitSet other) {
+        if (!bounds.equals(other.bounds)) {
+            throw new IllegalArgumentException("Bitsets must cover the same bounds");
+        }
+    }
+
+    private void recount() {
+        long count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+
+        cardinality = count;
+    }
+
+    /**
+     * Clears every bit in this bitset which is not also set in the other bitset.
+     *
+     * @param other the other bitset, which must cover the same bounds
+     * @throws IllegalArgumentException if the bitsets do not cover the same bounds
+     */
+    public void and(@NotNull Vec3IBitSet other) {
+        checkBounds(other);
+        for (int i = 0; i < words.length; i++) {
+            words[i] &= other.words[i];
+        }
+
+        recount();
+    }
+
+    /**
+     * Sets every bit in this bitset which is set in the other bitset.
+     *
+     * @param other the other bitset, which must cover the same bounds
+     * @throws IllegalArgumentException if the bitsets do not cover the same bounds
+     */
+    public void or(@NotNull Vec3IBitSet other) {
+        checkBounds(other);
+        for (int i = 0; i < words.length; i++) {
+            words[i] |= other.words[i];
+        }
+
+        recount();
+    }
+
+    /**
+     * Clears every bit in this bitset which is set in the other bitset.
+     *
+     * @param other the other bitset, which must cover the same bounds
+     * @throws IllegalArgumentException if the bitsets do not cover the same bounds
+     */
+    public void andNot(@NotNull Vec3IBitSet other) {
+        checkBounds(other);
+        for (int i = 0; i < words.length; i++) {
+            words[i] &= ~other.words[i];
+        }
+
+        recount();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if the coordinate is out of bounds
+     */
+    @Override
+    public boolean add(int x, int y, int z) {
+        return setIndex(checkedIndex(x, y, z));
+    }
+
+    @Override
+    public boolean contains(int x, int y, int z) {
+        return get(x, y, z);
+    }
+
+    @Override
+    public boolean remove(int x, int y, int z) {
+        long index = index(x, y, z);
+        return index != -1 && clearIndex(index);
+    }
+
+    @Override
+    public void forEach(@NotNull Vec3IConsumer consumer) {
+        Objects.requireNonNull(consumer);
+
+        for (int i = 0; i < words.length; i++) {
+            long word = words[i];
+            while (word != 0) {
+                long index = ((long) i << 6) | Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+
+                consumer.accept(x(index), y(index), z(index));
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If more than {@link Integer#MAX_VALUE} bits are set, returns {@link Integer#MAX_VALUE}.
+     */
+    @Override
+    public int size() {
+        return (int) Math.min(cardinality, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(words, 0);
+        cardinality = 0;
+    }
+}
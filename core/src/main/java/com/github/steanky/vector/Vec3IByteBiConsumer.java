@@ -0,0 +1,17 @@
+package com.github.steanky.vector;
+
+/**
+ * A consumer that takes an integer triplet and a {@code byte}.
+ */
+@FunctionalInterface
+public interface Vec3IByteBiConsumer {
+    /**
+     * Accepts some values.
+     *
+     * @param x     the x-coordinate
+     * @param y     the y-coordinate
+     * @param z     the z-coordinate
+     * @param value the value
+     */
+    void accept(int x, int y, int z, byte value);
+}
\ No newline at end of file
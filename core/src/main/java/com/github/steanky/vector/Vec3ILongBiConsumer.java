@@ -0,0 +1,17 @@
+package com.github.steanky.vector;
+
+/**
+ * A consumer that takes an integer triplet and a {@code long}.
+ */
+@FunctionalInterface
+public interface Vec3ILongBiConsumer {
+    /**
+     * Accepts some values.
+     *
+     * @param x     the x-coordinate
+     * @param y     the y-coordinate
+     * @param z     the z-coordinate
+     * @param value the value
+     */
+    void accept(int x, int y, int z, long value);
+}
\ No newline at end of file
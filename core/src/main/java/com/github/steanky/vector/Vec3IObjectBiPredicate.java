@@ -0,0 +1,20 @@
+package com.github.steanky.vector;
+
+/**
+ * A predicate that accepts an integer triplet and some object.
+ *
+ * @param <T> the type of object accepted
+ */
+@FunctionalInterface
+public interface Vec3IObjectBiPredicate<T> {
+    /**
+     * Tests this predicate.
+     *
+     * @param x the x-coordinate
+     * @param y the y-coordinate
+     * @param z the z-coordinate
+     * @param t the object
+     * @return true if this predicate succeeded; false otherwise
+     */
+    boolean test(int x, int y, int z, T t);
+}
@@ -0,0 +1,20 @@
+package com.github.steanky.vector;
+
+/**
+ * A listener which is called when the value at a coordinate changes.
+ *
+ * @param <T> the type of value
+ */
+@FunctionalInterface
+public interface Vec3IObjectChangeListener<T> {
+    /**
+     * Called after the value at a coordinate has changed.
+     *
+     * @param x        the x-coordinate
+     * @param y        the y-coordinate
+     * @param z        the z-coordinate
+     * @param oldValue the previous value, or null if there was none
+     * @param newValue the current value, or null if it was removed
+     */
+    void changed(int x, int y, int z, T oldValue, T newValue);
+}
@@ -0,0 +1,65 @@
+package com.github.steanky.vector;
+
+/**
+ * A cursor over the entries of a {@link Vec3I2ObjectMap}. Unlike an {@link java.util.Iterator} of map entries, a
+ * cursor exposes the current coordinate and value directly, so implementations can visit every entry without
+ * allocating a key vector or entry object for each one.
+ * <p>
+ * A cursor is initially positioned before the first entry. The result of calling any method other than
+ * {@link Vec3IObjectCursor#next()} is unspecified until {@code next} has returned true, or after the current entry
+ * has been removed. Modifying the map other than through the cursor while it is in use results in unspecified
+ * behavior.
+ *
+ * @param <T> the type of value held in the map
+ */
+public interface Vec3IObjectCursor<T> {
+    /**
+     * Advances this cursor to the next entry.
+     *
+     * @return true if the cursor now points at an entry; false if there are no more entries
+     */
+    boolean next();
+
+    /**
+     * Gets the x-coordinate of the current entry.
+     *
+     * @return the x-coordinate
+     */
+    int x();
+
+    /**
+     * Gets the y-coordinate of the current entry.
+     *
+     * @return the y-coordinate
+     */
+    int y();
+
+    /**
+     * Gets the z-coordinate of the current entry.
+     *
+     * @return the z-coordinate
+     */
+    int z();
+
+    /**
+     * Gets the value of the current entry.
+     *
+     * @return the value
+     */
+    T value();
+
+    /**
+     * Replaces the value of the current entry.
+     *
+     * @param value the new value
+     * @return the value that was replaced
+     */
+    T setValue(T value);
+
+    /**
+     * Removes the current entry from the map. The cursor may then be advanced as usual.
+     *
+     * @throws IllegalStateException if there is no current entry, or it has already been removed
+     */
+    void remove();
+}
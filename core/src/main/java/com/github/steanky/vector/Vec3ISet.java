@@ -0,0 +1,83 @@
+package com.github.steanky.vector;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A set of integer-vector coordinates. Like {@link Vec3I2ObjectMap}, operations on this set accept coordinates as
+ * integer triplets, so implementations need not allocate a {@link Vec3I} for each element that is added, removed or
+ * tested for membership.
+ * <p>
+ * Implementations may disallow any number of specific coordinates, for example as part of a size limitation scheme or
+ * due to restrictions inherent in their design.
+ */
+public interface Vec3ISet {
+    /**
+     * Adds a coordinate to this set.
+     *
+     * @param x the x-coordinate
+     * @param y the y-coordinate
+     * @param z the z-coordinate
+     *
+     * @return true if the set was modified as a result of this call; false if the coordinate was already present
+     */
+    boolean add(int x, int y, int z);
+
+    /**
+     * Tests if this set contains a coordinate.
+     *
+     * @param x the x-coordinate
+     * @param y the y-coordinate
+     * @param z the z-coordinate
+     *
+     * @return true if the coordinate is present in this set; false otherwise
+     */
+    boolean contains(int x, int y, int z);
+
+    /**
+     * Removes a coordinate from this set.
+     *
+     * @param x the x-coordinate
+     * @param y the y-coordinate
+     * @param z the z-coordinate
+     *
+     * @return true if the coordinate was present in this set; false otherwise
+     */
+    boolean remove(int x, int y, int z);
+
+    /**
+     * Calls the given consumer with each coordinate in this set.
+     *
+     * @param consumer the consumer to call
+     */
+    void forEach(@NotNull Vec3IConsumer consumer);
+
+    /**
+     * Adds all coordinates from the given set into this one.
+     *
+     * @param set the set from which to add coordinates
+     */
+    default void addAll(@NotNull Vec3ISet set) {
+        set.forEach(this::add);
+    }
+
+    /**
+     * Gets the number of coordinates in this set.
+     *
+     * @return the number of coordinates in this set
+     */
+    int size();
+
+    /**
+     * Determines if this set is empty.
+     *
+     * @return true if this set contains no coordinates; false otherwise
+     */
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Removes all coordinates from this set.
+     */
+    void clear();
+}
@@ -0,0 +1,18 @@
+package com.github.steanky.vector;
+
+/**
+ * A function that accepts a vector as an integer triplet and produces a {@code byte}.
+ */
+@FunctionalInterface
+public interface Vec3IToByteFunction {
+    /**
+     * Calls this function with the provided value.
+     *
+     * @param x the x-coordinate
+     * @param y the y-coordinate
+     * @param z the z-coordinate
+     *
+     * @return the function's value
+     */
+    byte applyAsByte(int x, int y, int z);
+}
\ No newline at end of file
@@ -0,0 +1,123 @@
+package com.github.steanky.vector;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveVec3I2ObjectMapTest {
+    private static final Bounds3I BOUNDS = Bounds3I.immutable(-64, -64, -64, 128, 128, 128);
+
+    @Test
+    void promotesAndDemotesSections() {
+        AdaptiveVec3I2ObjectMap<Integer> map = new AdaptiveVec3I2ObjectMap<>(BOUNDS, 0.5F, 0.25F);
+        int value = 0;
+        for (int x = 0; x < 16; x++) {
+            for (int y = 0; y < 8; y++) {
+                for (int z = 0; z < 16; z++) {
+                    map.put(x, y, z, value++);
+                }
+            }
+        }
+
+        assertEquals(1, map.denseSectionCount());
+        map.put(100, 100, 100, -1);
+        assertEquals(2049, map.size());
+
+        int removed = 0;
+        for (int x = 0; x < 16 && map.denseSectionCount() == 1; x++) {
+            for (int y = 0; y < 8 && map.denseSectionCount() == 1; y++) {
+                for (int z = 0; z < 16 && map.denseSectionCount() == 1; z++) {
+                    assertNotNull(map.remove(x, y, z));
+                    removed++;
+                }
+            }
+        }
+
+        assertEquals(2048 - 1023, removed);
+        assertEquals(0, map.denseSectionCount());
+        assertEquals(2049 - removed, map.size());
+
+        value = 0;
+        for (int x = 0; x < 16; x++) {
+            for (int y = 0; y < 8; y++) {
+                for (int z = 0; z < 16; z++, value++) {
+                    Integer expected = x * 128 + y * 16 + z < removed ? null : value;
+                    assertEquals(expected, map.get(x, y, z));
+                }
+            }
+        }
+
+        assertEquals(-1, map.get(100, 100, 100));
+        assertEquals(-1, map.get(100 - 128, 100 - 128, 100 - 128));
+    }
+
+    @Test
+    void matchesReferenceUnderRandomOperations() {
+        Map<Vec3I, Integer> reference = new HashMap<>();
+        AdaptiveVec3I2ObjectMap<Integer> map = new AdaptiveVec3I2ObjectMap<>(BOUNDS, 0.1F, 0.05F);
+        Random random = new Random(22);
+        int maxDense = 0;
+        for (int i = 0; i < 200000; i++) {
+            //alternate between filling and draining a small region, so sections cross both thresholds
+            boolean filling = (i / 40000) % 2 == 0;
+            int x = random.nextInt(24);
+            int y = random.nextInt(24);
+            int z = random.nextInt(24);
+            Vec3I key = Vec3I.immutable(x, y, z);
+
+            if (random.nextInt(10) < (filling ? 7 : 3)) {
+                assertEquals(reference.put(key, i), map.put(x, y, z, i));
+            }
+            else {
+                assertEquals(reference.remove(key), map.remove(x, y, z));
+            }
+
+            assertEquals(reference.size(), map.size());
+            maxDense = Math.max(maxDense, map.denseSectionCount());
+        }
+
+        assertTrue(maxDense > 0);
+        assertEquals(reference, new HashMap<>(map));
+
+        Map<Vec3I, Integer> visited = new HashMap<>();
+        map.forEach((x, y, z, value) -> assertNull(visited.put(Vec3I.immutable(x, y, z), value)));
+        assertEquals(reference, visited);
+
+        map.replaceAll((x, y, z, value) -> value + 1);
+        reference.replaceAll((key, value) -> value + 1);
+        assertEquals(reference, new HashMap<>(map));
+
+        Iterator<Map.Entry<Vec3I, Integer>> iterator = map.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Vec3I, Integer> entry = iterator.next();
+            if (entry.getValue() % 2 == 0) {
+                iterator.remove();
+                reference.remove(entry.getKey());
+            }
+        }
+
+        assertEquals(reference, new HashMap<>(map));
+        assertEquals(reference.size(), map.size());
+
+        Bounds3I box = Bounds3I.immutable(4, 4, 4, 10, 10, 10);
+        map.clear(box);
+        reference.keySet().removeIf(key -> box.contains(key.x(), key.y(), key.z()));
+        assertEquals(reference, new HashMap<>(map));
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertEquals(0, map.denseSectionCount());
+    }
+
+    @Test
+    void validatesRatios() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveVec3I2ObjectMap<>(BOUNDS, 0.5F, 0.5F));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveVec3I2ObjectMap<>(BOUNDS, 1.5F, 0.5F));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveVec3I2ObjectMap<>(BOUNDS, 0.5F, 0));
+    }
+}
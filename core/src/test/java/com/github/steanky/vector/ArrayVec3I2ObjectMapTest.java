@@ -0,0 +1,122 @@
+package com.github.steanky.vector;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArrayVec3I2ObjectMapTest {
+    @Test
+    void iterateKeys() {
+        Vec3I2ObjectMap<String> map = new ArrayVec3I2ObjectMap<>(-4, -4, -4, 8, 8, 8);
+        map.put(-4, -4, -4, "test");
+        map.put(3, 3, 3, "test2");
+
+        Set<Vec3I> actual = new HashSet<>(2);
+        Set<Vec3I> expected = Set.of(Vec3I.immutable(-4, -4, -4), Vec3I.immutable(3, 3, 3));
+        map.forEach((x, y, z, s) -> {
+            actual.add(Vec3I.immutable(x, y, z));
+        });
+
+        assertEquals(expected, actual);
+        assertEquals(expected, map.keySet());
+    }
+
+    @Test
+    void sizeIsTracked() {
+        ArrayVec3I2ObjectMap<Integer> map = new ArrayVec3I2ObjectMap<>(0, 0, 0, 2, 2, 2);
+
+        for (int i = 0; i < 10; i++) {
+            for (int j = 0; j < 10; j++) {
+                for (int k = 0; k < 10; k++) {
+                    map.put(i, j, k, i * j * k);
+                }
+            }
+        }
+
+        assertEquals(8, map.size());
+        assertEquals(8, map.addressableSize());
+
+        map.remove(0, 0, 0);
+        map.remove(0, 0, 0);
+        assertEquals(7, map.size());
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(1, 1, 1));
+    }
+
+    @Test
+    void negativeKeys() {
+        ArrayVec3I2ObjectMap<Integer> map = new ArrayVec3I2ObjectMap<>(0, 0, 0, 2, 2, 2);
+        map.put(-1, -1, -1, 10);
+
+        assertEquals(10, map.get(1, 1, 1));
+    }
+
+    @Test
+    void tooLarge() {
+        assertThrows(IllegalArgumentException.class, () -> new ArrayVec3I2ObjectMap<>(0, 0, 0, 2048, 2048, 2048));
+    }
+
+    @Test
+    void sparseIteration() {
+        ArrayVec3I2ObjectMap<Integer> map = new ArrayVec3I2ObjectMap<>(0, 0, 0, 64, 64, 64);
+        map.put(0, 0, 1, 1);
+        map.put(10, 20, 30, 2);
+        map.put(63, 63, 63, 3);
+
+        int count = 0;
+        Iterator<Map.Entry<Vec3I, Integer>> iterator = map.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Vec3I, Integer> entry = iterator.next();
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+            if (entry.getValue() == 2) {
+                iterator.remove();
+            }
+
+            count++;
+        }
+
+        assertEquals(3, count);
+        assertEquals(2, map.size());
+        assertFalse(map.containsKey(10, 20, 30));
+    }
+
+    @Test
+    void computeIfAbsent() {
+        Vec3I2ObjectMap<Vec3I> map = new ArrayVec3I2ObjectMap<>(-4, -4, -4, 8, 8, 8);
+
+        Vec3I result = map.computeIfAbsent(0, 0, 0, (x, y, z) -> Vec3I.immutable(10, 10, 10));
+        assertEquals(Vec3I.immutable(10, 10, 10), result);
+        assertTrue(map.containsKey(0, 0, 0));
+
+        Vec3I result2 = map.computeIfAbsent(0, 0, 0, (x, y, z) -> Vec3I.immutable(20, 20, 20));
+        assertSame(result, result2);
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void compute() {
+        Vec3I2ObjectMap<Vec3I> map = new ArrayVec3I2ObjectMap<>(-4, -4, -4, 8, 8, 8);
+
+        Vec3I value = map.compute(0, 0, 0, (x, y, z, old) -> {
+            assertNull(old);
+            return Vec3I.ORIGIN;
+        });
+        assertSame(Vec3I.ORIGIN, value);
+        assertEquals(1, map.size());
+
+        Vec3I removedValue = map.compute(0, 0, 0, (x, y, z, old) -> {
+            assertNotNull(old);
+            return null;
+        });
+        assertNull(removedValue);
+        assertFalse(map.containsKey(0, 0, 0));
+        assertEquals(0, map.size());
+    }
+}
@@ -0,0 +1,111 @@
+package com.github.steanky.vector;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchLookupTest {
+    private static final Bounds3I BOUNDS = Bounds3I.immutable(0, 0, 0, 32, 32, 32);
+
+    private static int[][] randomCoordinates(Random random, int count) {
+        int[][] coordinates = new int[3][count];
+        for (int i = 0; i < count; i++) {
+            coordinates[0][i] = random.nextInt(32);
+            coordinates[1][i] = random.nextInt(32);
+            coordinates[2][i] = random.nextInt(32);
+        }
+
+        //the origin packs to key 0, which is stored separately by the hash table
+        coordinates[0][0] = 0;
+        coordinates[1][0] = 0;
+        coordinates[2][0] = 0;
+        return coordinates;
+    }
+
+    private static void assertBatchOperations(Vec3I2ObjectMap<Integer> map) {
+        Random random = new Random(17);
+
+        int[][] put = randomCoordinates(random, 1000);
+        Integer[] values = new Integer[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i;
+        }
+
+        HashVec3I2ObjectMap<Integer> expected = new HashVec3I2ObjectMap<>(BOUNDS);
+        for (int i = 0; i < values.length; i++) {
+            expected.put(put[0][i], put[1][i], put[2][i], values[i]);
+        }
+
+        map.putAll(put[0], put[1], put[2], values);
+        assertEquals(expected, map);
+
+        int[][] query = randomCoordinates(random, 333);
+        Integer[] out = new Integer[334];
+        out[333] = -1;
+        long[] bitmask = new long[7];
+        bitmask[6] = -1;
+
+        int found = map.getAll(query[0], query[1], query[2], out);
+        assertEquals(found, map.containsAll(query[0], query[1], query[2], bitmask));
+        assertEquals(-1, out[333]);
+        assertEquals(-1, bitmask[6]);
+
+        int expectedFound = 0;
+        for (int i = 0; i < 333; i++) {
+            Integer value = expected.get(query[0][i], query[1][i], query[2][i]);
+            assertEquals(value, out[i]);
+            assertEquals(value != null, (bitmask[i >>> 6] & (1L << i)) != 0);
+            if (value != null) {
+                expectedFound++;
+            }
+        }
+
+        assertEquals(expectedFound, found);
+        assertTrue(found > 0 && found < 333);
+    }
+
+    @Test
+    void batchOperationsMatchSingleOperations() {
+        List<Vec3I2ObjectMap<Integer>> maps = List.of(new HashVec3I2ObjectMap<>(BOUNDS),
+                new HashVec3I2ObjectMap<>(BOUNDS, KeyLayout.MORTON), new ArrayVec3I2ObjectMap<>(BOUNDS),
+                new UnboundedHashVec3I2ObjectMap<>());
+        for (Vec3I2ObjectMap<Integer> map : maps) {
+            assertBatchOperations(map);
+        }
+    }
+
+    @Test
+    void batchPutReplacesAndKeepsTableUsable() {
+        HashVec3I2ObjectMap<Integer> map = new HashVec3I2ObjectMap<>(BOUNDS, 4);
+        map.put(1, 1, 1, -1);
+
+        map.putAll(new long[] {map.pack(1, 1, 1), 0, map.pack(2, 2, 2), 0}, new Integer[] {1, 2, 3, 4});
+        assertEquals(3, map.size());
+        assertEquals(1, map.get(1, 1, 1));
+        assertEquals(4, map.get(0, 0, 0));
+        assertEquals(3, map.get(2, 2, 2));
+
+        for (int i = 0; i < 500; i++) {
+            map.put(i % 32, i / 32, 5, i);
+        }
+
+        assertEquals(503, map.size());
+        assertEquals(499, map.get(499 % 32, 499 / 32, 5));
+        assertEquals(4, map.remove(0, 0, 0));
+    }
+
+    @Test
+    void validatesArrays() {
+        HashVec3I2ObjectMap<Integer> map = new HashVec3I2ObjectMap<>(BOUNDS);
+        int[] three = new int[3];
+        assertThrows(IllegalArgumentException.class, () -> map.getAll(three, three, new int[2], new Integer[3]));
+        assertThrows(IllegalArgumentException.class, () -> map.getAll(three, three, three, new Integer[2]));
+        assertThrows(IllegalArgumentException.class, () -> map.containsAll(new int[65], new int[65], new int[65],
+                new long[1]));
+        assertThrows(NullPointerException.class, () -> map.putAll(three, three, three, new Integer[3]));
+        assertEquals(0, map.getAll(new int[0], new int[0], new int[0], new Integer[0]));
+    }
+}
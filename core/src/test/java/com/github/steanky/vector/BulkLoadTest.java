@@ -0,0 +1,105 @@
+package com.github.steanky.vector;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkLoadTest {
+    private static final Bounds3I SPACE = Bounds3I.immutable(-64, -64, -64, 128, 128, 128);
+    private static final int COUNT = 5000;
+
+    private final int[] xs = new int[COUNT];
+    private final int[] ys = new int[COUNT];
+    private final int[] zs = new int[COUNT];
+    private final String[] values = new String[COUNT];
+    private final Map<Vec3I, String> expected = new HashMap<>();
+
+    BulkLoadTest() {
+        Random random = new Random(7);
+        for (int i = 0; i < COUNT; i++) {
+            xs[i] = random.nextInt(128) - 64;
+            ys[i] = random.nextInt(128) - 64;
+            zs[i] = random.nextInt(128) - 64;
+            values[i] = Integer.toString(i);
+            expected.put(Vec3I.immutable(xs[i], ys[i], zs[i]), values[i]);
+        }
+    }
+
+    @Test
+    void coordinateArrays() {
+        List<Vec3I2ObjectMap<String>> maps = List.of(new HashVec3I2ObjectMap<>(SPACE),
+                new HashVec3I2ObjectMap<>(SPACE, KeyLayout.MORTON), new UnboundedHashVec3I2ObjectMap<>(),
+                new PalettedVec3I2ObjectMap<>(SPACE), new StripedVec3I2ObjectMap<>(SPACE));
+
+        for (Vec3I2ObjectMap<String> map : maps) {
+            map.put(xs[0], ys[0], zs[0], "old");
+            map.putAll(xs, ys, zs, values);
+            assertEquals(expected, map, map.getClass().getSimpleName());
+        }
+    }
+
+    @Test
+    void packedKeys() {
+        HashVec3I2ObjectMap<String> source = new HashVec3I2ObjectMap<>(SPACE, KeyLayout.MORTON);
+        long[] keys = new long[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            keys[i] = source.pack(xs[i], ys[i], zs[i]);
+        }
+
+        HashVec3I2ObjectMap<String> target = new HashVec3I2ObjectMap<>(SPACE, KeyLayout.MORTON);
+        target.putAll(keys, values);
+        assertEquals(expected, target);
+
+        HashVec3I2ObjectMap<String> built = new HashVec3I2ObjectMap.Builder<String>(SPACE, KeyLayout.MORTON)
+                .putAll(keys, values).build();
+        assertEquals(expected, built);
+    }
+
+    @Test
+    void builder() {
+        HashVec3I2ObjectMap.Builder<String> builder = new HashVec3I2ObjectMap.Builder<>(SPACE);
+        for (int i = 0; i < COUNT / 2; i++) {
+            builder.put(xs[i], ys[i], zs[i], values[i]);
+        }
+
+        builder.putAll(Arrays.copyOfRange(xs, COUNT / 2, COUNT), Arrays.copyOfRange(ys, COUNT / 2, COUNT),
+                Arrays.copyOfRange(zs, COUNT / 2, COUNT), Arrays.copyOfRange(values, COUNT / 2, COUNT));
+
+        HashVec3I2ObjectMap<String> map = builder.build();
+        assertEquals(expected, map);
+        assertEquals(KeyLayout.XYZ, map.keyLayout());
+    }
+
+    @Test
+    void putAllAcrossLayouts() {
+        HashVec3I2ObjectMap<String> source = new HashVec3I2ObjectMap<>(SPACE, KeyLayout.MORTON);
+        source.putAll(xs, ys, zs, values);
+
+        HashVec3I2ObjectMap<String> target = new HashVec3I2ObjectMap<>(SPACE);
+        target.putAll(source);
+        assertEquals(expected, target);
+
+        Vec3I2ObjectMap<String> unbounded = new UnboundedHashVec3I2ObjectMap<>();
+        unbounded.putAll(source);
+        HashVec3I2ObjectMap<String> fromOtherType = new HashVec3I2ObjectMap<>(SPACE);
+        fromOtherType.putAll(unbounded);
+        assertEquals(expected, fromOtherType);
+    }
+
+    @Test
+    void invalidArguments() {
+        Vec3I2ObjectMap<String> map = new HashVec3I2ObjectMap<>(SPACE);
+        assertThrows(IllegalArgumentException.class, () -> map.putAll(new int[1], new int[2], new int[1],
+                new String[1]));
+        assertThrows(NullPointerException.class, () -> map.putAll(new int[1], new int[1], new int[1],
+                new String[1]));
+        assertThrows(NullPointerException.class, () -> new HashVec3I2ObjectMap.Builder<String>(SPACE)
+                .putAll(new long[1], new String[1]));
+    }
+}
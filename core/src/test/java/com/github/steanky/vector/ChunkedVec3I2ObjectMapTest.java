@@ -0,0 +1,127 @@
+package com.github.steanky.vector;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChunkedVec3I2ObjectMapTest {
+    private static final int FAR = 1 << 25;
+
+    private static Vec3I randomVec(Random random) {
+        //cluster around a few origins, two of which share a directory key
+        int origin = switch (random.nextInt(4)) {
+            case 0 -> 0;
+            case 1 -> FAR;
+            case 2 -> -FAR;
+            default -> Integer.MAX_VALUE - 20;
+        };
+
+        return Vec3I.immutable(origin + random.nextInt(40) - 20, random.nextInt(40) - 20,
+                origin + random.nextInt(40) - 20);
+    }
+
+    @Test
+    void matchesReferenceUnderRandomOperations() {
+        Map<Vec3I, Integer> reference = new HashMap<>();
+        ChunkedVec3I2ObjectMap<Integer> map = new ChunkedVec3I2ObjectMap<>();
+        Random random = new Random(23);
+        for (int i = 0; i < 200000; i++) {
+            Vec3I key = randomVec(random);
+            if (random.nextInt(5) < 3) {
+                assertEquals(reference.put(key, i), map.put(key.x(), key.y(), key.z(), i));
+            }
+            else {
+                assertEquals(reference.remove(key), map.remove(key.x(), key.y(), key.z()));
+            }
+
+            assertEquals(reference.size(), map.size());
+        }
+
+        assertEquals(reference, new HashMap<>(map));
+
+        Map<Vec3I, Integer> visited = new HashMap<>();
+        map.forEach((x, y, z, value) -> assertNull(visited.put(Vec3I.immutable(x, y, z), value)));
+        assertEquals(reference, visited);
+
+        map.replaceAll((x, y, z, value) -> value + 1);
+        reference.replaceAll((key, value) -> value + 1);
+        assertEquals(reference, new HashMap<>(map));
+
+        Iterator<Map.Entry<Vec3I, Integer>> iterator = map.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Vec3I, Integer> entry = iterator.next();
+            if (entry.getValue() % 2 == 0) {
+                iterator.remove();
+                reference.remove(entry.getKey());
+            }
+        }
+
+        assertEquals(reference, new HashMap<>(map));
+        assertEquals(reference.size(), map.size());
+
+        Bounds3I box = Bounds3I.immutable(FAR - 8, -8, FAR - 8, 16, 16, 16);
+        map.clear(box);
+        reference.keySet().removeIf(key -> box.contains(key.x(), key.y(), key.z()));
+        assertEquals(reference, new HashMap<>(map));
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertEquals(0, map.sectionCount());
+        assertNull(map.get(0, 0, 0));
+    }
+
+    @Test
+    void collidingSectionsStayDistinct() {
+        ChunkedVec3I2ObjectMap<String> map = new ChunkedVec3I2ObjectMap<>();
+        map.put(1, 2, 3, "near");
+        map.put(FAR + 1, 2, 3, "far");
+        map.put(-FAR + 1, 2, 3, "negative");
+
+        assertEquals(3, map.sectionCount());
+        assertEquals("near", map.get(1, 2, 3));
+        assertEquals("far", map.get(FAR + 1, 2, 3));
+        assertEquals("negative", map.get(-FAR + 1, 2, 3));
+
+        assertEquals("far", map.remove(FAR + 1, 2, 3));
+        assertEquals(2, map.sectionCount());
+        assertEquals("near", map.get(1, 2, 3));
+        assertEquals("negative", map.get(-FAR + 1, 2, 3));
+        assertNull(map.get(FAR + 1, 2, 3));
+    }
+
+    @Test
+    void neighborsMatchDefault() {
+        ChunkedVec3I2ObjectMap<Integer> map = new ChunkedVec3I2ObjectMap<>();
+        Vec3I2ObjectMap<Integer> reference = new UnboundedHashVec3I2ObjectMap<>();
+        Random random = new Random(230);
+        for (int i = 0; i < 20000; i++) {
+            Vec3I key = randomVec(random);
+            map.put(key.x(), key.y(), key.z(), i);
+            reference.put(key.x(), key.y(), key.z(), i);
+        }
+
+        Integer[] expected = new Integer[26];
+        Integer[] actual = new Integer[26];
+        for (int i = 0; i < 2000; i++) {
+            Vec3I center = randomVec(random);
+            for (NeighborhoodKind kind : NeighborhoodKind.values()) {
+                int expectedCount = Neighbors.get(reference, center.x(), center.y(), center.z(), kind, expected);
+                assertEquals(expectedCount, map.getNeighbors(center.x(), center.y(), center.z(), kind, actual));
+                assertArrayEquals(Arrays.copyOf(expected, kind.size()), Arrays.copyOf(actual, kind.size()));
+
+                List<Integer> visited = new ArrayList<>();
+                map.forEachNeighbor(center.x(), center.y(), center.z(), kind, (x, y, z, value) -> {
+                    assertEquals(reference.get(x, y, z), value);
+                    visited.add(value);
+                });
+
+                assertEquals(expectedCount, visited.size());
+            }
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> map.getNeighbors(0, 0, 0, NeighborhoodKind.CORNERS,
+                new Integer[6]));
+    }
+}
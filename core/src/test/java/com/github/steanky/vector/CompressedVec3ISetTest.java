@@ -0,0 +1,145 @@
+package com.github.steanky.vector;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressedVec3ISetTest {
+    private static Set<Vec3I> elements(Vec3ISet set) {
+        Set<Vec3I> elements = new HashSet<>();
+        set.forEach((x, y, z) -> assertTrue(elements.add(Vec3I.immutable(x, y, z))));
+        return elements;
+    }
+
+    //sparse noise, plus a solid box and a dense shell, so that every kind of container is exercised
+    private static void fill(Random random, CompressedVec3ISet set, Set<Vec3I> reference, int offset) {
+        for (int i = 0; i < 5000; i++) {
+            int x = random.nextInt(200) - 100 + offset;
+            int y = random.nextInt(200) - 100;
+            int z = random.nextInt(200) - 100;
+            set.add(x, y, z);
+            reference.add(Vec3I.immutable(x, y, z));
+        }
+
+        Bounds3I.immutable(offset - 40, -40, -40, 70, 40, 50).forEach((x, y, z) -> {
+            set.add(x, y, z);
+            reference.add(Vec3I.immutable(x, y, z));
+        });
+
+        Bounds3I.immutable(offset + 10, 10, 10, 60, 60, 60).forEach((x, y, z) -> {
+            if (random.nextInt(3) != 0) {
+                set.add(x, y, z);
+                reference.add(Vec3I.immutable(x, y, z));
+            }
+        });
+    }
+
+    @Test
+    void matchesReferenceUnderRandomOperations() {
+        Set<Vec3I> reference = new HashSet<>();
+        CompressedVec3ISet set = new CompressedVec3ISet();
+        Random random = new Random(25);
+
+        fill(random, set, reference, 0);
+        assertEquals(reference.size(), set.size());
+        assertEquals(reference, elements(set));
+
+        set.optimize();
+        assertEquals(reference.size(), set.size());
+        assertEquals(reference, elements(set));
+
+        //carve holes into the now run-encoded box and thin out the shell
+        for (int i = 0; i < 200000; i++) {
+            int x = random.nextInt(140) - 50;
+            int y = random.nextInt(140) - 50;
+            int z = random.nextInt(140) - 50;
+            Vec3I key = Vec3I.immutable(x, y, z);
+            if (random.nextInt(4) == 0) {
+                assertEquals(reference.add(key), set.add(x, y, z));
+            }
+            else {
+                assertEquals(reference.remove(key), set.remove(x, y, z));
+            }
+
+            if (i % 1000 == 0) {
+                Vec3I probe = Vec3I.immutable(random.nextInt(140) - 50, random.nextInt(140) - 50,
+                        random.nextInt(140) - 50);
+                assertEquals(reference.contains(probe), set.contains(probe.x(), probe.y(), probe.z()));
+            }
+        }
+
+        assertEquals(reference.size(), set.size());
+        assertEquals(reference, elements(set));
+
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(0, 0, 0));
+    }
+
+    @Test
+    void setAlgebraMatchesReference() {
+        Random random = new Random(250);
+        Set<Vec3I> firstReference = new HashSet<>();
+        Set<Vec3I> secondReference = new HashSet<>();
+        CompressedVec3ISet first = new CompressedVec3ISet();
+        CompressedVec3ISet second = new CompressedVec3ISet();
+        fill(random, first, firstReference, 0);
+        fill(random, second, secondReference, 37);
+        first.optimize();
+
+        CompressedVec3ISet union = new CompressedVec3ISet();
+        union.union(first);
+        union.union(second);
+        Set<Vec3I> expectedUnion = new HashSet<>(firstReference);
+        expectedUnion.addAll(secondReference);
+        assertEquals(expectedUnion.size(), union.size());
+        assertEquals(expectedUnion, elements(union));
+
+        CompressedVec3ISet intersection = new CompressedVec3ISet();
+        intersection.addAll(first);
+        intersection.intersect(second);
+        Set<Vec3I> expectedIntersection = new HashSet<>(firstReference);
+        expectedIntersection.retainAll(secondReference);
+        assertEquals(expectedIntersection.size(), intersection.size());
+        assertEquals(expectedIntersection, elements(intersection));
+
+        CompressedVec3ISet difference = new CompressedVec3ISet();
+        difference.union(first);
+        difference.andNot(second);
+        Set<Vec3I> expectedDifference = new HashSet<>(firstReference);
+        expectedDifference.removeAll(secondReference);
+        assertEquals(expectedDifference.size(), difference.size());
+        assertEquals(expectedDifference, elements(difference));
+
+        //the operands are unchanged, and results stay mutable
+        assertEquals(firstReference, elements(first));
+        assertEquals(secondReference, elements(second));
+        difference.add(1000, 1000, 1000);
+        assertFalse(first.contains(1000, 1000, 1000));
+
+        difference.andNot(difference);
+        assertTrue(difference.isEmpty());
+    }
+
+    @Test
+    void distantBlocksStayDistinct() {
+        CompressedVec3ISet set = new CompressedVec3ISet();
+        int far = 1 << 26;
+        set.add(1, 2, 3);
+        set.add(far + 1, 2, 3);
+        set.add(Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MIN_VALUE);
+
+        assertEquals(3, set.size());
+        assertTrue(set.contains(far + 1, 2, 3));
+        assertTrue(set.contains(Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MIN_VALUE));
+        assertTrue(set.remove(1, 2, 3));
+        assertFalse(set.contains(1, 2, 3));
+        assertTrue(set.contains(far + 1, 2, 3));
+        assertEquals(Set.of(Vec3I.immutable(far + 1, 2, 3),
+                Vec3I.immutable(Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MIN_VALUE)), elements(set));
+    }
+}
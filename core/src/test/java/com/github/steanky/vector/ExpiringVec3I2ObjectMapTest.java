@@ -0,0 +1,120 @@
+package com.github.steanky.vector;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpiringVec3I2ObjectMapTest {
+    private static final Bounds3I BOUNDS = Bounds3I.immutable(0, 0, 0, 64, 64, 64);
+
+    private record Timed(int value, long deadline) {}
+
+    @Test
+    void expiresExactlyAtDeadline() {
+        List<Integer> expired = new ArrayList<>();
+        ExpiringVec3I2ObjectMap<Integer> map = new ExpiringVec3I2ObjectMap<>(BOUNDS, 10,
+                (x, y, z, value) -> expired.add(value));
+        map.put(0, 0, 0, 0);
+        map.put(1, 0, 0, 1, 3);
+        map.put(2, 0, 0, 2, Long.MAX_VALUE);
+        assertEquals(3, map.timeToLive(1, 0, 0));
+
+        map.advance(2);
+        assertEquals(1, map.get(1, 0, 0));
+        assertEquals(1, map.timeToLive(1, 0, 0));
+
+        map.advance(1);
+        assertNull(map.get(1, 0, 0));
+        assertEquals(0, map.timeToLive(1, 0, 0));
+        assertEquals(List.of(1), expired);
+
+        map.put(0, 0, 0, 10);
+        map.advance(9);
+        assertEquals(10, map.get(0, 0, 0));
+        map.advance(1);
+        assertNull(map.get(0, 0, 0));
+
+        map.advanceTo(Long.MAX_VALUE - 1);
+        assertEquals(2, map.get(2, 0, 0));
+        assertEquals(List.of(1, 10), expired);
+        assertThrows(IllegalArgumentException.class, () -> map.advanceTo(0));
+    }
+
+    @Test
+    void matchesReferenceUnderRandomTimes() {
+        Map<Vec3I, Timed> reference = new HashMap<>();
+        long[] now = new long[1];
+        ExpiringVec3I2ObjectMap<Integer> map = new ExpiringVec3I2ObjectMap<>(BOUNDS, 100, (x, y, z, value) -> {
+            Timed timed = reference.remove(Vec3I.immutable(x, y, z));
+            assertNotNull(timed);
+            assertEquals(timed.value(), value);
+            assertTrue(timed.deadline() <= now[0], "expired early");
+        });
+
+        Random random = new Random(19);
+        for (int i = 0; i < 30000; i++) {
+            int x = random.nextInt(20);
+            int y = random.nextInt(20);
+            int z = random.nextInt(20);
+            Vec3I key = Vec3I.immutable(x, y, z);
+
+            switch (random.nextInt(10)) {
+                case 0 -> {
+                    Timed old = reference.remove(key);
+                    assertEquals(old == null ? null : old.value(), map.remove(x, y, z));
+                }
+                case 1 -> {
+                    long ticks = random.nextInt(8) == 0 ? random.nextInt(300000) : random.nextInt(50);
+                    now[0] += ticks;
+                    map.advance(ticks);
+                    assertEquals(now[0], map.currentTime());
+
+                    for (Timed timed : reference.values()) {
+                        assertTrue(timed.deadline() > now[0], "expired late");
+                    }
+                }
+                case 2 -> {
+                    map.put(x, y, z, i);
+                    reference.put(key, new Timed(i, now[0] + 100));
+                }
+                default -> {
+                    long timeToLive = random.nextInt(5) == 0 ? 1 + random.nextInt(1000000) : 1 + random.nextInt(200);
+                    map.put(x, y, z, i, timeToLive);
+                    reference.put(key, new Timed(i, now[0] + timeToLive));
+                }
+            }
+
+            assertEquals(reference.size(), map.size());
+        }
+
+        Map<Vec3I, Integer> contents = new HashMap<>();
+        map.forEach((x, y, z, value) -> contents.put(Vec3I.immutable(x, y, z), value));
+        assertEquals(reference.size(), contents.size());
+        reference.forEach((key, timed) -> {
+            assertEquals(timed.value(), contents.get(key));
+            assertEquals(timed.deadline() - now[0], map.timeToLive(key.x(), key.y(), key.z()));
+        });
+
+        now[0] += 2000000;
+        map.advance(2000000);
+        assertTrue(map.isEmpty());
+        assertTrue(reference.isEmpty());
+    }
+
+    @Test
+    void validatesTimeToLive() {
+        assertThrows(IllegalArgumentException.class, () -> new ExpiringVec3I2ObjectMap<>(BOUNDS, 0));
+
+        ExpiringVec3I2ObjectMap<Integer> map = new ExpiringVec3I2ObjectMap<>(BOUNDS, 5);
+        assertEquals(5, map.defaultTimeToLive());
+        assertThrows(IllegalArgumentException.class, () -> map.put(0, 0, 0, 0, -1));
+        assertThrows(IllegalArgumentException.class, () -> map.advance(-1));
+        assertThrows(NullPointerException.class, () -> map.put(0, 0, 0, null));
+    }
+}
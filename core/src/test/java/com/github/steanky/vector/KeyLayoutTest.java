@@ -0,0 +1,90 @@
+package com.github.steanky.vector;
+
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyLayoutTest {
+    private static void assertBijective(Bounds3I bounds, KeyLayout layout) {
+        HashVec3I2ObjectMap<Object> map = new HashVec3I2ObjectMap<>(bounds, layout);
+        assertEquals(layout, map.keyLayout());
+
+        LongSet keys = new LongOpenHashSet();
+        for (int x = 0; x < map.width(); x++) {
+            for (int y = 0; y < map.height(); y++) {
+                for (int z = 0; z < map.depth(); z++) {
+                    int ax = x + map.originX();
+                    int ay = y + map.originY();
+                    int az = z + map.originZ();
+
+                    long key = map.pack(ax, ay, az);
+                    assertTrue(key >= 0 && key < map.addressableSize(), layout + ": key out of range");
+                    assertTrue(keys.add(key), layout + ": duplicate key");
+                    assertEquals(Vec3I.immutable(ax, ay, az), map.unpack(key));
+                }
+            }
+        }
+    }
+
+    @Test
+    void everyLayoutIsBijective() {
+        for (KeyLayout layout : KeyLayout.values()) {
+            assertBijective(Bounds3I.immutable(-3, 5, -7, 7, 7, 7), layout);
+            assertBijective(Bounds3I.immutable(10, -20, 0, 30, 3, 12), layout);
+            assertBijective(Bounds3I.immutable(0, 0, 0, 1, 60, 5), layout);
+        }
+    }
+
+    @Test
+    void axisOrderSignificance() {
+        HashVec3I2ObjectMap<Object> map = new HashVec3I2ObjectMap<>(0, 0, 0, 16, 16, 16, KeyLayout.YZX, 16, 0.75F);
+        assertEquals(1, map.pack(1, 0, 0));
+        assertEquals(16, map.pack(0, 0, 1));
+        assertEquals(256, map.pack(0, 1, 0));
+
+        HashVec3I2ObjectMap<Object> defaultMap = new HashVec3I2ObjectMap<>(0, 0, 0, 16, 16, 16);
+        assertEquals(KeyLayout.XYZ, defaultMap.keyLayout());
+        assertEquals(256, defaultMap.pack(1, 0, 0));
+        assertEquals(1, defaultMap.pack(0, 0, 1));
+    }
+
+    @Test
+    void mortonInterleaves() {
+        HashVec3I2ObjectMap<Object> map = new HashVec3I2ObjectMap<>(Bounds3I.immutable(0, 0, 0, 16, 16, 16),
+                KeyLayout.MORTON);
+        assertEquals(1, map.pack(0, 0, 1));
+        assertEquals(2, map.pack(0, 1, 0));
+        assertEquals(4, map.pack(1, 0, 0));
+        assertEquals(7, map.pack(1, 1, 1));
+        assertEquals(8, map.pack(0, 0, 2));
+
+        //every 2x2x2 cube aligned on even coordinates occupies a run of 8 consecutive keys
+        long base = map.pack(6, 2, 4);
+        assertEquals(0, base & 7);
+        assertEquals(base + 7, map.pack(7, 3, 5));
+
+        //extra bits of the longer axis continue once the others run out
+        HashVec3I2ObjectMap<Object> uneven = new HashVec3I2ObjectMap<>(Bounds3I.immutable(0, 0, 0, 2, 2, 8),
+                KeyLayout.MORTON);
+        assertEquals(8, uneven.pack(0, 0, 2));
+        assertEquals(16, uneven.pack(0, 0, 4));
+        assertEquals(Vec3I.immutable(1, 1, 7), uneven.unpack(uneven.pack(1, 1, 7)));
+    }
+
+    @Test
+    void mapOperationsWithMorton() {
+        Vec3I2ObjectMap<String> map = new HashVec3I2ObjectMap<>(Bounds3I.immutable(-8, -8, -8, 16, 16, 16),
+                KeyLayout.MORTON);
+        map.put(-8, 7, 3, "a");
+        map.put(0, 0, 0, "b");
+
+        assertEquals("a", map.get(-8, 7, 3));
+        assertEquals("b", map.get(0, 0, 0));
+
+        Vec3I2ObjectMap<String> copy = new HashVec3I2ObjectMap<>(-8, -8, -8, 16, 16, 16);
+        map.forEach((x, y, z, value) -> copy.put(x, y, z, value));
+        assertEquals(copy, map);
+    }
+}
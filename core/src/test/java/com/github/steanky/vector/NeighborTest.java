@@ -0,0 +1,106 @@
+package com.github.steanky.vector;
+
+import org.junit.jupiter.api.Named;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NeighborTest {
+    private static final Bounds3I BOUNDS = Bounds3I.immutable(-4, 0, 10, 8, 4, 16);
+
+    private static Stream<Named<Vec3I2ObjectMap<Integer>>> maps() {
+        List<Named<Vec3I2ObjectMap<Integer>>> maps = new ArrayList<>();
+        maps.add(TestMaps.named(new ArrayVec3I2ObjectMap<>(BOUNDS)));
+        maps.add(TestMaps.named(new UnboundedHashVec3I2ObjectMap<>()));
+        for (KeyLayout layout : KeyLayout.values()) {
+            maps.add(Named.of("HashVec3I2ObjectMap " + layout, new HashVec3I2ObjectMap<>(BOUNDS, layout)));
+        }
+
+        //smaller than BOUNDS, so keys wrap around
+        maps.add(Named.of("HashVec3I2ObjectMap MORTON (wrapping)",
+                new HashVec3I2ObjectMap<>(Bounds3I.immutable(0, 0, 0, 8, 8, 8), KeyLayout.MORTON)));
+        maps.add(TestMaps.named(new PersistentVec3I2ObjectMap<>(BOUNDS)));
+        return maps.stream();
+    }
+
+    private static void fill(Vec3I2ObjectMap<Integer> map, Random random) {
+        for (int i = 0; i < 150; i++) {
+            map.put(BOUNDS.originX() + random.nextInt(BOUNDS.lengthX()),
+                    BOUNDS.originY() + random.nextInt(BOUNDS.lengthY()),
+                    BOUNDS.originZ() + random.nextInt(BOUNDS.lengthZ()), i);
+        }
+    }
+
+    @Test
+    void offsetsAreOrderedAndDistinct() {
+        assertEquals(6, NeighborhoodKind.FACES.size());
+        assertEquals(18, NeighborhoodKind.EDGES.size());
+        assertEquals(26, NeighborhoodKind.CORNERS.size());
+
+        NeighborhoodKind kind = NeighborhoodKind.FACES;
+        assertEquals(Vec3I.immutable(-1, 0, 0), Vec3I.immutable(kind.offsetX(0), kind.offsetY(0), kind.offsetZ(0)));
+        assertEquals(Vec3I.immutable(0, 0, 1), Vec3I.immutable(kind.offsetX(3), kind.offsetY(3), kind.offsetZ(3)));
+        assertEquals(Vec3I.immutable(1, 0, 0), Vec3I.immutable(kind.offsetX(5), kind.offsetY(5), kind.offsetZ(5)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("maps")
+    void neighborsMatchIndividualLookups(Vec3I2ObjectMap<Integer> map) {
+        fill(map, new Random(16));
+
+        Integer[] out = new Integer[27];
+        for (int x = BOUNDS.originX() - 1; x <= BOUNDS.originX() + BOUNDS.lengthX(); x++) {
+            for (int y = BOUNDS.originY() - 1; y <= BOUNDS.originY() + BOUNDS.lengthY(); y++) {
+                for (int z = BOUNDS.originZ() - 1; z <= BOUNDS.originZ() + BOUNDS.lengthZ(); z++) {
+                    for (NeighborhoodKind kind : NeighborhoodKind.values()) {
+                        out[kind.size()] = -1;
+                        int count = map.getNeighbors(x, y, z, kind, out);
+                        assertEquals(-1, out[kind.size()]);
+
+                        int expectedCount = 0;
+                        List<Object> expectedVisits = new ArrayList<>();
+                        for (int i = 0; i < kind.size(); i++) {
+                            int nx = x + kind.offsetX(i);
+                            int ny = y + kind.offsetY(i);
+                            int nz = z + kind.offsetZ(i);
+
+                            Integer expected = map.get(nx, ny, nz);
+                            assertEquals(expected, out[i]);
+                            if (expected != null) {
+                                expectedCount++;
+                                expectedVisits.add(List.of(nx, ny, nz, expected));
+                            }
+                        }
+
+                        assertEquals(expectedCount, count);
+
+                        List<Object> visits = new ArrayList<>();
+                        map.forEachNeighbor(x, y, z, kind, (nx, ny, nz, value) -> visits.add(List.of(nx, ny,
+                                nz, value)));
+                        assertEquals(expectedVisits, visits);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void defaultOverloadGetsAllNeighbors() {
+        HashVec3I2ObjectMap<Integer> map = new HashVec3I2ObjectMap<>(BOUNDS);
+        map.put(0, 1, 11, 1);
+        map.put(1, 2, 12, 2);
+
+        Integer[] out = new Integer[26];
+        assertEquals(2, map.getNeighbors(1, 1, 11, out));
+        assertThrows(IllegalArgumentException.class, () -> map.getNeighbors(1, 1, 11, new Integer[25]));
+        assertThrows(IllegalArgumentException.class, () -> new ArrayVec3I2ObjectMap<Integer>(BOUNDS)
+                .getNeighbors(0, 0, 0, NeighborhoodKind.FACES, new Integer[5]));
+    }
+}
@@ -0,0 +1,120 @@
+package com.github.steanky.vector;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NonBlockingVec3I2ObjectMapTest {
+    @Test
+    void basicOperations() {
+        Vec3I2ObjectMap<String> map = new NonBlockingVec3I2ObjectMap<>(0, 0, 0, 16, 16, 16, 4);
+        assertNull(map.put(1, 2, 3, "a"));
+        assertEquals("a", map.put(1, 2, 3, "b"));
+        assertEquals("b", map.putIfAbsent(1, 2, 3, "c"));
+        assertFalse(map.replace(1, 2, 3, "a", "c"));
+        assertTrue(map.replace(1, 2, 3, "b", "c"));
+        assertTrue(map.containsKey(1, 2, 3));
+        assertEquals(1, map.size());
+
+        assertNull(map.compute(1, 2, 3, (x, y, z, old) -> null));
+        assertTrue(map.isEmpty());
+
+        //the origin packs to the key 0, which is stored separately
+        assertEquals("x", map.computeIfAbsent(0, 0, 0, (x, y, z) -> "x"));
+        assertEquals("xy", map.merge(0, 0, 0, "y", String::concat));
+        assertEquals(1, map.size());
+        assertFalse(map.remove(0, 0, 0, "x"));
+        assertNull(map.computeIfPresent(0, 0, 0, (x, y, z, old) -> null));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    void iterationAcrossResizes() {
+        Vec3I2ObjectMap<Integer> map = new NonBlockingVec3I2ObjectMap<>(Bounds3I.immutable(0, 0, 0, 16, 16, 16), 0);
+        Map<Vec3I, Integer> expected = new HashMap<>();
+        Bounds3I.immutable(0, 0, 0, 16, 16, 16).forEach((x, y, z) -> {
+            map.put(x, y, z, x + y + z);
+            expected.put(Vec3I.immutable(x, y, z), x + y + z);
+        });
+
+        assertEquals(expected, map);
+
+        Map<Vec3I, Integer> visited = new HashMap<>();
+        map.forEach((x, y, z, value) -> visited.put(Vec3I.immutable(x, y, z), value));
+        assertEquals(expected, visited);
+
+        map.entrySet().removeIf(entry -> entry.getValue() > 10);
+        expected.values().removeIf(value -> value > 10);
+        assertEquals(expected, map);
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(1, 1, 1));
+    }
+
+    @Test
+    void concurrentPutsDuringResize() throws InterruptedException {
+        Vec3I2ObjectMap<Integer> map = new NonBlockingVec3I2ObjectMap<>(0, 0, 0, 64, 64, 64, 0);
+        int threadCount = 8;
+        int perThread = 4096;
+
+        List<Thread> threads = new ArrayList<>(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            int x = i;
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < perThread; j++) {
+                    map.put(x, j >> 6, j & 63, j);
+                    assertEquals(j, map.get(x, j >> 6, j & 63));
+                }
+            });
+
+            threads.add(thread);
+            thread.start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(threadCount * perThread, map.size());
+        for (int i = 0; i < threadCount; i++) {
+            for (int j = 0; j < perThread; j++) {
+                assertEquals(j, map.get(i, j >> 6, j & 63));
+            }
+        }
+    }
+
+    @Test
+    void atomicMerge() throws InterruptedException {
+        Vec3I2ObjectMap<Integer> map = new NonBlockingVec3I2ObjectMap<>(0, 0, 0, 4, 4, 4);
+        int threadCount = 8;
+        int iterations = 10000;
+
+        List<Thread> threads = new ArrayList<>(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < iterations; j++) {
+                    map.merge(j & 3, 0, 0, 1, Integer::sum);
+                    map.compute(0, j & 3, 1, (x, y, z, old) -> old == null ? 1 : old + 1);
+                }
+            });
+
+            threads.add(thread);
+            thread.start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(threadCount * iterations / 4, map.get(i, 0, 0));
+            assertEquals(threadCount * iterations / 4, map.get(0, i, 1));
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.github.steanky.vector;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ObservableVec3I2ObjectMapTest {
+    private static final Bounds3I BOUNDS = Bounds3I.immutable(-32, -32, -32, 64, 64, 64);
+
+    private record Change(int x, int y, int z, Integer oldValue, Integer newValue) {}
+
+    private static Set<Vec3I> drain(ObservableVec3I2ObjectMap<?> map) {
+        Set<Vec3I> sections = new HashSet<>();
+        long count = map.drainDirty((x, y, z) -> assertTrue(sections.add(Vec3I.immutable(x, y, z))));
+        assertEquals(sections.size(), count);
+        assertEquals(0, map.dirtyCount());
+        return sections;
+    }
+
+    @Test
+    void recordsDirtySections() {
+        //the wrapped map covers more than the tracked bounds, so changes outside of them are not recorded
+        ObservableVec3I2ObjectMap<Integer> map = new ObservableVec3I2ObjectMap<>(
+                new HashVec3I2ObjectMap<>(-512, -512, -512, 1024, 1024, 1024), BOUNDS);
+        map.put(0, 0, 0, 0);
+        map.put(15, 15, 15, 1);
+        map.put(-1, 0, 16, 2);
+        map.put(100, 0, 0, 3);
+
+        assertTrue(map.isDirty(-1, 0, 1));
+        assertEquals(2, map.dirtyCount());
+        assertEquals(Set.of(Vec3I.immutable(0, 0, 0), Vec3I.immutable(-1, 0, 1)), drain(map));
+        assertTrue(drain(map).isEmpty());
+
+        Integer value = map.get(0, 0, 0);
+        map.put(0, 0, 0, value);
+        map.remove(1, 1, 1);
+        map.computeIfPresent(15, 15, 15, (x, y, z, old) -> old);
+        assertTrue(drain(map).isEmpty());
+
+        map.computeIfAbsent(-32, -32, -32, (x, y, z) -> 4);
+        map.merge(-1, 0, 16, 10, Integer::sum);
+        assertEquals(Set.of(Vec3I.immutable(-2, -2, -2), Vec3I.immutable(-1, 0, 1)), drain(map));
+
+        map.clear(Bounds3I.immutable(-32, -32, -32, 16, 16, 16));
+        assertEquals(Set.of(Vec3I.immutable(-2, -2, -2)), drain(map));
+
+        map.clear();
+        assertEquals(Set.of(Vec3I.immutable(0, 0, 0), Vec3I.immutable(-1, 0, 1)), drain(map));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    void notifiesListenersOfEveryChange() {
+        List<Change> changes = new ArrayList<>();
+        Vec3IObjectChangeListener<Integer> listener = (x, y, z, oldValue, newValue) ->
+                changes.add(new Change(x, y, z, oldValue, newValue));
+        ObservableVec3I2ObjectMap<Integer> map = new ObservableVec3I2ObjectMap<>(new ArrayVec3I2ObjectMap<>(BOUNDS),
+                BOUNDS);
+        map.addListener(listener);
+
+        map.put(1, 2, 3, 1);
+        map.put(1, 2, 3, 2);
+        map.replace(1, 2, 3, 2, 3);
+        map.putIfAbsent(1, 2, 3, 4);
+        map.put(0, 0, 0, 5);
+        map.replaceAll((x, y, z, value) -> value * 10);
+
+        Vec3IObjectCursor<Integer> cursor = map.cursor();
+        while (cursor.next()) {
+            if (cursor.value() == 50) {
+                cursor.remove();
+            }
+        }
+
+        Iterator<Map.Entry<Vec3I, Integer>> iterator = map.entrySet().iterator();
+        Map.Entry<Vec3I, Integer> entry = iterator.next();
+        entry.setValue(7);
+        iterator.remove();
+
+        assertEquals(List.of(
+                new Change(1, 2, 3, null, 1),
+                new Change(1, 2, 3, 1, 2),
+                new Change(1, 2, 3, 2, 3),
+                new Change(0, 0, 0, null, 5),
+                new Change(0, 0, 0, 5, 50),
+                new Change(1, 2, 3, 3, 30),
+                new Change(0, 0, 0, 50, null),
+                new Change(1, 2, 3, 30, 7),
+                new Change(1, 2, 3, 7, null)), changes);
+        assertTrue(map.isEmpty());
+
+        changes.clear();
+        assertTrue(map.removeListener(listener));
+        map.put(0, 0, 0, 0);
+        assertTrue(changes.isEmpty());
+        assertEquals(1, map.dirtyCount());
+    }
+
+    @Test
+    void matchesReferenceUnderRandomOperations() {
+        Map<Vec3I, Integer> reference = new HashMap<>();
+        Set<Vec3I> expectedDirty = new HashSet<>();
+        ObservableVec3I2ObjectMap<Integer> map = new ObservableVec3I2ObjectMap<>(new HashVec3I2ObjectMap<>(BOUNDS),
+                BOUNDS);
+        map.addListener((x, y, z, oldValue, newValue) -> {
+            assertNotSame(oldValue, newValue);
+            assertEquals(oldValue, reference.get(Vec3I.immutable(x, y, z)));
+            expectedDirty.add(Vec3I.immutable(x >> 4, y >> 4, z >> 4));
+            if (newValue == null) {
+                reference.remove(Vec3I.immutable(x, y, z));
+            }
+            else {
+                reference.put(Vec3I.immutable(x, y, z), newValue);
+            }
+        });
+
+        Random random = new Random(20);
+        for (int i = 0; i < 20000; i++) {
+            int x = random.nextInt(64) - 32;
+            int y = random.nextInt(64) - 32;
+            int z = random.nextInt(64) - 32;
+
+            switch (random.nextInt(6)) {
+                case 0 -> map.remove(x, y, z);
+                case 1 -> map.compute(x, y, z, (a, b, c, old) -> old == null ? 1 : null);
+                case 2 -> {
+                    assertEquals(expectedDirty, drain(map));
+                    expectedDirty.clear();
+                }
+                default -> map.put(x, y, z, random.nextInt(1000));
+            }
+
+            if (random.nextInt(1000) == 0) {
+                map.clear();
+            }
+
+            assertEquals(reference.size(), map.size());
+            assertEquals(expectedDirty.size(), map.dirtyCount());
+        }
+
+        assertEquals(reference, new HashMap<>(map));
+    }
+}
@@ -0,0 +1,151 @@
+package com.github.steanky.vector;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapVec3IMapTest {
+    @Test
+    void basicOperations() {
+        try (OffHeapVec3I2IntMap map = new OffHeapVec3I2IntMap(0, 0, 0, 16, 16, 16)) {
+            map.defaultReturnValue(-1);
+            assertEquals(-1, map.put(1, 2, 3, 10));
+            assertEquals(10, map.put(1, 2, 3, 20));
+            assertEquals(20, map.addTo(1, 2, 3, 5));
+            assertEquals(25, map.get(1, 2, 3));
+            assertEquals(-1, map.addTo(4, 4, 4, 2));
+            assertEquals(1, map.get(4, 4, 4));
+
+            //the origin packs to the key 0, which is stored separately
+            assertEquals(7, map.computeIfAbsent(0, 0, 0, (x, y, z) -> 7));
+            assertEquals(7, map.computeIfAbsent(0, 0, 0, (x, y, z) -> 8));
+            assertTrue(map.containsKey(0, 0, 0));
+            assertEquals(3, map.size());
+
+            assertEquals(7, map.remove(0, 0, 0));
+            assertEquals(-1, map.remove(0, 0, 0));
+            assertEquals(42, map.getOrDefault(0, 0, 0, 42));
+            assertEquals(2, map.size());
+
+            map.clear();
+            assertTrue(map.isEmpty());
+            assertFalse(map.containsKey(1, 2, 3));
+        }
+    }
+
+    @Test
+    void matchesHashMap() {
+        Random random = new Random(12345);
+        Map<Vec3I, Long> expected = new HashMap<>();
+        try (OffHeapVec3I2LongMap map = new OffHeapVec3I2LongMap(-32, -32, -32, 64, 64, 64, 0)) {
+            for (int i = 0; i < 100000; i++) {
+                int x = random.nextInt(64) - 32;
+                int y = random.nextInt(64) - 32;
+                int z = random.nextInt(8) - 4;
+                Vec3I key = Vec3I.immutable(x, y, z);
+
+                if (random.nextInt(3) == 0) {
+                    Long old = expected.remove(key);
+                    assertEquals(old == null ? 0 : old, map.remove(x, y, z));
+                }
+                else {
+                    long value = random.nextLong();
+                    Long old = expected.put(key, value);
+                    assertEquals(old == null ? 0 : old, map.put(x, y, z, value));
+                }
+            }
+
+            assertEquals(expected.size(), map.size());
+
+            Map<Vec3I, Long> visited = new HashMap<>();
+            map.forEach((x, y, z, value) -> visited.put(Vec3I.immutable(x, y, z), value));
+            assertEquals(expected, visited);
+
+            long allocated = map.allocatedBytes();
+            expected.keySet().forEach(key -> map.remove(key.x(), key.y(), key.z()));
+            assertTrue(map.trim());
+            assertTrue(map.allocatedBytes() < allocated);
+            assertTrue(map.isEmpty());
+        }
+    }
+
+    @Test
+    void narrowAndFloatingValues() {
+        try (OffHeapVec3I2ByteMap bytes = new OffHeapVec3I2ByteMap(Bounds3I.immutable(0, 0, 0, 4, 4, 4));
+                OffHeapVec3I2FloatMap floats = new OffHeapVec3I2FloatMap(0, 0, 0, 4, 4, 4);
+                OffHeapVec3I2DoubleMap doubles = new OffHeapVec3I2DoubleMap(0, 0, 0, 4, 4, 4)) {
+            bytes.put(1, 1, 1, (byte) -5);
+            assertEquals((byte) -5, bytes.get(1, 1, 1));
+            assertEquals((byte) -5, bytes.addTo(1, 1, 1, (byte) 10));
+            assertEquals((byte) 5, bytes.get(1, 1, 1));
+
+            floats.put(1, 2, 3, -0.5F);
+            assertEquals(-0.5F, floats.get(1, 2, 3));
+
+            doubles.put(3, 2, 1, Math.PI);
+            assertEquals(Math.PI, doubles.addTo(3, 2, 1, 1));
+            assertEquals(Math.PI + 1, doubles.get(3, 2, 1));
+        }
+    }
+
+    @Test
+    void floatingComputeIfAbsentReturnsValue() {
+        try (OffHeapVec3I2FloatMap floats = new OffHeapVec3I2FloatMap(0, 0, 0, 4, 4, 4);
+                OffHeapVec3I2DoubleMap doubles = new OffHeapVec3I2DoubleMap(0, 0, 0, 4, 4, 4)) {
+            assertEquals(1.5F, floats.computeIfAbsent(1, 2, 3, (x, y, z) -> 1.5F));
+            assertEquals(floats.get(1, 2, 3), floats.computeIfAbsent(1, 2, 3, (x, y, z) -> 2.5F));
+            assertEquals(1.5F, floats.get(1, 2, 3));
+
+            assertEquals(1.5, doubles.computeIfAbsent(3, 2, 1, (x, y, z) -> 1.5));
+            assertEquals(doubles.get(3, 2, 1), doubles.computeIfAbsent(3, 2, 1, (x, y, z) -> 2.5));
+            assertEquals(1.5, doubles.get(3, 2, 1));
+        }
+    }
+
+    @Test
+    void computeIfAbsentToleratesReentrantPut() {
+        try (OffHeapVec3I2IntMap map = new OffHeapVec3I2IntMap(0, 0, 0, 16, 16, 16, 0)) {
+            assertEquals(5, map.computeIfAbsent(1, 2, 3, (x, y, z) -> {
+                map.put(x, y, z, 4);
+                return 5;
+            }));
+
+            assertEquals(5, map.get(1, 2, 3));
+            assertEquals(1, map.size());
+
+            //enough reentrant insertions to grow the table before the computed value is stored
+            assertEquals(9, map.computeIfAbsent(2, 2, 2, (x, y, z) -> {
+                for (int i = 0; i < 100; i++) {
+                    map.put(i & 15, (i >> 4) & 15, 8, i);
+                }
+
+                map.put(x, y, z, -1);
+                return 9;
+            }));
+
+            assertEquals(9, map.get(2, 2, 2));
+            assertEquals(102, map.size());
+
+            int[] visited = new int[1];
+            map.forEach((x, y, z, value) -> visited[0]++);
+            assertEquals(102, visited[0]);
+        }
+    }
+
+    @Test
+    void closedMapThrows() {
+        OffHeapVec3I2IntMap map = new OffHeapVec3I2IntMap(0, 0, 0, 16, 16, 16);
+        map.put(1, 1, 1, 1);
+        map.close();
+        map.close();
+
+        assertEquals(0, map.allocatedBytes());
+        assertTrue(map.isEmpty());
+        assertThrows(IllegalStateException.class, () -> map.get(1, 1, 1));
+        assertThrows(IllegalStateException.class, () -> map.put(1, 1, 1, 1));
+    }
+}
@@ -0,0 +1,112 @@
+package com.github.steanky.vector;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PalettedVec3I2ObjectMapTest {
+    @Test
+    void iterateKeys() {
+        Vec3I2ObjectMap<String> map = new PalettedVec3I2ObjectMap<>(-32, -32, -32, 64, 64, 64);
+        map.put(-32, -32, -32, "test");
+        map.put(31, 31, 31, "test2");
+        map.put(0, 5, -3, "test");
+
+        Map<Vec3I, String> actual = new HashMap<>(3);
+        map.forEach((x, y, z, s) -> actual.put(Vec3I.immutable(x, y, z), s));
+
+        assertEquals(Map.of(Vec3I.immutable(-32, -32, -32), "test", Vec3I.immutable(31, 31, 31), "test2",
+                Vec3I.immutable(0, 5, -3), "test"), actual);
+        assertEquals(actual, map);
+    }
+
+    @Test
+    void manyDistinctValues() {
+        PalettedVec3I2ObjectMap<Integer> map = new PalettedVec3I2ObjectMap<>(0, 0, 0, 16, 16, 16);
+        Bounds3I bounds = Bounds3I.immutable(0, 0, 0, 16, 16, 16);
+
+        bounds.forEach((x, y, z) -> map.put(x, y, z, (x << 8) | (y << 4) | z));
+        assertEquals(4096, map.size());
+        assertEquals(1, map.sectionCount());
+        bounds.forEach((x, y, z) -> assertEquals((x << 8) | (y << 4) | z, map.get(x, y, z)));
+
+        bounds.forEach((x, y, z) -> map.put(x, y, z, x & 1));
+        assertEquals(4096, map.size());
+        bounds.forEach((x, y, z) -> assertEquals(x & 1, map.get(x, y, z)));
+
+        bounds.forEach((x, y, z) -> assertEquals(x & 1, map.remove(x, y, z)));
+        assertTrue(map.isEmpty());
+        assertEquals(0, map.sectionCount());
+    }
+
+    @Test
+    void paletteShrinks() {
+        PalettedVec3I2ObjectMap<Integer> map = new PalettedVec3I2ObjectMap<>(0, 0, 0, 16, 16, 16);
+        for (int i = 0; i < 100; i++) {
+            map.put(i & 15, i >>> 4, 0, i);
+        }
+
+        for (int i = 1; i < 100; i++) {
+            map.put(i & 15, i >>> 4, 0, 0);
+        }
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(0, map.get(i & 15, i >>> 4, 0));
+        }
+
+        assertEquals(100, map.size());
+        assertTrue(map.containsValue(0));
+        assertFalse(map.containsValue(50));
+    }
+
+    @Test
+    void iteratorRemove() {
+        PalettedVec3I2ObjectMap<String> map = new PalettedVec3I2ObjectMap<>(0, 0, 0, 64, 64, 64);
+        map.put(0, 0, 0, "a");
+        map.put(20, 0, 0, "b");
+        map.put(40, 40, 40, "c");
+
+        Iterator<Map.Entry<Vec3I, String>> iterator = map.entrySet().iterator();
+        int count = 0;
+        while (iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            count++;
+        }
+
+        assertEquals(3, count);
+        assertTrue(map.isEmpty());
+        assertEquals(0, map.sectionCount());
+    }
+
+    @Test
+    void computeIfAbsent() {
+        Vec3I2ObjectMap<Vec3I> map = new PalettedVec3I2ObjectMap<>(-4, -4, -4, 8, 8, 8);
+
+        Vec3I result = map.computeIfAbsent(0, 0, 0, (x, y, z) -> Vec3I.immutable(10, 10, 10));
+        assertEquals(Vec3I.immutable(10, 10, 10), result);
+        assertTrue(map.containsKey(0, 0, 0));
+
+        Vec3I result2 = map.computeIfAbsent(0, 0, 0, (x, y, z) -> Vec3I.immutable(20, 20, 20));
+        assertSame(result, result2);
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void cursorSetValueRequiresCurrentEntry() {
+        Vec3I2ObjectMap<String> map = new PalettedVec3I2ObjectMap<>(-4, -4, -4, 8, 8, 8);
+        map.put(1, 1, 1, "a");
+
+        Vec3IObjectCursor<String> cursor = map.cursor();
+        assertThrows(IllegalStateException.class, () -> cursor.setValue("b"));
+
+        assertTrue(cursor.next());
+        cursor.remove();
+        assertThrows(IllegalStateException.class, () -> cursor.setValue("c"));
+        assertTrue(map.isEmpty());
+    }
+}
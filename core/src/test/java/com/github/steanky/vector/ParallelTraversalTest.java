@@ -0,0 +1,103 @@
+package com.github.steanky.vector;
+
+import org.junit.jupiter.api.Named;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelTraversalTest {
+    private static final Bounds3I BOUNDS = Bounds3I.immutable(-32, -32, -32, 64, 64, 64);
+
+    private static Stream<Named<Vec3I2ObjectMap<Integer>>> maps() {
+        return TestMaps.objectMaps(BOUNDS);
+    }
+
+    private static Stream<Named<Vec3I2ObjectMap<Integer>>> exactlySplittingMaps() {
+        return Stream.<Vec3I2ObjectMap<Integer>>of(new ArrayVec3I2ObjectMap<>(BOUNDS),
+                new PalettedVec3I2ObjectMap<>(BOUNDS)).map(TestMaps::named);
+    }
+
+    private static void fill(Vec3I2ObjectMap<Integer> map) {
+        BOUNDS.forEach((x, y, z) -> {
+            if (((x * 7 + y * 3 + z) % 5) == 0) {
+                map.put(x, y, z, x ^ y ^ z);
+            }
+        });
+    }
+
+    @ParameterizedTest
+    @MethodSource("maps")
+    void parallelForEachVisitsEveryEntry(Vec3I2ObjectMap<Integer> map) {
+        fill(map);
+
+        Map<Vec3I, Integer> visited = new ConcurrentHashMap<>();
+        map.parallelForEach((x, y, z, value) -> assertNull(visited.put(Vec3I.immutable(x, y, z), value)));
+        assertEquals(map, visited);
+    }
+
+    @ParameterizedTest
+    @MethodSource("maps")
+    void parallelStream(Vec3I2ObjectMap<Integer> map) {
+        fill(map);
+
+        Map<Vec3I, Integer> collected = map.entrySet().parallelStream()
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        assertEquals(map, collected);
+    }
+
+    @ParameterizedTest
+    @MethodSource("exactlySplittingMaps")
+    void exactSplits(Vec3I2ObjectMap<Integer> map) {
+        fill(map);
+
+        Spliterator<Map.Entry<Vec3I, Integer>> spliterator = map.entrySet().spliterator();
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SUBSIZED));
+        assertEquals(map.size(), spliterator.getExactSizeIfKnown());
+
+        Spliterator<Map.Entry<Vec3I, Integer>> prefix = spliterator.trySplit();
+        assertNotNull(prefix);
+
+        long prefixSize = prefix.getExactSizeIfKnown();
+        long suffixSize = spliterator.getExactSizeIfKnown();
+        assertEquals(map.size(), prefixSize + suffixSize);
+
+        long[] counted = new long[1];
+        prefix.forEachRemaining(entry -> counted[0]++);
+        assertEquals(prefixSize, counted[0]);
+    }
+
+    @ParameterizedTest
+    @MethodSource("maps")
+    void parallelToArrayAndToList(Vec3I2ObjectMap<Integer> map) {
+        fill(map);
+
+        Object[] array = map.entrySet().parallelStream().toArray();
+        assertEquals(map.size(), array.length);
+        assertEquals(map.size(), new HashSet<>(Arrays.asList(array)).size());
+
+        List<Vec3I> keys = map.entrySet().parallelStream().map(Map.Entry::getKey).toList();
+        assertEquals(map.keySet(), new HashSet<>(keys));
+        assertEquals(map.size(), keys.size());
+    }
+
+    @Test
+    void unboundedSplitsAreNotExact() {
+        Vec3I2ObjectMap<Integer> map = new UnboundedHashVec3I2ObjectMap<>();
+        fill(map);
+
+        Spliterator<Map.Entry<Vec3I, Integer>> unbounded = map.entrySet().spliterator();
+        assertTrue(unbounded.hasCharacteristics(Spliterator.SIZED));
+        assertFalse(unbounded.hasCharacteristics(Spliterator.SUBSIZED));
+    }
+}
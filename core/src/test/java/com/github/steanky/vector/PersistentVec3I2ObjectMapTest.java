@@ -0,0 +1,193 @@
+package com.github.steanky.vector;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistentVec3I2ObjectMapTest {
+    private static final Bounds3I BOUNDS = Bounds3I.immutable(-64, -64, -64, 128, 128, 128);
+
+    private static void assertContents(Map<Vec3I, Integer> expected, PersistentVec3I2ObjectMap<Integer> map) {
+        assertEquals(expected.size(), map.size());
+        for (Map.Entry<Vec3I, Integer> entry : expected.entrySet()) {
+            Vec3I key = entry.getKey();
+            assertEquals(entry.getValue(), map.get(key.x(), key.y(), key.z()));
+        }
+
+        Map<Vec3I, Integer> iterated = new HashMap<>();
+        map.forEach((x, y, z, value) -> assertNull(iterated.put(Vec3I.immutable(x, y, z), value)));
+        assertEquals(expected, iterated);
+
+        Map<Vec3I, Integer> cursored = new HashMap<>();
+        Vec3IObjectCursor<Integer> cursor = map.cursor();
+        while (cursor.next()) {
+            assertNull(cursored.put(Vec3I.immutable(cursor.x(), cursor.y(), cursor.z()), cursor.value()));
+        }
+
+        assertEquals(expected, cursored);
+    }
+
+    @Test
+    void matchesHashMapUnderRandomOperations() {
+        PersistentVec3I2ObjectMap<Integer> map = new PersistentVec3I2ObjectMap<>(BOUNDS);
+        Map<Vec3I, Integer> expected = new HashMap<>();
+
+        Random random = new Random(15);
+        for (int i = 0; i < 20000; i++) {
+            int x = random.nextInt(16) - 8;
+            int y = random.nextInt(16) - 8;
+            int z = random.nextInt(16) - 8;
+            Vec3I key = Vec3I.immutable(x, y, z);
+
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(x, y, z));
+            }
+            else {
+                assertEquals(expected.put(key, i), map.put(x, y, z, i));
+            }
+        }
+
+        assertContents(expected, map);
+
+        for (Vec3I key : expected.keySet()) {
+            map.remove(key.x(), key.y(), key.z());
+        }
+
+        assertTrue(map.isEmpty());
+        assertFalse(map.cursor().next());
+    }
+
+    @Test
+    void snapshotIsIsolated() {
+        PersistentVec3I2ObjectMap<Integer> map = new PersistentVec3I2ObjectMap<>(BOUNDS, KeyLayout.MORTON);
+        Map<Vec3I, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            map.put(i % 10, i / 10 % 10, i / 100, i);
+            expected.put(Vec3I.immutable(i % 10, i / 10 % 10, i / 100), i);
+        }
+
+        PersistentVec3I2ObjectMap<Integer> snapshot = map.snapshot();
+        assertEquals(KeyLayout.MORTON, snapshot.keyLayout());
+        assertEquals(map.originX(), snapshot.originX());
+        assertEquals(map.width(), snapshot.width());
+
+        Map<Vec3I, Integer> original = new HashMap<>(expected);
+        for (int i = 0; i < 1000; i += 2) {
+            map.remove(i % 10, i / 10 % 10, i / 100);
+            expected.remove(Vec3I.immutable(i % 10, i / 10 % 10, i / 100));
+        }
+
+        map.put(-1, -1, -1, -1);
+        expected.put(Vec3I.immutable(-1, -1, -1), -1);
+
+        assertContents(expected, map);
+        assertContents(original, snapshot);
+
+        snapshot.clear();
+        snapshot.put(5, 5, 5, 5);
+        assertContents(expected, map);
+        assertEquals(1, snapshot.size());
+    }
+
+    @Test
+    void snapshotsSurviveRandomOperations() {
+        PersistentVec3I2ObjectMap<Integer> map = new PersistentVec3I2ObjectMap<>(BOUNDS);
+        Map<Vec3I, Integer> expected = new HashMap<>();
+        List<PersistentVec3I2ObjectMap<Integer>> snapshots = new ArrayList<>();
+        List<Map<Vec3I, Integer>> expectedSnapshots = new ArrayList<>();
+
+        Random random = new Random(150);
+        for (int i = 0; i < 20000; i++) {
+            int x = random.nextInt(32) - 16;
+            int y = random.nextInt(32) - 16;
+            int z = random.nextInt(4);
+
+            if (random.nextInt(3) == 0) {
+                map.remove(x, y, z);
+                expected.remove(Vec3I.immutable(x, y, z));
+            }
+            else {
+                map.put(x, y, z, i);
+                expected.put(Vec3I.immutable(x, y, z), i);
+            }
+
+            if (i % 1000 == 0) {
+                snapshots.add(map.snapshot());
+                expectedSnapshots.add(new HashMap<>(expected));
+            }
+        }
+
+        assertContents(expected, map);
+        for (int i = 0; i < snapshots.size(); i++) {
+            assertContents(expectedSnapshots.get(i), snapshots.get(i));
+        }
+    }
+
+    @Test
+    void snapshotsOfSnapshots() {
+        PersistentVec3I2ObjectMap<Integer> map = new PersistentVec3I2ObjectMap<>(BOUNDS);
+        map.put(0, 0, 0, 0);
+
+        PersistentVec3I2ObjectMap<Integer> first = map.snapshot();
+        map.put(0, 0, 0, 1);
+        PersistentVec3I2ObjectMap<Integer> second = first.snapshot();
+        first.put(0, 0, 0, 2);
+
+        assertEquals(1, map.get(0, 0, 0));
+        assertEquals(2, first.get(0, 0, 0));
+        assertEquals(0, second.get(0, 0, 0));
+    }
+
+    @Test
+    void iteratorSeesStateAtCreation() {
+        PersistentVec3I2ObjectMap<Integer> map = new PersistentVec3I2ObjectMap<>(BOUNDS);
+        for (int i = 0; i < 100; i++) {
+            map.put(i, 0, 0, i);
+        }
+
+        int count = 0;
+        Iterator<Map.Entry<Vec3I, Integer>> iterator = map.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Vec3I, Integer> entry = iterator.next();
+            map.put(entry.getKey().x(), 1, 0, entry.getValue());
+            if (entry.getValue() % 2 == 0) {
+                iterator.remove();
+            }
+
+            count++;
+        }
+
+        assertEquals(100, count);
+        assertEquals(150, map.size());
+        assertNull(map.get(0, 0, 0));
+        assertEquals(1, map.get(1, 0, 0));
+        assertEquals(0, map.get(0, 1, 0));
+    }
+
+    @Test
+    void cursorSetValue() {
+        PersistentVec3I2ObjectMap<Integer> map = new PersistentVec3I2ObjectMap<>(BOUNDS);
+        map.put(1, 2, 3, 0);
+        PersistentVec3I2ObjectMap<Integer> snapshot = map.snapshot();
+
+        Vec3IObjectCursor<Integer> cursor = map.cursor();
+        assertTrue(cursor.next());
+        cursor.setValue(10);
+
+        assertEquals(10, map.get(1, 2, 3));
+        assertEquals(0, snapshot.get(1, 2, 3));
+    }
+
+    @Test
+    void rejectsNullValues() {
+        PersistentVec3I2ObjectMap<Integer> map = new PersistentVec3I2ObjectMap<>(BOUNDS);
+        assertThrows(NullPointerException.class, () -> map.put(0, 0, 0, null));
+    }
+}
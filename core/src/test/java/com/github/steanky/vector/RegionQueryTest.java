@@ -0,0 +1,120 @@
+package com.github.steanky.vector;
+
+import org.junit.jupiter.api.Named;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegionQueryTest {
+    private static final Bounds3I SPACE = Bounds3I.immutable(-16, -16, -16, 32, 32, 32);
+
+    //small boxes are probed, large ones are scanned; some extend beyond the addressable space
+    private static final List<Bounds3I> BOXES = List.of(
+            Bounds3I.immutable(0, 0, 0, 2, 3, 4),
+            Bounds3I.immutable(-20, -3, 10, 8, 6, 10),
+            Bounds3I.immutable(-8, -8, -8, 16, 16, 16),
+            Bounds3I.immutable(-100, -100, -100, 200, 200, 200),
+            Bounds3I.immutable(5, 5, 5, 0, 1, 1));
+
+    private static Stream<Named<Vec3I2ObjectMap<Integer>>> maps() {
+        return Stream.concat(TestMaps.objectMaps(SPACE),
+                Stream.of(TestMaps.named(new StripedVec3I2ObjectMap<>(SPACE))));
+    }
+
+    private static Map<Vec3I, Integer> fill(Vec3I2ObjectMap<Integer> map) {
+        Random random = new Random(42);
+        Map<Vec3I, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 2000; i++) {
+            int x = random.nextInt(32) - 16;
+            int y = random.nextInt(32) - 16;
+            int z = random.nextInt(32) - 16;
+            map.put(x, y, z, i);
+            expected.put(Vec3I.immutable(x, y, z), i);
+        }
+
+        return expected;
+    }
+
+    private static Map<Vec3I, Integer> within(Map<Vec3I, Integer> map, Bounds3I box) {
+        Map<Vec3I, Integer> result = new HashMap<>();
+        map.forEach((key, value) -> {
+            if (box.contains(key)) {
+                result.put(key, value);
+            }
+        });
+
+        return result;
+    }
+
+    @ParameterizedTest
+    @MethodSource("maps")
+    void forEachInAndCountIn(Vec3I2ObjectMap<Integer> map) {
+        Map<Vec3I, Integer> expected = fill(map);
+
+        for (int i = 0; i < BOXES.size(); i++) {
+            Bounds3I box = BOXES.get(i);
+            Map<Vec3I, Integer> visited = new HashMap<>();
+            map.forEachIn(box, (x, y, z, value) -> assertNull(visited.put(Vec3I.immutable(x, y, z), value)));
+
+            Map<Vec3I, Integer> expectedWithin = within(expected, box);
+            assertEquals(expectedWithin, visited, "box " + i);
+            assertEquals(expectedWithin.size(), map.countIn(box), "box " + i);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("maps")
+    void removeIfAndClear(Vec3I2ObjectMap<Integer> map) {
+        for (int i = 0; i < BOXES.size(); i++) {
+            Bounds3I box = BOXES.get(i);
+            map.clear();
+            Map<Vec3I, Integer> expected = fill(map);
+
+            boolean shouldRemove = within(expected, box).values().stream().anyMatch(value -> value % 2 == 0);
+            assertEquals(shouldRemove, map.removeIf(box, (x, y, z, value) -> value % 2 == 0));
+            expected.entrySet().removeIf(entry -> box.contains(entry.getKey()) && entry.getValue() % 2 == 0);
+            assertEquals(expected, map, "box " + i);
+
+            map.clear(box);
+            expected.keySet().removeIf(box::contains);
+            assertEquals(expected, map, "box " + i);
+            assertEquals(0, map.countIn(box));
+        }
+    }
+
+    @Test
+    void hugeBoxesDoNotOverflow() {
+        //a volume of 2^66 must not wrap around to 0
+        Vec3I2ObjectMap<Integer> unbounded = new UnboundedHashVec3I2ObjectMap<>();
+        unbounded.put(0, 0, 0, 0);
+        unbounded.put((1 << 21) - 1, -(1 << 21), 5, 1);
+        unbounded.put(1 << 23, 0, 0, 2);
+
+        Bounds3I huge = Bounds3I.immutable(-(1 << 21), -(1 << 21), -(1 << 21), 1 << 22, 1 << 22, 1 << 22);
+        assertEquals(2, unbounded.countIn(huge));
+        unbounded.clear(huge);
+        assertEquals(1, unbounded.size());
+        assertEquals(2, unbounded.get(1 << 23, 0, 0));
+
+        //a volume of 2^63 must not wrap around to a negative number
+        int side = 1 << 21;
+        Vec3I2ObjectMap<Integer> bounded = new HashVec3I2ObjectMap<>(0, 0, 0, side, side, side);
+        bounded.put(1, 2, 3, 0);
+        bounded.put(side - 1, side - 1, side - 1, 1);
+
+        Bounds3I space = Bounds3I.immutable(0, 0, 0, side, side, side);
+        assertEquals(2, bounded.countIn(space));
+
+        Map<Vec3I, Integer> visited = new HashMap<>();
+        bounded.forEachIn(space, (x, y, z, value) -> visited.put(Vec3I.immutable(x, y, z), value));
+        assertEquals(Map.of(Vec3I.immutable(1, 2, 3), 0, Vec3I.immutable(side - 1, side - 1, side - 1), 1), visited);
+    }
+}
@@ -0,0 +1,124 @@
+package com.github.steanky.vector;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlidingWindowVec3I2ObjectMapTest {
+    @Test
+    void recenterEvictsOnlyCellsLeavingTheWindow() {
+        Map<Vec3I, Integer> reference = new HashMap<>();
+        SlidingWindowVec3I2ObjectMap<Integer> map = new SlidingWindowVec3I2ObjectMap<>(-6, -5, -4, 12, 10, 9);
+        Random random = new Random(24);
+        int centerX = 0;
+        int centerY = 0;
+        int centerZ = 0;
+
+        for (int i = 0; i < 2000; i++) {
+            Bounds3I window = map.window();
+            for (int j = 0; j < 50; j++) {
+                int x = window.originX() + random.nextInt(12);
+                int y = window.originY() + random.nextInt(10);
+                int z = window.originZ() + random.nextInt(9);
+                assertEquals(reference.put(Vec3I.immutable(x, y, z), j), map.put(x, y, z, j));
+            }
+
+            //mostly small steps, with an occasional jump past the whole window
+            int step = random.nextInt(20) == 0 ? 40 : 3;
+            centerX += random.nextInt(2 * step + 1) - step;
+            centerY += random.nextInt(2 * step + 1) - step;
+            centerZ += random.nextInt(2 * step + 1) - step;
+
+            Map<Vec3I, Integer> evicted = new HashMap<>();
+            map.recenter(centerX, centerY, centerZ,
+                    (x, y, z, value) -> assertNull(evicted.put(Vec3I.immutable(x, y, z), value)));
+
+            Bounds3I moved = map.window();
+            assertEquals(Bounds3I.immutable(centerX - 6, centerY - 5, centerZ - 4, 12, 10, 9), moved);
+
+            Map<Vec3I, Integer> expectedEvicted = new HashMap<>();
+            reference.entrySet().removeIf(entry -> {
+                Vec3I key = entry.getKey();
+                if (moved.contains(key.x(), key.y(), key.z())) {
+                    return false;
+                }
+
+                expectedEvicted.put(key, entry.getValue());
+                return true;
+            });
+
+            assertEquals(expectedEvicted, evicted);
+            assertEquals(reference.size(), map.size());
+        }
+
+        assertEquals(reference, new HashMap<>(map));
+
+        Map<Vec3I, Integer> visited = new HashMap<>();
+        map.forEach((x, y, z, value) -> assertNull(visited.put(Vec3I.immutable(x, y, z), value)));
+        assertEquals(reference, visited);
+
+        Iterator<Map.Entry<Vec3I, Integer>> iterator = map.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Vec3I, Integer> entry = iterator.next();
+            if (entry.getValue() % 2 == 0) {
+                iterator.remove();
+                reference.remove(entry.getKey());
+            }
+        }
+
+        assertEquals(reference, new HashMap<>(map));
+    }
+
+    @Test
+    void coordinatesOutsideWindowAreAbsent() {
+        SlidingWindowVec3I2ObjectMap<String> map = new SlidingWindowVec3I2ObjectMap<>(0, 0, 0, 4, 4, 4);
+        map.put(3, 3, 3, "corner");
+
+        //same slot as (3, 3, 3), but outside the window
+        assertNull(map.get(7, 3, 3));
+        assertNull(map.remove(-1, 3, 3));
+        assertFalse(map.containsKey(3, 3, -1));
+        assertThrows(IllegalArgumentException.class, () -> map.put(4, 0, 0, "outside"));
+
+        map.recenter(5, 5, 5);
+        assertEquals("corner", map.get(3, 3, 3));
+        assertNull(map.get(7, 7, 7));
+
+        map.put(6, 6, 6, "moved");
+        map.recenter(100, 100, 100);
+        assertTrue(map.isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> new SlidingWindowVec3I2ObjectMap<>(0, 0, 0, 0, 4, 4));
+    }
+
+    @Test
+    void recenterAcrossIntegerBoundary() {
+        Map<Vec3I, Integer> reference = new HashMap<>();
+        SlidingWindowVec3I2ObjectMap<Integer> map = new SlidingWindowVec3I2ObjectMap<>(Integer.MAX_VALUE - 5,
+                Integer.MIN_VALUE - 3, 0, 12, 8, 4);
+        Random random = new Random(2400);
+        int centerX = Integer.MAX_VALUE;
+        int centerY = Integer.MIN_VALUE + 1;
+
+        for (int i = 0; i < 500; i++) {
+            Bounds3I window = map.window();
+            for (int j = 0; j < 20; j++) {
+                int x = window.originX() + random.nextInt(12);
+                int y = window.originY() + random.nextInt(8);
+                int z = window.originZ() + random.nextInt(4);
+                reference.put(Vec3I.immutable(x, y, z), j);
+                map.put(x, y, z, j);
+            }
+
+            //small steps keep the window straddling the boundary between MAX_VALUE and MIN_VALUE
+            centerX += random.nextInt(7) - 3;
+            centerY += random.nextInt(5) - 2;
+            map.recenter(centerX, centerY, 2);
+
+            reference.keySet().removeIf(key -> !map.inWindow(key.x(), key.y(), key.z()));
+            assertEquals(reference.size(), map.size());
+            assertEquals(reference, new HashMap<>(map));
+        }
+    }
+}
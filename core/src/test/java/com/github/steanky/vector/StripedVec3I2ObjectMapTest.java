@@ -0,0 +1,79 @@
+package com.github.steanky.vector;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedVec3I2ObjectMapTest {
+    @Test
+    void basicOperations() {
+        Vec3I2ObjectMap<String> map = new StripedVec3I2ObjectMap<>(-8, -8, -8, 16, 16, 16, 16, 4);
+        assertNull(map.put(1, 2, 3, "a"));
+        assertEquals("a", map.put(1, 2, 3, "b"));
+        assertEquals("b", map.putIfAbsent(1, 2, 3, "c"));
+        assertTrue(map.containsKey(1, 2, 3));
+        assertEquals(1, map.size());
+
+        assertNull(map.compute(1, 2, 3, (x, y, z, old) -> null));
+        assertTrue(map.isEmpty());
+
+        assertEquals("x", map.computeIfAbsent(0, 0, 0, (x, y, z) -> "x"));
+        assertEquals("xy", map.merge(0, 0, 0, "y", String::concat));
+        assertNull(map.computeIfPresent(0, 0, 0, (x, y, z, old) -> null));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    void iteration() {
+        Vec3I2ObjectMap<Integer> map = new StripedVec3I2ObjectMap<>(Bounds3I.immutable(0, 0, 0, 16, 16, 16));
+        Map<Vec3I, Integer> expected = new HashMap<>();
+        Bounds3I.immutable(0, 0, 0, 16, 16, 16).forEach((x, y, z) -> {
+            map.put(x, y, z, x + y + z);
+            expected.put(Vec3I.immutable(x, y, z), x + y + z);
+        });
+
+        assertEquals(expected, map);
+
+        Map<Vec3I, Integer> visited = new HashMap<>();
+        map.forEach((x, y, z, value) -> visited.put(Vec3I.immutable(x, y, z), value));
+        assertEquals(expected, visited);
+
+        map.entrySet().removeIf(entry -> entry.getValue() > 10);
+        expected.values().removeIf(value -> value > 10);
+        assertEquals(expected, map);
+    }
+
+    @Test
+    void atomicMerge() throws InterruptedException {
+        Vec3I2ObjectMap<Integer> map = new StripedVec3I2ObjectMap<>(0, 0, 0, 4, 4, 4, 16, 8);
+        int threadCount = 8;
+        int iterations = 10000;
+
+        List<Thread> threads = new ArrayList<>(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < iterations; j++) {
+                    map.merge(j & 3, 0, 0, 1, Integer::sum);
+                    map.compute(0, j & 3, 1, (x, y, z, old) -> old == null ? 1 : old + 1);
+                }
+            });
+
+            threads.add(thread);
+            thread.start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(threadCount * iterations / 4, map.get(i, 0, 0));
+            assertEquals(threadCount * iterations / 4, map.get(0, i, 1));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.github.steanky.vector;
+
+import org.junit.jupiter.api.Named;
+
+import java.util.stream.Stream;
+
+/**
+ * Shared fixtures for tests which run against every implementation of an interface. Each factory is meant to be used
+ * with {@code @MethodSource}, and returns new, empty instances named after their class.
+ */
+final class TestMaps {
+    /**
+     * The bounds of the maps returned by the primitive map factories.
+     */
+    static final Bounds3I SMALL = Bounds3I.immutable(-4, -4, -4, 8, 8, 8);
+
+    private TestMaps() {
+        throw new UnsupportedOperationException();
+    }
+
+    static <T> Named<T> named(T value) {
+        return Named.of(value.getClass().getSimpleName(), value);
+    }
+
+    static Stream<Named<Vec3I2IntMap>> intMaps() {
+        return Stream.of(new HashVec3I2IntMap(SMALL), new ConcurrentHashVec3I2IntMap(SMALL),
+                new ArrayVec3I2IntMap(SMALL), new OffHeapVec3I2IntMap(SMALL)).map(TestMaps::named);
+    }
+
+    static Stream<Named<Vec3I2LongMap>> longMaps() {
+        return Stream.of(new HashVec3I2LongMap(SMALL), new ConcurrentHashVec3I2LongMap(SMALL),
+                new ArrayVec3I2LongMap(SMALL), new OffHeapVec3I2LongMap(SMALL)).map(TestMaps::named);
+    }
+
+    static Stream<Named<Vec3I2FloatMap>> floatMaps() {
+        return Stream.of(new HashVec3I2FloatMap(SMALL), new ConcurrentHashVec3I2FloatMap(SMALL),
+                new ArrayVec3I2FloatMap(SMALL), new OffHeapVec3I2FloatMap(SMALL)).map(TestMaps::named);
+    }
+
+    static Stream<Named<Vec3I2ByteMap>> byteMaps() {
+        return Stream.of(new HashVec3I2ByteMap(SMALL), new ConcurrentHashVec3I2ByteMap(SMALL),
+                new ArrayVec3I2ByteMap(SMALL), new OffHeapVec3I2ByteMap(SMALL)).map(TestMaps::named);
+    }
+
+    static Stream<Named<Vec3I2DoubleMap>> doubleMaps() {
+        return Stream.of(new HashVec3I2DoubleMap(SMALL), new ConcurrentHashVec3I2DoubleMap(SMALL),
+                new ArrayVec3I2DoubleMap(SMALL), new OffHeapVec3I2DoubleMap(SMALL)).map(TestMaps::named);
+    }
+
+    static Stream<Named<Vec3ISet>> sets() {
+        return Stream.of(new HashVec3ISet(SMALL), new ConcurrentHashVec3ISet(SMALL), new BoundedVec3ISet(SMALL))
+                .map(TestMaps::named);
+    }
+
+    /**
+     * Creates one of each general-purpose object map. The bounded maps cover exactly {@code bounds}; the unbounded map
+     * starts out small, so that filling it exercises rehashing.
+     */
+    static <V> Stream<Named<Vec3I2ObjectMap<V>>> objectMaps(Bounds3I bounds) {
+        return Stream.<Vec3I2ObjectMap<V>>of(new HashVec3I2ObjectMap<>(bounds),
+                new ConcurrentHashVec3I2ObjectMap<>(bounds), new ArrayVec3I2ObjectMap<>(bounds),
+                new PalettedVec3I2ObjectMap<>(bounds), new UnboundedHashVec3I2ObjectMap<>(4)).map(TestMaps::named);
+    }
+}
@@ -0,0 +1,146 @@
+package com.github.steanky.vector;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TreeVec3I2ObjectMapTest {
+    private static final Bounds3I BOUNDS = Bounds3I.immutable(-16, -16, -16, 32, 32, 32);
+
+    private static Vec3I randomVec(Random random) {
+        return Vec3I.immutable(random.nextInt(32) - 16, random.nextInt(32) - 16, random.nextInt(32) - 16);
+    }
+
+    private static <T> List<Vec3I> keys(TreeVec3I2ObjectMap<T> map) {
+        List<Vec3I> keys = new ArrayList<>();
+        map.forEach((x, y, z, value) -> keys.add(Vec3I.immutable(x, y, z)));
+        return keys;
+    }
+
+    @Test
+    void matchesNavigableMapUnderRandomOperations() {
+        TreeMap<Vec3I, Integer> reference = new TreeMap<>();
+        TreeVec3I2ObjectMap<Integer> map = new TreeVec3I2ObjectMap<>(BOUNDS);
+
+        Random random = new Random(21);
+        for (int i = 0; i < 100000; i++) {
+            Vec3I key = randomVec(random);
+            if (random.nextInt(5) < 3) {
+                assertEquals(reference.put(key, i), map.put(key.x(), key.y(), key.z(), i));
+            }
+            else {
+                assertEquals(reference.remove(key), map.remove(key.x(), key.y(), key.z()));
+            }
+
+            if (i % 97 == 0) {
+                Vec3I probe = randomVec(random);
+                assertEquals(reference.ceilingEntry(probe), map.ceilingEntry(probe.x(), probe.y(), probe.z()));
+                assertEquals(reference.floorEntry(probe), map.floorEntry(probe.x(), probe.y(), probe.z()));
+                assertEquals(reference.higherEntry(probe), map.higherEntry(probe.x(), probe.y(), probe.z()));
+                assertEquals(reference.lowerEntry(probe), map.lowerEntry(probe.x(), probe.y(), probe.z()));
+                assertEquals(reference.ceilingKey(probe), map.ceilingKey(probe.x(), probe.y(), probe.z()));
+                assertEquals(reference.floorKey(probe), map.floorKey(probe.x(), probe.y(), probe.z()));
+            }
+        }
+
+        assertEquals(reference.size(), map.size());
+        assertEquals(new ArrayList<>(reference.keySet()), keys(map));
+        assertEquals(reference.firstEntry(), map.firstEntry());
+        assertEquals(reference.lastEntry(), map.lastEntry());
+
+        List<Vec3I> iterated = new ArrayList<>();
+        for (Map.Entry<Vec3I, Integer> entry : map.entrySet()) {
+            iterated.add(entry.getKey());
+        }
+
+        assertEquals(new ArrayList<>(reference.keySet()), iterated);
+
+        Iterator<Map.Entry<Vec3I, Integer>> iterator = map.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getValue() % 3 == 0) {
+                iterator.remove();
+            }
+        }
+
+        reference.values().removeIf(value -> value % 3 == 0);
+        assertEquals(reference, new HashMap<>(map));
+        assertEquals(new ArrayList<>(reference.keySet()), keys(map));
+    }
+
+    @Test
+    void rangeViewsWriteThrough() {
+        TreeMap<Vec3I, Integer> reference = new TreeMap<>();
+        TreeVec3I2ObjectMap<Integer> map = new TreeVec3I2ObjectMap<>(BOUNDS);
+        Random random = new Random(210);
+        for (int i = 0; i < 5000; i++) {
+            Vec3I key = randomVec(random);
+            reference.put(key, i);
+            map.put(key.x(), key.y(), key.z(), i);
+        }
+
+        Vec3I from = Vec3I.immutable(-3, 5, 0);
+        Vec3I to = Vec3I.immutable(4, -2, 7);
+        TreeVec3I2ObjectMap<Integer> sub = map.subMap(-3, 5, 0, 4, -2, 7);
+        SortedMap<Vec3I, Integer> referenceSub = reference.subMap(from, to);
+        assertEquals(referenceSub.size(), sub.size());
+        assertEquals(new ArrayList<>(referenceSub.keySet()), keys(sub));
+        assertEquals(reference.headMap(to).size(), map.headMap(4, -2, 7).size());
+        assertEquals(reference.tailMap(from).size(), map.tailMap(-3, 5, 0).size());
+        assertEquals(referenceSub.get(referenceSub.firstKey()), sub.firstEntry().getValue());
+        assertEquals(referenceSub.lastKey(), sub.lastEntry().getKey());
+        assertNull(sub.get(-10, 0, 0));
+        assertNull(sub.ceilingEntry(5, 0, 0));
+
+        sub.put(0, 0, 0, -1);
+        assertEquals(-1, map.get(0, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> sub.put(10, 0, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> map.subMap(1, 0, 0, 0, 0, 0));
+
+        sub.clear();
+        referenceSub.clear();
+        assertTrue(sub.isEmpty());
+        assertEquals(reference.size(), map.size());
+        assertEquals(new ArrayList<>(reference.keySet()), keys(map));
+    }
+
+    @Test
+    void boxQueriesMatchFilter() {
+        for (KeyLayout layout : KeyLayout.values()) {
+            Map<Vec3I, Integer> reference = new HashMap<>();
+            TreeVec3I2ObjectMap<Integer> map = new TreeVec3I2ObjectMap<>(BOUNDS, layout);
+            Random random = new Random(2100);
+            for (int i = 0; i < 8000; i++) {
+                Vec3I key = randomVec(random);
+                reference.put(key, i);
+                map.put(key.x(), key.y(), key.z(), i);
+            }
+
+            for (int i = 0; i < 200; i++) {
+                Bounds3I box = Bounds3I.immutable(random.nextInt(40) - 20, random.nextInt(40) - 20,
+                        random.nextInt(40) - 20, random.nextInt(12), random.nextInt(12), random.nextInt(12));
+
+                Map<Vec3I, Integer> expected = new HashMap<>();
+                reference.forEach((key, value) -> {
+                    if (box.contains(key.x(), key.y(), key.z())) {
+                        expected.put(key, value);
+                    }
+                });
+
+                Map<Vec3I, Integer> actual = new HashMap<>();
+                map.forEachIn(box, (x, y, z, value) -> assertNull(actual.put(Vec3I.immutable(x, y, z), value)));
+                assertEquals(expected, actual, layout.toString());
+                assertEquals(expected.size(), map.countIn(box));
+
+                if (i % 10 == 0) {
+                    assertEquals(!expected.isEmpty(), map.removeIf(box, (x, y, z, value) -> true));
+                    reference.keySet().removeAll(expected.keySet());
+                    assertEquals(reference.size(), map.size());
+                }
+            }
+
+            assertEquals(reference, new HashMap<>(map));
+        }
+    }
+}
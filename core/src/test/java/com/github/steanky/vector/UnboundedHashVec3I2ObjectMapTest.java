@@ -0,0 +1,86 @@
+package com.github.steanky.vector;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UnboundedHashVec3I2ObjectMapTest {
+    @Test
+    void extremeCoordinatesDoNotAlias() {
+        Vec3I2ObjectMap<String> map = new UnboundedHashVec3I2ObjectMap<>();
+        map.put(Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE, "min");
+        map.put(Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, "max");
+        map.put(0, 0, 0, "zero");
+        map.put(0, 0, 1 << 20, "far");
+
+        assertEquals(4, map.size());
+        assertEquals("min", map.get(Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE));
+        assertEquals("max", map.get(Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE));
+        assertEquals("zero", map.get(0, 0, 0));
+        assertEquals("far", map.get(0, 0, 1 << 20));
+        assertNull(map.get(0, 0, 2 << 20));
+    }
+
+    @Test
+    void matchesHashMap() {
+        Vec3I2ObjectMap<Integer> map = new UnboundedHashVec3I2ObjectMap<>(4);
+        Map<Vec3I, Integer> expected = new HashMap<>();
+        Random random = new Random(0);
+
+        for (int i = 0; i < 20000; i++) {
+            int x = random.nextInt(32) - 16;
+            int y = random.nextInt(32) - 16;
+            int z = random.nextInt(32) - 16;
+            Vec3I key = Vec3I.immutable(x, y, z);
+
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(x, y, z));
+            }
+            else {
+                assertEquals(expected.put(key, i), map.put(x, y, z, i));
+            }
+        }
+
+        assertEquals(expected, map);
+        expected.forEach((key, value) -> assertEquals(value, map.get(key.x(), key.y(), key.z())));
+    }
+
+    @Test
+    void iteratorRemove() {
+        UnboundedHashVec3I2ObjectMap<Integer> map = new UnboundedHashVec3I2ObjectMap<>(4);
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, -i, i * 7, i);
+        }
+
+        Iterator<Map.Entry<Vec3I, Integer>> iterator = map.entrySet().iterator();
+        int count = 0;
+        while (iterator.hasNext()) {
+            Map.Entry<Vec3I, Integer> entry = iterator.next();
+            if ((entry.getValue() & 1) == 0) {
+                iterator.remove();
+            }
+
+            count++;
+        }
+
+        assertEquals(1000, count);
+        assertEquals(500, map.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals((i & 1) == 1, map.containsKey(i, -i, i * 7));
+        }
+
+        map.trim();
+        assertEquals(500, map.size());
+    }
+
+    @Test
+    void oversizedCapacityIsRejected() {
+        //2^29 elements need 2^30 slots, whose keys would not fit in a single int array
+        assertThrows(IllegalArgumentException.class, () -> new UnboundedHashVec3I2ObjectMap<>(1 << 29));
+    }
+}
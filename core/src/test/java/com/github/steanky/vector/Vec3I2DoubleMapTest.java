@@ -0,0 +1,62 @@
+package com.github.steanky.vector;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Vec3I2DoubleMapTest {
+    @ParameterizedTest
+    @MethodSource("com.github.steanky.vector.TestMaps#doubleMaps")
+    void putAndGet(Vec3I2DoubleMap map) {
+        assertEquals(0, map.put(1, 2, 3, 10.5));
+        assertEquals(10.5, map.get(1, 2, 3));
+        assertEquals(10.5, map.put(1, 2, 3, 11));
+        assertTrue(map.containsKey(1, 2, 3));
+        assertEquals(1, map.size());
+
+        assertEquals(11, map.remove(1, 2, 3));
+        assertFalse(map.containsKey(1, 2, 3));
+        assertTrue(map.isEmpty());
+    }
+
+    @ParameterizedTest
+    @MethodSource("com.github.steanky.vector.TestMaps#doubleMaps")
+    void defaultReturnValue(Vec3I2DoubleMap map) {
+        map.defaultReturnValue(Double.POSITIVE_INFINITY);
+        assertEquals(Double.POSITIVE_INFINITY, map.get(0, 0, 0));
+        assertEquals(Double.POSITIVE_INFINITY, map.addTo(0, 0, 0, 1));
+        assertEquals(Double.POSITIVE_INFINITY, map.get(0, 0, 0));
+        assertEquals(5, map.getOrDefault(1, 1, 1, 5));
+    }
+
+    @ParameterizedTest
+    @MethodSource("com.github.steanky.vector.TestMaps#doubleMaps")
+    void addTo(Vec3I2DoubleMap map) {
+        assertEquals(0, map.addTo(-4, -4, -4, 2));
+        assertEquals(2, map.addTo(-4, -4, -4, 3));
+        assertEquals(5, map.get(-4, -4, -4));
+    }
+
+    @ParameterizedTest
+    @MethodSource("com.github.steanky.vector.TestMaps#doubleMaps")
+    void computeIfAbsent(Vec3I2DoubleMap map) {
+        assertEquals(3, map.computeIfAbsent(1, 1, 1, (x, y, z) -> x + y + z));
+        assertEquals(3, map.computeIfAbsent(1, 1, 1, (x, y, z) -> 100));
+        assertEquals(1, map.size());
+    }
+
+    @ParameterizedTest
+    @MethodSource("com.github.steanky.vector.TestMaps#doubleMaps")
+    void forEach(Vec3I2DoubleMap map) {
+        map.put(-4, -4, -4, 1);
+        map.put(3, 3, 3, 2);
+
+        Map<Vec3I, Double> actual = new HashMap<>(2);
+        map.forEach((x, y, z, value) -> actual.put(Vec3I.immutable(x, y, z), value));
+        assertEquals(Map.of(Vec3I.immutable(-4, -4, -4), 1D, Vec3I.immutable(3, 3, 3), 2D), actual);
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.steanky.vector;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Vec3I2FloatMapTest {
+    @ParameterizedTest
+    @MethodSource("com.github.steanky.vector.TestMaps#floatMaps")
+    void putAndGet(Vec3I2FloatMap map) {
+        assertEquals(0, map.put(1, 2, 3, 10.5F));
+        assertEquals(10.5F, map.get(1, 2, 3));
+        assertEquals(10.5F, map.put(1, 2, 3, 11));
+        assertTrue(map.containsKey(1, 2, 3));
+        assertFalse(map.containsKey(3, 2, 1));
+        assertEquals(1, map.size());
+
+        assertEquals(11, map.remove(1, 2, 3));
+        assertFalse(map.containsKey(1, 2, 3));
+        assertEquals(0, map.remove(1, 2, 3));
+        assertTrue(map.isEmpty());
+    }
+
+    @ParameterizedTest
+    @MethodSource("com.github.steanky.vector.TestMaps#floatMaps")
+    void defaultReturnValue(Vec3I2FloatMap map) {
+        map.defaultReturnValue(Float.NaN);
+        assertEquals(Float.NaN, map.get(0, 0, 0));
+        assertEquals(Float.NaN, map.remove(0, 0, 0));
+        assertEquals(Float.NaN, map.addTo(0, 0, 0, 1));
+        assertEquals(Float.NaN, map.get(0, 0, 0));
+        assertEquals(5, map.getOrDefault(1, 1, 1, 5));
+    }
+
+    @ParameterizedTest
+    @MethodSource("com.github.steanky.vector.TestMaps#floatMaps")
+    void addTo(Vec3I2FloatMap map) {
+        assertEquals(0, map.addTo(-4, -4, -4, 0.25F));
+        assertEquals(0.25F, map.addTo(-4, -4, -4, 0.5F));
+        assertEquals(0.75F, map.get(-4, -4, -4));
+    }
+
+    @ParameterizedTest
+    @MethodSource("com.github.steanky.vector.TestMaps#floatMaps")
+    void computeIfAbsent(Vec3I2FloatMap map) {
+        assertEquals(3, map.computeIfAbsent(1, 1, 1, (x, y, z) -> x + y + z));
+        assertEquals(3, map.get(1, 1, 1));
+        assertEquals(3, map.computeIfAbsent(1, 1, 1, (x, y, z) -> 100));
+        assertEquals(1, map.size());
+    }
+
+    @ParameterizedTest
+    @MethodSource("com.github.steanky.vector.TestMaps#floatMaps")
+    void forEach(Vec3I2FloatMap map) {
+        map.put(-4, -4, -4, 1);
+        map.put(3, 3, 3, 2);
+
+        Map<Vec3I, Float> actual = new HashMap<>(2);
+        map.forEach((x, y, z, value) -> actual.put(Vec3I.immutable(x, y, z), value));
+        assertEquals(Map.of(Vec3I.immutable(-4, -4, -4), 1F, Vec3I.immutable(3, 3, 3), 2F), actual);
+    }
+}
@@ -0,0 +1,74 @@
+package com.github.steanky.vector;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Vec3I2IntMapTest {
+    @ParameterizedTest
+    @MethodSource("com.github.steanky.vector.TestMaps#intMaps")
+    void putAndGet(Vec3I2IntMap map) {
+        assertEquals(0, map.put(1, 2, 3, 10));
+        assertEquals(10, map.get(1, 2, 3));
+        assertEquals(10, map.put(1, 2, 3, 11));
+        assertTrue(map.containsKey(1, 2, 3));
+        assertFalse(map.containsKey(3, 2, 1));
+        assertEquals(1, map.size());
+
+        assertEquals(11, map.remove(1, 2, 3));
+        assertFalse(map.containsKey(1, 2, 3));
+        assertEquals(0, map.remove(1, 2, 3));
+        assertTrue(map.isEmpty());
+    }
+
+    @ParameterizedTest
+    @MethodSource("com.github.steanky.vector.TestMaps#intMaps")
+    void defaultReturnValue(Vec3I2IntMap map) {
+        map.defaultReturnValue(-1);
+        assertEquals(-1, map.get(0, 0, 0));
+        assertEquals(-1, map.remove(0, 0, 0));
+        assertEquals(-1, map.addTo(0, 0, 0, 3));
+        assertEquals(2, map.get(0, 0, 0));
+        assertEquals(5, map.getOrDefault(1, 1, 1, 5));
+    }
+
+    @ParameterizedTest
+    @MethodSource("com.github.steanky.vector.TestMaps#intMaps")
+    void addTo(Vec3I2IntMap map) {
+        assertEquals(0, map.addTo(-4, -4, -4, 2));
+        assertEquals(2, map.addTo(-4, -4, -4, 3));
+        assertEquals(5, map.get(-4, -4, -4));
+    }
+
+    @ParameterizedTest
+    @MethodSource("com.github.steanky.vector.TestMaps#intMaps")
+    void addToWraps(Vec3I2IntMap map) {
+        map.put(0, 0, 0, Integer.MAX_VALUE);
+        assertEquals(Integer.MAX_VALUE, map.addTo(0, 0, 0, 1));
+        assertEquals(Integer.MIN_VALUE, map.get(0, 0, 0));
+    }
+
+    @ParameterizedTest
+    @MethodSource("com.github.steanky.vector.TestMaps#intMaps")
+    void computeIfAbsent(Vec3I2IntMap map) {
+        assertEquals(3, map.computeIfAbsent(1, 1, 1, (x, y, z) -> x + y + z));
+        assertEquals(3, map.get(1, 1, 1));
+        assertEquals(3, map.computeIfAbsent(1, 1, 1, (x, y, z) -> 100));
+        assertEquals(1, map.size());
+    }
+
+    @ParameterizedTest
+    @MethodSource("com.github.steanky.vector.TestMaps#intMaps")
+    void forEach(Vec3I2IntMap map) {
+        map.put(-4, -4, -4, 1);
+        map.put(3, 3, 3, 2);
+
+        Map<Vec3I, Integer> actual = new HashMap<>(2);
+        map.forEach((x, y, z, value) -> actual.put(Vec3I.immutable(x, y, z), value));
+        assertEquals(Map.of(Vec3I.immutable(-4, -4, -4), 1, Vec3I.immutable(3, 3, 3), 2), actual);
+    }
+}
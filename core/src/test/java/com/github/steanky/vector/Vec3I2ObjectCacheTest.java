@@ -0,0 +1,128 @@
+package com.github.steanky.vector;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Vec3I2ObjectCacheTest {
+    private static final Bounds3I BOUNDS = Bounds3I.immutable(-512, -512, -512, 1024, 1024, 1024);
+
+    @Test
+    void matchesReferenceMinusEvictions() {
+        for (EvictionPolicy policy : EvictionPolicy.values()) {
+            Map<Vec3I, Integer> reference = new HashMap<>();
+            Vec3I2ObjectCache<Integer> cache = new Vec3I2ObjectCache<>(BOUNDS, 50, policy,
+                    (x, y, z, value) -> assertEquals(value, reference.remove(Vec3I.immutable(x, y, z))));
+            assertEquals(policy, cache.policy());
+            assertEquals(50, cache.capacity());
+
+            Random random = new Random(18);
+            for (int i = 0; i < 20000; i++) {
+                int x = random.nextInt(10);
+                int y = random.nextInt(10);
+                int z = random.nextInt(2);
+                Vec3I key = Vec3I.immutable(x, y, z);
+
+                switch (random.nextInt(4)) {
+                    case 0 -> assertEquals(reference.remove(key), cache.remove(x, y, z));
+                    case 1 -> assertEquals(reference.get(key), cache.get(x, y, z));
+                    default -> {
+                        //the listener removes evicted entries from the reference before put returns
+                        Integer expected = reference.get(key);
+                        assertEquals(expected, cache.put(x, y, z, i));
+                        reference.put(key, i);
+                    }
+                }
+
+                assertTrue(cache.size() <= 50);
+                assertEquals(reference.size(), cache.size());
+            }
+
+            Map<Vec3I, Integer> contents = new HashMap<>();
+            cache.forEach((x, y, z, value) -> contents.put(Vec3I.immutable(x, y, z), value));
+            assertEquals(reference, contents);
+            assertEquals(reference, new HashMap<>(cache));
+        }
+    }
+
+    @Test
+    void lruEvictsLeastRecentlyUsed() {
+        List<Integer> evicted = new ArrayList<>();
+        Vec3I2ObjectCache<Integer> cache = new Vec3I2ObjectCache<>(BOUNDS, 3, EvictionPolicy.LRU,
+                (x, y, z, value) -> evicted.add(value));
+        cache.put(0, 0, 0, 0);
+        cache.put(1, 0, 0, 1);
+        cache.put(2, 0, 0, 2);
+        cache.get(0, 0, 0);
+        cache.put(3, 0, 0, 3);
+        cache.put(2, 0, 0, 20);
+        cache.put(4, 0, 0, 4);
+
+        assertEquals(List.of(1, 0), evicted);
+        assertEquals(3, cache.size());
+        assertEquals(20, cache.get(2, 0, 0));
+    }
+
+    @Test
+    void clockGivesReferencedEntriesASecondChance() {
+        List<Integer> evicted = new ArrayList<>();
+        Vec3I2ObjectCache<Integer> cache = new Vec3I2ObjectCache<>(BOUNDS, 3, EvictionPolicy.CLOCK,
+                (x, y, z, value) -> evicted.add(value));
+        cache.put(0, 0, 0, 0);
+        cache.put(1, 0, 0, 1);
+        cache.put(2, 0, 0, 2);
+        cache.get(0, 0, 0);
+        cache.put(3, 0, 0, 3);
+
+        assertEquals(List.of(1), evicted);
+        assertTrue(cache.containsKey(0, 0, 0));
+    }
+
+    @Test
+    void tinyLfuKeepsHotEntriesThroughScan() {
+        Vec3I2ObjectCache<Integer> cache = new Vec3I2ObjectCache<>(BOUNDS, 100, EvictionPolicy.W_TINY_LFU);
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 50; i++) {
+                if (cache.get(i, 0, 0) == null) {
+                    cache.put(i, 0, 0, i);
+                }
+            }
+        }
+
+        for (int i = 0; i < 10000; i++) {
+            cache.put(i % 1000, 1 + i / 1000, 0, i);
+        }
+
+        int hot = 0;
+        for (int i = 0; i < 50; i++) {
+            if (cache.containsKey(i, 0, 0)) {
+                hot++;
+            }
+        }
+
+        assertTrue(hot >= 45, "only " + hot + " hot entries survived");
+        assertEquals(100, cache.size());
+    }
+
+    @Test
+    void explicitRemovalDoesNotNotify() {
+        List<Integer> evicted = new ArrayList<>();
+        Vec3I2ObjectCache<Integer> cache = new Vec3I2ObjectCache<>(BOUNDS, 2, EvictionPolicy.LRU,
+                (x, y, z, value) -> evicted.add(value));
+        cache.put(0, 0, 0, 0);
+        cache.put(0, 0, 0, 1);
+        cache.remove(0, 0, 0);
+        cache.put(1, 0, 0, 1);
+        cache.clear();
+
+        assertTrue(evicted.isEmpty());
+        assertTrue(cache.isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> new Vec3I2ObjectCache<>(BOUNDS, 0, EvictionPolicy.LRU));
+    }
+}
@@ -0,0 +1,97 @@
+package com.github.steanky.vector;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Vec3IBitSetTest {
+    @Test
+    void setAndGet() {
+        Vec3IBitSet set = new Vec3IBitSet(Bounds3I.immutable(-3, -3, -3, 5, 6, 7));
+        set.set(-3, -3, -3);
+        set.set(1, 2, 3);
+        set.set(1, 2, 3);
+
+        assertTrue(set.get(-3, -3, -3));
+        assertTrue(set.get(1, 2, 3));
+        assertFalse(set.get(0, 0, 0));
+        assertFalse(set.get(100, 100, 100));
+        assertEquals(2, set.cardinality());
+
+        set.clear(1, 2, 3);
+        set.clear(100, 100, 100);
+        assertFalse(set.get(1, 2, 3));
+        assertEquals(1, set.cardinality());
+
+        assertThrows(IllegalArgumentException.class, () -> set.set(2, 0, 0));
+    }
+
+    @Test
+    void iteration() {
+        Bounds3I bounds = Bounds3I.immutable(0, 0, 0, 5, 7, 3);
+        Vec3IBitSet set = new Vec3IBitSet(bounds);
+
+        Set<Vec3I> expected = new HashSet<>();
+        bounds.forEach((x, y, z) -> {
+            if (((x + y + z) % 3) == 0) {
+                set.set(x, y, z);
+                expected.add(Vec3I.immutable(x, y, z));
+            }
+        });
+
+        Set<Vec3I> actual = new HashSet<>();
+        set.forEach((x, y, z) -> actual.add(Vec3I.immutable(x, y, z)));
+        assertEquals(expected, actual);
+
+        Set<Vec3I> viaIndex = new HashSet<>();
+        for (long i = set.nextSetBit(0); i != -1; i = set.nextSetBit(i + 1)) {
+            viaIndex.add(Vec3I.immutable(set.x(i), set.y(i), set.z(i)));
+        }
+
+        assertEquals(expected, viaIndex);
+    }
+
+    @Test
+    void bulkOperations() {
+        Bounds3I bounds = Bounds3I.immutable(0, 0, 0, 8, 8, 8);
+        Vec3IBitSet first = new Vec3IBitSet(bounds);
+        Vec3IBitSet second = new Vec3IBitSet(bounds);
+
+        first.set(0, 0, 0);
+        first.set(1, 1, 1);
+        second.set(1, 1, 1);
+        second.set(7, 7, 7);
+
+        first.or(second);
+        assertEquals(3, first.cardinality());
+
+        first.andNot(second);
+        assertEquals(1, first.cardinality());
+        assertTrue(first.get(0, 0, 0));
+
+        first.set(7, 7, 7);
+        first.and(second);
+        assertEquals(1, first.cardinality());
+        assertTrue(first.get(7, 7, 7));
+
+        assertThrows(IllegalArgumentException.class, () -> first.or(new Vec3IBitSet(Bounds3I.immutable(0, 0, 0, 8,
+                8, 9))));
+    }
+
+    @Test
+    void oversizedBoundsAreRejected() {
+        //2^22 * 2^21 * 2^21 = 2^64 wraps around to a volume of 0
+        assertThrows(IllegalArgumentException.class, () -> new Vec3IBitSet(Bounds3I.immutable(0, 0, 0, 1 << 22,
+                1 << 21, 1 << 21)));
+        assertThrows(IllegalArgumentException.class, () -> new Vec3IBitSet(Bounds3I.immutable(0, 0, 0,
+                Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE)));
+        assertThrows(IllegalArgumentException.class, () -> new Vec3IBitSet(Bounds3I.immutable(0, 0, 0, 1 << 20,
+                1 << 20, 1 << 20)));
+
+        assertEquals(0, new Vec3IBitSet(Bounds3I.immutable(0, 0, 0, 0, Integer.MAX_VALUE, Integer.MAX_VALUE))
+                .cardinality());
+    }
+}
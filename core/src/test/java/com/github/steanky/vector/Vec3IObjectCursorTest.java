@@ -0,0 +1,104 @@
+package com.github.steanky.vector;
+
+import org.junit.jupiter.api.Named;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Vec3IObjectCursorTest {
+    private static final Bounds3I BOUNDS = Bounds3I.immutable(-16, -16, -16, 32, 32, 32);
+
+    private static Stream<Named<Vec3I2ObjectMap<Integer>>> maps() {
+        return TestMaps.objectMaps(BOUNDS);
+    }
+
+    private static void fill(Vec3I2ObjectMap<Integer> map) {
+        BOUNDS.forEach((x, y, z) -> {
+            if (((x ^ y ^ z) & 3) == 0) {
+                map.put(x, y, z, x + y + z);
+            }
+        });
+    }
+
+    @ParameterizedTest
+    @MethodSource("maps")
+    void visitsEveryEntry(Vec3I2ObjectMap<Integer> map) {
+        fill(map);
+
+        Set<Vec3I> visited = new HashSet<>();
+        Vec3IObjectCursor<Integer> cursor = map.cursor();
+        while (cursor.next()) {
+            assertEquals(cursor.x() + cursor.y() + cursor.z(), cursor.value());
+            assertTrue(visited.add(Vec3I.immutable(cursor.x(), cursor.y(), cursor.z())));
+        }
+
+        assertFalse(cursor.next());
+        assertEquals(map.keySet(), visited);
+    }
+
+    @ParameterizedTest
+    @MethodSource("maps")
+    void setValueAndRemove(Vec3I2ObjectMap<Integer> map) {
+        fill(map);
+        int initialSize = map.size();
+
+        int removed = 0;
+        Vec3IObjectCursor<Integer> cursor = map.cursor();
+        while (cursor.next()) {
+            if ((cursor.x() & 1) == 0) {
+                cursor.remove();
+                assertThrows(IllegalStateException.class, cursor::remove);
+                removed++;
+            }
+            else {
+                assertEquals(cursor.x() + cursor.y() + cursor.z(), cursor.setValue(-1));
+            }
+        }
+
+        assertEquals(initialSize - removed, map.size());
+        map.forEach((x, y, z, value) -> {
+            assertEquals(1, x & 1);
+            assertEquals(-1, value);
+        });
+    }
+
+    @ParameterizedTest
+    @MethodSource("maps")
+    void keyIteratorReusesTarget(Vec3I2ObjectMap<Integer> map) {
+        fill(map);
+
+        Vec3I target = Vec3I.mutable(0, 0, 0);
+        Set<Vec3I> keys = new HashSet<>();
+        Iterator<Vec3I> iterator = map.keyIterator(target);
+        while (iterator.hasNext()) {
+            Vec3I key = iterator.next();
+            assertSame(target, key);
+            keys.add(key.immutable());
+        }
+
+        assertEquals(map.keySet(), keys);
+    }
+
+    @ParameterizedTest
+    @MethodSource("maps")
+    void setValueRejectsNull(Vec3I2ObjectMap<Integer> map) {
+        fill(map);
+
+        Vec3IObjectCursor<Integer> cursor = map.cursor();
+        assertTrue(cursor.next());
+        Integer value = cursor.value();
+        assertThrows(NullPointerException.class, () -> cursor.setValue(null));
+        assertEquals(value, map.get(cursor.x(), cursor.y(), cursor.z()));
+
+        Map.Entry<Vec3I, Integer> entry = map.entrySet().iterator().next();
+        assertThrows(NullPointerException.class, () -> entry.setValue(null));
+        assertFalse(map.containsValue(null));
+    }
+}
@@ -0,0 +1,51 @@
+package com.github.steanky.vector;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Vec3ISetTest {
+    @ParameterizedTest
+    @MethodSource("com.github.steanky.vector.TestMaps#sets")
+    void addContainsRemove(Vec3ISet set) {
+        assertTrue(set.add(1, 2, 3));
+        assertFalse(set.add(1, 2, 3));
+        assertTrue(set.contains(1, 2, 3));
+        assertFalse(set.contains(3, 2, 1));
+        assertEquals(1, set.size());
+
+        assertTrue(set.remove(1, 2, 3));
+        assertFalse(set.remove(1, 2, 3));
+        assertTrue(set.isEmpty());
+    }
+
+    @ParameterizedTest
+    @MethodSource("com.github.steanky.vector.TestMaps#sets")
+    void iterate(Vec3ISet set) {
+        set.add(-4, -4, -4);
+        set.add(3, 3, 3);
+
+        Set<Vec3I> actual = new HashSet<>(2);
+        set.forEach((x, y, z) -> actual.add(Vec3I.immutable(x, y, z)));
+        assertEquals(Set.of(Vec3I.immutable(-4, -4, -4), Vec3I.immutable(3, 3, 3)), actual);
+    }
+
+    @Test
+    void boundedDoesNotWrap() {
+        Vec3ISet hash = new HashVec3ISet(0, 0, 0, 2, 2, 2);
+        hash.add(0, 0, 0);
+        assertTrue(hash.contains(2, 2, 2));
+
+        Vec3ISet bounded = new BoundedVec3ISet(Bounds3I.immutable(0, 0, 0, 2, 2, 2));
+        bounded.add(0, 0, 0);
+        assertFalse(bounded.contains(2, 2, 2));
+        assertFalse(bounded.remove(2, 2, 2));
+        assertThrows(IllegalArgumentException.class, () -> bounded.add(2, 2, 2));
+        assertEquals(1, bounded.size());
+    }
+}
\ No newline at end of file